@@ -0,0 +1,113 @@
+/*
+ * Copyright 2014 - Present Rafael Winterhalter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.bytebuddy.benchmark;
+
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.utility.nullability.MaybeNull;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * A benchmark for measuring the cost of acquiring and releasing an {@link AgentBuilder.CircularityLock} as it is done by
+ * a class file transformer for every class that is loaded. The same lock is shared by all benchmark threads such that
+ * the benchmark should be run with a varying number of threads, for example by {@code -t 1} up to {@code -t 64} or
+ * by using {@link net.bytebuddy.benchmark.runner.CircularityLockRunner}.
+ * </p>
+ * <p>
+ * Note that this class defines all values that are accessed by benchmark methods as instance fields. This way, the JIT
+ * compiler's capability of constant folding is limited in order to produce more comparable test results.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CircularityLockBenchmark {
+
+    /**
+     * A circularity lock that stores locked threads in a concurrent map.
+     */
+    @MaybeNull
+    private AgentBuilder.CircularityLock byDefault;
+
+    /**
+     * A circularity lock that holds a global lock.
+     */
+    @MaybeNull
+    private AgentBuilder.CircularityLock byGlobal;
+
+    /**
+     * A circularity lock that stores a flag in a thread local.
+     */
+    @MaybeNull
+    private AgentBuilder.CircularityLock byThreadLocal;
+
+    /**
+     * Sets up this benchmark.
+     */
+    @Setup
+    public void setup() {
+        byDefault = new AgentBuilder.CircularityLock.Default();
+        byGlobal = new AgentBuilder.CircularityLock.Global();
+        byThreadLocal = new AgentBuilder.CircularityLock.ForThreadLocal();
+    }
+
+    /**
+     * Acquires and releases a circularity lock if it could be acquired.
+     *
+     * @param circularityLock The circularity lock to apply.
+     * @return {@code true} if the lock was acquired.
+     */
+    private static boolean apply(AgentBuilder.CircularityLock circularityLock) {
+        if (circularityLock.acquire()) {
+            circularityLock.release();
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Acquires and releases the default circularity lock.
+     *
+     * @return {@code true} if the lock was acquired.
+     */
+    @Benchmark
+    public boolean benchmarkDefault() {
+        return apply(byDefault);
+    }
+
+    /**
+     * Acquires and releases the global circularity lock.
+     *
+     * @return {@code true} if the lock was acquired.
+     */
+    @Benchmark
+    public boolean benchmarkGlobal() {
+        return apply(byGlobal);
+    }
+
+    /**
+     * Acquires and releases the thread-local circularity lock.
+     *
+     * @return {@code true} if the lock was acquired.
+     */
+    @Benchmark
+    public boolean benchmarkThreadLocal() {
+        return apply(byThreadLocal);
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2014 - Present Rafael Winterhalter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.bytebuddy.benchmark;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.utility.nullability.MaybeNull;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.instrument.ClassFileTransformer;
+import java.lang.instrument.IllegalClassFormatException;
+import java.lang.instrument.Instrumentation;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+import static net.bytebuddy.matcher.ElementMatchers.none;
+
+/**
+ * <p>
+ * A benchmark for measuring the throughput of an {@link AgentBuilder}'s resubmission registry when many threads register
+ * types for an immediate resubmission concurrently, while a single thread resubmits the registered types. All types are
+ * rejected by their name such that neither the registration nor the resubmission locates a class file, parses a type or
+ * raises an exception. The baseline applies the same class file transformer without a resubmission strategy such that
+ * the difference between both results is the cost of the registry.
+ * </p>
+ * <p>
+ * Note that this class defines all values that are accessed by benchmark methods as instance fields. This way, the JIT
+ * compiler's capability of constant folding is limited in order to produce more comparable test results.
+ * </p>
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ResubmissionRegistryBenchmark {
+
+    /**
+     * The loaded types that are registered for resubmission.
+     */
+    private static final Class<?>[] TYPES = new Class<?>[]{
+            Object.class,
+            String.class,
+            Integer.class,
+            Long.class,
+            Short.class,
+            Byte.class,
+            Character.class,
+            Boolean.class,
+            Float.class,
+            Double.class,
+            Void.class,
+            Number.class,
+            Math.class,
+            System.class,
+            Thread.class,
+            Runnable.class
+    };
+
+    /**
+     * The maximum number of types that are pending for resubmission.
+     */
+    private static final int MAXIMUM_PENDING = 4096;
+
+    /**
+     * The class loader of the registered types.
+     */
+    @MaybeNull
+    private ClassLoader classLoader;
+
+    /**
+     * The internal names of the registered types.
+     */
+    @MaybeNull
+    private String[] internalNames;
+
+    /**
+     * A class file without meaning as it is never parsed.
+     */
+    @MaybeNull
+    private byte[] binaryRepresentation;
+
+    /**
+     * A class file transformer that registers every type for resubmission.
+     */
+    @MaybeNull
+    private ClassFileTransformer classFileTransformer;
+
+    /**
+     * A class file transformer that does not resubmit types.
+     */
+    @MaybeNull
+    private ClassFileTransformer baselineClassFileTransformer;
+
+    /**
+     * The job that resubmits all registered types.
+     */
+    @MaybeNull
+    private Runnable resubmission;
+
+    /**
+     * Sets up this benchmark.
+     */
+    @Setup
+    public void setup() {
+        classLoader = ResubmissionRegistryBenchmark.class.getClassLoader();
+        internalNames = new String[TYPES.length];
+        for (int index = 0; index < TYPES.length; index++) {
+            internalNames[index] = TYPES[index].getName().replace('.', '/');
+        }
+        binaryRepresentation = new byte[0];
+        Instrumentation instrumentation = (Instrumentation) Proxy.newProxyInstance(Instrumentation.class.getClassLoader(),
+                new Class<?>[]{Instrumentation.class},
+                InstrumentationHandler.INSTANCE);
+        CapturingScheduler resubmissionScheduler = new CapturingScheduler();
+        classFileTransformer = new AgentBuilder.Default(new ByteBuddy())
+                .with(AgentBuilder.LocationStrategy.NoOp.INSTANCE)
+                .with(AgentBuilder.RedefinitionStrategy.RETRANSFORMATION)
+                .withResubmission(resubmissionScheduler, MAXIMUM_PENDING)
+                .resubmitImmediate()
+                .ignore(AgentBuilder.RawMatcher.Trivial.NON_MATCHING)
+                .type(new AgentBuilder.RawMatcher.ForNameOnly(none()))
+                .transform(new AgentBuilder.Transformer.ForAdvice())
+                .installOn(instrumentation);
+        resubmission = resubmissionScheduler.job;
+        baselineClassFileTransformer = new AgentBuilder.Default(new ByteBuddy())
+                .with(AgentBuilder.LocationStrategy.NoOp.INSTANCE)
+                .with(AgentBuilder.RedefinitionStrategy.RETRANSFORMATION)
+                .ignore(AgentBuilder.RawMatcher.Trivial.NON_MATCHING)
+                .type(new AgentBuilder.RawMatcher.ForNameOnly(none()))
+                .transform(new AgentBuilder.Transformer.ForAdvice())
+                .installOn(instrumentation);
+    }
+
+    /**
+     * Registers a type for resubmission.
+     *
+     * @param cursor The current thread's position within the registered types.
+     * @return The transformed class file which is always {@code null}.
+     * @throws IllegalClassFormatException If the class file transformer fails.
+     */
+    @Benchmark
+    @Group("resubmission")
+    @GroupThreads(7)
+    public byte[] benchmarkRegistration(Cursor cursor) throws IllegalClassFormatException {
+        return classFileTransformer.transform(classLoader, internalNames[cursor.next()], null, null, binaryRepresentation);
+    }
+
+    /**
+     * Resubmits all types that are currently registered.
+     */
+    @Benchmark
+    @Group("resubmission")
+    @GroupThreads(1)
+    public void benchmarkResubmission() {
+        resubmission.run();
+    }
+
+    /**
+     * Rejects a type by its name without registering it for resubmission.
+     *
+     * @param cursor The current thread's position within the registered types.
+     * @return The transformed class file which is always {@code null}.
+     * @throws IllegalClassFormatException If the class file transformer fails.
+     */
+    @Benchmark
+    @Group("baseline")
+    @GroupThreads(7)
+    public byte[] baselineRegistration(Cursor cursor) throws IllegalClassFormatException {
+        return baselineClassFileTransformer.transform(classLoader, internalNames[cursor.next()], null, null, binaryRepresentation);
+    }
+
+    /**
+     * A cursor that iterates over the registered types independently for each benchmark thread.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        /**
+         * The index of the next registered type.
+         */
+        private int index;
+
+        /**
+         * Returns the index of the next registered type.
+         *
+         * @return The index of the next registered type.
+         */
+        public int next() {
+            index = (index + 1) % TYPES.length;
+            return index;
+        }
+    }
+
+    /**
+     * A resubmission scheduler that captures its job to allow for its explicit execution.
+     */
+    protected static class CapturingScheduler implements AgentBuilder.RedefinitionStrategy.ResubmissionScheduler {
+
+        /**
+         * The captured job or {@code null} if no job was scheduled.
+         */
+        @MaybeNull
+        private Runnable job;
+
+        /**
+         * {@inheritDoc}
+         */
+        public boolean isAlive() {
+            return true;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public Cancelable schedule(Runnable job) {
+            this.job = job;
+            return Cancelable.NoOp.INSTANCE;
+        }
+    }
+
+    /**
+     * An invocation handler for an {@link Instrumentation} that supports retransformation but does not apply any change.
+     */
+    protected enum InstrumentationHandler implements InvocationHandler {
+
+        /**
+         * The singleton instance.
+         */
+        INSTANCE;
+
+        /**
+         * {@inheritDoc}
+         */
+        public Object invoke(Object proxy, Method method, @MaybeNull Object[] argument) {
+            if (method.getReturnType() == boolean.class) {
+                return true;
+            } else if (method.getReturnType() == long.class) {
+                return 0L;
+            } else if (method.getReturnType() == Class[].class) {
+                return new Class<?>[0];
+            } else {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2014 - Present Rafael Winterhalter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.bytebuddy.benchmark;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.modifier.Visibility;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.ClassFileLocator;
+import net.bytebuddy.dynamic.scaffold.subclass.ConstructorStrategy;
+import net.bytebuddy.pool.TypePool;
+import net.bytebuddy.utility.nullability.MaybeNull;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * A benchmark for subtype checks against a deep type hierarchy as it is typical for enterprise frameworks where every
+ * level of a class hierarchy adds another class and another interface that extends the interface of the previous level.
+ * The hierarchy is generated and described by a {@link TypePool}. Subtype checks of {@link TypeDescription#isAssignableTo(TypeDescription)}
+ * are compared to a recursive walk of the type hierarchy which is the baseline of this benchmark.
+ * </p>
+ * <p>
+ * Note that this class defines all values that are accessed by benchmark methods as instance fields. This way, the JIT
+ * compiler's capability of constant folding is limited in order to produce more comparable test results.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SubTypeCheckBenchmark {
+
+    /**
+     * The package of the generated types.
+     */
+    private static final String PACKAGE = "net.bytebuddy.benchmark.generated.";
+
+    /**
+     * The depth of the generated type hierarchy.
+     */
+    @Param({"8", "32"})
+    public int depth;
+
+    /**
+     * A description of the most specific class of the type hierarchy.
+     */
+    @MaybeNull
+    private TypeDescription leafClass;
+
+    /**
+     * A description of the most general class of the type hierarchy that is not {@link Object}.
+     */
+    @MaybeNull
+    private TypeDescription rootClass;
+
+    /**
+     * A description of the most general interface of the type hierarchy.
+     */
+    @MaybeNull
+    private TypeDescription rootInterface;
+
+    /**
+     * A description of an interface that is not implemented by any type of the type hierarchy.
+     */
+    @MaybeNull
+    private TypeDescription unrelatedInterface;
+
+    /**
+     * Sets up this benchmark.
+     */
+    @Setup
+    public void setup() {
+        Map<String, byte[]> binaryRepresentations = new HashMap<String, byte[]>();
+        TypePool typePool = TypePool.Default.of(new ClassFileLocator.Compound(new ClassFileLocator.Simple(binaryRepresentations),
+                ClassFileLocator.ForClassLoader.ofSystemLoader()));
+        TypeDescription superClass = TypeDescription.ForLoadedType.of(Object.class), interfaceType = null;
+        for (int index = 0; index < depth; index++) {
+            binaryRepresentations.put(PACKAGE + "Interface" + index, (interfaceType == null
+                    ? new ByteBuddy().makeInterface()
+                    : new ByteBuddy().makeInterface(interfaceType)).name(PACKAGE + "Interface" + index).make().getBytes());
+            interfaceType = typePool.describe(PACKAGE + "Interface" + index).resolve();
+            binaryRepresentations.put(PACKAGE + "Class" + index, new ByteBuddy()
+                    .subclass(superClass, ConstructorStrategy.Default.NO_CONSTRUCTORS)
+                    .name(PACKAGE + "Class" + index)
+                    .modifiers(Visibility.PUBLIC)
+                    .implement(interfaceType)
+                    .make()
+                    .getBytes());
+            superClass = typePool.describe(PACKAGE + "Class" + index).resolve();
+        }
+        binaryRepresentations.put(PACKAGE + "Unrelated", new ByteBuddy().makeInterface().name(PACKAGE + "Unrelated").make().getBytes());
+        leafClass = superClass;
+        rootClass = typePool.describe(PACKAGE + "Class0").resolve();
+        rootInterface = typePool.describe(PACKAGE + "Interface0").resolve();
+        unrelatedInterface = typePool.describe(PACKAGE + "Unrelated").resolve();
+    }
+
+    /**
+     * Checks if the most specific class of the hierarchy is a subtype of its most general class.
+     *
+     * @return {@code true} if the type is a subtype.
+     */
+    @Benchmark
+    public boolean benchmarkSuperClass() {
+        return leafClass.isAssignableTo(rootClass);
+    }
+
+    /**
+     * Checks if the most specific class of the hierarchy is a subtype of the most general interface.
+     *
+     * @return {@code true} if the type is a subtype.
+     */
+    @Benchmark
+    public boolean benchmarkInterface() {
+        return leafClass.isAssignableTo(rootInterface);
+    }
+
+    /**
+     * Checks if the most specific class of the hierarchy is a subtype of an unrelated interface.
+     *
+     * @return {@code true} if the type is a subtype.
+     */
+    @Benchmark
+    public boolean benchmarkUnrelatedInterface() {
+        return leafClass.isAssignableTo(unrelatedInterface);
+    }
+
+    /**
+     * Checks if the most specific class of the hierarchy is a subtype of its most general class by walking the type hierarchy.
+     *
+     * @return {@code true} if the type is a subtype.
+     */
+    @Benchmark
+    public boolean baselineSuperClass() {
+        return isAssignable(rootClass, leafClass);
+    }
+
+    /**
+     * Checks if the most specific class of the hierarchy is a subtype of the most general interface by walking the type hierarchy.
+     *
+     * @return {@code true} if the type is a subtype.
+     */
+    @Benchmark
+    public boolean baselineInterface() {
+        return isAssignable(rootInterface, leafClass);
+    }
+
+    /**
+     * Checks if the most specific class of the hierarchy is a subtype of an unrelated interface by walking the type hierarchy.
+     *
+     * @return {@code true} if the type is a subtype.
+     */
+    @Benchmark
+    public boolean baselineUnrelatedInterface() {
+        return isAssignable(unrelatedInterface, leafClass);
+    }
+
+    /**
+     * Checks if a type is a subtype of another type by recursively walking the type hierarchy of the subtype.
+     *
+     * @param sourceType The potential super type.
+     * @param targetType The potential subtype.
+     * @return {@code true} if the target type is a subtype of the source type.
+     */
+    private static boolean isAssignable(TypeDescription sourceType, TypeDescription targetType) {
+        if (sourceType.equals(targetType)) {
+            return true;
+        }
+        TypeDescription.Generic superClass = targetType.getSuperClass();
+        if (superClass != null && isAssignable(sourceType, superClass.asErasure())) {
+            return true;
+        }
+        if (sourceType.isInterface()) {
+            for (TypeDescription interfaceType : targetType.getInterfaces().asErasures()) {
+                if (isAssignable(sourceType, interfaceType)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright 2014 - Present Rafael Winterhalter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.bytebuddy.benchmark;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.dynamic.ClassFileLocator;
+import net.bytebuddy.pool.TypePool;
+import net.bytebuddy.utility.StreamDrainer;
+import net.bytebuddy.utility.nullability.MaybeNull;
+import org.objectweb.asm.ClassVisitor;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * <p>
+ * A benchmark for measuring the heap that is retained by a {@link TypePool.Default} after describing all types of a set of
+ * jar files, namely the jar files of Byte Buddy, ASM and JMH. An unmodified type pool is compared to a type pool with a
+ * {@link TypePool.Default.SymbolTable} that shares equal strings among all parsed type descriptions. The retained heap is
+ * reported as the auxiliary counter {@code retainedBytes}. As the heap is measured after explicit garbage collections, the
+ * measured time of this benchmark is not meaningful.
+ * </p>
+ * <p>
+ * Note that this class defines all values that are accessed by benchmark methods as instance fields. This way, the JIT
+ * compiler's capability of constant folding is limited in order to produce more comparable test results.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TypePoolFootprintBenchmark {
+
+    /**
+     * The file extension of a class file.
+     */
+    private static final String CLASS_FILE_EXTENSION = ".class";
+
+    /**
+     * The number of garbage collections that are requested before measuring the used heap.
+     */
+    private static final int COLLECTIONS = 3;
+
+    /**
+     * A class file locator for all types of the jar set.
+     */
+    @MaybeNull
+    private ClassFileLocator classFileLocator;
+
+    /**
+     * The names of all types of the jar set.
+     */
+    @MaybeNull
+    private List<String> names;
+
+    /**
+     * Sets up this benchmark.
+     *
+     * @throws Exception If the set up fails.
+     */
+    @Setup
+    public void setup() throws Exception {
+        Map<String, byte[]> binaryRepresentations = new HashMap<String, byte[]>();
+        for (Class<?> type : new Class<?>[]{ByteBuddy.class, ClassVisitor.class, Benchmark.class}) {
+            CodeSource codeSource = type.getProtectionDomain().getCodeSource();
+            if (codeSource == null) {
+                throw new IllegalStateException("Cannot locate code source of " + type);
+            }
+            read(new File(codeSource.getLocation().toURI()), binaryRepresentations);
+        }
+        classFileLocator = new ClassFileLocator.Simple(binaryRepresentations);
+        names = new ArrayList<String>(binaryRepresentations.keySet());
+    }
+
+    /**
+     * Reads all class files of a jar file or folder.
+     *
+     * @param file                  The jar file or folder to read.
+     * @param binaryRepresentations A map to which all class files are added by their type's name.
+     * @throws IOException If an I/O error occurs.
+     */
+    private static void read(File file, Map<String, byte[]> binaryRepresentations) throws IOException {
+        if (file.isDirectory()) {
+            read(file, "", binaryRepresentations);
+        } else {
+            JarFile jarFile = new JarFile(file);
+            try {
+                Enumeration<JarEntry> enumeration = jarFile.entries();
+                while (enumeration.hasMoreElements()) {
+                    JarEntry jarEntry = enumeration.nextElement();
+                    if (isTypeFile(jarEntry.getName())) {
+                        InputStream inputStream = jarFile.getInputStream(jarEntry);
+                        try {
+                            binaryRepresentations.put(toTypeName(jarEntry.getName()), StreamDrainer.DEFAULT.drain(inputStream));
+                        } finally {
+                            inputStream.close();
+                        }
+                    }
+                }
+            } finally {
+                jarFile.close();
+            }
+        }
+    }
+
+    /**
+     * Reads all class files of a folder.
+     *
+     * @param folder                The folder to read.
+     * @param prefix                The path of the folder relative to the root folder.
+     * @param binaryRepresentations A map to which all class files are added by their type's name.
+     * @throws IOException If an I/O error occurs.
+     */
+    private static void read(File folder, String prefix, Map<String, byte[]> binaryRepresentations) throws IOException {
+        File[] file = folder.listFiles();
+        if (file != null) {
+            for (File aFile : file) {
+                if (aFile.isDirectory()) {
+                    read(aFile, prefix + aFile.getName() + "/", binaryRepresentations);
+                } else if (isTypeFile(prefix + aFile.getName())) {
+                    InputStream inputStream = new FileInputStream(aFile);
+                    try {
+                        binaryRepresentations.put(toTypeName(prefix + aFile.getName()), StreamDrainer.DEFAULT.drain(inputStream));
+                    } finally {
+                        inputStream.close();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Determines if a file represents a type's class file.
+     *
+     * @param path The path of the file.
+     * @return {@code true} if the file represents a type's class file.
+     */
+    private static boolean isTypeFile(String path) {
+        return path.endsWith(CLASS_FILE_EXTENSION)
+                && !path.startsWith("META-INF/")
+                && !path.endsWith("module-info" + CLASS_FILE_EXTENSION)
+                && !path.endsWith("package-info" + CLASS_FILE_EXTENSION);
+    }
+
+    /**
+     * Resolves the name of the type that is represented by a class file.
+     *
+     * @param path The path of the class file.
+     * @return The name of the represented type.
+     */
+    private static String toTypeName(String path) {
+        return path.substring(0, path.length() - CLASS_FILE_EXTENSION.length()).replace('/', '.');
+    }
+
+    /**
+     * Describes all types of the jar set by an unmodified {@link TypePool.Default} which retains every string and collection as
+     * it is read from a class file. This is the baseline of this benchmark.
+     *
+     * @param footprint The footprint counter to record the retained heap to.
+     * @return The type pool that retains all type descriptions.
+     */
+    @Benchmark
+    public TypePool baseline(Footprint footprint) {
+        long before = usedHeap();
+        return describeAll(new TypePool.Default(new TypePool.CacheProvider.Simple(),
+                classFileLocator,
+                TypePool.Default.ReaderMode.FAST), before, footprint);
+    }
+
+    /**
+     * Describes all types of the jar set while sharing equal strings and compacting collections via a symbol table.
+     *
+     * @param footprint The footprint counter to record the retained heap to.
+     * @return The type pool that retains all type descriptions.
+     */
+    @Benchmark
+    public TypePool benchmarkWithSymbolTable(Footprint footprint) {
+        long before = usedHeap();
+        return describeAll(new TypePool.Default(new TypePool.CacheProvider.Simple(),
+                classFileLocator,
+                TypePool.Default.ReaderMode.FAST,
+                new TypePool.Default.SymbolTable.Simple(),
+                TypePool.Empty.INSTANCE), before, footprint);
+    }
+
+    /**
+     * Describes all types of the jar set, including their members, and records the heap that is retained by the type pool.
+     *
+     * @param typePool  The type pool to use.
+     * @param before    The used heap in bytes prior to creating the type pool.
+     * @param footprint The footprint counter to record the retained heap to.
+     * @return The type pool that retains all type descriptions.
+     */
+    private TypePool describeAll(TypePool typePool, long before, Footprint footprint) {
+        for (String name : names) {
+            typePool.describe(name).resolve().getDeclaredMethods();
+        }
+        footprint.retainedBytes += usedHeap() - before;
+        return typePool;
+    }
+
+    /**
+     * Returns the currently used heap after requesting garbage collections.
+     *
+     * @return The currently used heap in bytes.
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int index = 0; index < COLLECTIONS; index++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * An auxiliary counter for the heap that is retained by a type pool.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+
+        /**
+         * The heap in bytes that was retained by the type pools that were created during an iteration.
+         */
+        public long retainedBytes;
+
+        /**
+         * Resets the counter prior to an iteration.
+         */
+        @Setup(Level.Iteration)
+        public void reset() {
+            retainedBytes = 0;
+        }
+    }
+}
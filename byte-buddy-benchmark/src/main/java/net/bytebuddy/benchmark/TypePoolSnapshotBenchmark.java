@@ -0,0 +1,185 @@
+/*
+ * Copyright 2014 - Present Rafael Winterhalter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.bytebuddy.benchmark;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.dynamic.ClassFileLocator;
+import net.bytebuddy.pool.TypePool;
+import net.bytebuddy.utility.nullability.MaybeNull;
+import org.objectweb.asm.ClassVisitor;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * <p>
+ * A benchmark for the warm start of a {@link TypePool.Default} that describes all types of a set of jar files, namely the jar
+ * files of Byte Buddy, ASM and JMH, as it is typical for an application where a Java agent or a build plugin resolves the types
+ * of the class path. A type pool that locates class files from these jar files, which is the baseline of this benchmark, is
+ * compared to a type pool that first consults a {@link ClassFileLocator.ForSnapshotFile} that was written by a previous run.
+ * Each benchmark opens its class file locators anew in order to include the cost of opening jar files or mapping the snapshot.
+ * </p>
+ * <p>
+ * Note that this class defines all values that are accessed by benchmark methods as instance fields. This way, the JIT
+ * compiler's capability of constant folding is limited in order to produce more comparable test results.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TypePoolSnapshotBenchmark {
+
+    /**
+     * The file extension of a class file.
+     */
+    private static final String CLASS_FILE_EXTENSION = ".class";
+
+    /**
+     * The jar files of the class path.
+     */
+    @MaybeNull
+    private List<File> classPath;
+
+    /**
+     * The names of all types of the class path.
+     */
+    @MaybeNull
+    private List<String> names;
+
+    /**
+     * The snapshot file of all types of the class path.
+     */
+    @MaybeNull
+    private File snapshot;
+
+    /**
+     * Sets up this benchmark.
+     *
+     * @throws Exception If the set up fails.
+     */
+    @Setup
+    public void setup() throws Exception {
+        classPath = new ArrayList<File>();
+        names = new ArrayList<String>();
+        for (Class<?> type : new Class<?>[]{ByteBuddy.class, ClassVisitor.class, Benchmark.class}) {
+            CodeSource codeSource = type.getProtectionDomain().getCodeSource();
+            if (codeSource == null) {
+                throw new IllegalStateException("Cannot locate code source of " + type);
+            }
+            File file = new File(codeSource.getLocation().toURI());
+            if (!file.isFile()) {
+                throw new IllegalStateException("Expected " + type + " to be contained in a jar file: " + file);
+            }
+            classPath.add(file);
+            JarFile jarFile = new JarFile(file);
+            try {
+                Enumeration<JarEntry> enumeration = jarFile.entries();
+                while (enumeration.hasMoreElements()) {
+                    String name = enumeration.nextElement().getName();
+                    if (name.endsWith(CLASS_FILE_EXTENSION)
+                            && !name.startsWith("META-INF/")
+                            && !name.endsWith("module-info" + CLASS_FILE_EXTENSION)
+                            && !name.endsWith("package-info" + CLASS_FILE_EXTENSION)) {
+                        names.add(name.substring(0, name.length() - CLASS_FILE_EXTENSION.length()).replace('/', '.'));
+                    }
+                }
+            } finally {
+                jarFile.close();
+            }
+        }
+        snapshot = File.createTempFile("snapshot", ".bin");
+        ClassFileLocator.ForSnapshotFile.write(snapshot, names, classPath);
+    }
+
+    /**
+     * Deletes the snapshot file.
+     */
+    @TearDown
+    public void tearDown() {
+        if (snapshot != null && !snapshot.delete()) {
+            snapshot.deleteOnExit();
+        }
+    }
+
+    /**
+     * Describes all types of the class path by locating their class files from the jar files of the class path.
+     *
+     * @return The number of declared methods of all described types.
+     * @throws IOException If an I/O error occurs.
+     */
+    @Benchmark
+    public int baseline() throws IOException {
+        ClassFileLocator classFileLocator = classFileLocator();
+        try {
+            return describeAll(classFileLocator);
+        } finally {
+            classFileLocator.close();
+        }
+    }
+
+    /**
+     * Describes all types of the class path by locating their class files from a snapshot before the jar files of the class path.
+     *
+     * @return The number of declared methods of all described types.
+     * @throws IOException If an I/O error occurs.
+     */
+    @Benchmark
+    public int benchmarkWithSnapshot() throws IOException {
+        ClassFileLocator classFileLocator = new ClassFileLocator.Compound(ClassFileLocator.ForSnapshotFile.of(snapshot, classPath), classFileLocator());
+        try {
+            return describeAll(classFileLocator);
+        } finally {
+            classFileLocator.close();
+        }
+    }
+
+    /**
+     * Creates a class file locator for the jar files of the class path.
+     *
+     * @return A class file locator for the jar files of the class path.
+     * @throws IOException If an I/O error occurs.
+     */
+    private ClassFileLocator classFileLocator() throws IOException {
+        List<ClassFileLocator> classFileLocators = new ArrayList<ClassFileLocator>(classPath.size());
+        for (File file : classPath) {
+            classFileLocators.add(ClassFileLocator.ForJarFile.of(file));
+        }
+        return new ClassFileLocator.Compound(classFileLocators);
+    }
+
+    /**
+     * Describes all types of the class path, including their methods.
+     *
+     * @param classFileLocator The class file locator to use.
+     * @return The number of declared methods of all described types.
+     */
+    private int describeAll(ClassFileLocator classFileLocator) {
+        TypePool typePool = new TypePool.Default(new TypePool.CacheProvider.Simple(), classFileLocator, TypePool.Default.ReaderMode.FAST);
+        int methods = 0;
+        for (String name : names) {
+            methods += typePool.describe(name).resolve().getDeclaredMethods().size();
+        }
+        return methods;
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2014 - Present Rafael Winterhalter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.bytebuddy.benchmark;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.benchmark.specimen.ExampleClass;
+import net.bytebuddy.dynamic.ClassFileLocator;
+import net.bytebuddy.matcher.StringMatcher;
+import net.bytebuddy.utility.nullability.MaybeNull;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.instrument.ClassFileTransformer;
+import java.lang.instrument.IllegalClassFormatException;
+import java.util.concurrent.TimeUnit;
+
+import static net.bytebuddy.matcher.ElementMatchers.isInterface;
+import static net.bytebuddy.matcher.ElementMatchers.nameStartsWith;
+
+/**
+ * <p>
+ * A benchmark for measuring the cost of a class file transformer that is created by an {@link AgentBuilder} for rejecting a
+ * type that is not matched by any transformation. A type can either be rejected after resolving its type description, or
+ * only by its name via a {@link AgentBuilder.RawMatcher.ForNameOnly} matcher what avoids locating the class file and creating
+ * a type pool.
+ * </p>
+ * <p>
+ * Note that this class defines all values that are accessed by benchmark methods as instance fields. This way, the JIT
+ * compiler's capability of constant folding is limited in order to produce more comparable test results.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TypeRejectionBenchmark {
+
+    /**
+     * The type that is offered to the class file transformers.
+     */
+    public static final Class<?> REJECTED_CLASS = ExampleClass.class;
+
+    /**
+     * A name prefix that is not matched by the rejected type.
+     */
+    private static final String PREFIX = "com.example.";
+
+    /**
+     * The type's class loader.
+     */
+    @MaybeNull
+    private ClassLoader classLoader;
+
+    /**
+     * The internal name of the type.
+     */
+    @MaybeNull
+    private String internalName;
+
+    /**
+     * The type's class file.
+     */
+    @MaybeNull
+    private byte[] binaryRepresentation;
+
+    /**
+     * A class file transformer that rejects the type by a type matcher that requires a resolved type description.
+     */
+    @MaybeNull
+    private ClassFileTransformer byDescription;
+
+    /**
+     * A class file transformer that rejects the type by a type matcher that is applied on a type's name.
+     */
+    @MaybeNull
+    private ClassFileTransformer byName;
+
+    /**
+     * A class file transformer that rejects the type by a name-only raw matcher.
+     */
+    @MaybeNull
+    private ClassFileTransformer byNameOnly;
+
+    /**
+     * Sets up this benchmark.
+     *
+     * @throws Exception If the set up fails.
+     */
+    @Setup
+    public void setup() throws Exception {
+        classLoader = REJECTED_CLASS.getClassLoader();
+        internalName = REJECTED_CLASS.getName().replace('.', '/');
+        binaryRepresentation = ClassFileLocator.ForClassLoader.read(REJECTED_CLASS);
+        byDescription = make(new AgentBuilder.Default(new ByteBuddy()).type(isInterface()));
+        byName = make(new AgentBuilder.Default(new ByteBuddy()).type(nameStartsWith(PREFIX)));
+        byNameOnly = make(new AgentBuilder.Default(new ByteBuddy()).type(new AgentBuilder.RawMatcher.ForNameOnly(new StringMatcher(PREFIX, StringMatcher.Mode.STARTS_WITH))));
+    }
+
+    /**
+     * Creates a class file transformer that does not apply any transformation.
+     *
+     * @param narrowable The agent builder with a matcher for the transformation.
+     * @return A suitable class file transformer.
+     */
+    private static ClassFileTransformer make(AgentBuilder.Identified.Narrowable narrowable) {
+        return narrowable.transform(new AgentBuilder.Transformer.ForAdvice()).makeRaw();
+    }
+
+    /**
+     * Rejects a type after resolving its type description.
+     *
+     * @return The result of the class file transformer.
+     * @throws IllegalClassFormatException If the class file transformer fails.
+     */
+    @Benchmark
+    @MaybeNull
+    public byte[] benchmarkRejectionByDescription() throws IllegalClassFormatException {
+        return byDescription.transform(classLoader, internalName, null, null, binaryRepresentation);
+    }
+
+    /**
+     * Rejects a type by a type matcher that only considers the type's name.
+     *
+     * @return The result of the class file transformer.
+     * @throws IllegalClassFormatException If the class file transformer fails.
+     */
+    @Benchmark
+    @MaybeNull
+    public byte[] benchmarkRejectionByName() throws IllegalClassFormatException {
+        return byName.transform(classLoader, internalName, null, null, binaryRepresentation);
+    }
+
+    /**
+     * Rejects a type by a name-only raw matcher prior to locating its class file.
+     *
+     * @return The result of the class file transformer.
+     * @throws IllegalClassFormatException If the class file transformer fails.
+     */
+    @Benchmark
+    @MaybeNull
+    public byte[] benchmarkRejectionByNameOnly() throws IllegalClassFormatException {
+        return byNameOnly.transform(classLoader, internalName, null, null, binaryRepresentation);
+    }
+}
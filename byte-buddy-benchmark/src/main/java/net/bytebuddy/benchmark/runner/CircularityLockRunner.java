@@ -0,0 +1,61 @@
+/*
+ * Copyright 2014 - Present Rafael Winterhalter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.bytebuddy.benchmark.runner;
+
+import net.bytebuddy.benchmark.CircularityLockBenchmark;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * A runner for comparing circularity locks with one to sixty-four concurrent threads, doubling the number of threads
+ * for each run.
+ */
+public class CircularityLockRunner {
+
+    /**
+     * A wildcard for the identification of a benchmark by JMH.
+     */
+    private static final String WILDCARD = ".*";
+
+    /**
+     * The maximum number of threads to run the benchmark with.
+     */
+    private static final int MAXIMUM_THREADS = 64;
+
+    /**
+     * This class is not supposed to be constructed.
+     */
+    private CircularityLockRunner() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Executes the benchmark.
+     *
+     * @param args Unused arguments.
+     * @throws RunnerException If the benchmark causes an exception.
+     */
+    public static void main(String[] args) throws RunnerException {
+        for (int threads = 1; threads <= MAXIMUM_THREADS; threads *= 2) {
+            new Runner(new OptionsBuilder()
+                    .include(WILDCARD + CircularityLockBenchmark.class.getSimpleName() + WILDCARD)
+                    .threads(threads)
+                    .forks(1)
+                    .build()).run();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package net.bytebuddy.benchmark;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class CircularityLockBenchmarkTest {
+
+    private CircularityLockBenchmark circularityLockBenchmark;
+
+    @Before
+    public void setUp() throws Exception {
+        circularityLockBenchmark = new CircularityLockBenchmark();
+        circularityLockBenchmark.setup();
+    }
+
+    @Test
+    public void testDefault() throws Exception {
+        assertThat(circularityLockBenchmark.benchmarkDefault(), is(true));
+        assertThat(circularityLockBenchmark.benchmarkDefault(), is(true));
+    }
+
+    @Test
+    public void testGlobal() throws Exception {
+        assertThat(circularityLockBenchmark.benchmarkGlobal(), is(true));
+        assertThat(circularityLockBenchmark.benchmarkGlobal(), is(true));
+    }
+
+    @Test
+    public void testThreadLocal() throws Exception {
+        assertThat(circularityLockBenchmark.benchmarkThreadLocal(), is(true));
+        assertThat(circularityLockBenchmark.benchmarkThreadLocal(), is(true));
+    }
+}
@@ -0,0 +1,41 @@
+package net.bytebuddy.benchmark;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ResubmissionRegistryBenchmarkTest {
+
+    private ResubmissionRegistryBenchmark resubmissionRegistryBenchmark;
+
+    @Before
+    public void setUp() throws Exception {
+        resubmissionRegistryBenchmark = new ResubmissionRegistryBenchmark();
+        resubmissionRegistryBenchmark.setup();
+    }
+
+    @Test
+    public void testRegistration() throws Exception {
+        ResubmissionRegistryBenchmark.Cursor cursor = new ResubmissionRegistryBenchmark.Cursor();
+        for (int index = 0; index < 10000; index++) {
+            assertThat(resubmissionRegistryBenchmark.benchmarkRegistration(cursor), nullValue(byte[].class));
+        }
+    }
+
+    @Test
+    public void testResubmission() throws Exception {
+        ResubmissionRegistryBenchmark.Cursor cursor = new ResubmissionRegistryBenchmark.Cursor();
+        assertThat(resubmissionRegistryBenchmark.benchmarkRegistration(cursor), nullValue(byte[].class));
+        resubmissionRegistryBenchmark.benchmarkResubmission();
+    }
+
+    @Test
+    public void testBaseline() throws Exception {
+        ResubmissionRegistryBenchmark.Cursor cursor = new ResubmissionRegistryBenchmark.Cursor();
+        for (int index = 0; index < 10000; index++) {
+            assertThat(resubmissionRegistryBenchmark.baselineRegistration(cursor), nullValue(byte[].class));
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package net.bytebuddy.benchmark;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class SubTypeCheckBenchmarkTest {
+
+    private SubTypeCheckBenchmark subTypeCheckBenchmark;
+
+    @Before
+    public void setUp() throws Exception {
+        subTypeCheckBenchmark = new SubTypeCheckBenchmark();
+        subTypeCheckBenchmark.depth = 8;
+        subTypeCheckBenchmark.setup();
+    }
+
+    @Test
+    public void testSuperClass() throws Exception {
+        assertThat(subTypeCheckBenchmark.benchmarkSuperClass(), is(true));
+        assertThat(subTypeCheckBenchmark.baselineSuperClass(), is(true));
+    }
+
+    @Test
+    public void testInterface() throws Exception {
+        assertThat(subTypeCheckBenchmark.benchmarkInterface(), is(true));
+        assertThat(subTypeCheckBenchmark.baselineInterface(), is(true));
+    }
+
+    @Test
+    public void testUnrelatedInterface() throws Exception {
+        assertThat(subTypeCheckBenchmark.benchmarkUnrelatedInterface(), is(false));
+        assertThat(subTypeCheckBenchmark.baselineUnrelatedInterface(), is(false));
+    }
+}
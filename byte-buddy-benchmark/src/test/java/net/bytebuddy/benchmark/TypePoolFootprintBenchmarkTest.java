@@ -0,0 +1,35 @@
+package net.bytebuddy.benchmark;
+
+import net.bytebuddy.ByteBuddy;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class TypePoolFootprintBenchmarkTest {
+
+    private TypePoolFootprintBenchmark typePoolFootprintBenchmark;
+
+    @Before
+    public void setUp() throws Exception {
+        typePoolFootprintBenchmark = new TypePoolFootprintBenchmark();
+        typePoolFootprintBenchmark.setup();
+    }
+
+    @Test
+    public void testBaseline() throws Exception {
+        assertThat(typePoolFootprintBenchmark.baseline(new TypePoolFootprintBenchmark.Footprint())
+                .describe(ByteBuddy.class.getName())
+                .resolve()
+                .represents(ByteBuddy.class), is(true));
+    }
+
+    @Test
+    public void testWithSymbolTable() throws Exception {
+        assertThat(typePoolFootprintBenchmark.benchmarkWithSymbolTable(new TypePoolFootprintBenchmark.Footprint())
+                .describe(ByteBuddy.class.getName())
+                .resolve()
+                .represents(ByteBuddy.class), is(true));
+    }
+}
@@ -0,0 +1,34 @@
+package net.bytebuddy.benchmark;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class TypePoolSnapshotBenchmarkTest {
+
+    private TypePoolSnapshotBenchmark typePoolSnapshotBenchmark;
+
+    @Before
+    public void setUp() throws Exception {
+        typePoolSnapshotBenchmark = new TypePoolSnapshotBenchmark();
+        typePoolSnapshotBenchmark.setup();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        typePoolSnapshotBenchmark.tearDown();
+    }
+
+    @Test
+    public void testBaseline() throws Exception {
+        assertThat(typePoolSnapshotBenchmark.baseline() > 0, is(true));
+    }
+
+    @Test
+    public void testWithSnapshot() throws Exception {
+        assertThat(typePoolSnapshotBenchmark.benchmarkWithSnapshot(), is(typePoolSnapshotBenchmark.baseline()));
+    }
+}
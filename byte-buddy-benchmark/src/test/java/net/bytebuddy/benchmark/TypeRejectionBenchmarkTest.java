@@ -0,0 +1,33 @@
+package net.bytebuddy.benchmark;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class TypeRejectionBenchmarkTest {
+
+    private TypeRejectionBenchmark typeRejectionBenchmark;
+
+    @Before
+    public void setUp() throws Exception {
+        typeRejectionBenchmark = new TypeRejectionBenchmark();
+        typeRejectionBenchmark.setup();
+    }
+
+    @Test
+    public void testRejectionByDescription() throws Exception {
+        assertThat(typeRejectionBenchmark.benchmarkRejectionByDescription(), nullValue(byte[].class));
+    }
+
+    @Test
+    public void testRejectionByName() throws Exception {
+        assertThat(typeRejectionBenchmark.benchmarkRejectionByName(), nullValue(byte[].class));
+    }
+
+    @Test
+    public void testRejectionByNameOnly() throws Exception {
+        assertThat(typeRejectionBenchmark.benchmarkRejectionByNameOnly(), nullValue(byte[].class));
+    }
+}
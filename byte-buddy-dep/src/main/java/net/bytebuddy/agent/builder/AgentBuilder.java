@@ -22,6 +22,7 @@ import net.bytebuddy.NamingStrategy;
 import net.bytebuddy.asm.Advice;
 import net.bytebuddy.asm.AsmVisitorWrapper;
 import net.bytebuddy.build.AccessControllerPlugin;
+import net.bytebuddy.build.CachedReturnPlugin;
 import net.bytebuddy.build.EntryPoint;
 import net.bytebuddy.build.HashCodeAndEqualsPlugin;
 import net.bytebuddy.build.Plugin;
@@ -69,11 +70,14 @@ import net.bytebuddy.implementation.bytecode.member.MethodVariableAccess;
 import net.bytebuddy.matcher.ElementMatcher;
 import net.bytebuddy.matcher.ElementMatchers;
 import net.bytebuddy.matcher.LatentMatcher;
+import net.bytebuddy.matcher.StringSetMatcher;
+import net.bytebuddy.matcher.TypeMatcherIndex;
 import net.bytebuddy.pool.TypePool;
 import net.bytebuddy.utility.CompoundList;
 import net.bytebuddy.utility.JavaConstant;
 import net.bytebuddy.utility.JavaModule;
 import net.bytebuddy.utility.JavaType;
+import net.bytebuddy.utility.StreamDrainer;
 import net.bytebuddy.utility.dispatcher.JavaDispatcher;
 import net.bytebuddy.utility.nullability.AlwaysNull;
 import net.bytebuddy.utility.nullability.MaybeNull;
@@ -84,27 +88,46 @@ import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
 
+import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.NotSerializableException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintStream;
 import java.io.Serializable;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
 import java.lang.instrument.ClassDefinition;
 import java.lang.instrument.ClassFileTransformer;
 import java.lang.instrument.IllegalClassFormatException;
 import java.lang.instrument.Instrumentation;
 import java.lang.instrument.UnmodifiableClassException;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.PrivilegedAction;
 import java.security.ProtectionDomain;
-import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -113,10 +136,12 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Queue;
 import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -126,9 +151,15 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
+import javax.management.JMException;
+import javax.management.ObjectInstance;
+import javax.management.ObjectName;
+
 import static net.bytebuddy.matcher.ElementMatchers.any;
 import static net.bytebuddy.matcher.ElementMatchers.hasMethodName;
 import static net.bytebuddy.matcher.ElementMatchers.isBootstrapClassLoader;
@@ -308,6 +339,37 @@ public interface AgentBuilder {
      */
     AgentBuilder with(ClassFileBufferStrategy classFileBufferStrategy);
 
+    /**
+     * Specifies a transformation cache that allows to reuse a class file that was previously transformed from an identical
+     * class file by the same transformations, for example during a previous run of the JVM. A cached class file is only
+     * reused if the applied transformations do not require the registration of a live
+     * {@link net.bytebuddy.implementation.LoadedTypeInitializer} or the injection of auxiliary types.
+     *
+     * @param transformationCache The transformation cache to use.
+     * @return A new agent builder that applies the supplied transformation cache.
+     */
+    AgentBuilder with(TransformationCache transformationCache);
+
+    /**
+     * Specifies a transformation metrics that records the latency of the phases of each transformation and of each applied
+     * {@link Transformation}. By default, no latencies are recorded.
+     *
+     * @param transformationMetrics The transformation metrics to use.
+     * @return A new agent builder that applies the supplied transformation metrics.
+     */
+    AgentBuilder with(TransformationMetrics transformationMetrics);
+
+    /**
+     * Specifies an ignored type cache that remembers the names of types that were not matched by any transformation for
+     * each class loader. If the same type is discovered again, for example during a retransformation, a resubmission or a
+     * repeated redefinition, it is ignored by its name without describing and matching it anew. By default, no ignored
+     * types are remembered.
+     *
+     * @param ignoredTypeCache The ignored type cache to use.
+     * @return A new agent builder that applies the supplied ignored type cache.
+     */
+    AgentBuilder with(IgnoredTypeCache ignoredTypeCache);
+
     /**
      * Adds an installation listener that is notified during installation events. Installation listeners are only invoked if
      * a class file transformer is installed using this agent builder's installation methods and uninstalled via the created
@@ -407,6 +469,31 @@ public interface AgentBuilder {
      */
     AgentBuilder warmUp(Collection<Class<?>> types);
 
+    /**
+     * <p>
+     * Warms up the generated {@link ClassFileTransformer} by replaying a {@link WarmupProfile} that was recorded in a previous
+     * run. The types of the profile are transformed concurrently on the supplied executor service, prior to the registration
+     * of the class file transformer. Different to the warmup of explicit types, the profiled types are not loaded but only
+     * located by their name, such that they are still transformed upon their actual loading. A type is only replayed if it
+     * is defined by a class loader that is available upon installation, i.e. the boot loader, the system class loader or one of
+     * its parents. Any error during replay is ignored.
+     * </p>
+     * <p>
+     * The replay resolves the profiled types' descriptions and transformations prior to the application's execution. To
+     * reuse the transformations' results upon the actual loading of a type, a {@link TransformationCache} and a caching
+     * {@link PoolStrategy} should be registered.
+     * </p>
+     * <p>
+     * <b>Important</b>: Warming up is applied just as a regular transformation and will also invoke the {@link Listener}.
+     * Replayed types are not loaded and do not provide a module or protection domain.
+     * </p>
+     *
+     * @param profile         The warmup profile to replay.
+     * @param executorService The executor service to use for replaying the profile.
+     * @return A new agent builder that replays the supplied profile in its warmup.
+     */
+    AgentBuilder warmUp(WarmupProfile profile, ExecutorService executorService);
+
     /**
      * Assures that all modules of the supplied types are read by the module of any instrumented type. If the current VM does not support
      * the Java module system, calling this method has no effect and this instance is returned.
@@ -998,6 +1085,17 @@ public interface AgentBuilder {
          */
         WithoutResubmissionSpecification withResubmission(RedefinitionStrategy.ResubmissionScheduler resubmissionScheduler);
 
+        /**
+         * Specifies resubmission for given unloaded types or types that fail upon an exception during instrumentation. If more
+         * than the specified number of types are pending for resubmission, any further type is not resubmitted. Types that are
+         * not resubmitted immediately are transformed upon their first load instead.
+         *
+         * @param resubmissionScheduler The resubmission scheduler to use.
+         * @param maximumPending        The maximum number of types that are pending for resubmission.
+         * @return A new builder to determine what types should be resubmitted given the supplied resubmission scheduler.
+         */
+        WithoutResubmissionSpecification withResubmission(RedefinitionStrategy.ResubmissionScheduler resubmissionScheduler, int maximumPending);
+
         /**
          * A matcher that determines if types should be resubmitted if it is not yet loaded and if an exception is raised.
          */
@@ -1610,6 +1708,19 @@ public interface AgentBuilder {
              * @return A new agent builder that applies the previously configured transformer terminally.
              */
             AgentBuilder asTerminalTransformation();
+
+            /**
+             * Applies the previously defined transformation eagerly, i.e. when a matched type is loaded for the first time, even if
+             * the type would otherwise be resubmitted after its loading as specified by
+             * {@link RedefinitionListenable.WithoutResubmissionSpecification#resubmitImmediate()}. This allows deferring most
+             * transformations to a background resubmission while transformations that must be in place upon a type's first use
+             * are still applied synchronously. If an eager transformation matches a type, all other matched transformations are
+             * applied eagerly, too. Note that the presence of an eager transformation requires the resolution of a type description
+             * for any type that is otherwise resubmitted, prior to deciding upon its resubmission.
+             *
+             * @return A new agent builder that applies the previously configured transformer eagerly.
+             */
+            Extendable asEagerTransformation();
         }
     }
 
@@ -1975,6 +2086,186 @@ public interface AgentBuilder {
                 return moduleMatcher.matches(module) && classLoaderMatcher.matches(classLoader) && typeMatcher.matches(typeDescription);
             }
         }
+
+        /**
+         * A raw matcher that only considers a type's binary name, its {@link java.lang.ClassLoader} and its module. As such a matcher
+         * does not require a {@link TypeDescription}, a class file transformer applies it prior to locating a class file or resolving
+         * a type description such that types that are rejected by such a matcher never touch a {@link ClassFileLocator} or a
+         * {@link TypePool}. This is also true for conjunctions, disjunctions and inversions of such matchers and for instances of
+         * {@link ForElementMatchers} that reject a type by its class loader or module.
+         */
+        @HashCodeAndEqualsPlugin.Enhance
+        class ForNameOnly implements RawMatcher {
+
+            /**
+             * The matcher to apply to a type's binary name.
+             */
+            private final ElementMatcher<? super String> nameMatcher;
+
+            /**
+             * The class loader matcher to apply to a {@link java.lang.ClassLoader}.
+             */
+            private final ElementMatcher<? super ClassLoader> classLoaderMatcher;
+
+            /**
+             * A module matcher to apply to a {@code java.lang.Module}.
+             */
+            private final ElementMatcher<? super JavaModule> moduleMatcher;
+
+            /**
+             * Creates a new raw matcher that only matches a type's binary name.
+             *
+             * @param nameMatcher The matcher to apply to a type's binary name.
+             */
+            public ForNameOnly(ElementMatcher<? super String> nameMatcher) {
+                this(nameMatcher, any());
+            }
+
+            /**
+             * Creates a new raw matcher that only matches a type's binary name and its class loader.
+             *
+             * @param nameMatcher        The matcher to apply to a type's binary name.
+             * @param classLoaderMatcher The class loader matcher to apply to a {@link java.lang.ClassLoader}.
+             */
+            public ForNameOnly(ElementMatcher<? super String> nameMatcher, ElementMatcher<? super ClassLoader> classLoaderMatcher) {
+                this(nameMatcher, classLoaderMatcher, any());
+            }
+
+            /**
+             * Creates a new raw matcher that only matches a type's binary name, its class loader and its module.
+             *
+             * @param nameMatcher        The matcher to apply to a type's binary name.
+             * @param classLoaderMatcher The class loader matcher to apply to a {@link java.lang.ClassLoader}.
+             * @param moduleMatcher      A module matcher to apply to a {@code java.lang.Module}.
+             */
+            public ForNameOnly(ElementMatcher<? super String> nameMatcher,
+                               ElementMatcher<? super ClassLoader> classLoaderMatcher,
+                               ElementMatcher<? super JavaModule> moduleMatcher) {
+                this.nameMatcher = nameMatcher;
+                this.classLoaderMatcher = classLoaderMatcher;
+                this.moduleMatcher = moduleMatcher;
+            }
+
+            /**
+             * Matches a type only by its name, class loader and module.
+             *
+             * @param name        The binary name of the matched type.
+             * @param classLoader The class loader of the matched type or {@code null} if the type is loaded by the bootstrap loader.
+             * @param module      The matched type's module or {@code null} if the current VM does not support modules.
+             * @return {@code true} if the type is matched.
+             */
+            public boolean matches(String name, @MaybeNull ClassLoader classLoader, @MaybeNull JavaModule module) {
+                return moduleMatcher.matches(module) && classLoaderMatcher.matches(classLoader) && nameMatcher.matches(name);
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public boolean matches(TypeDescription typeDescription,
+                                   @MaybeNull ClassLoader classLoader,
+                                   @MaybeNull JavaModule module,
+                                   @MaybeNull Class<?> classBeingRedefined,
+                                   ProtectionDomain protectionDomain) {
+                return matches(typeDescription.getName(), classLoader, module);
+            }
+
+            /**
+             * A resolution of a raw matcher that is computed without a {@link TypeDescription}.
+             */
+            public enum Resolution {
+
+                /**
+                 * Indicates that the raw matcher matches the type independently of its type description.
+                 */
+                MATCHED,
+
+                /**
+                 * Indicates that the raw matcher does not match the type independently of its type description.
+                 */
+                UNMATCHED,
+
+                /**
+                 * Indicates that the raw matcher's result can only be determined from a type description.
+                 */
+                UNRESOLVED;
+
+                /**
+                 * Resolves a raw matcher without a type description if possible.
+                 *
+                 * @param matcher             The raw matcher to resolve.
+                 * @param name                The binary name of the matched type.
+                 * @param classLoader         The class loader of the matched type or {@code null} if the type is loaded by the bootstrap loader.
+                 * @param module              The matched type's module or {@code null} if the current VM does not support modules.
+                 * @param classBeingRedefined The class being redefined or {@code null} if the type is not yet loaded.
+                 * @return The resolution of the supplied raw matcher.
+                 */
+                public static Resolution of(RawMatcher matcher,
+                                            String name,
+                                            @MaybeNull ClassLoader classLoader,
+                                            @MaybeNull JavaModule module,
+                                            @MaybeNull Class<?> classBeingRedefined) {
+                    if (matcher instanceof ForNameOnly) {
+                        return ((ForNameOnly) matcher).matches(name, classLoader, module) ? MATCHED : UNMATCHED;
+                    } else if (matcher instanceof Trivial) {
+                        return ((Trivial) matcher).matches ? MATCHED : UNMATCHED;
+                    } else if (matcher instanceof ForLoadState) {
+                        return classBeingRedefined == null == ((ForLoadState) matcher).unloaded ? MATCHED : UNMATCHED;
+                    } else if (matcher instanceof ForElementMatchers) {
+                        ForElementMatchers forElementMatchers = (ForElementMatchers) matcher;
+                        if (!forElementMatchers.moduleMatcher.matches(module) || !forElementMatchers.classLoaderMatcher.matches(classLoader)) {
+                            return UNMATCHED;
+                        } else if (forElementMatchers.typeMatcher.equals(any())) {
+                            return MATCHED;
+                        } else if (forElementMatchers.typeMatcher.equals(ElementMatchers.none())) {
+                            return UNMATCHED;
+                        } else {
+                            return UNRESOLVED;
+                        }
+                    } else if (matcher instanceof Inversion) {
+                        return of(((Inversion) matcher).matcher, name, classLoader, module, classBeingRedefined).inverted();
+                    } else if (matcher instanceof Conjunction) {
+                        Resolution resolution = MATCHED;
+                        for (RawMatcher element : ((Conjunction) matcher).matchers) {
+                            Resolution current = of(element, name, classLoader, module, classBeingRedefined);
+                            if (current == UNMATCHED) {
+                                return UNMATCHED;
+                            } else if (current == UNRESOLVED) {
+                                resolution = UNRESOLVED;
+                            }
+                        }
+                        return resolution;
+                    } else if (matcher instanceof Disjunction) {
+                        Resolution resolution = UNMATCHED;
+                        for (RawMatcher element : ((Disjunction) matcher).matchers) {
+                            Resolution current = of(element, name, classLoader, module, classBeingRedefined);
+                            if (current == MATCHED) {
+                                return MATCHED;
+                            } else if (current == UNRESOLVED) {
+                                resolution = UNRESOLVED;
+                            }
+                        }
+                        return resolution;
+                    } else {
+                        return UNRESOLVED;
+                    }
+                }
+
+                /**
+                 * Returns the inverted resolution of this resolution.
+                 *
+                 * @return The inverted resolution of this resolution.
+                 */
+                protected Resolution inverted() {
+                    if (this == MATCHED) {
+                        return UNMATCHED;
+                    } else if (this == UNMATCHED) {
+                        return MATCHED;
+                    } else {
+                        return UNRESOLVED;
+                    }
+                }
+            }
+        }
     }
 
     /**
@@ -2009,7 +2300,8 @@ public interface AgentBuilder {
         void onTransformation(TypeDescription typeDescription, @MaybeNull ClassLoader classLoader, @MaybeNull JavaModule module, boolean loaded, DynamicType dynamicType);
 
         /**
-         * Invoked when a type is not transformed but ignored.
+         * Invoked when a type is not transformed but ignored. This is also the case if a type is matched but if its transformers
+         * do not apply any change to the type such that no new class file is created.
          *
          * @param typeDescription The type being ignored for transformation.
          * @param classLoader     The class loader which is loading this type or {@code null} if loaded by the boots loader.
@@ -2610,6 +2902,79 @@ public interface AgentBuilder {
             }
         }
 
+        /**
+         * <p>
+         * A circularity lock that stores its state in a mutable flag that is held by a {@link ThreadLocal}. Other than the
+         * {@link Default} circularity lock, this lock does not share any state between threads and does not allocate once a
+         * thread's flag is created. The flag is a primitive array such that the thread-local value does not reference any
+         * class that might be loaded by a custom class loader.
+         * </p>
+         * <p>
+         * <b>Important</b>: Every thread that acquires this lock retains a flag in its thread-local map until the thread
+         * terminates. This is cheap for a bounded number of platform threads but adds an entry to every virtual thread that
+         * triggers a class file transformation. If a thread does not permit setting thread-local values, as it is possible
+         * for virtual threads, this lock falls back to the state of the {@link Default} circularity lock for this thread.
+         * </p>
+         */
+        class ForThreadLocal extends Default {
+
+            /**
+             * A thread-local flag that indicates if the current thread holds this lock.
+             */
+            private final ThreadLocal<boolean[]> locked;
+
+            /**
+             * Creates a new circularity lock that is based on a thread-local flag.
+             */
+            public ForThreadLocal() {
+                this(new ThreadLocal<boolean[]>());
+            }
+
+            /**
+             * Creates a new circularity lock that is based on a thread-local flag.
+             *
+             * @param locked A thread-local flag that indicates if the current thread holds this lock.
+             */
+            protected ForThreadLocal(ThreadLocal<boolean[]> locked) {
+                this.locked = locked;
+            }
+
+            @Override
+            public boolean acquire() {
+                boolean[] locked = this.locked.get();
+                if (locked == null) {
+                    locked = new boolean[1];
+                    try {
+                        this.locked.set(locked);
+                    } catch (UnsupportedOperationException ignored) {
+                        return super.acquire();
+                    }
+                } else if (locked[0]) {
+                    return false;
+                }
+                locked[0] = true;
+                return true;
+            }
+
+            @Override
+            public void release() {
+                boolean[] locked = this.locked.get();
+                if (locked == null) {
+                    super.release();
+                } else {
+                    locked[0] = false;
+                }
+            }
+
+            @Override
+            protected boolean isLocked() {
+                boolean[] locked = this.locked.get();
+                return locked == null
+                        ? super.isLocked()
+                        : locked[0];
+            }
+        }
+
         /**
          * A circularity lock that holds a global monitor and does not permit concurrent access.
          */
@@ -3593,7 +3958,7 @@ public interface AgentBuilder {
                     classLoader = classLoader == null ? getBootstrapMarkerLoader() : classLoader;
                     TypePool.CacheProvider cacheProvider = cacheProviders.get(classLoader);
                     while (cacheProvider == null) {
-                        cacheProvider = TypePool.CacheProvider.Simple.withObjectType();
+                        cacheProvider = makeCacheProvider();
                         TypePool.CacheProvider previous = cacheProviders.putIfAbsent(classLoader, cacheProvider);
                         if (previous != null) {
                             cacheProvider = previous;
@@ -3602,6 +3967,15 @@ public interface AgentBuilder {
                     return cacheProvider;
                 }
 
+                /**
+                 * Creates a new cache provider for a class loader for which no cache provider is registered yet.
+                 *
+                 * @return A new cache provider.
+                 */
+                protected TypePool.CacheProvider makeCacheProvider() {
+                    return TypePool.CacheProvider.Simple.withObjectType();
+                }
+
                 /**
                  * <p>
                  * Returns the class loader to serve as a cache key if a cache provider for the bootstrap class loader is requested.
@@ -3619,78 +3993,382 @@ public interface AgentBuilder {
                 protected ClassLoader getBootstrapMarkerLoader() {
                     return ClassLoader.getSystemClassLoader();
                 }
-            }
-        }
-    }
 
-    /**
-     * An initialization strategy which determines the handling of {@link net.bytebuddy.implementation.LoadedTypeInitializer}s
-     * and the loading of auxiliary types. The agent builder does not reuse the {@link TypeResolutionStrategy} as Javaagents cannot access
-     * a loaded class after a transformation such that different initialization strategies become meaningful.
-     */
-    interface InitializationStrategy {
+                /**
+                 * A type locator that caches a {@link net.bytebuddy.pool.TypePool.CacheProvider.Bounded} cache provider per class
+                 * loader in a concurrent map such that the number of type descriptions that are retained per class loader is limited.
+                 */
+                @HashCodeAndEqualsPlugin.Enhance
+                public static class Bounded extends Simple {
 
-        /**
-         * Creates a new dispatcher for injecting this initialization strategy during a transformation process.
-         *
-         * @return The dispatcher to be used.
-         */
-        Dispatcher dispatcher();
+                    /**
+                     * The maximum weight of all resolutions that are retained per class loader.
+                     */
+                    private final long maximumWeight;
 
-        /**
-         * A dispatcher for changing a class file to adapt a self-initialization strategy.
-         */
-        interface Dispatcher {
+                    /**
+                     * The weigher to use for determining the weight of a resolution.
+                     */
+                    private final TypePool.CacheProvider.Bounded.Weigher weigher;
 
-            /**
-             * Transforms the instrumented type to implement an appropriate initialization strategy.
-             *
-             * @param builder The builder which should implement the initialization strategy.
-             * @return The given {@code builder} with the initialization strategy applied.
-             */
-            DynamicType.Builder<?> apply(DynamicType.Builder<?> builder);
+                    /**
+                     * Creates a new type locator that caches a bounded cache provider per class loader in a concurrent map. The type
+                     * locator uses a fast {@link net.bytebuddy.pool.TypePool.Default.ReaderMode}.
+                     *
+                     * @param cacheProviders The concurrent map that is used for storing a cache provider per class loader.
+                     * @param maximumSize    The maximum number of resolutions that are retained per class loader.
+                     */
+                    public Bounded(ConcurrentMap<? super ClassLoader, TypePool.CacheProvider> cacheProviders, long maximumSize) {
+                        this(TypePool.Default.ReaderMode.FAST, cacheProviders, maximumSize, TypePool.CacheProvider.Bounded.Weigher.ForEntry.INSTANCE);
+                    }
 
-            /**
-             * Registers a dynamic type for initialization and/or begins the initialization process.
-             *
-             * @param dynamicType       The dynamic type that is created.
-             * @param classLoader       The class loader of the dynamic type which can be {@code null} to represent the bootstrap class loader.
-             * @param protectionDomain  The instrumented type's protection domain or {@code null} if no protection domain is available.
-             * @param injectionStrategy The injection strategy to use.
-             */
-            void register(DynamicType dynamicType, @MaybeNull ClassLoader classLoader, @MaybeNull ProtectionDomain protectionDomain, InjectionStrategy injectionStrategy);
-        }
+                    /**
+                     * Creates a new type locator that caches a bounded cache provider per class loader in a concurrent map.
+                     *
+                     * @param readerMode     The reader mode to use for parsing a class file.
+                     * @param cacheProviders The concurrent map that is used for storing a cache provider per class loader.
+                     * @param maximumWeight  The maximum weight of all resolutions that are retained per class loader.
+                     * @param weigher        The weigher to use for determining the weight of a resolution.
+                     */
+                    public Bounded(TypePool.Default.ReaderMode readerMode,
+                                   ConcurrentMap<? super ClassLoader, TypePool.CacheProvider> cacheProviders,
+                                   long maximumWeight,
+                                   TypePool.CacheProvider.Bounded.Weigher weigher) {
+                        super(readerMode, cacheProviders);
+                        if (maximumWeight < 1) {
+                            throw new IllegalArgumentException("Maximum weight must be positive: " + maximumWeight);
+                        }
+                        this.maximumWeight = maximumWeight;
+                        this.weigher = weigher;
+                    }
 
-        /**
-         * A non-initializing initialization strategy.
-         */
-        enum NoOp implements InitializationStrategy, Dispatcher {
+                    @Override
+                    protected TypePool.CacheProvider makeCacheProvider() {
+                        return TypePool.CacheProvider.Bounded.withObjectType(maximumWeight, weigher);
+                    }
+                }
 
-            /**
-             * The singleton instance.
-             */
-            INSTANCE;
+                /**
+                 * <p>
+                 * A type locator that shares a single cache provider for types of the bootstrap class loader, of the platform class
+                 * loader and of class loaders that are declared as shared. For any other class loader, a type pool is created with
+                 * a class loader-specific cache provider that uses a parent type pool that is backed by the shared cache provider and
+                 * that locates class files via the closest shared parent class loader. This way, types such as {@link Object} are
+                 * only parsed and retained once, even if many class loaders are instrumented.
+                 * </p>
+                 * <p>
+                 * <b>Important</b>: The shared cache provider does not discriminate types of the same name that are defined by different
+                 * shared class loaders. Also, types of a shared class loader are resolved prior to a class loader's own types, what
+                 * might not reflect the behavior of class loaders that do not delegate to their parent first.
+                 * </p>
+                 */
+                @HashCodeAndEqualsPlugin.Enhance
+                public static class Shared extends Simple {
 
-            /**
-             * {@inheritDoc}
-             */
-            public Dispatcher dispatcher() {
-                return this;
-            }
+                    /**
+                     * A matcher for class loaders that are shared in addition to the bootstrap and the platform class loader.
+                     */
+                    private final ElementMatcher<? super ClassLoader> sharedLoaders;
 
-            /**
-             * {@inheritDoc}
-             */
-            public DynamicType.Builder<?> apply(DynamicType.Builder<?> builder) {
-                return builder;
-            }
+                    /**
+                     * The cache provider for types of shared class loaders.
+                     */
+                    private final TypePool.CacheProvider sharedCacheProvider;
 
-            /**
-             * {@inheritDoc}
-             */
-            public void register(DynamicType dynamicType, @MaybeNull ClassLoader classLoader, @MaybeNull ProtectionDomain protectionDomain, InjectionStrategy injectionStrategy) {
-                /* do nothing */
-            }
+                    /**
+                     * Creates a new type locator that shares types of the bootstrap and the platform class loader. The type
+                     * locator uses a fast {@link net.bytebuddy.pool.TypePool.Default.ReaderMode}.
+                     *
+                     * @param cacheProviders The concurrent map that is used for storing a cache provider per class loader.
+                     */
+                    public Shared(ConcurrentMap<? super ClassLoader, TypePool.CacheProvider> cacheProviders) {
+                        this(cacheProviders, ElementMatchers.<ClassLoader>none());
+                    }
+
+                    /**
+                     * Creates a new type locator that shares types of the bootstrap and the platform class loader and of any
+                     * matched class loader. The type locator uses a fast {@link net.bytebuddy.pool.TypePool.Default.ReaderMode}.
+                     *
+                     * @param cacheProviders The concurrent map that is used for storing a cache provider per class loader.
+                     * @param sharedLoaders  A matcher for class loaders that are shared in addition to the bootstrap and the platform class loader.
+                     */
+                    public Shared(ConcurrentMap<? super ClassLoader, TypePool.CacheProvider> cacheProviders, ElementMatcher<? super ClassLoader> sharedLoaders) {
+                        this(TypePool.Default.ReaderMode.FAST, cacheProviders, sharedLoaders, TypePool.CacheProvider.Simple.withObjectType());
+                    }
+
+                    /**
+                     * Creates a new type locator that shares types of the bootstrap and the platform class loader and of any matched class loader.
+                     *
+                     * @param readerMode          The reader mode to use for parsing a class file.
+                     * @param cacheProviders      The concurrent map that is used for storing a cache provider per class loader.
+                     * @param sharedLoaders       A matcher for class loaders that are shared in addition to the bootstrap and the platform class loader.
+                     * @param sharedCacheProvider The cache provider for types of shared class loaders.
+                     */
+                    public Shared(TypePool.Default.ReaderMode readerMode,
+                                  ConcurrentMap<? super ClassLoader, TypePool.CacheProvider> cacheProviders,
+                                  ElementMatcher<? super ClassLoader> sharedLoaders,
+                                  TypePool.CacheProvider sharedCacheProvider) {
+                        super(readerMode, cacheProviders);
+                        this.sharedLoaders = sharedLoaders;
+                        this.sharedCacheProvider = sharedCacheProvider;
+                    }
+
+                    @Override
+                    public TypePool typePool(ClassFileLocator classFileLocator, @MaybeNull ClassLoader classLoader) {
+                        if (isShared(classLoader)) {
+                            return new TypePool.Default.WithLazyResolution(sharedCacheProvider, classFileLocator, readerMode);
+                        }
+                        TypePool.CacheProvider cacheProvider = locate(classLoader);
+                        return new TypePool.Default.WithLazyResolution(cacheProvider, classFileLocator, readerMode, parent(classLoader, cacheProvider));
+                    }
+
+                    @Override
+                    public TypePool typePool(ClassFileLocator classFileLocator, @MaybeNull ClassLoader classLoader, String name) {
+                        if (isShared(classLoader)) {
+                            return new TypePool.Default.WithLazyResolution(new TypePool.CacheProvider.Discriminating(ElementMatchers.<String>is(name),
+                                    new TypePool.CacheProvider.Simple(),
+                                    sharedCacheProvider), classFileLocator, readerMode);
+                        }
+                        TypePool.CacheProvider cacheProvider = new TypePool.CacheProvider.Discriminating(ElementMatchers.<String>is(name),
+                                new TypePool.CacheProvider.Simple(),
+                                locate(classLoader));
+                        return new TypePool.Default.WithLazyResolution(cacheProvider, classFileLocator, readerMode, parent(classLoader, cacheProvider));
+                    }
+
+                    /**
+                     * Determines if a class loader's types are stored in the shared cache provider.
+                     *
+                     * @param classLoader The class loader to consider or {@code null} for the bootstrap loader.
+                     * @return {@code true} if the class loader's types are stored in the shared cache provider.
+                     */
+                    protected boolean isShared(@MaybeNull ClassLoader classLoader) {
+                        return classLoader == null
+                                || classLoader == ClassLoader.getSystemClassLoader().getParent()
+                                || sharedLoaders.matches(classLoader);
+                    }
+
+                    /**
+                     * Creates a parent type pool for a class loader that is not shared which resolves types of the closest shared
+                     * parent class loader from the shared cache provider.
+                     *
+                     * @param classLoader   The class loader that is not shared.
+                     * @param cacheProvider The cache provider of the class loader that is not shared.
+                     * @return A type pool for the closest shared parent class loader.
+                     */
+                    protected TypePool parent(ClassLoader classLoader, TypePool.CacheProvider cacheProvider) {
+                        ClassLoader parent = classLoader;
+                        do {
+                            parent = parent.getParent();
+                        } while (!isShared(parent));
+                        return new TypePool.Default.WithLazyResolution(new ForParent(cacheProvider, sharedCacheProvider),
+                                ClassFileLocator.ForClassLoader.of(parent),
+                                readerMode);
+                    }
+
+                    /**
+                     * A cache provider for the parent type pool of a class loader that is not shared. Types are first looked up from the
+                     * cache provider of the class loader that is not shared, which contains any type that the parent type pool did not
+                     * resolve previously, such that a type of this class loader is not located via the shared parent class loader
+                     * repeatedly. Only types that are resolved by the parent type pool are registered in the shared cache provider such
+                     * that it does not retain the names of types that are only visible to class loaders that are not shared. Clearing
+                     * this cache provider does not clear either cache provider, as the shared cache provider is used by all class loaders
+                     * and as the cache provider of the class loader that is not shared is cleared by its own type pool.
+                     */
+                    @HashCodeAndEqualsPlugin.Enhance
+                    protected static class ForParent implements TypePool.CacheProvider {
+
+                        /**
+                         * The cache provider of the class loader that is not shared.
+                         */
+                        private final TypePool.CacheProvider cacheProvider;
+
+                        /**
+                         * The cache provider for types of shared class loaders.
+                         */
+                        private final TypePool.CacheProvider sharedCacheProvider;
+
+                        /**
+                         * Creates a new cache provider for the parent type pool of a class loader that is not shared.
+                         *
+                         * @param cacheProvider       The cache provider of the class loader that is not shared.
+                         * @param sharedCacheProvider The cache provider for types of shared class loaders.
+                         */
+                        protected ForParent(TypePool.CacheProvider cacheProvider, TypePool.CacheProvider sharedCacheProvider) {
+                            this.cacheProvider = cacheProvider;
+                            this.sharedCacheProvider = sharedCacheProvider;
+                        }
+
+                        /**
+                         * {@inheritDoc}
+                         */
+                        @MaybeNull
+                        public TypePool.Resolution find(String name) {
+                            TypePool.Resolution resolution = cacheProvider.find(name);
+                            return resolution == null
+                                    ? sharedCacheProvider.find(name)
+                                    : resolution;
+                        }
+
+                        /**
+                         * {@inheritDoc}
+                         */
+                        public TypePool.Resolution register(String name, TypePool.Resolution resolution) {
+                            return resolution.isResolved()
+                                    ? sharedCacheProvider.register(name, resolution)
+                                    : resolution;
+                        }
+
+                        /**
+                         * {@inheritDoc}
+                         */
+                        public void clear() {
+                            /* do nothing */
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * A pool strategy that locates the class files of a given class loader from a snapshot, as represented by a
+         * {@link ClassFileLocator.ForSnapshotFile}, before locating them via the class file locator of a transformation. This avoids reading
+         * the class files of types that were already resolved by a previous run of the application from the class path. The snapshot is never
+         * consulted for the instrumented type itself such that this type is always described from the class file that is supplied by the
+         * class file locator of the transformation, for example from the class file buffer of the current class loading. To write a snapshot
+         * for a subsequent run, the delegate pool strategy can be a {@link WithTypePoolCache.Simple} where the cache provider of the given
+         * class loader is written via {@link TypePool.CacheProvider.Simple#snapshot(File, List)} when the application shuts down.
+         */
+        @HashCodeAndEqualsPlugin.Enhance
+        class WithSnapshot implements PoolStrategy {
+
+            /**
+             * The pool strategy to delegate to.
+             */
+            private final PoolStrategy delegate;
+
+            /**
+             * The class file locator for the snapshot of a previous run.
+             */
+            private final ClassFileLocator snapshot;
+
+            /**
+             * The class loader whose class path is represented by the snapshot or {@code null} for the bootstrap class loader.
+             */
+            @MaybeNull
+            @HashCodeAndEqualsPlugin.ValueHandling(HashCodeAndEqualsPlugin.ValueHandling.Sort.REVERSE_NULLABILITY)
+            private final ClassLoader classLoader;
+
+            /**
+             * Creates a pool strategy with a snapshot of the system class loader's class path.
+             *
+             * @param delegate The pool strategy to delegate to.
+             * @param snapshot The class file locator for the snapshot of a previous run.
+             */
+            public WithSnapshot(PoolStrategy delegate, ClassFileLocator snapshot) {
+                this(delegate, snapshot, ClassLoader.getSystemClassLoader());
+            }
+
+            /**
+             * Creates a pool strategy with a snapshot.
+             *
+             * @param delegate    The pool strategy to delegate to.
+             * @param snapshot    The class file locator for the snapshot of a previous run.
+             * @param classLoader The class loader whose class path is represented by the snapshot or {@code null} for the bootstrap class loader.
+             */
+            public WithSnapshot(PoolStrategy delegate, ClassFileLocator snapshot, @MaybeNull ClassLoader classLoader) {
+                this.delegate = delegate;
+                this.snapshot = snapshot;
+                this.classLoader = classLoader;
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public TypePool typePool(ClassFileLocator classFileLocator, @MaybeNull ClassLoader classLoader) {
+                return delegate.typePool(classLoader == this.classLoader
+                        ? new ClassFileLocator.Compound(snapshot, classFileLocator)
+                        : classFileLocator, classLoader);
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public TypePool typePool(ClassFileLocator classFileLocator, @MaybeNull ClassLoader classLoader, String name) {
+                return delegate.typePool(classLoader == this.classLoader
+                        ? new ClassFileLocator.Compound(new ClassFileLocator.Filtering(not(ElementMatchers.is(name)), snapshot), classFileLocator)
+                        : classFileLocator, classLoader, name);
+            }
+        }
+    }
+
+    /**
+     * An initialization strategy which determines the handling of {@link net.bytebuddy.implementation.LoadedTypeInitializer}s
+     * and the loading of auxiliary types. The agent builder does not reuse the {@link TypeResolutionStrategy} as Javaagents cannot access
+     * a loaded class after a transformation such that different initialization strategies become meaningful.
+     */
+    interface InitializationStrategy {
+
+        /**
+         * Creates a new dispatcher for injecting this initialization strategy during a transformation process.
+         *
+         * @return The dispatcher to be used.
+         */
+        Dispatcher dispatcher();
+
+        /**
+         * A dispatcher for changing a class file to adapt a self-initialization strategy.
+         */
+        interface Dispatcher {
+
+            /**
+             * Transforms the instrumented type to implement an appropriate initialization strategy.
+             *
+             * @param builder The builder which should implement the initialization strategy.
+             * @return The given {@code builder} with the initialization strategy applied.
+             */
+            DynamicType.Builder<?> apply(DynamicType.Builder<?> builder);
+
+            /**
+             * Registers a dynamic type for initialization and/or begins the initialization process.
+             *
+             * @param dynamicType       The dynamic type that is created.
+             * @param classLoader       The class loader of the dynamic type which can be {@code null} to represent the bootstrap class loader.
+             * @param protectionDomain  The instrumented type's protection domain or {@code null} if no protection domain is available.
+             * @param injectionStrategy The injection strategy to use.
+             */
+            void register(DynamicType dynamicType, @MaybeNull ClassLoader classLoader, @MaybeNull ProtectionDomain protectionDomain, InjectionStrategy injectionStrategy);
+        }
+
+        /**
+         * A non-initializing initialization strategy.
+         */
+        enum NoOp implements InitializationStrategy, Dispatcher {
+
+            /**
+             * The singleton instance.
+             */
+            INSTANCE;
+
+            /**
+             * {@inheritDoc}
+             */
+            public Dispatcher dispatcher() {
+                return this;
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public DynamicType.Builder<?> apply(DynamicType.Builder<?> builder) {
+                return builder;
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public void register(DynamicType dynamicType, @MaybeNull ClassLoader classLoader, @MaybeNull ProtectionDomain protectionDomain, InjectionStrategy injectionStrategy) {
+                /* do nothing */
+            }
         }
 
         /**
@@ -5038,6 +5716,18 @@ public interface AgentBuilder {
          */
         void onWarmUpError(Class<?> type, ResettableClassFileTransformer classFileTransformer, Throwable throwable);
 
+        /**
+         * Invoked when a type of a replayed {@link WarmupProfile} yields an unexpected error. Other than for
+         * {@link InstallationListener#onWarmUpError(Class, ResettableClassFileTransformer, Throwable)}, the type is
+         * only known by its name as a replay does not load the type.
+         *
+         * @param typeName             The binary name of the type that caused the error.
+         * @param classLoader          The type's class loader or {@code null} if the type is loaded by the boot loader.
+         * @param classFileTransformer The class file transformer that is warmed up.
+         * @param throwable            The throwable that represents the error.
+         */
+        void onWarmUpError(String typeName, @MaybeNull ClassLoader classLoader, ResettableClassFileTransformer classFileTransformer, Throwable throwable);
+
         /**
          * Invoked after a warump is executed.
          *
@@ -5100,6 +5790,13 @@ public interface AgentBuilder {
                 /* do nothing */
             }
 
+            /**
+             * {@inheritDoc}
+             */
+            public void onWarmUpError(String typeName, @MaybeNull ClassLoader classLoader, ResettableClassFileTransformer classFileTransformer, Throwable throwable) {
+                /* do nothing */
+            }
+
             /**
              * {@inheritDoc}
              */
@@ -5161,6 +5858,13 @@ public interface AgentBuilder {
                 /* do nothing */
             }
 
+            /**
+             * {@inheritDoc}
+             */
+            public void onWarmUpError(String typeName, @MaybeNull ClassLoader classLoader, ResettableClassFileTransformer classFileTransformer, Throwable throwable) {
+                /* do nothing */
+            }
+
             /**
              * {@inheritDoc}
              */
@@ -5216,6 +5920,13 @@ public interface AgentBuilder {
                 /* do nothing */
             }
 
+            /**
+             * {@inheritDoc}
+             */
+            public void onWarmUpError(String typeName, @MaybeNull ClassLoader classLoader, ResettableClassFileTransformer classFileTransformer, Throwable throwable) {
+                /* do nothing */
+            }
+
             /**
              * {@inheritDoc}
              */
@@ -5316,6 +6027,16 @@ public interface AgentBuilder {
                 }
             }
 
+            /**
+             * {@inheritDoc}
+             */
+            public void onWarmUpError(String typeName, @MaybeNull ClassLoader classLoader, ResettableClassFileTransformer classFileTransformer, Throwable throwable) {
+                synchronized (printStream) {
+                    printStream.printf(PREFIX + " ERROR_WARMUP %s on %s [%s]%n", classFileTransformer, typeName, classLoader);
+                    throwable.printStackTrace(printStream);
+                }
+            }
+
             /**
              * {@inheritDoc}
              */
@@ -5419,6 +6140,15 @@ public interface AgentBuilder {
                 }
             }
 
+            /**
+             * {@inheritDoc}
+             */
+            public void onWarmUpError(String typeName, @MaybeNull ClassLoader classLoader, ResettableClassFileTransformer classFileTransformer, Throwable throwable) {
+                for (InstallationListener installationListener : installationListeners) {
+                    installationListener.onWarmUpError(typeName, classLoader, classFileTransformer, throwable);
+                }
+            }
+
             /**
              * {@inheritDoc}
              */
@@ -5515,22 +6245,47 @@ public interface AgentBuilder {
     }
 
     /**
-     * A decorator that allows to change the class file transformer that is registered.
+     * <p>
+     * A transformation cache allows to reuse the class file of a previous transformation of an unchanged type, for example
+     * between several runs of the same application. The cache is queried after a type is matched by an agent builder's
+     * transformations such that matchers are still applied on every discovery, but the instrumented type is not
+     * recreated by a {@link net.bytebuddy.dynamic.DynamicType.Builder}.
+     * </p>
+     * <p>
+     * <b>Important</b>: A cached class file is only registered if the original transformation did not require any auxiliary
+     * types or any live {@link LoadedTypeInitializer}s. A cache is not able to consider the configuration of an agent
+     * builder's transformers. It is the responsibility of the user to invalidate a cache if this configuration changes.
+     * </p>
      */
-    interface TransformerDecorator {
+    interface TransformationCache {
 
         /**
-         * Decorates the applied class file transformer.
+         * Looks up a previously registered transformation of a type.
          *
-         * @param classFileTransformer The original transformer created by the agent builder.
-         * @return The class file transformer that is actually being registered.
+         * @param name                 The binary name of the instrumented type.
+         * @param classLoader          The instrumented type's class loader or {@code null} if the type is loaded by the bootstrap class loader.
+         * @param binaryRepresentation The instrumented type's binary representation prior to its transformation.
+         * @param transformations      The indices of the agent builder's transformations that matched the instrumented type.
+         * @return The transformed class file or {@code null} if no transformation was registered.
          */
-        ResettableClassFileTransformer decorate(ResettableClassFileTransformer classFileTransformer);
+        @MaybeNull
+        byte[] find(String name, @MaybeNull ClassLoader classLoader, byte[] binaryRepresentation, List<Integer> transformations);
 
         /**
-         * A transformer decorator that retains the original transformer.
+         * Registers the transformation of a type.
+         *
+         * @param name                 The binary name of the instrumented type.
+         * @param classLoader          The instrumented type's class loader or {@code null} if the type is loaded by the bootstrap class loader.
+         * @param binaryRepresentation The instrumented type's binary representation prior to its transformation.
+         * @param transformations      The indices of the agent builder's transformations that matched the instrumented type.
+         * @param transformed          The instrumented type's binary representation after its transformation.
          */
-        enum NoOp implements TransformerDecorator {
+        void register(String name, @MaybeNull ClassLoader classLoader, byte[] binaryRepresentation, List<Integer> transformations, byte[] transformed);
+
+        /**
+         * A disabled transformation cache that never registers a transformation.
+         */
+        enum Disabled implements TransformationCache {
 
             /**
              * The singleton instance.
@@ -5540,73 +6295,2363 @@ public interface AgentBuilder {
             /**
              * {@inheritDoc}
              */
-            public ResettableClassFileTransformer decorate(ResettableClassFileTransformer classFileTransformer) {
-                return classFileTransformer;
+            @MaybeNull
+            public byte[] find(String name, @MaybeNull ClassLoader classLoader, byte[] binaryRepresentation, List<Integer> transformations) {
+                return null;
             }
-        }
-
-        /**
-         * Wraps a class file transformer to become substitutable.
-         */
-        enum ForSubstitution implements TransformerDecorator {
-
-            /**
-             * The singleton instance.
-             */
-            INSTANCE;
 
             /**
              * {@inheritDoc}
              */
-            public ResettableClassFileTransformer decorate(ResettableClassFileTransformer classFileTransformer) {
-                return ResettableClassFileTransformer.WithDelegation.Substitutable.of(classFileTransformer);
+            public void register(String name, @MaybeNull ClassLoader classLoader, byte[] binaryRepresentation, List<Integer> transformations, byte[] transformed) {
+                /* do nothing */
             }
         }
 
         /**
-         * A compound transformer decorator.
+         * <p>
+         * A transformation cache that stores transformed class files in a folder where each entry is named by a
+         * SHA-256 digest of a fingerprint of the agent's configuration, the type's class loader, the type's name, the
+         * indices of the matched transformations and the original class file. Any I/O error is treated as a cache miss.
+         * </p>
+         * <p>
+         * Only types of class loaders with a representation that is stable between runs of an application are cached. The
+         * bootstrap class loader and the platform class loader are represented by their class names and the system class
+         * loader is represented by its class name and the {@code java.class.path} property. Any other class loader must be
+         * a {@link URLClassLoader} with a cacheable parent and is represented by its class name, the URLs that it declares
+         * when it is first discovered and the representation of its parent. Types of any other class loader are neither
+         * looked up nor registered.
+         * </p>
+         */
+        @HashCodeAndEqualsPlugin.Enhance
+        class ForFolder implements TransformationCache {
+
+            /**
+             * The digest algorithm that is used for computing an entry's name.
+             */
+            private static final String ALGORITHM = "SHA-256";
+
+            /**
+             * The file extension of a cache entry.
+             */
+            private static final String CLASS_FILE_EXTENSION = ".class";
+
+            /**
+             * The magic number of a class file.
+             */
+            private static final int MAGIC_NUMBER = 0xCAFEBABE;
+
+            /**
+             * The folder in which transformed class files are stored.
+             */
+            private final File folder;
+
+            /**
+             * A fingerprint of the agent's configuration that is included in the name of any entry.
+             */
+            private final String fingerprint;
+
+            /**
+             * A mapping of weakly referenced {@link URLClassLoader}s to their representation within an entry's name.
+             */
+            @HashCodeAndEqualsPlugin.ValueHandling(HashCodeAndEqualsPlugin.ValueHandling.Sort.IGNORE)
+            private final ConcurrentMap<ClassLoaderStorage.StorageKey, String> classLoaders;
+
+            /**
+             * Creates a new transformation cache for a folder.
+             *
+             * @param folder      The folder in which transformed class files are stored.
+             * @param fingerprint A fingerprint of the agent's configuration that is included in the name of any entry. The fingerprint
+             *                    should be changed whenever the agent's transformers change, for example by including the agent's version.
+             */
+            public ForFolder(File folder, String fingerprint) {
+                this.folder = folder;
+                this.fingerprint = fingerprint;
+                classLoaders = new ConcurrentHashMap<ClassLoaderStorage.StorageKey, String>();
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            @MaybeNull
+            public byte[] find(String name, @MaybeNull ClassLoader classLoader, byte[] binaryRepresentation, List<Integer> transformations) {
+                String representation = toRepresentation(classLoader);
+                if (representation == null) {
+                    return null;
+                }
+                File file = new File(folder, digest(name, representation, binaryRepresentation, transformations) + CLASS_FILE_EXTENSION);
+                if (!file.isFile()) {
+                    return null;
+                }
+                try {
+                    InputStream inputStream = new FileInputStream(file);
+                    try {
+                        byte[] transformed = StreamDrainer.DEFAULT.drain(inputStream);
+                        return transformed.length > 3 && ((transformed[0] & 0xFF) << 24
+                                | (transformed[1] & 0xFF) << 16
+                                | (transformed[2] & 0xFF) << 8
+                                | transformed[3] & 0xFF) == MAGIC_NUMBER ? transformed : null;
+                    } finally {
+                        inputStream.close();
+                    }
+                } catch (IOException ignored) {
+                    return null;
+                }
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public void register(String name, @MaybeNull ClassLoader classLoader, byte[] binaryRepresentation, List<Integer> transformations, byte[] transformed) {
+                String representation = toRepresentation(classLoader);
+                if (representation == null || !folder.isDirectory() && !folder.mkdirs() && !folder.isDirectory()) {
+                    return;
+                }
+                String digest = digest(name, representation, binaryRepresentation, transformations);
+                try {
+                    File file = File.createTempFile(digest, null, folder);
+                    try {
+                        OutputStream outputStream = new FileOutputStream(file);
+                        try {
+                            outputStream.write(transformed);
+                        } finally {
+                            outputStream.close();
+                        }
+                        if (!file.renameTo(new File(folder, digest + CLASS_FILE_EXTENSION)) && !file.delete()) {
+                            file.deleteOnExit();
+                        }
+                    } catch (IOException exception) {
+                        if (!file.delete()) {
+                            file.deleteOnExit();
+                        }
+                        throw exception;
+                    }
+                } catch (IOException ignored) {
+                    /* do nothing */
+                }
+            }
+
+            /**
+             * Resolves the representation of a class loader within an entry's name.
+             *
+             * @param classLoader The class loader to represent or {@code null} if the type is loaded by the bootstrap class loader.
+             * @return The representation of the class loader or {@code null} if the class loader's types are not cacheable.
+             */
+            @MaybeNull
+            @SuppressFBWarnings(value = "GC_UNRELATED_TYPES", justification = "Cross-comparison is intended.")
+            private String toRepresentation(@MaybeNull ClassLoader classLoader) {
+                if (classLoader == null) {
+                    return "";
+                } else if (classLoader == ClassLoader.getSystemClassLoader()) {
+                    return classLoader.getClass().getName() + "(" + System.getProperty("java.class.path", "") + ")";
+                } else if (classLoader == ClassLoader.getSystemClassLoader().getParent()) {
+                    return classLoader.getClass().getName();
+                } else if (!(classLoader instanceof URLClassLoader)) {
+                    return null;
+                }
+                String representation = classLoaders.get(new ClassLoaderStorage.LookupKey(classLoader));
+                if (representation != null) {
+                    return representation;
+                }
+                String parent = toRepresentation(classLoader.getParent());
+                if (parent == null) {
+                    return null;
+                }
+                StringBuilder stringBuilder = new StringBuilder(classLoader.getClass().getName()).append('(');
+                for (URL url : ((URLClassLoader) classLoader).getURLs()) {
+                    stringBuilder.append(url).append('\n');
+                }
+                representation = stringBuilder.append(")<").append(parent).toString();
+                Iterator<ClassLoaderStorage.StorageKey> iterator = classLoaders.keySet().iterator();
+                while (iterator.hasNext()) {
+                    if (iterator.next().get() == null) {
+                        iterator.remove();
+                    }
+                }
+                String previous = classLoaders.putIfAbsent(new ClassLoaderStorage.StorageKey(classLoader), representation);
+                return previous == null
+                        ? representation
+                        : previous;
+            }
+
+            /**
+             * Computes the digest of a cache entry.
+             *
+             * @param name                 The binary name of the instrumented type.
+             * @param representation       The representation of the instrumented type's class loader.
+             * @param binaryRepresentation The instrumented type's binary representation prior to its transformation.
+             * @param transformations      The indices of the agent builder's transformations that matched the instrumented type.
+             * @return A hexadecimal representation of the entry's digest.
+             */
+            private String digest(String name, String representation, byte[] binaryRepresentation, List<Integer> transformations) {
+                MessageDigest messageDigest;
+                try {
+                    messageDigest = MessageDigest.getInstance(ALGORITHM);
+                } catch (NoSuchAlgorithmException exception) {
+                    throw new IllegalStateException("Cannot resolve digest algorithm " + ALGORITHM, exception);
+                }
+                try {
+                    messageDigest.update(fingerprint.getBytes("UTF-8"));
+                    messageDigest.update((byte) 0);
+                    messageDigest.update(representation.getBytes("UTF-8"));
+                    messageDigest.update((byte) 0);
+                    messageDigest.update(name.getBytes("UTF-8"));
+                    messageDigest.update((byte) 0);
+                } catch (UnsupportedEncodingException exception) {
+                    throw new IllegalStateException("Cannot encode as UTF-8", exception);
+                }
+                for (int transformation : transformations) {
+                    messageDigest.update(new byte[]{(byte) (transformation >>> 24),
+                            (byte) (transformation >>> 16),
+                            (byte) (transformation >>> 8),
+                            (byte) transformation});
+                }
+                messageDigest.update((byte) 0);
+                messageDigest.update(binaryRepresentation);
+                StringBuilder stringBuilder = new StringBuilder();
+                for (byte value : messageDigest.digest()) {
+                    stringBuilder.append(Character.forDigit((value >>> 4) & 0xF, 16)).append(Character.forDigit(value & 0xF, 16));
+                }
+                return stringBuilder.toString();
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * An ignored type cache remembers the names of loaded types that were discovered by an agent builder's class file transformer
+     * but that were not matched by any of its transformations. If such a type is discovered again, for example because it
+     * is retransformed, resubmitted or redefined repeatedly, it is ignored by its name and class loader without locating
+     * its class file, describing it or applying any matcher. Types are neither registered nor looked up when they are loaded
+     * for the first time, such that matchers that consider if a type is already loaded, as
+     * {@link RawMatcher.ForLoadState}, are applied to any type that is retransformed, resubmitted or redefined after its
+     * loading. A storage is created for every class file transformer such that a storage is never shared between differing
+     * lists of transformations. A storage is cleared when its class file transformer is reset.
+     * </p>
+     * <p>
+     * <b>Important</b>: An ignored type cache assumes that the agent builder's matchers yield the same result for any
+     * retransformation, resubmission or redefinition of a loaded type of a given name and class loader. This is not the case
+     * if a matcher considers the state of a loaded class, its protection domain or a class file that was altered by another
+     * class file transformer.
+     * </p>
+     */
+    interface IgnoredTypeCache {
+
+        /**
+         * Creates a storage for the ignored types of a single class file transformer.
+         *
+         * @return A new storage for ignored types.
+         */
+        Storage make();
+
+        /**
+         * A storage of ignored types of a class file transformer.
+         */
+        interface Storage {
+
+            /**
+             * Checks if a type was previously registered as ignored.
+             *
+             * @param name        The binary name of the type.
+             * @param classLoader The type's class loader or {@code null} if the type is loaded by the bootstrap class loader.
+             * @return {@code true} if the type was previously registered as ignored.
+             */
+            boolean isIgnored(String name, @MaybeNull ClassLoader classLoader);
+
+            /**
+             * Registers a type as ignored.
+             *
+             * @param name        The binary name of the type.
+             * @param classLoader The type's class loader or {@code null} if the type is loaded by the bootstrap class loader.
+             */
+            void register(String name, @MaybeNull ClassLoader classLoader);
+
+            /**
+             * Removes all registered types.
+             */
+            void clear();
+        }
+
+        /**
+         * A disabled ignored type cache that never registers a type.
+         */
+        enum Disabled implements IgnoredTypeCache, Storage {
+
+            /**
+             * The singleton instance.
+             */
+            INSTANCE;
+
+            /**
+             * {@inheritDoc}
+             */
+            public Storage make() {
+                return this;
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public boolean isIgnored(String name, @MaybeNull ClassLoader classLoader) {
+                return false;
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public void register(String name, @MaybeNull ClassLoader classLoader) {
+                /* do nothing */
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public void clear() {
+                /* do nothing */
+            }
+        }
+
+        /**
+         * An ignored type cache that weakly references the class loaders of ignored types and that bounds the number of type
+         * names that are remembered per class loader. If this bound is reached, all names of the class loader are discarded.
+         */
+        @HashCodeAndEqualsPlugin.Enhance
+        class Bounded implements IgnoredTypeCache {
+
+            /**
+             * The maximum number of ignored type names that are remembered per class loader.
+             */
+            private final int maximumSize;
+
+            /**
+             * Creates a new bounded ignored type cache.
+             *
+             * @param maximumSize The maximum number of ignored type names that are remembered per class loader.
+             */
+            public Bounded(int maximumSize) {
+                if (maximumSize < 1) {
+                    throw new IllegalArgumentException("Maximum size must be positive: " + maximumSize);
+                }
+                this.maximumSize = maximumSize;
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public IgnoredTypeCache.Storage make() {
+                return new Storage(maximumSize);
+            }
+
+            /**
+             * A storage of ignored types that weakly references the types' class loaders.
+             */
+            protected static class Storage implements IgnoredTypeCache.Storage {
+
+                /**
+                 * The maximum number of ignored type names that are remembered per class loader.
+                 */
+                private final int maximumSize;
+
+                /**
+                 * A map of class loaders to the names of their ignored types.
+                 */
+                private final ConcurrentMap<ClassLoaderStorage.StorageKey, Set<String>> types;
+
+                /**
+                 * Creates a new storage.
+                 *
+                 * @param maximumSize The maximum number of ignored type names that are remembered per class loader.
+                 */
+                protected Storage(int maximumSize) {
+                    this.maximumSize = maximumSize;
+                    types = new ConcurrentHashMap<ClassLoaderStorage.StorageKey, Set<String>>();
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @SuppressFBWarnings(value = "GC_UNRELATED_TYPES", justification = "Cross-comparison is intended.")
+                public boolean isIgnored(String name, @MaybeNull ClassLoader classLoader) {
+                    Set<String> types = this.types.get(new ClassLoaderStorage.LookupKey(classLoader));
+                    return types != null && types.contains(name);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @SuppressFBWarnings(value = "GC_UNRELATED_TYPES", justification = "Cross-comparison is intended.")
+                public void register(String name, @MaybeNull ClassLoader classLoader) {
+                    Set<String> types = this.types.get(new ClassLoaderStorage.LookupKey(classLoader));
+                    if (types == null) {
+                        Iterator<ClassLoaderStorage.StorageKey> iterator = this.types.keySet().iterator();
+                        while (iterator.hasNext()) {
+                            ClassLoaderStorage.StorageKey key = iterator.next();
+                            if (key.get() == null && !key.isBootstrapLoader()) {
+                                iterator.remove();
+                            }
+                        }
+                        types = new ClassLoaderStorage.ConcurrentHashSet<String>();
+                        Set<String> previous = this.types.putIfAbsent(new ClassLoaderStorage.StorageKey(classLoader), types);
+                        if (previous != null) {
+                            types = previous;
+                        }
+                    } else if (types.size() >= maximumSize) {
+                        types.clear();
+                    }
+                    types.add(name);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                public void clear() {
+                    types.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Records the latency of the phases of a transformation that is applied by an agent builder's class file transformer and
+     * the latency of applying each of its {@link Transformation}s, in addition to the number of types that were ignored,
+     * transformed or that failed to transform.
+     * </p>
+     * <p>
+     * <b>Important</b>: Type descriptions are resolved lazily such that class files might be located during the description,
+     * matching or building phase of a transformation. The latency of locating a class file is therefore also included in the
+     * latency of the phase that triggered it.
+     * </p>
+     */
+    interface TransformationMetrics {
+
+        /**
+         * Returns a time stamp that marks the beginning of a measurement.
+         *
+         * @return A time stamp in nanoseconds or {@code 0} if no time is measured.
+         */
+        long tick();
+
+        /**
+         * Records the completion of a phase of a transformation.
+         *
+         * @param phase The completed phase.
+         * @param start The time stamp that was returned by {@link TransformationMetrics#tick()} when the phase was started.
+         */
+        void onPhase(Phase phase, long start);
+
+        /**
+         * Records the application of the transformers of a transformation.
+         *
+         * @param index The index of the transformation in the order it was registered with the agent builder.
+         * @param start The time stamp that was returned by {@link TransformationMetrics#tick()} when the transformation was started.
+         */
+        void onTransformation(int index, long start);
+
+        /**
+         * Records the result of a type's discovery.
+         *
+         * @param result The result of the type's discovery.
+         */
+        void onResult(Result result);
+
+        /**
+         * Decorates a class file locator to record the latency of locating class files.
+         *
+         * @param classFileLocator The class file locator to decorate.
+         * @return The decorated class file locator.
+         */
+        ClassFileLocator decorate(ClassFileLocator classFileLocator);
+
+        /**
+         * A phase of a transformation.
+         */
+        enum Phase {
+
+            /**
+             * Locating a class file.
+             */
+            LOCATION,
+
+            /**
+             * Describing the instrumented type.
+             */
+            DESCRIPTION,
+
+            /**
+             * Matching the instrumented type against the agent builder's ignore matcher and transformations.
+             */
+            MATCHING,
+
+            /**
+             * Creating a {@link net.bytebuddy.dynamic.DynamicType.Builder} and applying the matched transformers.
+             */
+            BUILDING,
+
+            /**
+             * Creating the transformed class file from the {@link net.bytebuddy.dynamic.DynamicType.Builder}.
+             */
+            MAKING
+        }
+
+        /**
+         * The result of a type's discovery.
+         */
+        enum Result {
+
+            /**
+             * The type was not matched by any transformation or was ignored.
+             */
+            IGNORED,
+
+            /**
+             * The type was transformed.
+             */
+            TRANSFORMED,
+
+            /**
+             * The type's transformation failed.
+             */
+            FAILED
+        }
+
+        /**
+         * A non-operational transformation metrics which does not measure any time.
+         */
+        enum Disabled implements TransformationMetrics {
+
+            /**
+             * The singleton instance.
+             */
+            INSTANCE;
+
+            /**
+             * {@inheritDoc}
+             */
+            public long tick() {
+                return 0L;
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public void onPhase(Phase phase, long start) {
+                /* do nothing */
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public void onTransformation(int index, long start) {
+                /* do nothing */
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public void onResult(Result result) {
+                /* do nothing */
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public ClassFileLocator decorate(ClassFileLocator classFileLocator) {
+                return classFileLocator;
+            }
+        }
+
+        /**
+         * A histogram of latencies that is recorded without allocation. Values are counted in buckets of logarithmically increasing
+         * size, where each power of two is divided into sixteen linear sub-buckets such that a value is reported with a relative
+         * error of at most six and a quarter percent.
+         */
+        class Histogram {
+
+            /**
+             * The number of bits that determine a value's sub-bucket.
+             */
+            private static final int SUB_BUCKET_BITS = 4;
+
+            /**
+             * The number of sub-buckets per power of two.
+             */
+            private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+            /**
+             * The number of buckets that are required to represent any non-negative {@code long} value.
+             */
+            private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) << SUB_BUCKET_BITS;
+
+            /**
+             * The number of recorded values per bucket.
+             */
+            private final AtomicLongArray counts;
+
+            /**
+             * The sum of all recorded values.
+             */
+            private final AtomicLong total;
+
+            /**
+             * The largest recorded value.
+             */
+            private final AtomicLong maximum;
+
+            /**
+             * Creates a new histogram.
+             */
+            public Histogram() {
+                counts = new AtomicLongArray(BUCKETS);
+                total = new AtomicLong();
+                maximum = new AtomicLong();
+            }
+
+            /**
+             * Resolves the bucket of a value.
+             *
+             * @param value The non-negative value to resolve.
+             * @return The index of the value's bucket.
+             */
+            protected static int bucket(long value) {
+                if (value < SUB_BUCKETS) {
+                    return (int) value;
+                }
+                int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+                return ((exponent - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) | (int) ((value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+            }
+
+            /**
+             * Resolves the largest value that is counted in a bucket.
+             *
+             * @param bucket The index of the bucket.
+             * @return The largest value that is counted in the bucket.
+             */
+            protected static long limit(int bucket) {
+                if (bucket < SUB_BUCKETS) {
+                    return bucket;
+                }
+                int shift = (bucket >>> SUB_BUCKET_BITS) - 1;
+                return ((((long) (SUB_BUCKETS | (bucket & (SUB_BUCKETS - 1)))) + 1) << shift) - 1;
+            }
+
+            /**
+             * Records a value. Negative values are recorded as {@code 0}.
+             *
+             * @param value The value to record.
+             */
+            public void record(long value) {
+                if (value < 0L) {
+                    value = 0L;
+                }
+                counts.incrementAndGet(bucket(value));
+                total.addAndGet(value);
+                long maximum;
+                do {
+                    maximum = this.maximum.get();
+                } while (value > maximum && !this.maximum.compareAndSet(maximum, value));
+            }
+
+            /**
+             * Removes all recorded values. Values that are recorded concurrently might only be removed partially.
+             */
+            public void reset() {
+                for (int index = 0; index < BUCKETS; index++) {
+                    counts.set(index, 0L);
+                }
+                total.set(0L);
+                maximum.set(0L);
+            }
+
+            /**
+             * Creates a snapshot of this histogram's current state.
+             *
+             * @return A snapshot of this histogram's current state.
+             */
+            public Snapshot getSnapshot() {
+                long[] counts = new long[BUCKETS];
+                for (int index = 0; index < BUCKETS; index++) {
+                    counts[index] = this.counts.get(index);
+                }
+                return new Snapshot(counts, total.get(), maximum.get());
+            }
+
+            /**
+             * An immutable snapshot of a histogram.
+             */
+            @HashCodeAndEqualsPlugin.Enhance
+            public static class Snapshot {
+
+                /**
+                 * The number of recorded values per bucket.
+                 */
+                private final long[] counts;
+
+                /**
+                 * The sum of all recorded values.
+                 */
+                private final long total;
+
+                /**
+                 * The largest recorded value.
+                 */
+                private final long maximum;
+
+                /**
+                 * Creates a new snapshot of a histogram.
+                 *
+                 * @param counts  The number of recorded values per bucket.
+                 * @param total   The sum of all recorded values.
+                 * @param maximum The largest recorded value.
+                 */
+                protected Snapshot(long[] counts, long total, long maximum) {
+                    this.counts = counts;
+                    this.total = total;
+                    this.maximum = maximum;
+                }
+
+                /**
+                 * Returns the number of recorded values.
+                 *
+                 * @return The number of recorded values.
+                 */
+                public long getCount() {
+                    long count = 0L;
+                    for (long value : counts) {
+                        count += value;
+                    }
+                    return count;
+                }
+
+                /**
+                 * Returns the sum of all recorded values.
+                 *
+                 * @return The sum of all recorded values.
+                 */
+                public long getTotal() {
+                    return total;
+                }
+
+                /**
+                 * Returns the largest recorded value.
+                 *
+                 * @return The largest recorded value or {@code 0} if no value was recorded.
+                 */
+                public long getMaximum() {
+                    return maximum;
+                }
+
+                /**
+                 * Returns the mean of all recorded values.
+                 *
+                 * @return The mean of all recorded values or {@code 0} if no value was recorded.
+                 */
+                public double getMean() {
+                    long count = getCount();
+                    return count == 0L ? 0d : (double) total / count;
+                }
+
+                /**
+                 * Returns an upper bound for the value below which the given percentage of all recorded values fall.
+                 *
+                 * @param percentile The percentile to resolve, between {@code 0} and {@code 100}.
+                 * @return An upper bound for the value at the given percentile or {@code 0} if no value was recorded.
+                 */
+                public long getValueAtPercentile(double percentile) {
+                    if (percentile < 0d || percentile > 100d) {
+                        throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+                    }
+                    long count = getCount();
+                    if (count == 0L) {
+                        return 0L;
+                    }
+                    long rank = Math.max(1L, (long) Math.ceil(percentile / 100d * count)), accumulated = 0L;
+                    for (int index = 0; index < counts.length; index++) {
+                        accumulated += counts[index];
+                        if (accumulated >= rank) {
+                            return Math.min(limit(index), maximum);
+                        }
+                    }
+                    return maximum;
+                }
+            }
+        }
+
+        /**
+         * A management interface of a {@link Recording} that is published as a standard MBean. All latencies are reported in
+         * nanoseconds.
+         */
+        interface RecordingMBean {
+
+            /**
+             * Returns the number of types that were ignored.
+             *
+             * @return The number of types that were ignored.
+             */
+            long getIgnoredCount();
+
+            /**
+             * Returns the number of types that were transformed.
+             *
+             * @return The number of types that were transformed.
+             */
+            long getTransformedCount();
+
+            /**
+             * Returns the number of types that failed to transform.
+             *
+             * @return The number of types that failed to transform.
+             */
+            long getFailedCount();
+
+            /**
+             * Returns the number of recorded occurrences of a phase.
+             *
+             * @param phase The name of the {@link Phase}.
+             * @return The number of recorded occurrences of the phase.
+             */
+            long getPhaseCount(String phase);
+
+            /**
+             * Returns the mean latency of a phase.
+             *
+             * @param phase The name of the {@link Phase}.
+             * @return The mean latency of the phase.
+             */
+            double getPhaseMean(String phase);
+
+            /**
+             * Returns the maximum latency of a phase.
+             *
+             * @param phase The name of the {@link Phase}.
+             * @return The maximum latency of the phase.
+             */
+            long getPhaseMaximum(String phase);
+
+            /**
+             * Returns an upper bound for the latency of a phase at the given percentile.
+             *
+             * @param phase      The name of the {@link Phase}.
+             * @param percentile The percentile to resolve, between {@code 0} and {@code 100}.
+             * @return An upper bound for the latency of the phase at the given percentile.
+             */
+            long getPhaseValueAtPercentile(String phase, double percentile);
+
+            /**
+             * Returns the number of recorded applications of a transformation.
+             *
+             * @param index The index of the transformation.
+             * @return The number of recorded applications of the transformation.
+             */
+            long getTransformationCount(int index);
+
+            /**
+             * Returns an upper bound for the latency of applying a transformation at the given percentile.
+             *
+             * @param index      The index of the transformation.
+             * @param percentile The percentile to resolve, between {@code 0} and {@code 100}.
+             * @return An upper bound for the latency of applying the transformation at the given percentile.
+             */
+            long getTransformationValueAtPercentile(int index, double percentile);
+
+            /**
+             * Removes all recorded values.
+             */
+            void reset();
+        }
+
+        /**
+         * A transformation metrics that records latencies in {@link Histogram}s and that can be published as an MBean.
+         * The same recording can be shared by multiple agent builders, but transformations are then recorded by their
+         * index only.
+         */
+        class Recording implements TransformationMetrics, RecordingMBean {
+
+            /**
+             * The domain of the object name that is used when registering a recording without an explicit name.
+             */
+            private static final String DOMAIN = "net.bytebuddy";
+
+            /**
+             * A histogram per phase, indexed by the phase's ordinal.
+             */
+            private final Histogram[] phases;
+
+            /**
+             * A histogram per transformation which is extended when a transformation with a larger index is recorded.
+             */
+            private volatile Histogram[] transformations;
+
+            /**
+             * A counter per result, indexed by the result's ordinal.
+             */
+            private final AtomicLong[] results;
+
+            /**
+             * Creates a new recording.
+             */
+            public Recording() {
+                phases = new Histogram[Phase.values().length];
+                for (int index = 0; index < phases.length; index++) {
+                    phases[index] = new Histogram();
+                }
+                transformations = new Histogram[0];
+                results = new AtomicLong[Result.values().length];
+                for (int index = 0; index < results.length; index++) {
+                    results[index] = new AtomicLong();
+                }
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public long tick() {
+                return System.nanoTime();
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public void onPhase(Phase phase, long start) {
+                phases[phase.ordinal()].record(System.nanoTime() - start);
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public void onTransformation(int index, long start) {
+                long elapsed = System.nanoTime() - start;
+                Histogram[] transformations = this.transformations;
+                (index < transformations.length ? transformations[index] : transformation(index)).record(elapsed);
+            }
+
+            /**
+             * Resolves the histogram of a transformation, extending the known histograms if necessary.
+             *
+             * @param index The index of the transformation.
+             * @return The histogram of the transformation.
+             */
+            private synchronized Histogram transformation(int index) {
+                Histogram[] transformations = this.transformations;
+                if (index >= transformations.length) {
+                    Histogram[] extended = new Histogram[index + 1];
+                    System.arraycopy(transformations, 0, extended, 0, transformations.length);
+                    for (int position = transformations.length; position < extended.length; position++) {
+                        extended[position] = new Histogram();
+                    }
+                    this.transformations = transformations = extended;
+                }
+                return transformations[index];
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public void onResult(Result result) {
+                results[result.ordinal()].incrementAndGet();
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public ClassFileLocator decorate(ClassFileLocator classFileLocator) {
+                return new TimedClassFileLocator(classFileLocator, phases[Phase.LOCATION.ordinal()]);
+            }
+
+            /**
+             * Creates a snapshot of this recording's current state.
+             *
+             * @return A snapshot of this recording's current state.
+             */
+            public Snapshot getSnapshot() {
+                Map<Phase, Histogram.Snapshot> phases = new EnumMap<Phase, Histogram.Snapshot>(Phase.class);
+                for (Phase phase : Phase.values()) {
+                    phases.put(phase, this.phases[phase.ordinal()].getSnapshot());
+                }
+                Histogram[] transformations = this.transformations;
+                List<Histogram.Snapshot> snapshots = new ArrayList<Histogram.Snapshot>(transformations.length);
+                for (Histogram transformation : transformations) {
+                    snapshots.add(transformation.getSnapshot());
+                }
+                return new Snapshot(phases,
+                        snapshots,
+                        results[Result.IGNORED.ordinal()].get(),
+                        results[Result.TRANSFORMED.ordinal()].get(),
+                        results[Result.FAILED.ordinal()].get());
+            }
+
+            /**
+             * Registers this recording as an MBean with the platform MBean server, using an object name within the
+             * {@code net.bytebuddy} domain that is unique to this recording.
+             *
+             * @return The registered MBean instance.
+             * @throws JMException If the MBean cannot be registered.
+             */
+            public ObjectInstance register() throws JMException {
+                return register(new ObjectName(DOMAIN, "type", "TransformationMetrics@" + Integer.toHexString(System.identityHashCode(this))));
+            }
+
+            /**
+             * Registers this recording as an MBean with the platform MBean server.
+             *
+             * @param objectName The object name to register this recording by.
+             * @return The registered MBean instance.
+             * @throws JMException If the MBean cannot be registered.
+             */
+            public ObjectInstance register(ObjectName objectName) throws JMException {
+                return ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public long getIgnoredCount() {
+                return results[Result.IGNORED.ordinal()].get();
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public long getTransformedCount() {
+                return results[Result.TRANSFORMED.ordinal()].get();
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public long getFailedCount() {
+                return results[Result.FAILED.ordinal()].get();
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public long getPhaseCount(String phase) {
+                return phases[Phase.valueOf(phase).ordinal()].getSnapshot().getCount();
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public double getPhaseMean(String phase) {
+                return phases[Phase.valueOf(phase).ordinal()].getSnapshot().getMean();
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public long getPhaseMaximum(String phase) {
+                return phases[Phase.valueOf(phase).ordinal()].getSnapshot().getMaximum();
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public long getPhaseValueAtPercentile(String phase, double percentile) {
+                return phases[Phase.valueOf(phase).ordinal()].getSnapshot().getValueAtPercentile(percentile);
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public long getTransformationCount(int index) {
+                Histogram[] transformations = this.transformations;
+                return index < transformations.length ? transformations[index].getSnapshot().getCount() : 0L;
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public long getTransformationValueAtPercentile(int index, double percentile) {
+                Histogram[] transformations = this.transformations;
+                return index < transformations.length ? transformations[index].getSnapshot().getValueAtPercentile(percentile) : 0L;
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public void reset() {
+                for (Histogram phase : phases) {
+                    phase.reset();
+                }
+                for (Histogram transformation : transformations) {
+                    transformation.reset();
+                }
+                for (AtomicLong result : results) {
+                    result.set(0L);
+                }
+            }
+
+            /**
+             * An immutable snapshot of a recording.
+             */
+            @HashCodeAndEqualsPlugin.Enhance
+            public static class Snapshot {
+
+                /**
+                 * A snapshot of the histogram of each phase.
+                 */
+                private final Map<Phase, Histogram.Snapshot> phases;
+
+                /**
+                 * A snapshot of the histogram of each transformation by its index.
+                 */
+                private final List<Histogram.Snapshot> transformations;
+
+                /**
+                 * The number of types that were ignored.
+                 */
+                private final long ignored;
+
+                /**
+                 * The number of types that were transformed.
+                 */
+                private final long transformed;
+
+                /**
+                 * The number of types that failed to transform.
+                 */
+                private final long failed;
+
+                /**
+                 * Creates a new snapshot of a recording.
+                 *
+                 * @param phases          A snapshot of the histogram of each phase.
+                 * @param transformations A snapshot of the histogram of each transformation by its index.
+                 * @param ignored         The number of types that were ignored.
+                 * @param transformed     The number of types that were transformed.
+                 * @param failed          The number of types that failed to transform.
+                 */
+                protected Snapshot(Map<Phase, Histogram.Snapshot> phases,
+                                   List<Histogram.Snapshot> transformations,
+                                   long ignored,
+                                   long transformed,
+                                   long failed) {
+                    this.phases = phases;
+                    this.transformations = transformations;
+                    this.ignored = ignored;
+                    this.transformed = transformed;
+                    this.failed = failed;
+                }
+
+                /**
+                 * Returns a snapshot of the histogram of a phase.
+                 *
+                 * @param phase The phase to resolve.
+                 * @return A snapshot of the histogram of the phase.
+                 */
+                public Histogram.Snapshot getPhase(Phase phase) {
+                    return phases.get(phase);
+                }
+
+                /**
+                 * Returns a snapshot of the histogram of each transformation by its index. Transformations that were
+                 * never applied might not be included.
+                 *
+                 * @return A snapshot of the histogram of each transformation by its index.
+                 */
+                public List<Histogram.Snapshot> getTransformations() {
+                    return transformations;
+                }
+
+                /**
+                 * Returns the number of types that were ignored.
+                 *
+                 * @return The number of types that were ignored.
+                 */
+                public long getIgnoredCount() {
+                    return ignored;
+                }
+
+                /**
+                 * Returns the number of types that were transformed.
+                 *
+                 * @return The number of types that were transformed.
+                 */
+                public long getTransformedCount() {
+                    return transformed;
+                }
+
+                /**
+                 * Returns the number of types that failed to transform.
+                 *
+                 * @return The number of types that failed to transform.
+                 */
+                public long getFailedCount() {
+                    return failed;
+                }
+            }
+
+            /**
+             * A class file locator that records the latency of locating class files.
+             */
+            @HashCodeAndEqualsPlugin.Enhance
+            protected static class TimedClassFileLocator implements ClassFileLocator {
+
+                /**
+                 * The class file locator to delegate to.
+                 */
+                private final ClassFileLocator classFileLocator;
+
+                /**
+                 * The histogram to record latencies in.
+                 */
+                private final Histogram histogram;
+
+                /**
+                 * Creates a new timed class file locator.
+                 *
+                 * @param classFileLocator The class file locator to delegate to.
+                 * @param histogram        The histogram to record latencies in.
+                 */
+                protected TimedClassFileLocator(ClassFileLocator classFileLocator, Histogram histogram) {
+                    this.classFileLocator = classFileLocator;
+                    this.histogram = histogram;
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                public Resolution locate(String name) throws IOException {
+                    long start = System.nanoTime();
+                    try {
+                        return classFileLocator.locate(name);
+                    } finally {
+                        histogram.record(System.nanoTime() - start);
+                    }
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                public void close() throws IOException {
+                    classFileLocator.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * A warmup profile describes the types that were transformed by a class file transformer in a previous run of an application,
+     * identified by their names and the identity of their class loaders. A profile can be recorded by registering a
+     * {@link WarmupProfile.Recording} as a {@link Listener} and be written to a file, for example at shutdown. Upon a subsequent
+     * start, the profile can be read and be replayed via {@link AgentBuilder#warmUp(WarmupProfile, ExecutorService)}.
+     * </p>
+     * <p>
+     * A class loader's identity is represented by the name of its class since class loader instances cannot be identified across
+     * runs. Upon replay, only types of the boot loader, the system class loader and its parents can be considered, as other class
+     * loaders are not yet available when an agent is installed.
+     * </p>
+     */
+    @HashCodeAndEqualsPlugin.Enhance
+    class WarmupProfile {
+
+        /**
+         * The identity that represents the boot loader.
+         */
+        public static final String BOOT_LOADER = "-";
+
+        /**
+         * The separator of a class loader's identity and a type name within a profile file.
+         */
+        private static final char SEPARATOR = ' ';
+
+        /**
+         * The charset of a profile file.
+         */
+        private static final String CHARSET = "UTF-8";
+
+        /**
+         * The entries of this profile.
+         */
+        private final Set<Entry> entries;
+
+        /**
+         * Creates a new warmup profile.
+         *
+         * @param entries The entries of this profile.
+         */
+        public WarmupProfile(Collection<Entry> entries) {
+            this.entries = new LinkedHashSet<Entry>(entries);
+        }
+
+        /**
+         * Reads a warmup profile from a file.
+         *
+         * @param file The file to read.
+         * @return The warmup profile that is represented by the supplied file.
+         * @throws IOException If an I/O error occurs.
+         */
+        public static WarmupProfile read(File file) throws IOException {
+            List<Entry> entries = new ArrayList<Entry>();
+            BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), CHARSET));
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    int index = line.indexOf(SEPARATOR);
+                    if (index == -1) {
+                        throw new IOException("Malformed warmup profile entry in " + file + ": " + line);
+                    }
+                    entries.add(new Entry(line.substring(0, index), line.substring(index + 1)));
+                }
+            } finally {
+                reader.close();
+            }
+            return new WarmupProfile(entries);
+        }
+
+        /**
+         * Returns the entries of this profile.
+         *
+         * @return The entries of this profile.
+         */
+        public Set<Entry> getEntries() {
+            return entries;
+        }
+
+        /**
+         * Writes this profile to a file.
+         *
+         * @param file The file to write to.
+         * @throws IOException If an I/O error occurs.
+         */
+        public void write(File file) throws IOException {
+            Writer writer = new OutputStreamWriter(new FileOutputStream(file), CHARSET);
+            try {
+                for (Entry entry : entries) {
+                    writer.write(entry.getClassLoader() + SEPARATOR + entry.getName() + '\n');
+                }
+            } finally {
+                writer.close();
+            }
+        }
+
+        /**
+         * Resolves the class loaders that are available upon an agent's installation, by their identity. These are the
+         * boot loader, the system class loader and all of its parents.
+         *
+         * @return A mapping of class loader identities to the represented class loaders.
+         */
+        protected static Map<String, ClassLoader> classLoaders() {
+            Map<String, ClassLoader> classLoaders = new HashMap<String, ClassLoader>();
+            classLoaders.put(BOOT_LOADER, ClassLoadingStrategy.BOOTSTRAP_LOADER);
+            ClassLoader classLoader = ClassLoader.getSystemClassLoader();
+            while (classLoader != null) {
+                if (!classLoaders.containsKey(classLoader.getClass().getName())) {
+                    classLoaders.put(classLoader.getClass().getName(), classLoader);
+                }
+                classLoader = classLoader.getParent();
+            }
+            return classLoaders;
+        }
+
+        /**
+         * An entry of a warmup profile.
+         */
+        @HashCodeAndEqualsPlugin.Enhance
+        public static class Entry {
+
+            /**
+             * The identity of the type's class loader.
+             */
+            private final String classLoader;
+
+            /**
+             * The binary name of the type.
+             */
+            private final String name;
+
+            /**
+             * Creates a new entry.
+             *
+             * @param classLoader The identity of the type's class loader.
+             * @param name        The binary name of the type.
+             */
+            public Entry(String classLoader, String name) {
+                this.classLoader = classLoader;
+                this.name = name;
+            }
+
+            /**
+             * Resolves an entry for a type.
+             *
+             * @param name        The binary name of the type.
+             * @param classLoader The type's class loader or {@code null} if the type is loaded by the boot loader.
+             * @return An entry that represents the type.
+             */
+            public static Entry of(String name, @MaybeNull ClassLoader classLoader) {
+                return new Entry(classLoader == null ? BOOT_LOADER : classLoader.getClass().getName(), name);
+            }
+
+            /**
+             * Returns the identity of the type's class loader.
+             *
+             * @return The identity of the type's class loader.
+             */
+            public String getClassLoader() {
+                return classLoader;
+            }
+
+            /**
+             * Returns the binary name of the type.
+             *
+             * @return The binary name of the type.
+             */
+            public String getName() {
+                return name;
+            }
+        }
+
+        /**
+         * A listener that records all types that are transformed for creating a warmup profile.
+         */
+        public static class Recording extends Listener.Adapter {
+
+            /**
+             * The recorded entries.
+             */
+            private final ConcurrentMap<Entry, Boolean> entries;
+
+            /**
+             * Creates a new recording listener.
+             */
+            public Recording() {
+                entries = new ConcurrentHashMap<Entry, Boolean>();
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public void onTransformation(TypeDescription typeDescription,
+                                         @MaybeNull ClassLoader classLoader,
+                                         @MaybeNull JavaModule module,
+                                         boolean loaded,
+                                         DynamicType dynamicType) {
+                entries.put(Entry.of(typeDescription.getName(), classLoader), Boolean.TRUE);
+            }
+
+            /**
+             * Returns a warmup profile of all types that were recorded until now.
+             *
+             * @return A warmup profile of all types that were recorded until now.
+             */
+            public WarmupProfile toProfile() {
+                return new WarmupProfile(entries.keySet());
+            }
+
+            /**
+             * Registers a shutdown hook that writes all recorded types to the supplied file. Any error during writing is thrown
+             * from the returned thread and is therefore reported to its {@link Thread.UncaughtExceptionHandler}, which can be
+             * set on the returned thread to handle such an error.
+             *
+             * @param file The file to write the warmup profile to.
+             * @return The thread that was registered as a shutdown hook.
+             */
+            public Thread writeOnShutdown(File file) {
+                Thread thread = new Thread(new ShutdownHook(this, file), "warmup-profile-writer");
+                Runtime.getRuntime().addShutdownHook(thread);
+                return thread;
+            }
+
+            /**
+             * A shutdown hook that writes the warmup profile of a recording to a file.
+             */
+            @HashCodeAndEqualsPlugin.Enhance
+            protected static class ShutdownHook implements Runnable {
+
+                /**
+                 * The recording to write.
+                 */
+                private final Recording recording;
+
+                /**
+                 * The file to write the warmup profile to.
+                 */
+                private final File file;
+
+                /**
+                 * Creates a new shutdown hook.
+                 *
+                 * @param recording The recording to write.
+                 * @param file      The file to write the warmup profile to.
+                 */
+                protected ShutdownHook(Recording recording, File file) {
+                    this.recording = recording;
+                    this.file = file;
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                public void run() {
+                    try {
+                        recording.toProfile().write(file);
+                    } catch (IOException exception) {
+                        throw new IllegalStateException("Cannot write warmup profile to " + file, exception);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * A composition of several agent builders that are installed as a single class file transformer. Any type is only located,
+     * described and matched once, and the transformers of all agent builders that match a type are applied onto a single
+     * {@link net.bytebuddy.dynamic.DynamicType.Builder} such that the type is only written once. Transformations are applied
+     * in the order of the composed agent builders. Each agent builder's ignore matcher and terminal transformations only
+     * affect this agent builder's own transformations.
+     * </p>
+     * <p>
+     * The configuration of the shared class file transformer, for example its pool strategy, location strategy, redefinition
+     * strategy or transformer decorator, is taken from the first agent builder. The listeners and installation listeners
+     * of all agent builders are notified of any event of the shared class file transformer.
+     * </p>
+     * <p>
+     * Upon installation, a resettable class file transformer is returned for each agent builder. Resetting it disables the
+     * agent builder's transformations and redefines any type that was transformed by it, if the supplied redefinition
+     * strategy is enabled. The shared class file transformer is deregistered once all agent builders were reset.
+     * </p>
+     */
+    @HashCodeAndEqualsPlugin.Enhance
+    class Composition {
+
+        /**
+         * The composed agent builders.
+         */
+        private final List<? extends AgentBuilder> agentBuilders;
+
+        /**
+         * Creates a new composition.
+         *
+         * @param agentBuilder The agent builders to compose.
+         */
+        public Composition(AgentBuilder... agentBuilder) {
+            this(Arrays.asList(agentBuilder));
+        }
+
+        /**
+         * Creates a new composition.
+         *
+         * @param agentBuilders The agent builders to compose.
+         */
+        public Composition(List<? extends AgentBuilder> agentBuilders) {
+            if (agentBuilders.isEmpty()) {
+                throw new IllegalArgumentException("A composition requires at least one agent builder");
+            }
+            this.agentBuilders = agentBuilders;
+        }
+
+        /**
+         * Resolves an agent builder's default representation.
+         *
+         * @param agentBuilder The agent builder to resolve.
+         * @return The agent builder's default representation.
+         */
+        private static Default materialize(AgentBuilder agentBuilder) {
+            while (agentBuilder instanceof Default.Delegator) {
+                agentBuilder = ((Default.Delegator) agentBuilder).materialize();
+            }
+            if (agentBuilder instanceof Default) {
+                return (Default) agentBuilder;
+            } else {
+                throw new IllegalArgumentException("Cannot compose agent builder that is not created by Byte Buddy: " + agentBuilder);
+            }
+        }
+
+        /**
+         * Installs the composed agent builders as a single class file transformer on the supplied instrumentation.
+         *
+         * @param instrumentation The instrumentation on which the class file transformer is registered.
+         * @return A resettable class file transformer for each agent builder in the order of the composed agent builders.
+         */
+        public List<ResettableClassFileTransformer> installOn(Instrumentation instrumentation) {
+            List<Default> agentBuilders = new ArrayList<Default>(this.agentBuilders.size());
+            Set<RawMatcher> ignoreMatchers = new LinkedHashSet<RawMatcher>();
+            List<Listener> listeners = new ArrayList<Listener>(this.agentBuilders.size());
+            List<InstallationListener> installationListeners = new ArrayList<InstallationListener>(this.agentBuilders.size());
+            for (AgentBuilder agentBuilder : this.agentBuilders) {
+                Default materialized = materialize(agentBuilder);
+                agentBuilders.add(materialized);
+                ignoreMatchers.add(materialized.ignoreMatcher);
+                listeners.add(materialized.listener);
+                installationListeners.add(materialized.installationListener);
+            }
+            Registration registration = new Registration(agentBuilders.size());
+            List<Member> members = new ArrayList<Member>(agentBuilders.size());
+            List<Default.Transformation> transformations = new ArrayList<Default.Transformation>();
+            for (Default agentBuilder : agentBuilders) {
+                Member member = new Member(registration, agentBuilder.ignoreMatcher, agentBuilder.transformations);
+                List<RawMatcher> terminals = new ArrayList<RawMatcher>();
+                for (Default.Transformation transformation : agentBuilder.transformations) {
+                    List<RawMatcher> matchers = new ArrayList<RawMatcher>(terminals.size() + 3);
+                    matchers.add(new ActivationMatcher(member.active));
+                    if (ignoreMatchers.size() > 1) {
+                        matchers.add(new RawMatcher.Inversion(agentBuilder.ignoreMatcher));
+                    }
+                    matchers.add(transformation.getMatcher());
+                    for (RawMatcher terminal : terminals) {
+                        matchers.add(new RawMatcher.Inversion(terminal));
+                    }
+                    transformations.add(new Default.Transformation(new RawMatcher.Conjunction(matchers),
+                            transformation.getTransformers(),
+                            false,
+                            transformation.isEager()));
+                    if (transformation.isTerminal()) {
+                        terminals.add(transformation.getMatcher());
+                    }
+                }
+                members.add(member);
+            }
+            Default primary = agentBuilders.get(0);
+            registration.agentBuilder = primary;
+            registration.classFileTransformer = new Default(primary.byteBuddy,
+                    new Listener.Compound(listeners),
+                    primary.circularityLock,
+                    primary.poolStrategy,
+                    primary.typeStrategy,
+                    primary.locationStrategy,
+                    primary.classFileLocator,
+                    primary.nativeMethodStrategy,
+                    primary.warmupStrategy,
+                    primary.transformerDecorator,
+                    primary.initializationStrategy,
+                    primary.redefinitionStrategy,
+                    primary.redefinitionDiscoveryStrategy,
+                    primary.redefinitionBatchAllocator,
+                    primary.redefinitionListener,
+                    primary.redefinitionResubmissionStrategy,
+                    primary.injectionStrategy,
+                    primary.lambdaInstrumentationStrategy,
+                    primary.descriptionStrategy,
+                    primary.fallbackStrategy,
+                    primary.classFileBufferStrategy,
+                    primary.transformationCache,
+                    primary.transformationMetrics,
+                    primary.ignoredTypeCache,
+                    new InstallationListener.Compound(installationListeners),
+                    ignoreMatchers.size() == 1 ? primary.ignoreMatcher : new RawMatcher.Conjunction(new ArrayList<RawMatcher>(ignoreMatchers)),
+                    transformations).installOn(instrumentation);
+            return new ArrayList<ResettableClassFileTransformer>(members);
+        }
+
+        /**
+         * Installs the composed agent builders as a single class file transformer on the instrumentation that is provided
+         * by the Byte Buddy agent.
+         *
+         * @return A resettable class file transformer for each agent builder in the order of the composed agent builders.
+         */
+        public List<ResettableClassFileTransformer> installOnByteBuddyAgent() {
+            return installOn(Default.resolveByteBuddyAgentInstrumentation());
+        }
+
+        /**
+         * A registration of the class file transformer that is shared by all members of a composition.
+         */
+        protected static class Registration {
+
+            /**
+             * The number of members that were not yet reset.
+             */
+            private final AtomicInteger active;
+
+            /**
+             * The shared class file transformer or {@code null} if it is not yet installed.
+             */
+            @MaybeNull
+            private volatile ResettableClassFileTransformer classFileTransformer;
+
+            /**
+             * The agent builder that defines the shared class file transformer's configuration or {@code null} if it is not yet installed.
+             */
+            @MaybeNull
+            private volatile Default agentBuilder;
+
+            /**
+             * Creates a new registration.
+             *
+             * @param active The number of members that were not yet reset.
+             */
+            protected Registration(int active) {
+                this.active = new AtomicInteger(active);
+            }
+        }
+
+        /**
+         * A matcher that only matches a type if a member of a composition was not yet reset.
+         */
+        @HashCodeAndEqualsPlugin.Enhance
+        protected static class ActivationMatcher implements RawMatcher {
+
+            /**
+             * {@code true} if the member was not yet reset.
+             */
+            private final AtomicBoolean active;
+
+            /**
+             * Creates a new activation matcher.
+             *
+             * @param active {@code true} if the member was not yet reset.
+             */
+            protected ActivationMatcher(AtomicBoolean active) {
+                this.active = active;
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public boolean matches(TypeDescription typeDescription,
+                                   @MaybeNull ClassLoader classLoader,
+                                   @MaybeNull JavaModule module,
+                                   @MaybeNull Class<?> classBeingRedefined,
+                                   ProtectionDomain protectionDomain) {
+                return active.get();
+            }
+        }
+
+        /**
+         * A resettable class file transformer that represents a single agent builder of a composition. A member is not registered
+         * with the instrumentation API itself and never transforms a type. Instead, its transformations are applied by the
+         * composition's shared class file transformer until the member is reset.
+         */
+        protected static class Member extends ResettableClassFileTransformer.AbstractBase {
+
+            /**
+             * Indicates that a member does not transform a type.
+             */
+            @AlwaysNull
+            private static final byte[] NO_TRANSFORMATION = null;
+
+            /**
+             * The registration of the shared class file transformer.
+             */
+            private final Registration registration;
+
+            /**
+             * The member's ignore matcher.
+             */
+            private final RawMatcher ignoreMatcher;
+
+            /**
+             * The member's transformations.
+             */
+            private final List<Default.Transformation> transformations;
+
+            /**
+             * {@code true} if this member was not yet reset.
+             */
+            private final AtomicBoolean active;
+
+            /**
+             * Creates a new member.
+             *
+             * @param registration    The registration of the shared class file transformer.
+             * @param ignoreMatcher   The member's ignore matcher.
+             * @param transformations The member's transformations.
+             */
+            protected Member(Registration registration, RawMatcher ignoreMatcher, List<Default.Transformation> transformations) {
+                this.registration = registration;
+                this.ignoreMatcher = ignoreMatcher;
+                this.transformations = transformations;
+                active = new AtomicBoolean(true);
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            @MaybeNull
+            public byte[] transform(@MaybeNull ClassLoader classLoader,
+                                    @MaybeNull String internalTypeName,
+                                    @MaybeNull Class<?> classBeingRedefined,
+                                    ProtectionDomain protectionDomain,
+                                    byte[] binaryRepresentation) {
+                return NO_TRANSFORMATION;
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public Iterator<Transformer> iterator(TypeDescription typeDescription,
+                                                  @MaybeNull ClassLoader classLoader,
+                                                  @MaybeNull JavaModule module,
+                                                  @MaybeNull Class<?> classBeingRedefined,
+                                                  ProtectionDomain protectionDomain) {
+                if (!active.get() || ignoreMatcher.matches(typeDescription, classLoader, module, classBeingRedefined, protectionDomain)) {
+                    return Collections.<Transformer>emptySet().iterator();
+                }
+                return new Default.Transformation.TransformerIterator(typeDescription, classLoader, module, classBeingRedefined, protectionDomain, transformations);
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public boolean reset(Instrumentation instrumentation,
+                                 ResettableClassFileTransformer classFileTransformer,
+                                 RedefinitionStrategy redefinitionStrategy,
+                                 RedefinitionStrategy.DiscoveryStrategy redefinitionDiscoveryStrategy,
+                                 RedefinitionStrategy.BatchAllocator redefinitionBatchAllocator,
+                                 RedefinitionStrategy.Listener redefinitionListener) {
+                ResettableClassFileTransformer sharedClassFileTransformer = registration.classFileTransformer;
+                Default agentBuilder = registration.agentBuilder;
+                if (sharedClassFileTransformer == null || agentBuilder == null || !active.compareAndSet(true, false)) {
+                    return false;
+                }
+                if (registration.active.decrementAndGet() == 0) {
+                    sharedClassFileTransformer.reset(instrumentation, RedefinitionStrategy.DISABLED);
+                }
+                redefinitionStrategy.apply(instrumentation,
+                        agentBuilder.poolStrategy,
+                        agentBuilder.locationStrategy,
+                        agentBuilder.descriptionStrategy,
+                        agentBuilder.fallbackStrategy,
+                        redefinitionDiscoveryStrategy,
+                        agentBuilder.lambdaInstrumentationStrategy,
+                        Listener.NoOp.INSTANCE,
+                        redefinitionListener,
+                        new Default.Transformation.SimpleMatcher(ignoreMatcher, transformations),
+                        redefinitionBatchAllocator,
+                        CircularityLock.Inactive.INSTANCE);
+                return true;
+            }
+
+            /* does not implement hashCode and equals in order to align with identity treatment of the JVM */
+        }
+    }
+
+    /**
+     * A decorator that allows to change the class file transformer that is registered.
+     */
+    interface TransformerDecorator {
+
+        /**
+         * Decorates the applied class file transformer.
+         *
+         * @param classFileTransformer The original transformer created by the agent builder.
+         * @return The class file transformer that is actually being registered.
+         */
+        ResettableClassFileTransformer decorate(ResettableClassFileTransformer classFileTransformer);
+
+        /**
+         * A transformer decorator that retains the original transformer.
+         */
+        enum NoOp implements TransformerDecorator {
+
+            /**
+             * The singleton instance.
+             */
+            INSTANCE;
+
+            /**
+             * {@inheritDoc}
+             */
+            public ResettableClassFileTransformer decorate(ResettableClassFileTransformer classFileTransformer) {
+                return classFileTransformer;
+            }
+        }
+
+        /**
+         * Wraps a class file transformer to become substitutable.
+         */
+        enum ForSubstitution implements TransformerDecorator {
+
+            /**
+             * The singleton instance.
+             */
+            INSTANCE;
+
+            /**
+             * {@inheritDoc}
+             */
+            public ResettableClassFileTransformer decorate(ResettableClassFileTransformer classFileTransformer) {
+                return ResettableClassFileTransformer.WithDelegation.Substitutable.of(classFileTransformer);
+            }
+        }
+
+        /**
+         * A compound transformer decorator.
          */
         @HashCodeAndEqualsPlugin.Enhance
         class Compound implements TransformerDecorator {
 
-            /**
-             * The listeners to invoke.
-             */
-            private final List<TransformerDecorator> transformerDecorators;
+            /**
+             * The listeners to invoke.
+             */
+            private final List<TransformerDecorator> transformerDecorators;
+
+            /**
+             * Creates a new compound transformer decorator.
+             *
+             * @param transformerDecorator The transformer decorators to add.
+             */
+            public Compound(TransformerDecorator... transformerDecorator) {
+                this(Arrays.asList(transformerDecorator));
+            }
+
+            /**
+             * Creates a new compound listener.
+             *
+             * @param transformerDecorators The transformerDecorators to invoke.
+             */
+            public Compound(List<? extends TransformerDecorator> transformerDecorators) {
+                this.transformerDecorators = new ArrayList<TransformerDecorator>();
+                for (TransformerDecorator transformerDecorator : transformerDecorators) {
+                    if (transformerDecorator instanceof Compound) {
+                        this.transformerDecorators.addAll(((Compound) transformerDecorator).transformerDecorators);
+                    } else if (!(transformerDecorator instanceof NoOp)) {
+                        this.transformerDecorators.add(transformerDecorator);
+                    }
+                }
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public ResettableClassFileTransformer decorate(ResettableClassFileTransformer classFileTransformer) {
+                for (TransformerDecorator transformerDecorator : transformerDecorators) {
+                    classFileTransformer = transformerDecorator.decorate(classFileTransformer);
+                }
+                return classFileTransformer;
+            }
+        }
+
+        /**
+         * <p>
+         * A transformer decorator that applies a time budget to the transformation of any class that is loaded for the first
+         * time. The budget is checked cooperatively at the phase boundaries of a transformation, i.e. after describing and
+         * matching a type and after applying each transformation. If a transformation exceeds its budget, it is discarded
+         * such that the class is loaded without a transformation, and the class's name is recorded. The budget only applies
+         * to the decorated class file transformer and not to other class file transformers that are invoked on the same
+         * thread, for example for a class that is loaded during the transformation. If the agent is configured to resubmit
+         * types on errors, the class is retried in the background via the resubmission scheduler where no budget is applied
+         * as no class loading is stalled by a retransformation.
+         * </p>
+         * <p>
+         * <b>Important</b>: As the budget is checked cooperatively, a transformation is not interrupted in the middle of a
+         * phase. Most notably, {@link Advice} is only inlined when making a type. As the cost of making a type is already
+         * paid once it is made, a transformation is never discarded after this phase, even if it exceeded its budget. To
+         * avoid repeated delays, recorded types can be appended to an ignore list file which can be read by
+         * {@link WithTimeBudget#ofIgnoreList(File)} when the agent is installed the next time.
+         * </p>
+         */
+        class WithTimeBudget implements TransformerDecorator {
+
+            /**
+             * The deadline of the current thread's transformation or {@code null} if no budget is applied.
+             */
+            private static final ThreadLocal<Deadline> DEADLINE = new ThreadLocal<Deadline>();
+
+            /**
+             * The factory for creating time-budgeted class file transformers.
+             */
+            private static final Factory FACTORY = Default.doPrivileged(Factory.CreationAction.INSTANCE);
+
+            /**
+             * The charset of an ignore list file.
+             */
+            private static final String CHARSET = "UTF-8";
+
+            /**
+             * The time budget of a transformation in nanoseconds.
+             */
+            private final long budget;
+
+            /**
+             * The file to which exceeding types are appended or {@code null} if exceeding types are not persisted.
+             */
+            @MaybeNull
+            private final File ignoreList;
+
+            /**
+             * The names of all types whose transformation exceeded the budget.
+             */
+            private final Set<String> exceededTypes;
+
+            /**
+             * Creates a new transformer decorator with a time budget that does not persist exceeding types.
+             *
+             * @param budget   The time budget of a transformation.
+             * @param timeUnit The time unit of the budget.
+             */
+            public WithTimeBudget(long budget, TimeUnit timeUnit) {
+                this(budget, timeUnit, null);
+            }
+
+            /**
+             * Creates a new transformer decorator with a time budget.
+             *
+             * @param budget     The time budget of a transformation.
+             * @param timeUnit   The time unit of the budget.
+             * @param ignoreList The file to which exceeding types are appended or {@code null} if exceeding types are not persisted.
+             */
+            public WithTimeBudget(long budget, TimeUnit timeUnit, @MaybeNull File ignoreList) {
+                if (budget < 1) {
+                    throw new IllegalArgumentException("Time budget must be positive: " + budget);
+                }
+                this.budget = timeUnit.toNanos(budget);
+                this.ignoreList = ignoreList;
+                exceededTypes = new ClassLoaderStorage.ConcurrentHashSet<String>();
+            }
+
+            /**
+             * Creates a raw matcher that matches all types that are listed in an ignore list file. If the file does not exist,
+             * no type is matched.
+             *
+             * @param ignoreList The ignore list file.
+             * @return A raw matcher that matches all types of the ignore list by their name.
+             * @throws IOException If the ignore list cannot be read.
+             */
+            public static RawMatcher ofIgnoreList(File ignoreList) throws IOException {
+                Set<String> names = new HashSet<String>();
+                if (ignoreList.exists()) {
+                    BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(ignoreList), CHARSET));
+                    try {
+                        String line;
+                        while ((line = reader.readLine()) != null) {
+                            if (line.length() > 0) {
+                                names.add(line);
+                            }
+                        }
+                    } finally {
+                        reader.close();
+                    }
+                }
+                return new RawMatcher.ForNameOnly(new StringSetMatcher(names));
+            }
+
+            /**
+             * Checks if the transformation that is applied by the current thread exceeded its time budget. A budget is only
+             * applied if the supplied class file transformer is the one that was decorated with the budget.
+             *
+             * @param classFileTransformer The class file transformer that applies the transformation.
+             * @throws ExceededException If the current thread's transformation exceeded its time budget.
+             */
+            protected static void checkpoint(ClassFileTransformer classFileTransformer) {
+                Deadline deadline = DEADLINE.get();
+                if (deadline != null && deadline.classFileTransformer == classFileTransformer && System.nanoTime() - deadline.time > 0) {
+                    throw new ExceededException();
+                }
+            }
+
+            /**
+             * Returns the names of all types whose transformation exceeded the budget.
+             *
+             * @return The names of all types whose transformation exceeded the budget.
+             */
+            public Set<String> getExceededTypes() {
+                return Collections.unmodifiableSet(exceededTypes);
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public ResettableClassFileTransformer decorate(ResettableClassFileTransformer classFileTransformer) {
+                return FACTORY.make(classFileTransformer, this);
+            }
+
+            /**
+             * Records a type whose transformation exceeded the budget.
+             *
+             * @param typeName The name of the type.
+             */
+            protected void onExceeded(String typeName) {
+                if (exceededTypes.add(typeName) && ignoreList != null) {
+                    synchronized (this) {
+                        try {
+                            Writer writer = new OutputStreamWriter(new FileOutputStream(ignoreList, true), CHARSET);
+                            try {
+                                writer.write(typeName + '\n');
+                            } finally {
+                                writer.close();
+                            }
+                        } catch (IOException ignored) {
+                            /* do nothing */
+                        }
+                    }
+                }
+            }
+
+            /**
+             * An exception that is thrown if a transformation exceeds its time budget.
+             */
+            public static class ExceededException extends RuntimeException {
+
+                /**
+                 * The serial version UID.
+                 */
+                private static final long serialVersionUID = 1L;
+
+                /**
+                 * Creates a new exception for an exceeded time budget.
+                 */
+                public ExceededException() {
+                    super("Transformation exceeded its time budget");
+                }
+            }
+
+            /**
+             * A deadline of a transformation that is bound to the class file transformer that is decorated with a budget.
+             */
+            protected static class Deadline {
+
+                /**
+                 * The class file transformer to which the deadline applies.
+                 */
+                private final ClassFileTransformer classFileTransformer;
+
+                /**
+                 * The deadline in nanoseconds.
+                 */
+                private final long time;
+
+                /**
+                 * Creates a new deadline.
+                 *
+                 * @param classFileTransformer The class file transformer to which the deadline applies.
+                 * @param time                 The deadline in nanoseconds.
+                 */
+                protected Deadline(ClassFileTransformer classFileTransformer, long time) {
+                    this.classFileTransformer = classFileTransformer;
+                    this.time = time;
+                }
+            }
+
+            /**
+             * A class file transformer that applies a time budget to its delegate.
+             */
+            @HashCodeAndEqualsPlugin.Enhance
+            protected static class TimeBudgeted extends ResettableClassFileTransformer.WithDelegation {
+
+                /**
+                 * Indicates that a class file is not transformed.
+                 */
+                @AlwaysNull
+                private static final byte[] NO_TRANSFORMATION = null;
+
+                /**
+                 * The time budget decorator that created this transformer.
+                 */
+                private final WithTimeBudget withTimeBudget;
+
+                /**
+                 * Creates a new time-budgeted class file transformer.
+                 *
+                 * @param classFileTransformer The class file transformer to delegate to.
+                 * @param withTimeBudget       The time budget decorator that created this transformer.
+                 */
+                protected TimeBudgeted(ResettableClassFileTransformer classFileTransformer, WithTimeBudget withTimeBudget) {
+                    super(classFileTransformer);
+                    this.withTimeBudget = withTimeBudget;
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @MaybeNull
+                public byte[] transform(@MaybeNull ClassLoader classLoader,
+                                        @MaybeNull String internalName,
+                                        @MaybeNull Class<?> classBeingRedefined,
+                                        ProtectionDomain protectionDomain,
+                                        byte[] binaryRepresentation) throws IllegalClassFormatException {
+                    return transform(null, classLoader, internalName, classBeingRedefined, protectionDomain, binaryRepresentation);
+                }
+
+                /**
+                 * Applies the delegate's transformation within the time budget if the class is loaded for the first time.
+                 *
+                 * @param rawModule            The instrumented class's {@code java.lang.Module} or {@code null} if the module is not provided.
+                 * @param classLoader          The type's class loader or {@code null} if the type is loaded by the bootstrap loader.
+                 * @param internalName         The internal name of the instrumented class.
+                 * @param classBeingRedefined  The loaded {@link Class} being redefined or {@code null} if no such class exists.
+                 * @param protectionDomain     The instrumented type's protection domain.
+                 * @param binaryRepresentation The class file of the instrumented class in its current state.
+                 * @return The transformed class file or {@code null} if no transformation is applied.
+                 * @throws IllegalClassFormatException If the class file was malformed.
+                 */
+                @MaybeNull
+                protected byte[] transform(@MaybeNull Object rawModule,
+                                           @MaybeNull ClassLoader classLoader,
+                                           @MaybeNull String internalName,
+                                           @MaybeNull Class<?> classBeingRedefined,
+                                           ProtectionDomain protectionDomain,
+                                           byte[] binaryRepresentation) throws IllegalClassFormatException {
+                    if (classBeingRedefined != null || internalName == null) {
+                        return rawModule == null
+                                ? classFileTransformer.transform(classLoader, internalName, classBeingRedefined, protectionDomain, binaryRepresentation)
+                                : dispatch(rawModule, classLoader, internalName, classBeingRedefined, protectionDomain, binaryRepresentation);
+                    }
+                    Deadline previous = DEADLINE.get();
+                    DEADLINE.set(new Deadline(delegate(), System.nanoTime() + withTimeBudget.budget));
+                    try {
+                        return rawModule == null
+                                ? classFileTransformer.transform(classLoader, internalName, null, protectionDomain, binaryRepresentation)
+                                : dispatch(rawModule, classLoader, internalName, null, protectionDomain, binaryRepresentation);
+                    } catch (RuntimeException exception) {
+                        if (exception instanceof ExceededException || exception.getCause() instanceof ExceededException) {
+                            withTimeBudget.onExceeded(internalName.replace('/', '.'));
+                            return NO_TRANSFORMATION;
+                        }
+                        throw exception;
+                    } finally {
+                        if (previous == null) {
+                            DEADLINE.remove();
+                        } else {
+                            DEADLINE.set(previous);
+                        }
+                    }
+                }
+
+                /**
+                 * Resolves the innermost delegate to which a deadline applies.
+                 *
+                 * @return The innermost delegate of this class file transformer.
+                 */
+                private ClassFileTransformer delegate() {
+                    ClassFileTransformer delegate = classFileTransformer;
+                    while (delegate instanceof ResettableClassFileTransformer.WithDelegation) {
+                        delegate = ((ResettableClassFileTransformer.WithDelegation) delegate).classFileTransformer;
+                    }
+                    return delegate;
+                }
+
+                /**
+                 * Dispatches a transformation to the module-aware transformation method of the delegate. This method is overridden
+                 * on VMs that support the module system and is never invoked on other VMs.
+                 *
+                 * @param rawModule            The instrumented class's {@code java.lang.Module}.
+                 * @param classLoader          The type's class loader or {@code null} if the type is loaded by the bootstrap loader.
+                 * @param internalName         The internal name of the instrumented class.
+                 * @param classBeingRedefined  The loaded {@link Class} being redefined or {@code null} if no such class exists.
+                 * @param protectionDomain     The instrumented type's protection domain.
+                 * @param binaryRepresentation The class file of the instrumented class in its current state.
+                 * @return The transformed class file or {@code null} if no transformation is applied.
+                 * @throws IllegalClassFormatException If the class file was malformed.
+                 */
+                @MaybeNull
+                protected byte[] dispatch(Object rawModule,
+                                          @MaybeNull ClassLoader classLoader,
+                                          @MaybeNull String internalName,
+                                          @MaybeNull Class<?> classBeingRedefined,
+                                          ProtectionDomain protectionDomain,
+                                          byte[] binaryRepresentation) throws IllegalClassFormatException {
+                    throw new UnsupportedOperationException("The module system is not supported by the current VM");
+                }
+            }
+
+            /**
+             * A factory for creating a time-budgeted class file transformer that supports the module system, if available.
+             */
+            protected interface Factory {
+
+                /**
+                 * Creates a new time-budgeted class file transformer.
+                 *
+                 * @param classFileTransformer The class file transformer to wrap.
+                 * @param withTimeBudget       The time budget decorator that creates the transformer.
+                 * @return The wrapping class file transformer.
+                 */
+                ResettableClassFileTransformer make(ResettableClassFileTransformer classFileTransformer, WithTimeBudget withTimeBudget);
+
+                /**
+                 * An action to create a suitable factory.
+                 */
+                enum CreationAction implements PrivilegedAction<Factory> {
+
+                    /**
+                     * The singleton instance.
+                     */
+                    INSTANCE;
+
+                    /**
+                     * {@inheritDoc}
+                     */
+                    @SuppressFBWarnings(value = "REC_CATCH_EXCEPTION", justification = "Exception should not be rethrown but trigger a fallback.")
+                    public Factory run() {
+                        try {
+                            return new ForJava9CapableVm(new ByteBuddy()
+                                    .with(TypeValidation.DISABLED)
+                                    .subclass(TimeBudgeted.class)
+                                    .name(TimeBudgeted.class.getName() + "$ByteBuddy$ModuleSupport")
+                                    .method(named("transform").and(takesArgument(0, JavaType.MODULE.load())))
+                                    .intercept(MethodCall.invoke(TimeBudgeted.class.getDeclaredMethod("transform",
+                                            Object.class,
+                                            ClassLoader.class,
+                                            String.class,
+                                            Class.class,
+                                            ProtectionDomain.class,
+                                            byte[].class)).onSuper().withAllArguments())
+                                    .method(named("dispatch"))
+                                    .intercept(MethodCall.invoke(ClassFileTransformer.class.getDeclaredMethod("transform",
+                                            JavaType.MODULE.load(),
+                                            ClassLoader.class,
+                                            String.class,
+                                            Class.class,
+                                            ProtectionDomain.class,
+                                            byte[].class)).onField("classFileTransformer").withAllArguments().withAssigner(Assigner.DEFAULT, Assigner.Typing.DYNAMIC))
+                                    .make()
+                                    .load(TimeBudgeted.class.getClassLoader(),
+                                            ClassLoadingStrategy.Default.WRAPPER_PERSISTENT.with(TimeBudgeted.class.getProtectionDomain()))
+                                    .getLoaded()
+                                    .getDeclaredConstructor(ResettableClassFileTransformer.class, WithTimeBudget.class));
+                        } catch (Exception ignored) {
+                            return ForLegacyVm.INSTANCE;
+                        }
+                    }
+                }
+
+                /**
+                 * A factory for creating a time-budgeted class file transformer when the module system is supported.
+                 */
+                @HashCodeAndEqualsPlugin.Enhance
+                class ForJava9CapableVm implements Factory {
+
+                    /**
+                     * The constructor to invoke.
+                     */
+                    private final Constructor<? extends ResettableClassFileTransformer> timeBudgeted;
 
-            /**
-             * Creates a new compound transformer decorator.
-             *
-             * @param transformerDecorator The transformer decorators to add.
-             */
-            public Compound(TransformerDecorator... transformerDecorator) {
-                this(Arrays.asList(transformerDecorator));
-            }
+                    /**
+                     * Creates a new Java 9 capable factory.
+                     *
+                     * @param timeBudgeted The constructor to invoke.
+                     */
+                    protected ForJava9CapableVm(Constructor<? extends ResettableClassFileTransformer> timeBudgeted) {
+                        this.timeBudgeted = timeBudgeted;
+                    }
 
-            /**
-             * Creates a new compound listener.
-             *
-             * @param transformerDecorators The transformerDecorators to invoke.
-             */
-            public Compound(List<? extends TransformerDecorator> transformerDecorators) {
-                this.transformerDecorators = new ArrayList<TransformerDecorator>();
-                for (TransformerDecorator transformerDecorator : transformerDecorators) {
-                    if (transformerDecorator instanceof Compound) {
-                        this.transformerDecorators.addAll(((Compound) transformerDecorator).transformerDecorators);
-                    } else if (!(transformerDecorator instanceof NoOp)) {
-                        this.transformerDecorators.add(transformerDecorator);
+                    /**
+                     * {@inheritDoc}
+                     */
+                    public ResettableClassFileTransformer make(ResettableClassFileTransformer classFileTransformer, WithTimeBudget withTimeBudget) {
+                        try {
+                            return timeBudgeted.newInstance(classFileTransformer, withTimeBudget);
+                        } catch (IllegalAccessException exception) {
+                            throw new IllegalStateException("Cannot access " + timeBudgeted, exception);
+                        } catch (InstantiationException exception) {
+                            throw new IllegalStateException("Cannot instantiate " + timeBudgeted.getDeclaringClass(), exception);
+                        } catch (InvocationTargetException exception) {
+                            throw new IllegalStateException("Cannot invoke " + timeBudgeted, exception.getTargetException());
+                        }
                     }
                 }
-            }
 
-            /**
-             * {@inheritDoc}
-             */
-            public ResettableClassFileTransformer decorate(ResettableClassFileTransformer classFileTransformer) {
-                for (TransformerDecorator transformerDecorator : transformerDecorators) {
-                    classFileTransformer = transformerDecorator.decorate(classFileTransformer);
+                /**
+                 * A factory for creating a time-budgeted class file transformer when the module system is not supported.
+                 */
+                enum ForLegacyVm implements Factory {
+
+                    /**
+                     * The singleton instance.
+                     */
+                    INSTANCE;
+
+                    /**
+                     * {@inheritDoc}
+                     */
+                    public ResettableClassFileTransformer make(ResettableClassFileTransformer classFileTransformer, WithTimeBudget withTimeBudget) {
+                        return new TimeBudgeted(classFileTransformer, withTimeBudget);
+                    }
                 }
-                return classFileTransformer;
             }
         }
     }
@@ -5839,21 +8884,32 @@ public interface AgentBuilder {
                              CircularityLock circularityLock) {
             check(instrumentation);
             int batch = RedefinitionStrategy.BatchAllocator.FIRST_BATCH;
-            for (Iterable<Class<?>> types : redefinitionDiscoveryStrategy.resolve(instrumentation)) {
-                RedefinitionStrategy.Collector collector = make(poolStrategy,
-                        locationStrategy,
-                        descriptionStrategy,
-                        fallbackStrategy,
-                        listener,
-                        matcher,
-                        circularityLock);
-                for (Class<?> type : types) {
-                    if (type == null || type.isArray() || type.isPrimitive() || !lambdaInstrumentationStrategy.isInstrumented(type)) {
-                        continue;
+            Iterator<Iterable<Class<?>>> iterator = redefinitionDiscoveryStrategy.resolve(instrumentation).iterator();
+            try {
+                while (iterator.hasNext()) {
+                    RedefinitionStrategy.Collector collector = make(poolStrategy,
+                            locationStrategy,
+                            descriptionStrategy,
+                            fallbackStrategy,
+                            listener,
+                            matcher,
+                            circularityLock);
+                    for (Class<?> type : iterator.next()) {
+                        if (type == null || type.isArray() || type.isPrimitive() || !lambdaInstrumentationStrategy.isInstrumented(type)) {
+                            continue;
+                        }
+                        collector.consider(type, DISPATCHER.isModifiableClass(instrumentation, type) || ClassFileVersion.ofThisVm(ClassFileVersion.JAVA_V5).isAtMost(ClassFileVersion.JAVA_V5));
+                    }
+                    batch = collector.apply(instrumentation, redefinitionBatchAllocator, redefinitionListener, batch);
+                }
+            } finally {
+                if (iterator instanceof Closeable) {
+                    try {
+                        ((Closeable) iterator).close();
+                    } catch (IOException ignored) {
+                        /* do nothing */
                     }
-                    collector.consider(type, DISPATCHER.isModifiableClass(instrumentation, type) || ClassFileVersion.ofThisVm(ClassFileVersion.JAVA_V5).isAtMost(ClassFileVersion.JAVA_V5));
                 }
-                batch = collector.apply(instrumentation, redefinitionBatchAllocator, redefinitionListener, batch);
             }
         }
 
@@ -6275,27 +9331,333 @@ public interface AgentBuilder {
                     if (parts < 1) {
                         throw new IllegalArgumentException("A batch size must be positive: " + parts);
                     }
-                    return new Partitioning(parts);
+                    return new Partitioning(parts);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                public Iterable<? extends List<Class<?>>> batch(List<Class<?>> types) {
+                    if (types.isEmpty()) {
+                        return Collections.emptyList();
+                    } else {
+                        List<List<Class<?>>> batches = new ArrayList<List<Class<?>>>();
+                        int size = types.size() / parts, reminder = types.size() % parts;
+                        for (int index = reminder; index < types.size(); index += size) {
+                            batches.add(new ArrayList<Class<?>>(types.subList(index, index + size)));
+                        }
+                        if (batches.isEmpty()) {
+                            return Collections.singletonList(types);
+                        } else {
+                            batches.get(0).addAll(0, types.subList(0, reminder));
+                            return batches;
+                        }
+                    }
+                }
+            }
+
+            /**
+             * <p>
+             * A batch allocator that adjusts the size of each batch such that the time for applying a batch approximates a
+             * target pause. Each application of a batch is measured and the size of the following batch is derived from the
+             * average time that was required for retransforming a single class of the previous batches. To avoid an overshoot,
+             * a batch is never more than twice the size of the previously measured batch.
+             * </p>
+             * <p>
+             * A batch is measured from being handed out by this allocator until the next batch is requested. To exclude time
+             * spent in other redefinition listeners, such as a {@link Listener.Pausing} listener, and to also measure the last
+             * batch of a redefinition, the listener that is supplied by {@link ForPauseTarget#getListener()} should additionally
+             * be registered as the last redefinition listener. Without this listener, the measurement of the last batch is discarded
+             * when the allocator is applied the next time.
+             * </p>
+             * <p>
+             * <b>Important</b>: This allocator is stateful and retains the last batch size for subsequent redefinitions.
+             * </p>
+             */
+            class ForPauseTarget implements BatchAllocator {
+
+                /**
+                 * The targeted pause of a single batch in nanoseconds.
+                 */
+                private final long target;
+
+                /**
+                 * The minimum size of a batch.
+                 */
+                private final int minimum;
+
+                /**
+                 * The maximum size of a batch.
+                 */
+                private final int maximum;
+
+                /**
+                 * A histogram of all measured pauses in nanoseconds.
+                 */
+                private final TransformationMetrics.Histogram pauses;
+
+                /**
+                 * The size of the next batch.
+                 */
+                private int size;
+
+                /**
+                 * The estimated time of retransforming a single class in nanoseconds or {@code 0} if no estimate is available.
+                 */
+                private double estimate;
+
+                /**
+                 * The size of the currently applied batch or {@code 0} if no batch is currently applied.
+                 */
+                private int current;
+
+                /**
+                 * The time stamp when the currently applied batch was started.
+                 */
+                private long started;
+
+                /**
+                 * Creates a new batch allocator for a pause target.
+                 *
+                 * @param target  The targeted pause of a single batch in nanoseconds.
+                 * @param initial The size of the first batch.
+                 * @param minimum The minimum size of a batch.
+                 * @param maximum The maximum size of a batch.
+                 */
+                protected ForPauseTarget(long target, int initial, int minimum, int maximum) {
+                    this.target = target;
+                    this.minimum = minimum;
+                    this.maximum = maximum;
+                    size = initial;
+                    pauses = new TransformationMetrics.Histogram();
+                }
+
+                /**
+                 * Creates a batch allocator that targets the supplied pause for each batch, starting with a single class.
+                 *
+                 * @param target The targeted pause of a single batch.
+                 * @param unit   The time unit of the targeted pause.
+                 * @return An appropriate batch allocator.
+                 */
+                public static ForPauseTarget of(long target, TimeUnit unit) {
+                    return of(target, unit, 1, 1, Integer.MAX_VALUE);
+                }
+
+                /**
+                 * Creates a batch allocator that targets the supplied pause for each batch.
+                 *
+                 * @param target  The targeted pause of a single batch.
+                 * @param unit    The time unit of the targeted pause.
+                 * @param initial The size of the first batch.
+                 * @param minimum The minimum size of a batch.
+                 * @param maximum The maximum size of a batch.
+                 * @return An appropriate batch allocator.
+                 */
+                public static ForPauseTarget of(long target, TimeUnit unit, int initial, int minimum, int maximum) {
+                    if (target <= 0) {
+                        throw new IllegalArgumentException("Target pause must be a positive number: " + target);
+                    } else if (minimum <= 0) {
+                        throw new IllegalArgumentException("Minimum must be a positive number: " + minimum);
+                    } else if (minimum > maximum) {
+                        throw new IllegalArgumentException("Minimum must not be bigger than maximum: " + minimum + " >" + maximum);
+                    } else if (initial < minimum || initial > maximum) {
+                        throw new IllegalArgumentException("Initial size must be within " + minimum + " and " + maximum + ": " + initial);
+                    }
+                    return new ForPauseTarget(unit.toNanos(target), initial, minimum, maximum);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                public Iterable<? extends List<Class<?>>> batch(List<Class<?>> types) {
+                    onReset();
+                    return types.isEmpty()
+                            ? Collections.<List<Class<?>>>emptySet()
+                            : new AdaptingIterable(types);
+                }
+
+                /**
+                 * Returns a redefinition listener that refines the measurement of this allocator's batches. This listener should
+                 * be registered after any other listener that might be time-consuming.
+                 *
+                 * @return A redefinition listener that refines the measurement of this allocator's batches.
+                 */
+                public Listener getListener() {
+                    return new MeasuringListener();
+                }
+
+                /**
+                 * Returns the size of the next batch.
+                 *
+                 * @return The size of the next batch.
+                 */
+                public synchronized int getBatchSize() {
+                    return size;
+                }
+
+                /**
+                 * Returns a snapshot of the distribution of all measured pauses in nanoseconds.
+                 *
+                 * @return A snapshot of the distribution of all measured pauses in nanoseconds.
+                 */
+                public TransformationMetrics.Histogram.Snapshot getPauses() {
+                    return pauses.getSnapshot();
+                }
+
+                /**
+                 * Completes the measurement of any previous batch, allocates the next batch and starts its measurement.
+                 *
+                 * @param available The amount of types that are still available for allocation.
+                 * @return The size of the allocated batch.
+                 */
+                protected synchronized int onAllocation(int available) {
+                    onEnd();
+                    current = Math.min(size, available);
+                    started = System.nanoTime();
+                    return current;
+                }
+
+                /**
+                 * Discards the measurement of a batch of a previous application of this allocator that was never completed, as
+                 * it would otherwise include the time between both applications.
+                 */
+                protected synchronized void onReset() {
+                    current = 0;
+                }
+
+                /**
+                 * Restarts the measurement of the currently applied batch, if any.
+                 */
+                protected synchronized void onStart() {
+                    if (current > 0) {
+                        started = System.nanoTime();
+                    }
+                }
+
+                /**
+                 * Completes the measurement of the currently applied batch, if any, and adjusts the size of the next batch.
+                 */
+                protected synchronized void onEnd() {
+                    if (current == 0) {
+                        return;
+                    }
+                    long pause = System.nanoTime() - started;
+                    pauses.record(pause);
+                    double observed = (double) pause / current;
+                    estimate = estimate == 0 ? observed : (estimate + observed) / 2;
+                    long next = estimate == 0
+                            ? Long.MAX_VALUE
+                            : (long) (target / estimate);
+                    size = (int) Math.max(minimum, Math.min(maximum, Math.min(next, 2L * current)));
+                    current = 0;
+                }
+
+                /**
+                 * An iterable that allocates batches of an adapting size.
+                 */
+                protected class AdaptingIterable implements Iterable<List<Class<?>>> {
+
+                    /**
+                     * The types to allocate.
+                     */
+                    private final List<Class<?>> types;
+
+                    /**
+                     * Creates a new adapting iterable.
+                     *
+                     * @param types The types to allocate.
+                     */
+                    protected AdaptingIterable(List<Class<?>> types) {
+                        this.types = types;
+                    }
+
+                    /**
+                     * {@inheritDoc}
+                     */
+                    public Iterator<List<Class<?>>> iterator() {
+                        return new AdaptingIterator(types);
+                    }
+                }
+
+                /**
+                 * An iterator that allocates batches of an adapting size.
+                 */
+                protected class AdaptingIterator implements Iterator<List<Class<?>>> {
+
+                    /**
+                     * The types to allocate.
+                     */
+                    private final List<Class<?>> types;
+
+                    /**
+                     * The index of the next type to allocate.
+                     */
+                    private int index;
+
+                    /**
+                     * Creates a new adapting iterator.
+                     *
+                     * @param types The types to allocate.
+                     */
+                    protected AdaptingIterator(List<Class<?>> types) {
+                        this.types = types;
+                    }
+
+                    /**
+                     * {@inheritDoc}
+                     */
+                    public boolean hasNext() {
+                        return index < types.size();
+                    }
+
+                    /**
+                     * {@inheritDoc}
+                     */
+                    public List<Class<?>> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        int size = onAllocation(types.size() - index);
+                        try {
+                            return new ArrayList<Class<?>>(types.subList(index, index + size));
+                        } finally {
+                            index += size;
+                        }
+                    }
+
+                    /**
+                     * {@inheritDoc}
+                     */
+                    public void remove() {
+                        throw new UnsupportedOperationException("remove");
+                    }
                 }
 
                 /**
-                 * {@inheritDoc}
+                 * A redefinition listener that refines the measurement of the currently applied batch.
                  */
-                public Iterable<? extends List<Class<?>>> batch(List<Class<?>> types) {
-                    if (types.isEmpty()) {
+                protected class MeasuringListener implements Listener {
+
+                    /**
+                     * {@inheritDoc}
+                     */
+                    public void onBatch(int index, List<Class<?>> batch, List<Class<?>> types) {
+                        onStart();
+                    }
+
+                    /**
+                     * {@inheritDoc}
+                     */
+                    public Iterable<? extends List<Class<?>>> onError(int index, List<Class<?>> batch, Throwable throwable, List<Class<?>> types) {
+                        onEnd();
                         return Collections.emptyList();
-                    } else {
-                        List<List<Class<?>>> batches = new ArrayList<List<Class<?>>>();
-                        int size = types.size() / parts, reminder = types.size() % parts;
-                        for (int index = reminder; index < types.size(); index += size) {
-                            batches.add(new ArrayList<Class<?>>(types.subList(index, index + size)));
-                        }
-                        if (batches.isEmpty()) {
-                            return Collections.singletonList(types);
-                        } else {
-                            batches.get(0).addAll(0, types.subList(0, reminder));
-                            return batches;
-                        }
+                    }
+
+                    /**
+                     * {@inheritDoc}
+                     */
+                    public void onComplete(int amount, List<Class<?>> types, Map<List<Class<?>>, Throwable> failures) {
+                        onEnd();
                     }
                 }
             }
@@ -6802,7 +10164,8 @@ public interface AgentBuilder {
 
             /**
              * Resolves an iterable of types to retransform. Types might be loaded during a previous retransformation which might require
-             * multiple passes for a retransformation.
+             * multiple passes for a retransformation. If the iterable's iterator implements {@link Closeable}, it is closed once the
+             * retransformation is completed or aborted, regardless of the iterator being exhausted.
              *
              * @param instrumentation The instrumentation instance used for the redefinition.
              * @return An iterable of types to consider for retransformation.
@@ -6998,68 +10361,371 @@ public interface AgentBuilder {
                     }
 
                     /**
-                     * An iterator that reiterates over an array of loaded classes by the previously observed length.
+                     * An iterator that reiterates over an array of loaded classes by the previously observed length.
+                     */
+                    protected static class OrderedReiteratingIterator implements Iterator<Iterable<Class<?>>> {
+
+                        /**
+                         * The instrumentation instance to use.
+                         */
+                        private final Instrumentation instrumentation;
+
+                        /**
+                         * The length of the last known array of known classes.
+                         */
+                        private int index;
+
+                        /**
+                         * The current list of types or {@code null} if the current list of types is not prepared.
+                         */
+                        @MaybeNull
+                        private List<Class<?>> types;
+
+                        /**
+                         * Creates a new reiterating iterator.
+                         *
+                         * @param instrumentation The instrumentation instance to use.
+                         */
+                        protected OrderedReiteratingIterator(Instrumentation instrumentation) {
+                            this.instrumentation = instrumentation;
+                            index = 0;
+                        }
+
+                        /**
+                         * {@inheritDoc}
+                         */
+                        public boolean hasNext() {
+                            if (types == null) {
+                                Class<?>[] type = instrumentation.getAllLoadedClasses();
+                                types = new ArrayList<Class<?>>(Arrays.asList(type).subList(index, type.length));
+                                index = type.length;
+                            }
+                            return !types.isEmpty();
+                        }
+
+                        /**
+                         * {@inheritDoc}
+                         */
+                        public Iterable<Class<?>> next() {
+                            if (hasNext()) {
+                                try {
+                                    return types;
+                                } finally {
+                                    types = null;
+                                }
+                            } else {
+                                throw new NoSuchElementException();
+                            }
+                        }
+
+                        /**
+                         * {@inheritDoc}
+                         */
+                        public void remove() {
+                            throw new UnsupportedOperationException("remove");
+                        }
+                    }
+                }
+            }
+
+            /**
+             * <p>
+             * A discovery strategy that considers all loaded types supplied by {@link Instrumentation#getAllLoadedClasses()} only once. Prior
+             * to this initial snapshot, a lightweight class file transformer is registered that records the name of any type that is loaded
+             * subsequently, for example during the retransformation of the initial snapshot. For each reiteration, only the recorded types
+             * are considered such that the array of all loaded types is only copied again once no further types were recorded. This closing
+             * snapshot is required as the JVM does not notify class file transformers of types that are loaded during a retransformation,
+             * for example when verifying a retransformed class. Only if the closing snapshot does not yield any unprocessed types, the
+             * recording class file transformer is removed and the iteration is completed. If the iteration is aborted, the recording
+             * class file transformer is removed when the iterator is closed.
+             * </p>
+             * <p>
+             * <b>Note</b>: Recorded types are resolved by their name and defining class loader. Types that cannot be located by their
+             * defining class loader, such as hidden classes, or that are loaded while the bounded record of loaded types is full, are only
+             * discovered by the closing snapshot.
+             * </p>
+             */
+            enum Recording implements DiscoveryStrategy {
+
+                /**
+                 * The singleton instance.
+                 */
+                INSTANCE;
+
+                /**
+                 * {@inheritDoc}
+                 */
+                public Iterable<Iterable<Class<?>>> resolve(Instrumentation instrumentation) {
+                    return new RecordingIterable(instrumentation);
+                }
+
+                /**
+                 * An iterable that returns all loaded types and thereafter all types that were recorded as loaded.
+                 */
+                @HashCodeAndEqualsPlugin.Enhance
+                protected static class RecordingIterable implements Iterable<Iterable<Class<?>>> {
+
+                    /**
+                     * The instrumentation instance to use.
+                     */
+                    private final Instrumentation instrumentation;
+
+                    /**
+                     * Creates a new recording iterable.
+                     *
+                     * @param instrumentation The instrumentation instance to use.
+                     */
+                    protected RecordingIterable(Instrumentation instrumentation) {
+                        this.instrumentation = instrumentation;
+                    }
+
+                    /**
+                     * {@inheritDoc}
+                     */
+                    public Iterator<Iterable<Class<?>>> iterator() {
+                        return new RecordingIterator(instrumentation);
+                    }
+                }
+
+                /**
+                 * An iterator that returns all loaded types and thereafter all types that were recorded as loaded. Closing this
+                 * iterator removes the recording class file transformer if it is still registered.
+                 */
+                protected static class RecordingIterator implements Iterator<Iterable<Class<?>>>, Closeable {
+
+                    /**
+                     * The instrumentation instance to use.
+                     */
+                    private final Instrumentation instrumentation;
+
+                    /**
+                     * The class file transformer that records loaded types.
+                     */
+                    private final RecordingTransformer recordingTransformer;
+
+                    /**
+                     * A set containing all previously discovered types.
+                     */
+                    private final Set<Class<?>> processed;
+
+                    /**
+                     * {@code true} if the initial snapshot of all loaded types was already taken.
+                     */
+                    private boolean initialized;
+
+                    /**
+                     * {@code true} if the recording transformer was already removed.
+                     */
+                    private boolean completed;
+
+                    /**
+                     * The current list of types or {@code null} if the current list of types is not prepared.
+                     */
+                    @MaybeNull
+                    private List<Class<?>> types;
+
+                    /**
+                     * Creates a new recording iterator.
+                     *
+                     * @param instrumentation The instrumentation instance to use.
+                     */
+                    protected RecordingIterator(Instrumentation instrumentation) {
+                        this.instrumentation = instrumentation;
+                        recordingTransformer = new RecordingTransformer();
+                        processed = new HashSet<Class<?>>();
+                    }
+
+                    /**
+                     * {@inheritDoc}
+                     */
+                    public boolean hasNext() {
+                        if (types == null) {
+                            types = new ArrayList<Class<?>>();
+                            if (!initialized && !completed) {
+                                instrumentation.addTransformer(recordingTransformer);
+                                snapshot();
+                                initialized = true;
+                            } else if (!completed) {
+                                for (Class<?> type : recordingTransformer.drain()) {
+                                    if (processed.add(type)) {
+                                        types.add(type);
+                                    }
+                                }
+                                if (types.isEmpty()) {
+                                    snapshot();
+                                    if (types.isEmpty()) {
+                                        close();
+                                    }
+                                }
+                            }
+                        }
+                        return !types.isEmpty();
+                    }
+
+                    /**
+                     * Adds all loaded types that were not previously discovered to the current list of types.
+                     */
+                    private void snapshot() {
+                        for (Class<?> type : instrumentation.getAllLoadedClasses()) {
+                            if (type != null && processed.add(type)) {
+                                types.add(type);
+                            }
+                        }
+                    }
+
+                    /**
+                     * {@inheritDoc}
+                     */
+                    public Iterable<Class<?>> next() {
+                        if (hasNext()) {
+                            try {
+                                return types;
+                            } finally {
+                                types = null;
+                            }
+                        } else {
+                            throw new NoSuchElementException();
+                        }
+                    }
+
+                    /**
+                     * {@inheritDoc}
+                     */
+                    public void remove() {
+                        throw new UnsupportedOperationException("remove");
+                    }
+
+                    /**
+                     * {@inheritDoc}
+                     */
+                    public void close() {
+                        if (initialized && !completed) {
+                            instrumentation.removeTransformer(recordingTransformer);
+                        }
+                        completed = true;
+                    }
+                }
+
+                /**
+                 * A class file transformer that records the names and defining class loaders of all types being loaded without
+                 * transforming them. Once the maximum number of undrained types is reached, further types are not recorded.
+                 */
+                protected static class RecordingTransformer implements ClassFileTransformer {
+
+                    /**
+                     * The maximum number of recorded types that are retained until the recorded types are drained.
+                     */
+                    protected static final int CAPACITY = 4096;
+
+                    /**
+                     * A queue of all recorded types that were not yet drained.
+                     */
+                    private final Queue<RecordedType> recorded;
+
+                    /**
+                     * The number of recorded types that were not yet drained.
+                     */
+                    private final AtomicInteger size;
+
+                    /**
+                     * Creates a new recording transformer.
+                     */
+                    protected RecordingTransformer() {
+                        recorded = new ConcurrentLinkedQueue<RecordedType>();
+                        size = new AtomicInteger();
+                    }
+
+                    /**
+                     * {@inheritDoc}
+                     */
+                    @MaybeNull
+                    public byte[] transform(@MaybeNull ClassLoader classLoader,
+                                            @MaybeNull String internalName,
+                                            @MaybeNull Class<?> classBeingRedefined,
+                                            @MaybeNull ProtectionDomain protectionDomain,
+                                            byte[] binaryRepresentation) {
+                        if (internalName != null && classBeingRedefined == null) {
+                            if (size.incrementAndGet() > CAPACITY) {
+                                size.decrementAndGet();
+                            } else {
+                                recorded.offer(new RecordedType(classLoader, internalName.replace('/', '.')));
+                            }
+                        }
+                        return null;
+                    }
+
+                    /**
+                     * Drains all recorded types and resolves them by their defining class loader. Types that cannot be resolved
+                     * are discarded.
+                     *
+                     * @return A list of all recorded types that could be resolved.
                      */
-                    protected static class OrderedReiteratingIterator implements Iterator<Iterable<Class<?>>> {
-
-                        /**
-                         * The instrumentation instance to use.
-                         */
-                        private final Instrumentation instrumentation;
+                    protected List<Class<?>> drain() {
+                        List<Class<?>> types = new ArrayList<Class<?>>();
+                        RecordedType recordedType;
+                        while ((recordedType = recorded.poll()) != null) {
+                            size.decrementAndGet();
+                            Class<?> type = recordedType.resolve();
+                            if (type != null) {
+                                types.add(type);
+                            }
+                        }
+                        return types;
+                    }
+                }
 
-                        /**
-                         * The length of the last known array of known classes.
-                         */
-                        private int index;
+                /**
+                 * A type that was recorded by its name and weakly referenced defining class loader.
+                 */
+                protected static class RecordedType {
 
-                        /**
-                         * The current list of types or {@code null} if the current list of types is not prepared.
-                         */
-                        @MaybeNull
-                        private List<Class<?>> types;
+                    /**
+                     * A weak reference to the defining class loader or {@code null} if the type was defined by the boot loader.
+                     */
+                    @MaybeNull
+                    private final WeakReference<ClassLoader> classLoader;
 
-                        /**
-                         * Creates a new reiterating iterator.
-                         *
-                         * @param instrumentation The instrumentation instance to use.
-                         */
-                        protected OrderedReiteratingIterator(Instrumentation instrumentation) {
-                            this.instrumentation = instrumentation;
-                            index = 0;
-                        }
+                    /**
+                     * The binary name of the type.
+                     */
+                    private final String name;
 
-                        /**
-                         * {@inheritDoc}
-                         */
-                        public boolean hasNext() {
-                            if (types == null) {
-                                Class<?>[] type = instrumentation.getAllLoadedClasses();
-                                types = new ArrayList<Class<?>>(Arrays.asList(type).subList(index, type.length));
-                                index = type.length;
-                            }
-                            return !types.isEmpty();
-                        }
+                    /**
+                     * Creates a new recorded type.
+                     *
+                     * @param classLoader The defining class loader or {@code null} if the type was defined by the boot loader.
+                     * @param name        The binary name of the type.
+                     */
+                    protected RecordedType(@MaybeNull ClassLoader classLoader, String name) {
+                        this.classLoader = classLoader == null
+                                ? null
+                                : new WeakReference<ClassLoader>(classLoader);
+                        this.name = name;
+                    }
 
-                        /**
-                         * {@inheritDoc}
-                         */
-                        public Iterable<Class<?>> next() {
-                            if (hasNext()) {
-                                try {
-                                    return types;
-                                } finally {
-                                    types = null;
-                                }
-                            } else {
-                                throw new NoSuchElementException();
+                    /**
+                     * Resolves the recorded type if it is visible to its defining class loader.
+                     *
+                     * @return The resolved type or {@code null} if the type cannot be resolved.
+                     */
+                    @MaybeNull
+                    protected Class<?> resolve() {
+                        ClassLoader classLoader;
+                        if (this.classLoader == null) {
+                            classLoader = null;
+                        } else {
+                            classLoader = this.classLoader.get();
+                            if (classLoader == null) {
+                                return null;
                             }
                         }
-
-                        /**
-                         * {@inheritDoc}
-                         */
-                        public void remove() {
-                            throw new UnsupportedOperationException("remove");
+                        try {
+                            Class<?> type = Class.forName(name, false, classLoader);
+                            return type.getClassLoader() == classLoader
+                                    ? type
+                                    : null;
+                        } catch (Throwable ignored) {
+                            return null;
                         }
                     }
                 }
@@ -7302,6 +10968,199 @@ public interface AgentBuilder {
                     return new Cancelable.ForFuture(scheduledExecutorService.scheduleWithFixedDelay(job, time, time, timeUnit));
                 }
             }
+
+            /**
+             * <p>
+             * A resubmission scheduler that defers any resubmission job until the application signals its readiness by
+             * {@link Deferred#ready()} or until a given delay has elapsed, whatever happens first. Thereafter, the jobs are
+             * executed with a fixed delay.
+             * </p>
+             * <p>
+             * When combined with {@link RedefinitionListenable.WithoutResubmissionSpecification#resubmitImmediate()}, types are only
+             * recorded when they are loaded, without resolving a type description or creating a transformed class file. Instead,
+             * the recorded types are retransformed in the background once the application is ready, such that startup-critical
+             * code paths do not pay for their instrumentation. To retransform recorded types in adaptive batches, a
+             * {@link BatchAllocator.ForPauseTarget} can be registered. Transformations that must be applied upon a type's
+             * first use can be registered via {@link Identified.Extendable#asEagerTransformation()}.
+             * </p>
+             */
+            class Deferred implements ResubmissionScheduler {
+
+                /**
+                 * The executor service to schedule to.
+                 */
+                private final ScheduledExecutorService scheduledExecutorService;
+
+                /**
+                 * The maximum time to defer a job if the application does not signal its readiness.
+                 */
+                private final long delay;
+
+                /**
+                 * The time interval to pause between completed jobs once a job is activated.
+                 */
+                private final long time;
+
+                /**
+                 * The time unit of the delay and the time interval.
+                 */
+                private final TimeUnit timeUnit;
+
+                /**
+                 * The activations of all jobs that are not yet activated.
+                 */
+                private final Set<Activation> activations;
+
+                /**
+                 * {@code true} if the application signaled its readiness.
+                 */
+                private boolean ready;
+
+                /**
+                 * Creates a new deferred resubmission scheduler.
+                 *
+                 * @param scheduledExecutorService The executor service to schedule to.
+                 * @param delay                    The maximum time to defer a job if the application does not signal its readiness.
+                 * @param time                     The time interval to pause between completed jobs once a job is activated.
+                 * @param timeUnit                 The time unit of the delay and the time interval.
+                 */
+                public Deferred(ScheduledExecutorService scheduledExecutorService, long delay, long time, TimeUnit timeUnit) {
+                    this.scheduledExecutorService = scheduledExecutorService;
+                    this.delay = delay;
+                    this.time = time;
+                    this.timeUnit = timeUnit;
+                    activations = new LinkedHashSet<Activation>();
+                }
+
+                /**
+                 * Signals that the application is ready such that all deferred jobs are activated. Any job that is scheduled
+                 * subsequently is activated immediately.
+                 */
+                public void ready() {
+                    List<Activation> activations;
+                    synchronized (this) {
+                        ready = true;
+                        activations = new ArrayList<Activation>(this.activations);
+                        this.activations.clear();
+                    }
+                    for (Activation activation : activations) {
+                        activation.run();
+                    }
+                }
+
+                /**
+                 * Returns {@code true} if the application signaled its readiness.
+                 *
+                 * @return {@code true} if the application signaled its readiness.
+                 */
+                public synchronized boolean isReady() {
+                    return ready;
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                public boolean isAlive() {
+                    return !scheduledExecutorService.isShutdown();
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                public Cancelable schedule(Runnable job) {
+                    Activation activation = new Activation(job);
+                    boolean ready;
+                    synchronized (this) {
+                        ready = this.ready;
+                        if (!ready) {
+                            activations.add(activation);
+                        }
+                    }
+                    if (ready) {
+                        activation.run();
+                    } else {
+                        activation.defer();
+                    }
+                    return activation;
+                }
+
+                /**
+                 * An activation of a deferred job that is executed with a fixed delay once it is activated.
+                 */
+                protected class Activation implements Runnable, Cancelable {
+
+                    /**
+                     * The job to execute.
+                     */
+                    private final Runnable job;
+
+                    /**
+                     * The future of the scheduled activation after the maximum delay or {@code null} if it is not scheduled.
+                     */
+                    @MaybeNull
+                    private Future<?> timeout;
+
+                    /**
+                     * The future of the activated job or {@code null} if the job is not yet activated.
+                     */
+                    @MaybeNull
+                    private Future<?> future;
+
+                    /**
+                     * {@code true} if this activation was canceled.
+                     */
+                    private boolean canceled;
+
+                    /**
+                     * Creates a new activation.
+                     *
+                     * @param job The job to execute.
+                     */
+                    protected Activation(Runnable job) {
+                        this.job = job;
+                    }
+
+                    /**
+                     * Schedules this activation after the maximum delay.
+                     */
+                    protected synchronized void defer() {
+                        if (!canceled && future == null) {
+                            timeout = scheduledExecutorService.schedule(this, delay, timeUnit);
+                        }
+                    }
+
+                    /**
+                     * Activates the job of this activation unless it is already activated or canceled.
+                     */
+                    public synchronized void run() {
+                        if (!canceled && future == null) {
+                            future = scheduledExecutorService.scheduleWithFixedDelay(job, 0L, time, timeUnit);
+                            if (timeout != null) {
+                                timeout.cancel(false);
+                            }
+                            synchronized (Deferred.this) {
+                                activations.remove(this);
+                            }
+                        }
+                    }
+
+                    /**
+                     * {@inheritDoc}
+                     */
+                    public synchronized void cancel() {
+                        canceled = true;
+                        if (timeout != null) {
+                            timeout.cancel(false);
+                        }
+                        if (future != null) {
+                            future.cancel(true);
+                        }
+                        synchronized (Deferred.this) {
+                            activations.remove(this);
+                        }
+                    }
+                }
+            }
         }
 
         /**
@@ -7389,6 +11248,11 @@ public interface AgentBuilder {
                  */
                 private final RedefinitionListenable.ResubmissionImmediateMatcher resubmissionImmediateMatcher;
 
+                /**
+                 * The maximum number of types that are pending for resubmission.
+                 */
+                private final int maximumPending;
+
                 /**
                  * Creates a new enabled resubmission strategy.
                  *
@@ -7399,9 +11263,25 @@ public interface AgentBuilder {
                 protected Enabled(ResubmissionScheduler resubmissionScheduler,
                                   RedefinitionListenable.ResubmissionOnErrorMatcher resubmissionOnErrorMatcher,
                                   RedefinitionListenable.ResubmissionImmediateMatcher resubmissionImmediateMatcher) {
+                    this(resubmissionScheduler, resubmissionOnErrorMatcher, resubmissionImmediateMatcher, Integer.MAX_VALUE);
+                }
+
+                /**
+                 * Creates a new enabled resubmission strategy.
+                 *
+                 * @param resubmissionScheduler        A scheduler that is responsible for resubmission of types.
+                 * @param resubmissionOnErrorMatcher   A matcher to determine resubmissions on errors.
+                 * @param resubmissionImmediateMatcher A matcher to determine resubmissions without errors.
+                 * @param maximumPending               The maximum number of types that are pending for resubmission.
+                 */
+                protected Enabled(ResubmissionScheduler resubmissionScheduler,
+                                  RedefinitionListenable.ResubmissionOnErrorMatcher resubmissionOnErrorMatcher,
+                                  RedefinitionListenable.ResubmissionImmediateMatcher resubmissionImmediateMatcher,
+                                  int maximumPending) {
                     this.resubmissionScheduler = resubmissionScheduler;
                     this.resubmissionOnErrorMatcher = resubmissionOnErrorMatcher;
                     this.resubmissionImmediateMatcher = resubmissionImmediateMatcher;
+                    this.maximumPending = maximumPending;
                 }
 
                 /**
@@ -7420,8 +11300,8 @@ public interface AgentBuilder {
                                           RedefinitionStrategy.BatchAllocator redefinitionBatchAllocator,
                                           RedefinitionStrategy.Listener redefinitionBatchListener) {
                     if (resubmissionScheduler.isAlive()) {
-                        ConcurrentMap<StorageKey, Set<String>> types = new ConcurrentHashMap<StorageKey, Set<String>>();
-                        Resubmitter resubmitter = new Resubmitter(resubmissionOnErrorMatcher, resubmissionImmediateMatcher, types);
+                        Registry registry = new Registry(maximumPending);
+                        Resubmitter resubmitter = new Resubmitter(resubmissionOnErrorMatcher, resubmissionImmediateMatcher, registry);
                         return new Installation(new AgentBuilder.Listener.Compound(resubmitter, listener),
                                 new InstallationListener.Compound(new ResubmissionInstallationListener(instrumentation,
                                         resubmissionScheduler,
@@ -7435,7 +11315,7 @@ public interface AgentBuilder {
                                         redefinitionStrategy,
                                         redefinitionBatchAllocator,
                                         redefinitionBatchListener,
-                                        types), installationListener),
+                                        registry), installationListener),
                                 resubmitter);
                     } else {
                         throw new IllegalStateException("Resubmission scheduler " + resubmissionScheduler + " is not alive");
@@ -7458,107 +11338,44 @@ public interface AgentBuilder {
                     private final RedefinitionListenable.ResubmissionImmediateMatcher resubmissionImmediateMatcher;
 
                     /**
-                     * A map of class loaders to their types to resubmit.
+                     * The registry of types to resubmit.
                      */
-                    private final ConcurrentMap<StorageKey, Set<String>> types;
+                    private final Registry registry;
 
                     /**
                      * Creates a new resubmitter.
                      *
                      * @param resubmissionOnErrorMatcher   A matcher to determine resubmissions on errors.
                      * @param resubmissionImmediateMatcher A matcher to determine resubmissions without errors.
-                     * @param types                        A map of class loaders to their types to resubmit.
+                     * @param registry                     The registry of types to resubmit.
                      */
                     protected Resubmitter(RedefinitionListenable.ResubmissionOnErrorMatcher resubmissionOnErrorMatcher,
                                           RedefinitionListenable.ResubmissionImmediateMatcher resubmissionImmediateMatcher,
-                                          ConcurrentMap<StorageKey, Set<String>> types) {
+                                          Registry registry) {
                         this.resubmissionOnErrorMatcher = resubmissionOnErrorMatcher;
                         this.resubmissionImmediateMatcher = resubmissionImmediateMatcher;
-                        this.types = types;
+                        this.registry = registry;
                     }
 
                     /**
                      * {@inheritDoc}
                      */
-                    @SuppressFBWarnings(value = "GC_UNRELATED_TYPES", justification = "Cross-comparison is intended.")
                     public void onError(String typeName, @MaybeNull ClassLoader classLoader, @MaybeNull JavaModule module, boolean loaded, Throwable throwable) {
                         if (!loaded && resubmissionOnErrorMatcher.matches(throwable, typeName, classLoader, module)) {
-                            Set<String> types = this.types.get(new LookupKey(classLoader));
-                            if (types == null) {
-                                types = new ConcurrentHashSet<String>();
-                                Set<String> previous = this.types.putIfAbsent(new StorageKey(classLoader), types);
-                                if (previous != null) {
-                                    types = previous;
-                                }
-                            }
-                            types.add(typeName);
+                            registry.register(typeName, classLoader);
                         }
                     }
 
                     /**
                      * {@inheritDoc}
                      */
-                    @SuppressFBWarnings(value = "GC_UNRELATED_TYPES", justification = "Cross-comparison is intended.")
                     public boolean isEnforced(String typeName, @MaybeNull ClassLoader classLoader, @MaybeNull JavaModule module, @MaybeNull Class<?> classBeingRedefined) {
                         if (classBeingRedefined == null && resubmissionImmediateMatcher.matches(typeName, classLoader, module)) {
-                            Set<String> types = this.types.get(new LookupKey(classLoader));
-                            if (types == null) {
-                                types = new ConcurrentHashSet<String>();
-                                Set<String> previous = this.types.putIfAbsent(new StorageKey(classLoader), types);
-                                if (previous != null) {
-                                    types = previous;
-                                }
-                            }
-                            types.add(typeName);
-                            return true;
+                            return registry.register(typeName, classLoader);
                         } else {
                             return false;
                         }
                     }
-
-                    /**
-                     * A set projection for a {@link ConcurrentHashMap}.
-                     *
-                     * @param <T> The element type of the set projection.
-                     */
-                    protected static class ConcurrentHashSet<T> extends AbstractSet<T> {
-
-                        /**
-                         * The delegate map.
-                         */
-                        private final ConcurrentMap<T, Boolean> delegate;
-
-                        /**
-                         * Creates a concurrent hash set.
-                         */
-                        protected ConcurrentHashSet() {
-                            delegate = new ConcurrentHashMap<T, Boolean>();
-                        }
-
-                        @Override
-                        public boolean add(T value) {
-                            return delegate.put(value, Boolean.TRUE) == null;
-                        }
-
-                        @Override
-                        public boolean remove(Object value) {
-                            return delegate.remove(value) != null;
-                        }
-
-                        /**
-                         * {@inheritDoc}
-                         */
-                        public Iterator<T> iterator() {
-                            return delegate.keySet().iterator();
-                        }
-
-                        /**
-                         * {@inheritDoc}
-                         */
-                        public int size() {
-                            return delegate.size();
-                        }
-                    }
                 }
 
                 /**
@@ -7627,9 +11444,9 @@ public interface AgentBuilder {
                     private final Listener redefinitionBatchListener;
 
                     /**
-                     * A map of class loaders to their types to resubmit.
+                     * The registry of types to resubmit.
                      */
-                    private final ConcurrentMap<StorageKey, Set<String>> types;
+                    private final Registry registry;
 
                     /**
                      * This scheduler's cancelable or {@code null} if no cancelable was registered.
@@ -7652,7 +11469,7 @@ public interface AgentBuilder {
                      * @param redefinitionStrategy       The redefinition strategy to use.
                      * @param redefinitionBatchAllocator The batch allocator to use.
                      * @param redefinitionBatchListener  The batch listener to notify.
-                     * @param types                      A map of class loaders to their types to resubmit.
+                     * @param registry                   The registry of types to resubmit.
                      */
                     protected ResubmissionInstallationListener(Instrumentation instrumentation,
                                                                ResubmissionScheduler resubmissionScheduler,
@@ -7666,7 +11483,7 @@ public interface AgentBuilder {
                                                                RedefinitionStrategy redefinitionStrategy,
                                                                BatchAllocator redefinitionBatchAllocator,
                                                                Listener redefinitionBatchListener,
-                                                               ConcurrentMap<StorageKey, Set<String>> types) {
+                                                               Registry registry) {
                         this.instrumentation = instrumentation;
                         this.resubmissionScheduler = resubmissionScheduler;
                         this.poolStrategy = poolStrategy;
@@ -7679,7 +11496,7 @@ public interface AgentBuilder {
                         this.redefinitionStrategy = redefinitionStrategy;
                         this.redefinitionBatchAllocator = redefinitionBatchAllocator;
                         this.redefinitionBatchListener = redefinitionBatchListener;
-                        this.types = types;
+                        this.registry = registry;
                     }
 
                     @Override
@@ -7708,33 +11525,33 @@ public interface AgentBuilder {
                                     listener,
                                     matcher,
                                     circularityLock);
-                            Iterator<Map.Entry<StorageKey, Set<String>>> entries = types.entrySet().iterator();
+                            Iterator<Map.Entry<ClassLoaderStorage.StorageKey, Queue<String>>> entries = registry.iterator();
                             while (entries.hasNext()) {
                                 if (Thread.interrupted()) {
                                     return;
                                 }
-                                Map.Entry<StorageKey, Set<String>> entry = entries.next();
+                                Map.Entry<ClassLoaderStorage.StorageKey, Queue<String>> entry = entries.next();
                                 ClassLoader classLoader = entry.getKey().get();
                                 if (classLoader != null || entry.getKey().isBootstrapLoader()) {
-                                    Iterator<String> iterator = entry.getValue().iterator();
-                                    while (iterator.hasNext()) {
-                                        if (Thread.interrupted()) {
-                                            return;
+                                    Set<String> typeNames = new HashSet<String>();
+                                    String typeName;
+                                    while (!Thread.interrupted()) {
+                                        typeName = registry.poll(entry.getValue());
+                                        if (typeName == null) {
+                                            break;
+                                        } else if (!typeNames.add(typeName)) {
+                                            continue;
                                         }
                                         try {
-                                            Class<?> type = Class.forName(iterator.next(), false, classLoader);
+                                            Class<?> type = Class.forName(typeName, false, classLoader);
                                             collector.consider(type, !type.isArray()
                                                     && !type.isPrimitive()
                                                     && (DISPATCHER.isModifiableClass(instrumentation, type)
                                                     || ClassFileVersion.ofThisVm(ClassFileVersion.JAVA_V5).isAtMost(ClassFileVersion.JAVA_V5)));
                                         } catch (Throwable ignored) {
                                             /* do nothing */
-                                        } finally {
-                                            iterator.remove();
                                         }
                                     }
-                                } else {
-                                    entries.remove();
                                 }
                             }
                             collector.apply(instrumentation,
@@ -7750,99 +11567,118 @@ public interface AgentBuilder {
                 }
 
                 /**
-                 * A key for a class loader that can only be used for looking up a preexisting value but avoids reference management.
+                 * A registry of types to resubmit that weakly references their class loaders. The names of each class loader's
+                 * types are stored in a non-blocking queue such that a registration never blocks on a concurrent registration
+                 * or on a concurrent resubmission. Entries of collected class loaders are expunged upon any registration and
+                 * resubmission.
                  */
-                protected static class LookupKey {
+                protected static class Registry {
 
                     /**
-                     * The represented class loader.
+                     * A map of class loaders to their types to resubmit.
                      */
-                    @MaybeNull
-                    private final ClassLoader classLoader;
+                    private final ConcurrentMap<ClassLoaderStorage.StorageKey, Queue<String>> types;
+
+                    /**
+                     * The reference queue to which the keys of collected class loaders are enqueued.
+                     */
+                    private final ReferenceQueue<ClassLoader> referenceQueue;
 
                     /**
-                     * The represented class loader's hash code or {@code 0} if this entry represents the bootstrap class loader.
+                     * The number of types that are pending for resubmission.
                      */
-                    private final int hashCode;
+                    private final AtomicInteger pending;
+
+                    /**
+                     * The maximum number of types that are pending for resubmission.
+                     */
+                    private final int maximumPending;
+
+                    /**
+                     * Creates a new registry.
+                     *
+                     * @param maximumPending The maximum number of types that are pending for resubmission.
+                     */
+                    protected Registry(int maximumPending) {
+                        this.maximumPending = maximumPending;
+                        types = new ConcurrentHashMap<ClassLoaderStorage.StorageKey, Queue<String>>();
+                        referenceQueue = new ReferenceQueue<ClassLoader>();
+                        pending = new AtomicInteger();
+                    }
 
                     /**
-                     * Creates a new lookup key.
+                     * Registers a type for resubmission.
                      *
-                     * @param classLoader The represented class loader.
+                     * @param typeName    The name of the type to resubmit.
+                     * @param classLoader The type's class loader or {@code null} if the type is loaded by the bootstrap loader.
+                     * @return {@code true} if the type was registered or {@code false} if the maximum number of pending types was reached.
                      */
-                    protected LookupKey(@MaybeNull ClassLoader classLoader) {
-                        this.classLoader = classLoader;
-                        hashCode = System.identityHashCode(classLoader);
-                    }
-
-                    @Override
-                    public int hashCode() {
-                        return hashCode;
-                    }
-
-                    @Override
-                    @SuppressFBWarnings(value = "EQ_CHECK_FOR_OPERAND_NOT_COMPATIBLE_WITH_THIS", justification = "Cross-comparison is intended.")
-                    public boolean equals(@MaybeNull Object other) {
-                        if (this == other) {
-                            return true;
-                        } else if (other instanceof LookupKey) {
-                            return classLoader == ((LookupKey) other).classLoader;
-                        } else if (other instanceof StorageKey) {
-                            StorageKey storageKey = (StorageKey) other;
-                            return hashCode == storageKey.hashCode && classLoader == storageKey.get();
-                        } else {
+                    @SuppressFBWarnings(value = "GC_UNRELATED_TYPES", justification = "Cross-comparison is intended.")
+                    protected boolean register(String typeName, @MaybeNull ClassLoader classLoader) {
+                        expunge();
+                        if (pending.incrementAndGet() > maximumPending) {
+                            pending.decrementAndGet();
                             return false;
                         }
+                        Queue<String> types = this.types.get(new ClassLoaderStorage.LookupKey(classLoader));
+                        if (types == null) {
+                            types = new ConcurrentLinkedQueue<String>();
+                            Queue<String> previous = this.types.putIfAbsent(new ClassLoaderStorage.StorageKey(classLoader, referenceQueue), types);
+                            if (previous != null) {
+                                types = previous;
+                            }
+                        }
+                        types.add(typeName);
+                        return true;
                     }
-                }
-
-                /**
-                 * A key for a class loader that only weakly references the class loader.
-                 */
-                protected static class StorageKey extends WeakReference<ClassLoader> {
 
                     /**
-                     * The represented class loader's hash code or {@code 0} if this entry represents the bootstrap class loader.
+                     * Returns an iterator over all class loaders with their types to resubmit.
+                     *
+                     * @return An iterator over all class loaders with their types to resubmit.
                      */
-                    private final int hashCode;
+                    protected Iterator<Map.Entry<ClassLoaderStorage.StorageKey, Queue<String>>> iterator() {
+                        expunge();
+                        return types.entrySet().iterator();
+                    }
 
                     /**
-                     * Creates a new storage key.
+                     * Removes the next type to resubmit from a class loader's types.
                      *
-                     * @param classLoader The represented class loader or {@code null} for the bootstrap class loader.
+                     * @param types The class loader's types to resubmit.
+                     * @return The name of the next type to resubmit or {@code null} if no type is pending.
                      */
-                    protected StorageKey(@MaybeNull ClassLoader classLoader) {
-                        super(classLoader);
-                        hashCode = System.identityHashCode(classLoader);
+                    @MaybeNull
+                    protected String poll(Queue<String> types) {
+                        String typeName = types.poll();
+                        if (typeName != null) {
+                            pending.decrementAndGet();
+                        }
+                        return typeName;
                     }
 
                     /**
-                     * Checks if this reference represents the bootstrap class loader.
+                     * Returns the number of types that are pending for resubmission.
                      *
-                     * @return {@code true} if this entry represents the bootstrap class loader.
+                     * @return The number of types that are pending for resubmission.
                      */
-                    protected boolean isBootstrapLoader() {
-                        return hashCode == 0;
-                    }
-
-                    @Override
-                    public int hashCode() {
-                        return hashCode;
+                    protected int getPending() {
+                        return pending.get();
                     }
 
-                    @Override
-                    @SuppressFBWarnings(value = "EQ_CHECK_FOR_OPERAND_NOT_COMPATIBLE_WITH_THIS", justification = "Cross-comparison is intended.")
-                    public boolean equals(@MaybeNull Object other) {
-                        if (this == other) {
-                            return true;
-                        } else if (other instanceof LookupKey) {
-                            LookupKey lookupKey = (LookupKey) other;
-                            return hashCode == lookupKey.hashCode && get() == lookupKey.classLoader;
-                        } else if (other instanceof StorageKey) {
-                            StorageKey storageKey = (StorageKey) other;
-                            return hashCode == storageKey.hashCode && get() == storageKey.get();
-                        } else {
-                            return false;
+                    /**
+                     * Removes the types of all class loaders that were collected. The removed types are polled one by one such
+                     * that a type is never discounted twice if it is concurrently polled for resubmission.
+                     */
+                    protected void expunge() {
+                        Reference<?> reference;
+                        while ((reference = referenceQueue.poll()) != null) {
+                            Queue<String> types = this.types.remove(reference);
+                            if (types != null) {
+                                while (types.poll() != null) {
+                                    pending.decrementAndGet();
+                                }
+                            }
                         }
                     }
                 }
@@ -10336,6 +14172,21 @@ public interface AgentBuilder {
          */
         protected final ClassFileBufferStrategy classFileBufferStrategy;
 
+        /**
+         * The transformation cache to use.
+         */
+        protected final TransformationCache transformationCache;
+
+        /**
+         * The transformation metrics to use.
+         */
+        protected final TransformationMetrics transformationMetrics;
+
+        /**
+         * The ignored type cache to use.
+         */
+        protected final IgnoredTypeCache ignoredTypeCache;
+
         /**
          * The installation listener to notify.
          */
@@ -10388,6 +14239,9 @@ public interface AgentBuilder {
                     DescriptionStrategy.Default.HYBRID,
                     FallbackStrategy.ByThrowableType.ofOptionalTypes(),
                     ClassFileBufferStrategy.Default.RETAINING,
+                    TransformationCache.Disabled.INSTANCE,
+                    TransformationMetrics.Disabled.INSTANCE,
+                    IgnoredTypeCache.Disabled.INSTANCE,
                     InstallationListener.NoOp.INSTANCE,
                     new RawMatcher.Disjunction(
                             new RawMatcher.ForElementMatchers(any(), isBootstrapClassLoader().or(isExtensionClassLoader())),
@@ -10423,6 +14277,9 @@ public interface AgentBuilder {
          * @param descriptionStrategy              The description strategy for resolving type descriptions for types.
          * @param fallbackStrategy                 The fallback strategy to apply.
          * @param classFileBufferStrategy          The class file buffer strategy to use.
+         * @param transformationCache              The transformation cache to use.
+         * @param transformationMetrics            The transformation metrics to use.
+         * @param ignoredTypeCache                 The ignored type cache to use.
          * @param installationListener             The installation listener to notify.
          * @param ignoreMatcher                    Identifies types that should not be instrumented.
          * @param transformations                  The transformations to apply for any non-ignored type.
@@ -10448,6 +14305,9 @@ public interface AgentBuilder {
                           DescriptionStrategy descriptionStrategy,
                           FallbackStrategy fallbackStrategy,
                           ClassFileBufferStrategy classFileBufferStrategy,
+                          TransformationCache transformationCache,
+                          TransformationMetrics transformationMetrics,
+                          IgnoredTypeCache ignoredTypeCache,
                           InstallationListener installationListener,
                           RawMatcher ignoreMatcher,
                           List<Transformation> transformations) {
@@ -10472,6 +14332,9 @@ public interface AgentBuilder {
             this.descriptionStrategy = descriptionStrategy;
             this.fallbackStrategy = fallbackStrategy;
             this.classFileBufferStrategy = classFileBufferStrategy;
+            this.transformationCache = transformationCache;
+            this.transformationMetrics = transformationMetrics;
+            this.ignoredTypeCache = ignoredTypeCache;
             this.installationListener = installationListener;
             this.ignoreMatcher = ignoreMatcher;
             this.transformations = transformations;
@@ -10606,6 +14469,9 @@ public interface AgentBuilder {
                     descriptionStrategy,
                     fallbackStrategy,
                     classFileBufferStrategy,
+                    transformationCache,
+                    transformationMetrics,
+                    ignoredTypeCache,
                     installationListener,
                     ignoreMatcher,
                     transformations);
@@ -10636,6 +14502,9 @@ public interface AgentBuilder {
                     descriptionStrategy,
                     fallbackStrategy,
                     classFileBufferStrategy,
+                    transformationCache,
+                    transformationMetrics,
+                    ignoredTypeCache,
                     installationListener,
                     ignoreMatcher,
                     transformations);
@@ -10666,6 +14535,9 @@ public interface AgentBuilder {
                     descriptionStrategy,
                     fallbackStrategy,
                     classFileBufferStrategy,
+                    transformationCache,
+                    transformationMetrics,
+                    ignoredTypeCache,
                     installationListener,
                     ignoreMatcher,
                     transformations);
@@ -10696,6 +14568,9 @@ public interface AgentBuilder {
                     descriptionStrategy,
                     fallbackStrategy,
                     classFileBufferStrategy,
+                    transformationCache,
+                    transformationMetrics,
+                    ignoredTypeCache,
                     installationListener,
                     ignoreMatcher,
                     transformations);
@@ -10726,6 +14601,9 @@ public interface AgentBuilder {
                     descriptionStrategy,
                     fallbackStrategy,
                     classFileBufferStrategy,
+                    transformationCache,
+                    transformationMetrics,
+                    ignoredTypeCache,
                     installationListener,
                     ignoreMatcher,
                     transformations);
@@ -10756,6 +14634,9 @@ public interface AgentBuilder {
                     descriptionStrategy,
                     fallbackStrategy,
                     classFileBufferStrategy,
+                    transformationCache,
+                    transformationMetrics,
+                    ignoredTypeCache,
                     installationListener,
                     ignoreMatcher,
                     transformations);
@@ -10786,6 +14667,9 @@ public interface AgentBuilder {
                     descriptionStrategy,
                     fallbackStrategy,
                     classFileBufferStrategy,
+                    transformationCache,
+                    transformationMetrics,
+                    ignoredTypeCache,
                     installationListener,
                     ignoreMatcher,
                     transformations);
@@ -10816,6 +14700,9 @@ public interface AgentBuilder {
                     descriptionStrategy,
                     fallbackStrategy,
                     classFileBufferStrategy,
+                    transformationCache,
+                    transformationMetrics,
+                    ignoredTypeCache,
                     installationListener,
                     ignoreMatcher,
                     transformations);
@@ -10846,6 +14733,9 @@ public interface AgentBuilder {
                     descriptionStrategy,
                     fallbackStrategy,
                     classFileBufferStrategy,
+                    transformationCache,
+                    transformationMetrics,
+                    ignoredTypeCache,
                     installationListener,
                     ignoreMatcher,
                     transformations);
@@ -10891,6 +14781,42 @@ public interface AgentBuilder {
                     descriptionStrategy,
                     fallbackStrategy,
                     classFileBufferStrategy,
+                    transformationCache,
+                    transformationMetrics,
+                    ignoredTypeCache,
+                    installationListener,
+                    ignoreMatcher,
+                    transformations);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public AgentBuilder warmUp(WarmupProfile profile, ExecutorService executorService) {
+            return new Default(byteBuddy,
+                    listener,
+                    circularityLock,
+                    poolStrategy,
+                    typeStrategy,
+                    locationStrategy,
+                    classFileLocator,
+                    nativeMethodStrategy,
+                    warmupStrategy.with(profile, executorService),
+                    transformerDecorator,
+                    initializationStrategy,
+                    redefinitionStrategy,
+                    redefinitionDiscoveryStrategy,
+                    redefinitionBatchAllocator,
+                    redefinitionListener,
+                    redefinitionResubmissionStrategy,
+                    injectionStrategy,
+                    lambdaInstrumentationStrategy,
+                    descriptionStrategy,
+                    fallbackStrategy,
+                    classFileBufferStrategy,
+                    transformationCache,
+                    transformationMetrics,
+                    ignoredTypeCache,
                     installationListener,
                     ignoreMatcher,
                     transformations);
@@ -10921,6 +14847,9 @@ public interface AgentBuilder {
                     descriptionStrategy,
                     fallbackStrategy,
                     classFileBufferStrategy,
+                    transformationCache,
+                    transformationMetrics,
+                    ignoredTypeCache,
                     installationListener,
                     ignoreMatcher,
                     transformations);
@@ -10951,6 +14880,9 @@ public interface AgentBuilder {
                     descriptionStrategy,
                     fallbackStrategy,
                     classFileBufferStrategy,
+                    transformationCache,
+                    transformationMetrics,
+                    ignoredTypeCache,
                     installationListener,
                     ignoreMatcher,
                     transformations);
@@ -10981,6 +14913,9 @@ public interface AgentBuilder {
                     descriptionStrategy,
                     fallbackStrategy,
                     classFileBufferStrategy,
+                    transformationCache,
+                    transformationMetrics,
+                    ignoredTypeCache,
                     installationListener,
                     ignoreMatcher,
                     transformations);
@@ -11011,6 +14946,9 @@ public interface AgentBuilder {
                     descriptionStrategy,
                     fallbackStrategy,
                     classFileBufferStrategy,
+                    transformationCache,
+                    transformationMetrics,
+                    ignoredTypeCache,
                     installationListener,
                     ignoreMatcher,
                     transformations);
@@ -11041,6 +14979,9 @@ public interface AgentBuilder {
                     descriptionStrategy,
                     fallbackStrategy,
                     classFileBufferStrategy,
+                    transformationCache,
+                    transformationMetrics,
+                    ignoredTypeCache,
                     installationListener,
                     ignoreMatcher,
                     transformations);
@@ -11071,6 +15012,9 @@ public interface AgentBuilder {
                     descriptionStrategy,
                     fallbackStrategy,
                     classFileBufferStrategy,
+                    transformationCache,
+                    transformationMetrics,
+                    ignoredTypeCache,
                     installationListener,
                     ignoreMatcher,
                     transformations);
@@ -11101,6 +15045,108 @@ public interface AgentBuilder {
                     descriptionStrategy,
                     fallbackStrategy,
                     classFileBufferStrategy,
+                    transformationCache,
+                    transformationMetrics,
+                    ignoredTypeCache,
+                    installationListener,
+                    ignoreMatcher,
+                    transformations);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public AgentBuilder with(TransformationCache transformationCache) {
+            return new Default(byteBuddy,
+                    listener,
+                    circularityLock,
+                    poolStrategy,
+                    typeStrategy,
+                    locationStrategy,
+                    classFileLocator,
+                    nativeMethodStrategy,
+                    warmupStrategy,
+                    transformerDecorator,
+                    initializationStrategy,
+                    redefinitionStrategy,
+                    redefinitionDiscoveryStrategy,
+                    redefinitionBatchAllocator,
+                    redefinitionListener,
+                    redefinitionResubmissionStrategy,
+                    injectionStrategy,
+                    lambdaInstrumentationStrategy,
+                    descriptionStrategy,
+                    fallbackStrategy,
+                    classFileBufferStrategy,
+                    transformationCache,
+                    transformationMetrics,
+                    ignoredTypeCache,
+                    installationListener,
+                    ignoreMatcher,
+                    transformations);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public AgentBuilder with(TransformationMetrics transformationMetrics) {
+            return new Default(byteBuddy,
+                    listener,
+                    circularityLock,
+                    poolStrategy,
+                    typeStrategy,
+                    locationStrategy,
+                    classFileLocator,
+                    nativeMethodStrategy,
+                    warmupStrategy,
+                    transformerDecorator,
+                    initializationStrategy,
+                    redefinitionStrategy,
+                    redefinitionDiscoveryStrategy,
+                    redefinitionBatchAllocator,
+                    redefinitionListener,
+                    redefinitionResubmissionStrategy,
+                    injectionStrategy,
+                    lambdaInstrumentationStrategy,
+                    descriptionStrategy,
+                    fallbackStrategy,
+                    classFileBufferStrategy,
+                    transformationCache,
+                    transformationMetrics,
+                    ignoredTypeCache,
+                    installationListener,
+                    ignoreMatcher,
+                    transformations);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public AgentBuilder with(IgnoredTypeCache ignoredTypeCache) {
+            return new Default(byteBuddy,
+                    listener,
+                    circularityLock,
+                    poolStrategy,
+                    typeStrategy,
+                    locationStrategy,
+                    classFileLocator,
+                    nativeMethodStrategy,
+                    warmupStrategy,
+                    transformerDecorator,
+                    initializationStrategy,
+                    redefinitionStrategy,
+                    redefinitionDiscoveryStrategy,
+                    redefinitionBatchAllocator,
+                    redefinitionListener,
+                    redefinitionResubmissionStrategy,
+                    injectionStrategy,
+                    lambdaInstrumentationStrategy,
+                    descriptionStrategy,
+                    fallbackStrategy,
+                    classFileBufferStrategy,
+                    transformationCache,
+                    transformationMetrics,
+                    ignoredTypeCache,
                     installationListener,
                     ignoreMatcher,
                     transformations);
@@ -11131,6 +15177,9 @@ public interface AgentBuilder {
                     descriptionStrategy,
                     fallbackStrategy,
                     classFileBufferStrategy,
+                    transformationCache,
+                    transformationMetrics,
+                    ignoredTypeCache,
                     new InstallationListener.Compound(this.installationListener, installationListener),
                     ignoreMatcher,
                     transformations);
@@ -11161,6 +15210,9 @@ public interface AgentBuilder {
                     descriptionStrategy,
                     fallbackStrategy,
                     classFileBufferStrategy,
+                    transformationCache,
+                    transformationMetrics,
+                    ignoredTypeCache,
                     installationListener,
                     ignoreMatcher,
                     transformations);
@@ -11193,6 +15245,9 @@ public interface AgentBuilder {
                     descriptionStrategy,
                     fallbackStrategy,
                     classFileBufferStrategy,
+                    transformationCache,
+                    transformationMetrics,
+                    ignoredTypeCache,
                     installationListener,
                     ignoreMatcher,
                     transformations);
@@ -11248,7 +15303,7 @@ public interface AgentBuilder {
          * {@inheritDoc}
          */
         public Identified.Narrowable type(RawMatcher matcher) {
-            return new Transforming(matcher, Collections.<Transformer>emptyList(), false);
+            return new Transforming(matcher, Collections.<Transformer>emptyList(), false, false);
         }
 
         /**
@@ -11335,6 +15390,9 @@ public interface AgentBuilder {
                     descriptionStrategy,
                     fallbackStrategy,
                     classFileBufferStrategy,
+                    transformationCache,
+                    transformationMetrics,
+                    ignoredTypeCache,
                     installationListener,
                     ignoreMatcher,
                     resubmissionEnforcer,
@@ -11446,9 +15504,10 @@ public interface AgentBuilder {
                         redefinitionStrategy,
                         redefinitionBatchAllocator,
                         redefinitionListener);
-                ResettableClassFileTransformer classFileTransformer = transformerDecorator.decorate(makeRaw(installation.getListener(),
+                ResettableClassFileTransformer rawTransformer = makeRaw(installation.getListener(),
                         installation.getInstallationListener(),
-                        installation.getResubmissionEnforcer()));
+                        installation.getResubmissionEnforcer());
+                ResettableClassFileTransformer classFileTransformer = transformerDecorator.decorate(rawTransformer);
                 installation.getInstallationListener().onBeforeInstall(instrumentation, classFileTransformer);
                 try {
                     warmupStrategy.apply(classFileTransformer,
@@ -11653,6 +15712,15 @@ public interface AgentBuilder {
              */
             WarmupStrategy with(Collection<Class<?>> types);
 
+            /**
+             * Adds the provided warmup profile to this warmup strategy.
+             *
+             * @param profile         The warmup profile to replay.
+             * @param executorService The executor service to use for replaying the profile.
+             * @return An appropriate warmup strategy.
+             */
+            WarmupStrategy with(WarmupProfile profile, ExecutorService executorService);
+
             /**
              * A non-operational warmup strategy.
              */
@@ -11680,6 +15748,13 @@ public interface AgentBuilder {
                 public WarmupStrategy with(Collection<Class<?>> types) {
                     return new Enabled(new LinkedHashSet<Class<?>>(types));
                 }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                public WarmupStrategy with(WarmupProfile profile, ExecutorService executorService) {
+                    return new Replaying(this, profile, executorService);
+                }
             }
 
             /**
@@ -11777,39 +15852,197 @@ public interface AgentBuilder {
                 /**
                  * {@inheritDoc}
                  */
-                public WarmupStrategy with(Collection<Class<?>> types) {
-                    Set<Class<?>> combined = new LinkedHashSet<Class<?>>(this.types);
-                    combined.addAll(types);
-                    return new Enabled(combined);
+                public WarmupStrategy with(Collection<Class<?>> types) {
+                    Set<Class<?>> combined = new LinkedHashSet<Class<?>>(this.types);
+                    combined.addAll(types);
+                    return new Enabled(combined);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                public WarmupStrategy with(WarmupProfile profile, ExecutorService executorService) {
+                    return new Replaying(this, profile, executorService);
+                }
+
+                /**
+                 * A dispatcher to interact with a {@link ClassFileTransformer} when the module system is active.
+                 */
+                @JavaDispatcher.Proxied("java.lang.instrument.ClassFileTransformer")
+                protected interface Dispatcher {
+
+                    /**
+                     * Transforms a class.
+                     *
+                     * @param target               The transformer to use for transformation.
+                     * @param module               The Java module of the transformed class.
+                     * @param classLoader          The class loader of the transformed class or {@code null} if loaded by the boot loader.
+                     * @param name                 The internal name of the transformed class.
+                     * @param classBeingRedefined  The class being redefined or {@code null} if not a retransformation.
+                     * @param protectionDomain     The class's protection domain.
+                     * @param binaryRepresentation The class's binary representation.
+                     * @return The transformed class file or {@code null} if untransformed.
+                     * @throws IllegalClassFormatException If the class file cannot be generated.
+                     */
+                    @MaybeNull
+                    byte[] transform(ClassFileTransformer target,
+                                     @MaybeNull @JavaDispatcher.Proxied("java.lang.Module") Object module,
+                                     @MaybeNull ClassLoader classLoader,
+                                     String name,
+                                     @MaybeNull Class<?> classBeingRedefined,
+                                     ProtectionDomain protectionDomain,
+                                     byte[] binaryRepresentation) throws IllegalClassFormatException;
+                }
+            }
+
+            /**
+             * A warmup strategy that replays a {@link WarmupProfile} concurrently after applying another warmup strategy.
+             */
+            @HashCodeAndEqualsPlugin.Enhance
+            class Replaying implements WarmupStrategy {
+
+                /**
+                 * The warmup strategy to apply prior to replaying the profile.
+                 */
+                private final WarmupStrategy delegate;
+
+                /**
+                 * The warmup profile to replay.
+                 */
+                private final WarmupProfile profile;
+
+                /**
+                 * The executor service to use for replaying the profile.
+                 */
+                private final ExecutorService executorService;
+
+                /**
+                 * Creates a new replaying warmup strategy.
+                 *
+                 * @param delegate        The warmup strategy to apply prior to replaying the profile.
+                 * @param profile         The warmup profile to replay.
+                 * @param executorService The executor service to use for replaying the profile.
+                 */
+                protected Replaying(WarmupStrategy delegate, WarmupProfile profile, ExecutorService executorService) {
+                    this.delegate = delegate;
+                    this.profile = profile;
+                    this.executorService = executorService;
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                public void apply(ResettableClassFileTransformer classFileTransformer,
+                                  LocationStrategy locationStrategy,
+                                  RedefinitionStrategy redefinitionStrategy,
+                                  CircularityLock circularityLock,
+                                  InstallationListener listener) {
+                    delegate.apply(classFileTransformer, locationStrategy, redefinitionStrategy, circularityLock, listener);
+                    Map<String, ClassLoader> classLoaders = WarmupProfile.classLoaders();
+                    Map<Future<byte[]>, WarmupProfile.Entry> futures = new LinkedHashMap<Future<byte[]>, WarmupProfile.Entry>();
+                    circularityLock.release();
+                    try {
+                        for (WarmupProfile.Entry entry : profile.getEntries()) {
+                            if (classLoaders.containsKey(entry.getClassLoader())) {
+                                futures.put(executorService.submit(new Replay(classFileTransformer,
+                                        locationStrategy,
+                                        classLoaders.get(entry.getClassLoader()),
+                                        entry.getName())), entry);
+                            }
+                        }
+                        for (Map.Entry<Future<byte[]>, WarmupProfile.Entry> entry : futures.entrySet()) {
+                            try {
+                                entry.getKey().get();
+                            } catch (ExecutionException exception) {
+                                listener.onWarmUpError(entry.getValue().getName(),
+                                        classLoaders.get(entry.getValue().getClassLoader()),
+                                        classFileTransformer,
+                                        exception.getCause());
+                            }
+                        }
+                    } catch (InterruptedException ignored) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        circularityLock.acquire();
+                    }
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                public WarmupStrategy with(Collection<Class<?>> types) {
+                    return new Replaying(delegate.with(types), profile, executorService);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                public WarmupStrategy with(WarmupProfile profile, ExecutorService executorService) {
+                    return new Replaying(this, profile, executorService);
                 }
 
                 /**
-                 * A dispatcher to interact with a {@link ClassFileTransformer} when the module system is active.
+                 * A replay of a single type of a warmup profile.
                  */
-                @JavaDispatcher.Proxied("java.lang.instrument.ClassFileTransformer")
-                protected interface Dispatcher {
+                @HashCodeAndEqualsPlugin.Enhance
+                protected static class Replay implements Callable<byte[]> {
 
                     /**
-                     * Transforms a class.
-                     *
-                     * @param target               The transformer to use for transformation.
-                     * @param module               The Java module of the transformed class.
-                     * @param classLoader          The class loader of the transformed class or {@code null} if loaded by the boot loader.
-                     * @param name                 The internal name of the transformed class.
-                     * @param classBeingRedefined  The class being redefined or {@code null} if not a retransformation.
-                     * @param protectionDomain     The class's protection domain.
-                     * @param binaryRepresentation The class's binary representation.
-                     * @return The transformed class file or {@code null} if untransformed.
-                     * @throws IllegalClassFormatException If the class file cannot be generated.
+                     * Indicates that a replayed type does not provide a protection domain.
+                     */
+                    @AlwaysNull
+                    private static final ProtectionDomain NO_PROTECTION_DOMAIN = null;
+
+                    /**
+                     * The class file transformer to warm up.
+                     */
+                    private final ClassFileTransformer classFileTransformer;
+
+                    /**
+                     * The location strategy to use.
+                     */
+                    private final LocationStrategy locationStrategy;
+
+                    /**
+                     * The replayed type's class loader or {@code null} if the type is loaded by the boot loader.
                      */
                     @MaybeNull
-                    byte[] transform(ClassFileTransformer target,
-                                     @MaybeNull @JavaDispatcher.Proxied("java.lang.Module") Object module,
+                    @HashCodeAndEqualsPlugin.ValueHandling(HashCodeAndEqualsPlugin.ValueHandling.Sort.REVERSE_NULLABILITY)
+                    private final ClassLoader classLoader;
+
+                    /**
+                     * The binary name of the replayed type.
+                     */
+                    private final String name;
+
+                    /**
+                     * Creates a new replay.
+                     *
+                     * @param classFileTransformer The class file transformer to warm up.
+                     * @param locationStrategy     The location strategy to use.
+                     * @param classLoader          The replayed type's class loader or {@code null} if the type is loaded by the boot loader.
+                     * @param name                 The binary name of the replayed type.
+                     */
+                    protected Replay(ClassFileTransformer classFileTransformer,
+                                     LocationStrategy locationStrategy,
                                      @MaybeNull ClassLoader classLoader,
-                                     String name,
-                                     @MaybeNull Class<?> classBeingRedefined,
-                                     ProtectionDomain protectionDomain,
-                                     byte[] binaryRepresentation) throws IllegalClassFormatException;
+                                     String name) {
+                        this.classFileTransformer = classFileTransformer;
+                        this.locationStrategy = locationStrategy;
+                        this.classLoader = classLoader;
+                        this.name = name;
+                    }
+
+                    /**
+                     * {@inheritDoc}
+                     */
+                    @MaybeNull
+                    public byte[] call() throws IllegalClassFormatException, IOException {
+                        ClassFileLocator.Resolution resolution = locationStrategy.classFileLocator(classLoader, JavaModule.UNSUPPORTED).locate(name);
+                        return resolution.isResolved()
+                                ? classFileTransformer.transform(classLoader, name.replace('.', '/'), NOT_PREVIOUSLY_DEFINED, NO_PROTECTION_DOMAIN, resolution.resolve())
+                                : NO_TRANSFORMATION;
+                    }
                 }
             }
         }
@@ -11841,6 +16074,11 @@ public interface AgentBuilder {
              */
             private final boolean terminal;
 
+            /**
+             * {@code true} if this transformation is applied eagerly, even if a type is otherwise resubmitted.
+             */
+            private final boolean eager;
+
             /**
              * Creates a new transformation.
              *
@@ -11849,9 +16087,22 @@ public interface AgentBuilder {
              * @param terminal     Indicates that this transformation is terminal.
              */
             protected Transformation(RawMatcher matcher, List<Transformer> transformers, boolean terminal) {
+                this(matcher, transformers, terminal, false);
+            }
+
+            /**
+             * Creates a new transformation.
+             *
+             * @param matcher      The matcher to identify types eligable for transformation.
+             * @param transformers A list of transformers to apply.
+             * @param terminal     Indicates that this transformation is terminal.
+             * @param eager        Indicates that this transformation is applied eagerly, even if a type is otherwise resubmitted.
+             */
+            protected Transformation(RawMatcher matcher, List<Transformer> transformers, boolean terminal, boolean eager) {
                 this.matcher = matcher;
                 this.transformers = transformers;
                 this.terminal = terminal;
+                this.eager = eager;
             }
 
             /**
@@ -11881,6 +16132,15 @@ public interface AgentBuilder {
                 return terminal;
             }
 
+            /**
+             * Returns {@code true} if this transformation is applied eagerly, even if a type is otherwise resubmitted.
+             *
+             * @return {@code true} if this transformation is applied eagerly.
+             */
+            protected boolean isEager() {
+                return eager;
+            }
+
             /**
              * A matcher that matches any type that is touched by a transformer without being ignored.
              */
@@ -12171,6 +16431,21 @@ public interface AgentBuilder {
              */
             private final ClassFileBufferStrategy classFileBufferStrategy;
 
+            /**
+             * The transformation cache to use.
+             */
+            private final TransformationCache transformationCache;
+
+            /**
+             * The transformation metrics to use.
+             */
+            private final TransformationMetrics transformationMetrics;
+
+            /**
+             * The storage of types that were previously ignored by this transformer.
+             */
+            private final IgnoredTypeCache.Storage ignoredTypes;
+
             /**
              * The installation listener to notify.
              */
@@ -12191,6 +16466,16 @@ public interface AgentBuilder {
              */
             private final List<Transformation> transformations;
 
+            /**
+             * An index of the transformations' matchers that narrows down the transformations that can possibly match a type.
+             */
+            private final TypeMatcherIndex index;
+
+            /**
+             * {@code true} if any transformation is applied eagerly such that a resubmission can only be enforced after matching a type.
+             */
+            private final boolean eager;
+
             /**
              * A lock that prevents circular class transformations.
              */
@@ -12220,6 +16505,9 @@ public interface AgentBuilder {
              * @param fallbackStrategy              The fallback strategy to use.
              * @param installationListener          The installation listener to notify.
              * @param classFileBufferStrategy       The class file buffer strategy to use.
+             * @param transformationCache           The transformation cache to use.
+             * @param transformationMetrics         The transformation metrics to use.
+             * @param ignoredTypeCache              The ignored type cache to use.
              * @param ignoreMatcher                 Identifies types that should not be instrumented.
              * @param resubmissionEnforcer          The resubmission enforcer to use.
              * @param transformations               The transformations to apply on non-ignored types.
@@ -12238,6 +16526,9 @@ public interface AgentBuilder {
                                         DescriptionStrategy descriptionStrategy,
                                         FallbackStrategy fallbackStrategy,
                                         ClassFileBufferStrategy classFileBufferStrategy,
+                                        TransformationCache transformationCache,
+                                        TransformationMetrics transformationMetrics,
+                                        IgnoredTypeCache ignoredTypeCache,
                                         InstallationListener installationListener,
                                         RawMatcher ignoreMatcher,
                                         RedefinitionStrategy.ResubmissionEnforcer resubmissionEnforcer,
@@ -12256,14 +16547,73 @@ public interface AgentBuilder {
                 this.descriptionStrategy = descriptionStrategy;
                 this.fallbackStrategy = fallbackStrategy;
                 this.classFileBufferStrategy = classFileBufferStrategy;
+                this.transformationCache = transformationCache;
+                this.transformationMetrics = transformationMetrics;
+                ignoredTypes = ignoredTypeCache.make();
                 this.installationListener = installationListener;
                 this.ignoreMatcher = ignoreMatcher;
                 this.resubmissionEnforcer = resubmissionEnforcer;
                 this.transformations = transformations;
                 this.circularityLock = circularityLock;
+                List<Set<TypeMatcherIndex.Key>> requirements = new ArrayList<Set<TypeMatcherIndex.Key>>(transformations.size());
+                boolean eager = false;
+                for (Transformation transformation : transformations) {
+                    requirements.add(requirement(transformation.getMatcher()));
+                    eager |= transformation.isEager();
+                }
+                index = new TypeMatcherIndex(requirements);
+                this.eager = eager;
                 accessControlContext = getContext();
             }
 
+            /**
+             * Resolves the requirement of a raw matcher for the {@link TypeMatcherIndex} of this transformer.
+             *
+             * @param matcher The raw matcher to resolve.
+             * @return A set of keys of which at least one must apply to a type that is matched or {@code null} if the matcher does not declare a requirement.
+             */
+            @MaybeNull
+            private static Set<TypeMatcherIndex.Key> requirement(RawMatcher matcher) {
+                if (matcher instanceof RawMatcher.ForElementMatchers) {
+                    return TypeMatcherIndex.of(((RawMatcher.ForElementMatchers) matcher).typeMatcher);
+                } else if (matcher instanceof RawMatcher.ForNameOnly) {
+                    return TypeMatcherIndex.ofName(((RawMatcher.ForNameOnly) matcher).nameMatcher);
+                } else if (matcher == RawMatcher.Trivial.NON_MATCHING) {
+                    return Collections.<TypeMatcherIndex.Key>emptySet();
+                } else if (matcher instanceof RawMatcher.Conjunction || matcher instanceof RawMatcher.Disjunction) {
+                    List<RawMatcher> matchers = matcher instanceof RawMatcher.Conjunction
+                            ? ((RawMatcher.Conjunction) matcher).matchers
+                            : ((RawMatcher.Disjunction) matcher).matchers;
+                    List<Set<TypeMatcherIndex.Key>> requirements = new ArrayList<Set<TypeMatcherIndex.Key>>(matchers.size());
+                    for (RawMatcher element : matchers) {
+                        requirements.add(requirement(element));
+                    }
+                    return matcher instanceof RawMatcher.Conjunction
+                            ? TypeMatcherIndex.conjunction(requirements)
+                            : TypeMatcherIndex.disjunction(requirements);
+                } else {
+                    return null;
+                }
+            }
+
+            /**
+             * Resolves the transformations that can possibly match a type. If the index cannot be applied, for example because
+             * a type's super types cannot be resolved, all transformations are considered such that the error is raised by the
+             * transformations' matchers, as if no index was used.
+             *
+             * @param typeDescription A description of the instrumented type.
+             * @return The indices of all transformations that can possibly match the supplied type.
+             */
+            private BitSet candidates(TypeDescription typeDescription) {
+                try {
+                    return index.candidates(typeDescription);
+                } catch (Throwable ignored) {
+                    BitSet candidates = new BitSet(transformations.size());
+                    candidates.set(0, transformations.size());
+                    return candidates;
+                }
+            }
+
             /**
              * A proxy for {@code java.security.AccessController#getContext} that is activated if available.
              *
@@ -12370,7 +16720,7 @@ public interface AgentBuilder {
                 }
                 String name = internalTypeName.replace('/', '.');
                 try {
-                    if (resubmissionEnforcer.isEnforced(name, classLoader, module, classBeingRedefined)) {
+                    if (!eager && resubmissionEnforcer.isEnforced(name, classLoader, module, classBeingRedefined)) {
                         return NO_TRANSFORMATION;
                     }
                 } catch (Throwable throwable) {
@@ -12383,22 +16733,29 @@ public interface AgentBuilder {
                 }
                 try {
                     listener.onDiscovery(name, classLoader, module, classBeingRedefined != null);
-                    ClassFileLocator classFileLocator = new ClassFileLocator.Compound(classFileBufferStrategy.resolve(name,
-                            binaryRepresentation,
-                            classLoader,
-                            module,
-                            protectionDomain), this.classFileLocator, locationStrategy.classFileLocator(classLoader, module));
+                    if ((classBeingRedefined != null && ignoredTypes.isIgnored(name, classLoader)) || isIgnoredByName(name, classLoader, module, classBeingRedefined)) {
+                        listener.onIgnored(new NameOnlyTypeDescription(module,
+                                classLoader,
+                                name,
+                                classBeingRedefined,
+                                protectionDomain,
+                                binaryRepresentation), classLoader, module, classBeingRedefined != null);
+                        transformationMetrics.onResult(TransformationMetrics.Result.IGNORED);
+                        return Transformation.NONE;
+                    }
+                    ClassFileLocator classFileLocator = classFileLocator(module, classLoader, name, protectionDomain, binaryRepresentation);
                     TypePool typePool = classFileBufferStrategy.typePool(poolStrategy, classFileLocator, classLoader, name);
                     try {
-                        return doTransform(module, classLoader, name, classBeingRedefined, classBeingRedefined != null, protectionDomain, typePool, classFileLocator);
+                        return doTransform(module, classLoader, name, classBeingRedefined, classBeingRedefined != null, protectionDomain, typePool, classFileLocator, binaryRepresentation);
                     } catch (Throwable throwable) {
                         if (classBeingRedefined != null && descriptionStrategy.isLoadedFirst() && fallbackStrategy.isFallback(classBeingRedefined, throwable)) {
-                            return doTransform(module, classLoader, name, NOT_PREVIOUSLY_DEFINED, Listener.LOADED, protectionDomain, typePool, classFileLocator);
+                            return doTransform(module, classLoader, name, NOT_PREVIOUSLY_DEFINED, Listener.LOADED, protectionDomain, typePool, classFileLocator, binaryRepresentation);
                         } else {
                             throw throwable;
                         }
                     }
                 } catch (Throwable throwable) {
+                    transformationMetrics.onResult(TransformationMetrics.Result.FAILED);
                     listener.onError(name, classLoader, module, classBeingRedefined != null, throwable);
                     throw new IllegalStateException("Failed transformation of " + name, throwable);
                 } finally {
@@ -12406,6 +16763,52 @@ public interface AgentBuilder {
                 }
             }
 
+            /**
+             * Determines if a type is ignored only by its name, class loader and module, without resolving its type description.
+             *
+             * @param name                The binary name of the instrumented class.
+             * @param classLoader         The instrumented class's class loader.
+             * @param module              The instrumented class's Java module in its wrapped form or {@code null} if the current VM does not support modules.
+             * @param classBeingRedefined The loaded {@link Class} being redefined or {@code null} if no such class exists.
+             * @return {@code true} if the type is ignored without considering its type description.
+             */
+            private boolean isIgnoredByName(String name,
+                                            @MaybeNull ClassLoader classLoader,
+                                            @MaybeNull JavaModule module,
+                                            @MaybeNull Class<?> classBeingRedefined) {
+                if (RawMatcher.ForNameOnly.Resolution.of(ignoreMatcher, name, classLoader, module, classBeingRedefined) == RawMatcher.ForNameOnly.Resolution.MATCHED) {
+                    return true;
+                }
+                for (Transformation transformation : transformations) {
+                    if (RawMatcher.ForNameOnly.Resolution.of(transformation.getMatcher(), name, classLoader, module, classBeingRedefined) != RawMatcher.ForNameOnly.Resolution.UNMATCHED) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+
+            /**
+             * Creates a class file locator for an instrumented type.
+             *
+             * @param module               The instrumented class's Java module in its wrapped form or {@code null} if the current VM does not support modules.
+             * @param classLoader          The instrumented class's class loader.
+             * @param name                 The binary name of the instrumented class.
+             * @param protectionDomain     The instrumented type's protection domain.
+             * @param binaryRepresentation The class file of the instrumented class in its current state.
+             * @return An appropriate class file locator.
+             */
+            private ClassFileLocator classFileLocator(@MaybeNull JavaModule module,
+                                                      @MaybeNull ClassLoader classLoader,
+                                                      String name,
+                                                      ProtectionDomain protectionDomain,
+                                                      byte[] binaryRepresentation) {
+                return transformationMetrics.decorate(new ClassFileLocator.Compound(classFileBufferStrategy.resolve(name,
+                        binaryRepresentation,
+                        classLoader,
+                        module,
+                        protectionDomain), classFileLocator, locationStrategy.classFileLocator(classLoader, module)));
+            }
+
             /**
              * Applies a transformation for a class that was captured by this {@link ClassFileTransformer}.
              *
@@ -12415,8 +16818,9 @@ public interface AgentBuilder {
              * @param classBeingRedefined The loaded {@link Class} being redefined or {@code null} if no such class exists.
              * @param loaded              {@code true} if the instrumented type is loaded.
              * @param protectionDomain    The instrumented type's protection domain.
-             * @param typePool            The type pool to use.
-             * @param classFileLocator    The class file locator to use.
+             * @param typePool             The type pool to use.
+             * @param classFileLocator     The class file locator to use.
+             * @param binaryRepresentation The class file of the instrumented class in its current state.
              * @return The transformed class file or an empty byte array if this transformer does not apply an instrumentation.
              */
             @MaybeNull
@@ -12427,23 +16831,55 @@ public interface AgentBuilder {
                                        boolean loaded,
                                        ProtectionDomain protectionDomain,
                                        TypePool typePool,
-                                       ClassFileLocator classFileLocator) {
+                                       ClassFileLocator classFileLocator,
+                                       byte[] binaryRepresentation) {
+                long start = transformationMetrics.tick();
                 TypeDescription typeDescription = descriptionStrategy.apply(name, classBeingRedefined, typePool, circularityLock, classLoader, module);
-                List<Transformer> transformers = new ArrayList<Transformer>();
+                transformationMetrics.onPhase(TransformationMetrics.Phase.DESCRIPTION, start);
+                TransformerDecorator.WithTimeBudget.checkpoint(this);
+                start = transformationMetrics.tick();
+                boolean transforming = false, eager = false;
+                List<Integer> indices = new ArrayList<Integer>();
                 if (!ignoreMatcher.matches(typeDescription, classLoader, module, classBeingRedefined, protectionDomain)) {
-                    for (Transformation transformation : transformations) {
+                    BitSet candidates = candidates(typeDescription);
+                    for (int index = candidates.nextSetBit(0); index >= 0; index = candidates.nextSetBit(index + 1)) {
+                        Transformation transformation = transformations.get(index);
                         if (transformation.getMatcher().matches(typeDescription, classLoader, module, classBeingRedefined, protectionDomain)) {
-                            transformers.addAll(transformation.getTransformers());
+                            transforming |= !transformation.getTransformers().isEmpty();
+                            eager |= transformation.isEager();
+                            indices.add(index);
                             if (transformation.isTerminal()) {
                                 break;
                             }
                         }
                     }
                 }
-                if (transformers.isEmpty()) {
+                transformationMetrics.onPhase(TransformationMetrics.Phase.MATCHING, start);
+                TransformerDecorator.WithTimeBudget.checkpoint(this);
+                if (!transforming) {
+                    if (classBeingRedefined != null) {
+                        ignoredTypes.register(name, classLoader);
+                    }
                     listener.onIgnored(typeDescription, classLoader, module, loaded);
+                    transformationMetrics.onResult(TransformationMetrics.Result.IGNORED);
                     return Transformation.NONE;
+                } else if (this.eager && !eager && !loaded && resubmissionEnforcer.isEnforced(name, classLoader, module, classBeingRedefined)) {
+                    return Transformation.NONE;
+                }
+                InitializationStrategy.Dispatcher dispatcher = initializationStrategy.dispatcher();
+                byte[] cached = transformationCache.find(name, classLoader, binaryRepresentation, indices);
+                if (cached != null) {
+                    DynamicType.Unloaded<?> dynamicType = new DynamicType.Default.Unloaded<Object>(typeDescription,
+                            cached,
+                            LoadedTypeInitializer.NoOp.INSTANCE,
+                            Collections.<DynamicType>emptyList(),
+                            TypeResolutionStrategy.Disabled.INSTANCE);
+                    dispatcher.register(dynamicType, classLoader, protectionDomain, injectionStrategy);
+                    listener.onTransformation(typeDescription, classLoader, module, loaded, dynamicType);
+                    transformationMetrics.onResult(TransformationMetrics.Result.TRANSFORMED);
+                    return cached;
                 }
+                start = transformationMetrics.tick();
                 DynamicType.Builder<?> builder = typeStrategy.builder(typeDescription,
                         byteBuddy,
                         classFileLocator,
@@ -12451,13 +16887,31 @@ public interface AgentBuilder {
                         classLoader,
                         module,
                         protectionDomain);
-                InitializationStrategy.Dispatcher dispatcher = initializationStrategy.dispatcher();
-                for (Transformer transformer : transformers) {
-                    builder = transformer.transform(builder, typeDescription, classLoader, module, protectionDomain);
+                for (int index : indices) {
+                    long transformationStart = transformationMetrics.tick();
+                    for (Transformer transformer : transformations.get(index).getTransformers()) {
+                        builder = transformer.transform(builder, typeDescription, classLoader, module, protectionDomain);
+                    }
+                    transformationMetrics.onTransformation(index, transformationStart);
+                    TransformerDecorator.WithTimeBudget.checkpoint(this);
+                }
+                transformationMetrics.onPhase(TransformationMetrics.Phase.BUILDING, start);
+                start = transformationMetrics.tick();
+                if (builder.isUnmodified()) {
+                    transformationMetrics.onPhase(TransformationMetrics.Phase.MAKING, start);
+                    listener.onIgnored(typeDescription, classLoader, module, loaded);
+                    transformationMetrics.onResult(TransformationMetrics.Result.IGNORED);
+                    return Transformation.NONE;
                 }
-                DynamicType.Unloaded<?> dynamicType = dispatcher.apply(builder).make(TypeResolutionStrategy.Disabled.INSTANCE, typePool);
+                builder = dispatcher.apply(builder);
+                DynamicType.Unloaded<?> dynamicType = builder.make(TypeResolutionStrategy.Disabled.INSTANCE, typePool);
+                transformationMetrics.onPhase(TransformationMetrics.Phase.MAKING, start);
                 dispatcher.register(dynamicType, classLoader, protectionDomain, injectionStrategy);
+                if (dynamicType.getAuxiliaryTypes().isEmpty() && !dynamicType.hasAliveLoadedTypeInitializers()) {
+                    transformationCache.register(name, classLoader, binaryRepresentation, indices, dynamicType.getBytes());
+                }
                 listener.onTransformation(typeDescription, classLoader, module, loaded, dynamicType);
+                transformationMetrics.onResult(TransformationMetrics.Result.TRANSFORMED);
                 return dynamicType.getBytes();
             }
 
@@ -12469,9 +16923,15 @@ public interface AgentBuilder {
                                                   @MaybeNull JavaModule module,
                                                   @MaybeNull Class<?> classBeingRedefined,
                                                   ProtectionDomain protectionDomain) {
-                return ignoreMatcher.matches(typeDescription, classLoader, module, classBeingRedefined, protectionDomain)
-                        ? Collections.<Transformer>emptySet().iterator()
-                        : new Transformation.TransformerIterator(typeDescription, classLoader, module, classBeingRedefined, protectionDomain, transformations);
+                if (ignoreMatcher.matches(typeDescription, classLoader, module, classBeingRedefined, protectionDomain)) {
+                    return Collections.<Transformer>emptySet().iterator();
+                }
+                BitSet candidates = candidates(typeDescription);
+                List<Transformation> transformations = new ArrayList<Transformation>(candidates.cardinality());
+                for (int index = candidates.nextSetBit(0); index >= 0; index = candidates.nextSetBit(index + 1)) {
+                    transformations.add(this.transformations.get(index));
+                }
+                return new Transformation.TransformerIterator(typeDescription, classLoader, module, classBeingRedefined, protectionDomain, transformations);
             }
 
             /**
@@ -12484,6 +16944,7 @@ public interface AgentBuilder {
                                               RedefinitionStrategy.BatchAllocator redefinitionBatchAllocator,
                                               RedefinitionStrategy.Listener redefinitionListener) {
                 if (instrumentation.removeTransformer(classFileTransformer)) {
+                    ignoredTypes.clear();
                     redefinitionStrategy.apply(instrumentation,
                             poolStrategy,
                             locationStrategy,
@@ -12505,6 +16966,7 @@ public interface AgentBuilder {
 
             /* does not implement hashCode and equals in order to align with identity treatment of the JVM */
 
+
             /**
              * A factory for creating a {@link ClassFileTransformer} for the current VM.
              */
@@ -12526,6 +16988,9 @@ public interface AgentBuilder {
                  * @param descriptionStrategy           The description strategy for resolving type descriptions for types.
                  * @param fallbackStrategy              The fallback strategy to use.
                  * @param classFileBufferStrategy       The class file buffer strategy to use.
+                 * @param transformationCache           The transformation cache to use.
+                 * @param transformationMetrics         The transformation metrics to use.
+                 * @param ignoredTypeCache              The ignored type cache to use.
                  * @param installationListener          The installation listener to notify.
                  * @param ignoreMatcher                 Identifies types that should not be instrumented.
                  * @param resubmissionEnforcer          The resubmission enforcer to use.
@@ -12546,6 +17011,9 @@ public interface AgentBuilder {
                                                     DescriptionStrategy descriptionStrategy,
                                                     FallbackStrategy fallbackStrategy,
                                                     ClassFileBufferStrategy classFileBufferStrategy,
+                                                    TransformationCache transformationCache,
+                                                    TransformationMetrics transformationMetrics,
+                                                    IgnoredTypeCache ignoredTypeCache,
                                                     InstallationListener installationListener,
                                                     RawMatcher ignoreMatcher,
                                                     RedefinitionStrategy.ResubmissionEnforcer resubmissionEnforcer,
@@ -12597,6 +17065,9 @@ public interface AgentBuilder {
                                             DescriptionStrategy.class,
                                             FallbackStrategy.class,
                                             ClassFileBufferStrategy.class,
+                                            TransformationCache.class,
+                                            TransformationMetrics.class,
+                                            IgnoredTypeCache.class,
                                             InstallationListener.class,
                                             RawMatcher.class,
                                             RedefinitionStrategy.ResubmissionEnforcer.class,
@@ -12647,6 +17118,9 @@ public interface AgentBuilder {
                                                                DescriptionStrategy descriptionStrategy,
                                                                FallbackStrategy fallbackStrategy,
                                                                ClassFileBufferStrategy classFileBufferStrategy,
+                                                               TransformationCache transformationCache,
+                                                               TransformationMetrics transformationMetrics,
+                                                               IgnoredTypeCache ignoredTypeCache,
                                                                InstallationListener installationListener,
                                                                RawMatcher ignoreMatcher,
                                                                RedefinitionStrategy.ResubmissionEnforcer resubmissionEnforcer,
@@ -12666,6 +17140,9 @@ public interface AgentBuilder {
                                     descriptionStrategy,
                                     fallbackStrategy,
                                     classFileBufferStrategy,
+                                    transformationCache,
+                                    transformationMetrics,
+                                    ignoredTypeCache,
                                     installationListener,
                                     ignoreMatcher,
                                     resubmissionEnforcer,
@@ -12707,6 +17184,9 @@ public interface AgentBuilder {
                                                                DescriptionStrategy descriptionStrategy,
                                                                FallbackStrategy fallbackStrategy,
                                                                ClassFileBufferStrategy classFileBufferStrategy,
+                                                               TransformationCache transformationCache,
+                                                               TransformationMetrics transformationMetrics,
+                                                               IgnoredTypeCache ignoredTypeCache,
                                                                InstallationListener installationListener,
                                                                RawMatcher ignoreMatcher,
                                                                RedefinitionStrategy.ResubmissionEnforcer resubmissionEnforcer,
@@ -12725,6 +17205,9 @@ public interface AgentBuilder {
                                 descriptionStrategy,
                                 fallbackStrategy,
                                 classFileBufferStrategy,
+                                transformationCache,
+                                transformationMetrics,
+                                ignoredTypeCache,
                                 installationListener,
                                 ignoreMatcher,
                                 resubmissionEnforcer,
@@ -12885,6 +17368,93 @@ public interface AgentBuilder {
                             binaryRepresentation);
                 }
             }
+
+            /**
+             * A description of a type that was ignored only by its name, class loader or module. The type is only
+             * located and described if another property than its name is requested.
+             */
+            protected class NameOnlyTypeDescription extends TypeDescription.AbstractBase.OfSimpleType.WithDelegation {
+
+                /**
+                 * The type's module or {@code null} if the current VM does not support modules.
+                 */
+                @MaybeNull
+                private final JavaModule module;
+
+                /**
+                 * The type's class loader or {@code null} if the type is loaded by the bootstrap loader.
+                 */
+                @MaybeNull
+                private final ClassLoader classLoader;
+
+                /**
+                 * The type's binary name.
+                 */
+                private final String name;
+
+                /**
+                 * The class being redefined or {@code null} if no such class exists.
+                 */
+                @MaybeNull
+                private final Class<?> classBeingRedefined;
+
+                /**
+                 * The type's protection domain.
+                 */
+                private final ProtectionDomain protectionDomain;
+
+                /**
+                 * The type's binary representation.
+                 */
+                private final byte[] binaryRepresentation;
+
+                /**
+                 * Creates a new description of a type that was ignored only by its name.
+                 *
+                 * @param module               The type's module or {@code null} if the current VM does not support modules.
+                 * @param classLoader          The type's class loader or {@code null} if the type is loaded by the bootstrap loader.
+                 * @param name                 The type's binary name.
+                 * @param classBeingRedefined  The class being redefined or {@code null} if no such class exists.
+                 * @param protectionDomain     The type's protection domain.
+                 * @param binaryRepresentation The type's binary representation.
+                 */
+                protected NameOnlyTypeDescription(@MaybeNull JavaModule module,
+                                                  @MaybeNull ClassLoader classLoader,
+                                                  String name,
+                                                  @MaybeNull Class<?> classBeingRedefined,
+                                                  ProtectionDomain protectionDomain,
+                                                  byte[] binaryRepresentation) {
+                    this.module = module;
+                    this.classLoader = classLoader;
+                    this.name = name;
+                    this.classBeingRedefined = classBeingRedefined;
+                    this.protectionDomain = protectionDomain;
+                    this.binaryRepresentation = binaryRepresentation;
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                public String getName() {
+                    return name;
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                @CachedReturnPlugin.Enhance("delegate")
+                protected TypeDescription delegate() {
+                    return descriptionStrategy.apply(name,
+                            classBeingRedefined,
+                            classFileBufferStrategy.typePool(poolStrategy,
+                                    classFileLocator(module, classLoader, name, protectionDomain, binaryRepresentation),
+                                    classLoader,
+                                    name),
+                            circularityLock,
+                            classLoader,
+                            module);
+                }
+            }
         }
 
         /**
@@ -12990,6 +17560,27 @@ public interface AgentBuilder {
                 return materialize().with(classFileBufferStrategy);
             }
 
+            /**
+             * {@inheritDoc}
+             */
+            public AgentBuilder with(TransformationCache transformationCache) {
+                return materialize().with(transformationCache);
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public AgentBuilder with(TransformationMetrics transformationMetrics) {
+                return materialize().with(transformationMetrics);
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public AgentBuilder with(IgnoredTypeCache ignoredTypeCache) {
+                return materialize().with(ignoredTypeCache);
+            }
+
             /**
              * {@inheritDoc}
              */
@@ -13046,6 +17637,13 @@ public interface AgentBuilder {
                 return materialize().warmUp(types);
             }
 
+            /**
+             * {@inheritDoc}
+             */
+            public AgentBuilder warmUp(WarmupProfile profile, ExecutorService executorService) {
+                return materialize().warmUp(profile, executorService);
+            }
+
             /**
              * {@inheritDoc}
              */
@@ -13309,6 +17907,9 @@ public interface AgentBuilder {
                         descriptionStrategy,
                         fallbackStrategy,
                         classFileBufferStrategy,
+                        transformationCache,
+                        transformationMetrics,
+                        ignoredTypeCache,
                         installationListener,
                         rawMatcher,
                         transformations);
@@ -13352,17 +17953,24 @@ public interface AgentBuilder {
              */
             private final boolean terminal;
 
+            /**
+             * {@code true} if this transformer is an eager transformation.
+             */
+            private final boolean eager;
+
             /**
              * Creates a new matched default agent builder.
              *
              * @param rawMatcher   The supplied raw matcher.
              * @param transformers The transformers to apply.
              * @param terminal     {@code true} if this transformer is a terminal transformation.
+             * @param eager        {@code true} if this transformer is an eager transformation.
              */
-            protected Transforming(RawMatcher rawMatcher, List<Transformer> transformers, boolean terminal) {
+            protected Transforming(RawMatcher rawMatcher, List<Transformer> transformers, boolean terminal, boolean eager) {
                 this.rawMatcher = rawMatcher;
                 this.transformers = transformers;
                 this.terminal = terminal;
+                this.eager = eager;
             }
 
             @Override
@@ -13388,37 +17996,47 @@ public interface AgentBuilder {
                         descriptionStrategy,
                         fallbackStrategy,
                         classFileBufferStrategy,
+                        transformationCache,
+                        transformationMetrics,
+                        ignoredTypeCache,
                         installationListener,
                         ignoreMatcher,
-                        CompoundList.of(transformations, new Transformation(rawMatcher, transformers, terminal)));
+                        CompoundList.of(transformations, new Transformation(rawMatcher, transformers, terminal, eager)));
             }
 
             /**
              * {@inheritDoc}
              */
             public Identified.Extendable transform(Transformer transformer) {
-                return new Transforming(rawMatcher, CompoundList.of(this.transformers, transformer), terminal);
+                return new Transforming(rawMatcher, CompoundList.of(this.transformers, transformer), terminal, eager);
             }
 
             /**
              * {@inheritDoc}
              */
             public AgentBuilder asTerminalTransformation() {
-                return new Transforming(rawMatcher, transformers, true);
+                return new Transforming(rawMatcher, transformers, true, eager);
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public Identified.Extendable asEagerTransformation() {
+                return new Transforming(rawMatcher, transformers, terminal, true);
             }
 
             /**
              * {@inheritDoc}
              */
             public Narrowable and(RawMatcher rawMatcher) {
-                return new Transforming(new RawMatcher.Conjunction(this.rawMatcher, rawMatcher), transformers, terminal);
+                return new Transforming(new RawMatcher.Conjunction(this.rawMatcher, rawMatcher), transformers, terminal, eager);
             }
 
             /**
              * {@inheritDoc}
              */
             public Narrowable or(RawMatcher rawMatcher) {
-                return new Transforming(new RawMatcher.Disjunction(this.rawMatcher, rawMatcher), transformers, terminal);
+                return new Transforming(new RawMatcher.Disjunction(this.rawMatcher, rawMatcher), transformers, terminal, eager);
             }
         }
 
@@ -13452,6 +18070,9 @@ public interface AgentBuilder {
              * @param descriptionStrategy              The description strategy for resolving type descriptions for types.
              * @param fallbackStrategy                 The fallback strategy to apply.
              * @param classFileBufferStrategy          The class file buffer strategy to use.
+             * @param transformationCache              The transformation cache to use.
+             * @param transformationMetrics            The transformation metrics to use.
+             * @param ignoredTypeCache                 The ignored type cache to use.
              * @param installationListener             The installation listener to notify.
              * @param ignoreMatcher                    Identifies types that should not be instrumented.
              * @param transformations                  The transformations to apply on non-ignored types.
@@ -13477,6 +18098,9 @@ public interface AgentBuilder {
                                  DescriptionStrategy descriptionStrategy,
                                  FallbackStrategy fallbackStrategy,
                                  ClassFileBufferStrategy classFileBufferStrategy,
+                                 TransformationCache transformationCache,
+                                 TransformationMetrics transformationMetrics,
+                                 IgnoredTypeCache ignoredTypeCache,
                                  InstallationListener installationListener,
                                  RawMatcher ignoreMatcher,
                                  List<Transformation> transformations) {
@@ -13501,6 +18125,9 @@ public interface AgentBuilder {
                         descriptionStrategy,
                         fallbackStrategy,
                         classFileBufferStrategy,
+                        transformationCache,
+                        transformationMetrics,
+                        ignoredTypeCache,
                         installationListener,
                         ignoreMatcher,
                         transformations);
@@ -13534,6 +18161,9 @@ public interface AgentBuilder {
                         descriptionStrategy,
                         fallbackStrategy,
                         classFileBufferStrategy,
+                        transformationCache,
+                        transformationMetrics,
+                        ignoredTypeCache,
                         installationListener,
                         ignoreMatcher,
                         transformations);
@@ -13574,6 +18204,9 @@ public interface AgentBuilder {
                         descriptionStrategy,
                         fallbackStrategy,
                         classFileBufferStrategy,
+                        transformationCache,
+                        transformationMetrics,
+                        ignoredTypeCache,
                         installationListener,
                         ignoreMatcher,
                         transformations);
@@ -13607,6 +18240,9 @@ public interface AgentBuilder {
                         descriptionStrategy,
                         fallbackStrategy,
                         classFileBufferStrategy,
+                        transformationCache,
+                        transformationMetrics,
+                        ignoredTypeCache,
                         installationListener,
                         ignoreMatcher,
                         transformations);
@@ -13616,12 +18252,22 @@ public interface AgentBuilder {
              * {@inheritDoc}
              */
             public WithoutResubmissionSpecification withResubmission(RedefinitionStrategy.ResubmissionScheduler resubmissionScheduler) {
+                return withResubmission(resubmissionScheduler, Integer.MAX_VALUE);
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public WithoutResubmissionSpecification withResubmission(RedefinitionStrategy.ResubmissionScheduler resubmissionScheduler, int maximumPending) {
                 if (!redefinitionStrategy.isEnabled()) {
                     throw new IllegalStateException("Cannot enable resubmission when redefinition is disabled");
+                } else if (maximumPending < 1) {
+                    throw new IllegalArgumentException("Maximum number of pending types must be positive: " + maximumPending);
                 }
                 return new WithResubmission(resubmissionScheduler,
                         ResubmissionOnErrorMatcher.Trivial.NON_MATCHING,
-                        ResubmissionImmediateMatcher.Trivial.NON_MATCHING);
+                        ResubmissionImmediateMatcher.Trivial.NON_MATCHING,
+                        maximumPending);
             }
 
             /**
@@ -13644,19 +18290,27 @@ public interface AgentBuilder {
                  */
                 private final ResubmissionImmediateMatcher resubmissionImmediateMatcher;
 
+                /**
+                 * The maximum number of types that are pending for resubmission.
+                 */
+                private final int maximumPending;
+
                 /**
                  * Creates a new delegator that applies resubmissions.
                  *
                  * @param resubmissionScheduler        The resubmission scheduler to use.
                  * @param resubmissionOnErrorMatcher   A matcher to determine resubmissions on errors.
                  * @param resubmissionImmediateMatcher A matcher to determine resubmissions without errors.
+                 * @param maximumPending               The maximum number of types that are pending for resubmission.
                  */
                 protected WithResubmission(RedefinitionStrategy.ResubmissionScheduler resubmissionScheduler,
                                            ResubmissionOnErrorMatcher resubmissionOnErrorMatcher,
-                                           ResubmissionImmediateMatcher resubmissionImmediateMatcher) {
+                                           ResubmissionImmediateMatcher resubmissionImmediateMatcher,
+                                           int maximumPending) {
                     this.resubmissionScheduler = resubmissionScheduler;
                     this.resubmissionOnErrorMatcher = resubmissionOnErrorMatcher;
                     this.resubmissionImmediateMatcher = resubmissionImmediateMatcher;
+                    this.maximumPending = maximumPending;
                 }
 
                 @Override
@@ -13676,12 +18330,18 @@ public interface AgentBuilder {
                             redefinitionDiscoveryStrategy,
                             redefinitionBatchAllocator,
                             redefinitionListener,
-                            new RedefinitionStrategy.ResubmissionStrategy.Enabled(resubmissionScheduler, resubmissionOnErrorMatcher, resubmissionImmediateMatcher),
+                            new RedefinitionStrategy.ResubmissionStrategy.Enabled(resubmissionScheduler,
+                                    resubmissionOnErrorMatcher,
+                                    resubmissionImmediateMatcher,
+                                    maximumPending),
                             injectionStrategy,
                             lambdaInstrumentationStrategy,
                             descriptionStrategy,
                             fallbackStrategy,
                             classFileBufferStrategy,
+                            transformationCache,
+                            transformationMetrics,
+                            ignoredTypeCache,
                             installationListener,
                             ignoreMatcher,
                             transformations);
@@ -13734,7 +18394,8 @@ public interface AgentBuilder {
                 public WithResubmissionSpecification resubmitOnError(ResubmissionOnErrorMatcher matcher) {
                     return new WithResubmission(resubmissionScheduler,
                             new ResubmissionOnErrorMatcher.Disjunction(resubmissionOnErrorMatcher, matcher),
-                            resubmissionImmediateMatcher);
+                            resubmissionImmediateMatcher,
+                            maximumPending);
                 }
 
                 /**
@@ -13774,7 +18435,8 @@ public interface AgentBuilder {
                 public WithResubmissionSpecification resubmitImmediate(ResubmissionImmediateMatcher matcher) {
                     return new WithResubmission(resubmissionScheduler,
                             resubmissionOnErrorMatcher,
-                            new ResubmissionImmediateMatcher.Disjunction(resubmissionImmediateMatcher, matcher));
+                            new ResubmissionImmediateMatcher.Disjunction(resubmissionImmediateMatcher, matcher),
+                            maximumPending);
                 }
             }
         }
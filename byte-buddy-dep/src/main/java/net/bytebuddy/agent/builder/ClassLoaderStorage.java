@@ -0,0 +1,193 @@
+/*
+ * Copyright 2014 - Present Rafael Winterhalter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.bytebuddy.agent.builder;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import net.bytebuddy.utility.nullability.MaybeNull;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Data structures for associating values with class loaders without retaining them, as they are shared by the resubmission
+ * strategy, the ignored type cache, the transformation cache and the time budget of an {@link AgentBuilder}.
+ */
+final class ClassLoaderStorage {
+
+    /**
+     * A utility class that is not supposed to be instantiated.
+     */
+    private ClassLoaderStorage() {
+        throw new UnsupportedOperationException("This class is a utility class and not supposed to be instantiated");
+    }
+
+    /**
+     * A key for a class loader that can only be used for looking up a preexisting value but avoids reference management.
+     */
+    static class LookupKey {
+
+        /**
+         * The represented class loader.
+         */
+        @MaybeNull
+        private final ClassLoader classLoader;
+
+        /**
+         * The represented class loader's hash code or {@code 0} if this entry represents the bootstrap class loader.
+         */
+        private final int hashCode;
+
+        /**
+         * Creates a new lookup key.
+         *
+         * @param classLoader The represented class loader.
+         */
+        LookupKey(@MaybeNull ClassLoader classLoader) {
+            this.classLoader = classLoader;
+            hashCode = System.identityHashCode(classLoader);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        @SuppressFBWarnings(value = "EQ_CHECK_FOR_OPERAND_NOT_COMPATIBLE_WITH_THIS", justification = "Cross-comparison is intended.")
+        public boolean equals(@MaybeNull Object other) {
+            if (this == other) {
+                return true;
+            } else if (other instanceof LookupKey) {
+                return classLoader == ((LookupKey) other).classLoader;
+            } else if (other instanceof StorageKey) {
+                StorageKey storageKey = (StorageKey) other;
+                return hashCode == storageKey.hashCode && classLoader == storageKey.get();
+            } else {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * A key for a class loader that only weakly references the class loader.
+     */
+    static class StorageKey extends WeakReference<ClassLoader> {
+
+        /**
+         * The represented class loader's hash code or {@code 0} if this entry represents the bootstrap class loader.
+         */
+        private final int hashCode;
+
+        /**
+         * Creates a new storage key.
+         *
+         * @param classLoader The represented class loader or {@code null} for the bootstrap class loader.
+         */
+        StorageKey(@MaybeNull ClassLoader classLoader) {
+            super(classLoader);
+            hashCode = System.identityHashCode(classLoader);
+        }
+
+        /**
+         * Creates a new storage key that is enqueued once its class loader is collected.
+         *
+         * @param classLoader    The represented class loader or {@code null} for the bootstrap class loader.
+         * @param referenceQueue The reference queue to enqueue this key to once its class loader is collected.
+         */
+        StorageKey(@MaybeNull ClassLoader classLoader, ReferenceQueue<? super ClassLoader> referenceQueue) {
+            super(classLoader, referenceQueue);
+            hashCode = System.identityHashCode(classLoader);
+        }
+
+        /**
+         * Checks if this reference represents the bootstrap class loader.
+         *
+         * @return {@code true} if this entry represents the bootstrap class loader.
+         */
+        boolean isBootstrapLoader() {
+            return hashCode == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        @SuppressFBWarnings(value = "EQ_CHECK_FOR_OPERAND_NOT_COMPATIBLE_WITH_THIS", justification = "Cross-comparison is intended.")
+        public boolean equals(@MaybeNull Object other) {
+            if (this == other) {
+                return true;
+            } else if (other instanceof LookupKey) {
+                LookupKey lookupKey = (LookupKey) other;
+                return hashCode == lookupKey.hashCode && get() == lookupKey.classLoader;
+            } else if (other instanceof StorageKey) {
+                StorageKey storageKey = (StorageKey) other;
+                return hashCode == storageKey.hashCode && get() == storageKey.get();
+            } else {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * A set projection for a {@link ConcurrentHashMap}.
+     *
+     * @param <T> The element type of the set projection.
+     */
+    static class ConcurrentHashSet<T> extends AbstractSet<T> {
+
+        /**
+         * The delegate map.
+         */
+        private final ConcurrentMap<T, Boolean> delegate;
+
+        /**
+         * Creates a concurrent hash set.
+         */
+        ConcurrentHashSet() {
+            delegate = new ConcurrentHashMap<T, Boolean>();
+        }
+
+        @Override
+        public boolean add(T value) {
+            return delegate.put(value, Boolean.TRUE) == null;
+        }
+
+        @Override
+        public boolean remove(Object value) {
+            return delegate.remove(value) != null;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public Iterator<T> iterator() {
+            return delegate.keySet().iterator();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public int size() {
+            return delegate.size();
+        }
+    }
+}
@@ -91,10 +91,27 @@ public interface AsmVisitorWrapper {
                       int writerFlags,
                       int readerFlags);
 
+    /**
+     * An ASM visitor wrapper that only alters a subset of an instrumented type's members and that is able to determine
+     * prior to creating a type if any of these members is affected.
+     */
+    interface Selective extends AsmVisitorWrapper {
+
+        /**
+         * Determines if this wrapper alters any of the supplied members of the instrumented type.
+         *
+         * @param instrumentedType The instrumented type.
+         * @param fields           The instrumented type's fields.
+         * @param methods          The instrumented type's methods non-ignored declared and virtually inherited methods.
+         * @return {@code true} if this wrapper might alter any of the supplied members.
+         */
+        boolean isApplicable(TypeDescription instrumentedType, FieldList<FieldDescription.InDefinedShape> fields, MethodList<?> methods);
+    }
+
     /**
      * A class visitor wrapper that does not apply any changes.
      */
-    enum NoOp implements AsmVisitorWrapper {
+    enum NoOp implements Selective {
 
         /**
          * The singleton instance.
@@ -128,6 +145,13 @@ public interface AsmVisitorWrapper {
                                  int readerFlags) {
             return classVisitor;
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public boolean isApplicable(TypeDescription instrumentedType, FieldList<FieldDescription.InDefinedShape> fields, MethodList<?> methods) {
+            return false;
+        }
     }
 
     /**
@@ -154,7 +178,7 @@ public interface AsmVisitorWrapper {
      * An ASM visitor wrapper that allows to wrap declared fields of the instrumented type with a {@link FieldVisitorWrapper}.
      */
     @HashCodeAndEqualsPlugin.Enhance
-    class ForDeclaredFields extends AbstractBase {
+    class ForDeclaredFields extends AbstractBase implements Selective {
 
         /**
          * The list of entries that describe matched fields in their application order.
@@ -219,6 +243,20 @@ public interface AsmVisitorWrapper {
             return new DispatchingVisitor(classVisitor, instrumentedType, mapped);
         }
 
+        /**
+         * {@inheritDoc}
+         */
+        public boolean isApplicable(TypeDescription instrumentedType, FieldList<FieldDescription.InDefinedShape> fields, MethodList<?> methods) {
+            for (Entry entry : entries) {
+                for (FieldDescription.InDefinedShape fieldDescription : fields) {
+                    if (entry.matches(fieldDescription)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
         /**
          * A field visitor wrapper that allows for wrapping a {@link FieldVisitor} defining a declared field.
          */
@@ -334,7 +372,7 @@ public interface AsmVisitorWrapper {
      * </p>
      */
     @HashCodeAndEqualsPlugin.Enhance
-    class ForDeclaredMethods implements AsmVisitorWrapper {
+    class ForDeclaredMethods implements Selective {
 
         /**
          * The list of entries that describe matched methods in their application order.
@@ -501,6 +539,20 @@ public interface AsmVisitorWrapper {
                     readerFlags);
         }
 
+        /**
+         * {@inheritDoc}
+         */
+        public boolean isApplicable(TypeDescription instrumentedType, FieldList<FieldDescription.InDefinedShape> fields, MethodList<?> methods) {
+            for (Entry entry : entries) {
+                for (MethodDescription methodDescription : CompoundList.<MethodDescription>of(methods, new MethodDescription.Latent.TypeInitializer(instrumentedType))) {
+                    if (entry.matches(methodDescription)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
         /**
          * A method visitor wrapper that allows for wrapping a {@link MethodVisitor} defining a declared method.
          */
@@ -673,7 +725,7 @@ public interface AsmVisitorWrapper {
      * An ordered, immutable chain of {@link AsmVisitorWrapper}s.
      */
     @HashCodeAndEqualsPlugin.Enhance
-    class Compound implements AsmVisitorWrapper {
+    class Compound implements Selective {
 
         /**
          * The class visitor wrappers that are represented by this chain in their order. This list must not be mutated.
@@ -754,5 +806,17 @@ public interface AsmVisitorWrapper {
             }
             return classVisitor;
         }
+
+        /**
+         * {@inheritDoc}
+         */
+        public boolean isApplicable(TypeDescription instrumentedType, FieldList<FieldDescription.InDefinedShape> fields, MethodList<?> methods) {
+            for (AsmVisitorWrapper asmVisitorWrapper : asmVisitorWrappers) {
+                if (!(asmVisitorWrapper instanceof Selective) || ((Selective) asmVisitorWrapper).isApplicable(instrumentedType, fields, methods)) {
+                    return true;
+                }
+            }
+            return false;
+        }
     }
 }
@@ -1095,6 +1095,122 @@ public interface Plugin extends ElementMatcher<TypeDescription>, Closeable {
                             TypePool.ClassLoading.ofPlatformLoader());
                 }
             }
+
+            /**
+             * A pool strategy where type descriptions are resolved lazily and where the number of retained type descriptions
+             * is bounded by a {@link net.bytebuddy.pool.TypePool.CacheProvider.Bounded} cache provider.
+             */
+            @HashCodeAndEqualsPlugin.Enhance
+            class Bounded implements PoolStrategy {
+
+                /**
+                 * This strategy's reader mode.
+                 */
+                private final TypePool.Default.ReaderMode readerMode;
+
+                /**
+                 * The maximum weight of all retained resolutions.
+                 */
+                private final long maximumWeight;
+
+                /**
+                 * The weigher to use for determining the weight of a resolution.
+                 */
+                private final TypePool.CacheProvider.Bounded.Weigher weigher;
+
+                /**
+                 * Creates a bounded pool strategy using a fast reader mode.
+                 *
+                 * @param maximumSize The maximum number of retained resolutions.
+                 */
+                public Bounded(long maximumSize) {
+                    this(TypePool.Default.ReaderMode.FAST, maximumSize, TypePool.CacheProvider.Bounded.Weigher.ForEntry.INSTANCE);
+                }
+
+                /**
+                 * Creates a bounded pool strategy.
+                 *
+                 * @param readerMode    This strategy's reader mode.
+                 * @param maximumWeight The maximum weight of all retained resolutions.
+                 * @param weigher       The weigher to use for determining the weight of a resolution.
+                 */
+                public Bounded(TypePool.Default.ReaderMode readerMode, long maximumWeight, TypePool.CacheProvider.Bounded.Weigher weigher) {
+                    if (maximumWeight < 1) {
+                        throw new IllegalArgumentException("Maximum weight must be positive: " + maximumWeight);
+                    }
+                    this.readerMode = readerMode;
+                    this.maximumWeight = maximumWeight;
+                    this.weigher = weigher;
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                public TypePool typePool(ClassFileLocator classFileLocator) {
+                    return new TypePool.Default.WithLazyResolution(new TypePool.CacheProvider.Bounded(maximumWeight, weigher),
+                            classFileLocator,
+                            readerMode,
+                            TypePool.ClassLoading.ofPlatformLoader());
+                }
+            }
+
+            /**
+             * A pool strategy where type descriptions are resolved lazily and where class files are located from a snapshot of a
+             * previous build, as represented by a {@link ClassFileLocator.ForSnapshotFile}, before they are located by the engine's
+             * class file locator. All type pools share the supplied cache provider such that its resolved types can be written as a
+             * snapshot for a subsequent build via {@link TypePool.CacheProvider.Simple#snapshot(File, List)} once a build completed.
+             */
+            @HashCodeAndEqualsPlugin.Enhance
+            class WithSnapshot implements PoolStrategy {
+
+                /**
+                 * This strategy's reader mode.
+                 */
+                private final TypePool.Default.ReaderMode readerMode;
+
+                /**
+                 * The cache provider that is shared by all type pools.
+                 */
+                private final TypePool.CacheProvider cacheProvider;
+
+                /**
+                 * The class file locator for the snapshot of a previous build.
+                 */
+                private final ClassFileLocator snapshot;
+
+                /**
+                 * Creates a pool strategy with a snapshot using a fast reader mode.
+                 *
+                 * @param cacheProvider The cache provider that is shared by all type pools.
+                 * @param snapshot      The class file locator for the snapshot of a previous build.
+                 */
+                public WithSnapshot(TypePool.CacheProvider cacheProvider, ClassFileLocator snapshot) {
+                    this(TypePool.Default.ReaderMode.FAST, cacheProvider, snapshot);
+                }
+
+                /**
+                 * Creates a pool strategy with a snapshot.
+                 *
+                 * @param readerMode    This strategy's reader mode.
+                 * @param cacheProvider The cache provider that is shared by all type pools.
+                 * @param snapshot      The class file locator for the snapshot of a previous build.
+                 */
+                public WithSnapshot(TypePool.Default.ReaderMode readerMode, TypePool.CacheProvider cacheProvider, ClassFileLocator snapshot) {
+                    this.readerMode = readerMode;
+                    this.cacheProvider = cacheProvider;
+                    this.snapshot = snapshot;
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                public TypePool typePool(ClassFileLocator classFileLocator) {
+                    return new TypePool.Default.WithLazyResolution(cacheProvider,
+                            new ClassFileLocator.Compound(snapshot, classFileLocator),
+                            readerMode,
+                            TypePool.ClassLoading.ofPlatformLoader());
+                }
+            }
         }
 
         /**
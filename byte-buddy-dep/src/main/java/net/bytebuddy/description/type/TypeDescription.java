@@ -7767,12 +7767,17 @@ public interface TypeDescription extends TypeDefinition, ByteCodeElement, TypeVa
             if (sourceType.represents(Object.class)) {
                 return !targetType.isPrimitive();
             }
-            // (4) The sub type has a super type and this super type is assignable to the super type.
+            // (4) If the names of all super types of the target type are known, a single lookup is sufficient.
+            Set<String> superTypeClosure = toSuperTypeClosure(targetType);
+            if (superTypeClosure != null) {
+                return superTypeClosure.contains(sourceType.getName());
+            }
+            // (5) The sub type has a super type and this super type is assignable to the super type.
             Generic superClass = targetType.getSuperClass();
             if (superClass != null && sourceType.isAssignableFrom(superClass.asErasure())) {
                 return true;
             }
-            // (5) If the target type is an interface, any of this type's interfaces might be assignable to it.
+            // (6) If the target type is an interface, any of this type's interfaces might be assignable to it.
             if (sourceType.isInterface()) {
                 for (TypeDescription interfaceType : targetType.getInterfaces().asErasures()) {
                     if (sourceType.isAssignableFrom(interfaceType)) {
@@ -7780,10 +7785,36 @@ public interface TypeDescription extends TypeDefinition, ByteCodeElement, TypeVa
                     }
                 }
             }
-            // (6) None of these criteria are true, i.e. the types are not assignable.
+            // (7) None of these criteria are true, i.e. the types are not assignable.
             return false;
         }
 
+        /**
+         * Returns the names of all super classes and interfaces of a type if the type description knows them without walking
+         * its type hierarchy.
+         *
+         * @param typeDescription The type description for which to resolve the names of all super types.
+         * @return The names of all super classes and interfaces of the supplied type or {@code null} if they are not known.
+         */
+        @MaybeNull
+        protected static Set<String> toSuperTypeClosure(TypeDescription typeDescription) {
+            return typeDescription instanceof TypeDescription.AbstractBase
+                    ? ((TypeDescription.AbstractBase) typeDescription).getSuperTypeClosure()
+                    : null;
+        }
+
+        /**
+         * Returns the names of all super classes and interfaces of this type if they are known without walking the type hierarchy,
+         * for example if a type pool precomputed them. If this method returns {@code null}, assignability is determined by walking
+         * the type hierarchy.
+         *
+         * @return The names of all super classes and interfaces of this type or {@code null} if they are not known.
+         */
+        @MaybeNull
+        protected Set<String> getSuperTypeClosure() {
+            return null;
+        }
+
         /**
          * {@inheritDoc}
          */
@@ -8433,6 +8464,12 @@ public interface TypeDescription extends TypeDefinition, ByteCodeElement, TypeVa
                  */
                 protected abstract TypeDescription delegate();
 
+                @Override
+                @MaybeNull
+                protected Set<String> getSuperTypeClosure() {
+                    return toSuperTypeClosure(delegate());
+                }
+
                 /**
                  * {@inheritDoc}
                  */
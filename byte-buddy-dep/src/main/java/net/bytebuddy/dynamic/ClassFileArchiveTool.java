@@ -0,0 +1,64 @@
+/*
+ * Copyright 2014 - Present Rafael Winterhalter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.bytebuddy.dynamic;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A command line tool for writing a {@link ClassFileLocator.ForClassFileArchive}. The first argument is the class file archive to write,
+ * all remaining arguments are the jar files, <i>jmod</i> files or folders to archive in the order of their precedence. If the
+ * {@link ClassFileArchiveTool#RUNTIME_IMAGE} argument is supplied in place of the first source, the current VM's runtime image is
+ * archived before all other sources.
+ */
+public class ClassFileArchiveTool {
+
+    /**
+     * The argument that indicates that the current VM's runtime image should be archived.
+     */
+    public static final String RUNTIME_IMAGE = "jrt:/";
+
+    /**
+     * A class file archive tool cannot be created.
+     */
+    private ClassFileArchiveTool() {
+        throw new UnsupportedOperationException("This class is a utility class and not supposed to be instantiated");
+    }
+
+    /**
+     * Writes a class file archive.
+     *
+     * @param argument The class file archive to write, followed by the jar files, <i>jmod</i> files or folders to archive.
+     * @throws IOException If an I/O exception is thrown.
+     */
+    public static void main(String... argument) throws IOException {
+        if (argument.length < 2) {
+            throw new IllegalArgumentException("Expected arguments: <archive> [" + RUNTIME_IMAGE + "] <source> [<source>, ...]");
+        }
+        boolean runtimeImage = argument[1].equals(RUNTIME_IMAGE);
+        List<File> sources = new ArrayList<File>(argument.length - 2);
+        for (int index = runtimeImage ? 2 : 1; index < argument.length; index++) {
+            sources.add(new File(argument[index]));
+        }
+        if (runtimeImage) {
+            ClassFileLocator.ForClassFileArchive.writeRuntimeImage(new File(argument[0]), sources);
+        } else {
+            ClassFileLocator.ForClassFileArchive.write(new File(argument[0]), sources);
+        }
+    }
+}
@@ -18,6 +18,7 @@ package net.bytebuddy.dynamic;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import net.bytebuddy.agent.builder.AgentBuilder;
 import net.bytebuddy.build.AccessControllerPlugin;
+import net.bytebuddy.build.CachedReturnPlugin;
 import net.bytebuddy.build.HashCodeAndEqualsPlugin;
 import net.bytebuddy.description.NamedElement;
 import net.bytebuddy.description.type.TypeDescription;
@@ -25,10 +26,13 @@ import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
 import net.bytebuddy.matcher.ElementMatcher;
 import net.bytebuddy.utility.JavaModule;
 import net.bytebuddy.utility.JavaType;
+import net.bytebuddy.utility.OpenedClassReader;
 import net.bytebuddy.utility.StreamDrainer;
 import net.bytebuddy.utility.dispatcher.JavaDispatcher;
 import net.bytebuddy.utility.nullability.AlwaysNull;
 import net.bytebuddy.utility.nullability.MaybeNull;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
 
 import java.io.*;
 import java.lang.instrument.ClassFileTransformer;
@@ -39,11 +43,19 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.security.PrivilegedAction;
 import java.security.ProtectionDomain;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.regex.Pattern;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
@@ -159,6 +171,76 @@ public interface ClassFileLocator extends Closeable {
                 return binaryRepresentation;
             }
         }
+
+        /**
+         * Represents binary data that is contained in a {@link ByteBuffer}, for example in a slice of a memory-mapped file.
+         */
+        @HashCodeAndEqualsPlugin.Enhance
+        class ForByteBuffer implements Resolution {
+
+            /**
+             * The buffer containing the binary data between its position and limit.
+             */
+            private final ByteBuffer byteBuffer;
+
+            /**
+             * Creates a new resolution for binary data that is contained in a buffer.
+             *
+             * @param byteBuffer The buffer containing the binary data between its position and limit. The buffer must not be modified.
+             */
+            public ForByteBuffer(ByteBuffer byteBuffer) {
+                this.byteBuffer = byteBuffer;
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public boolean isResolved() {
+                return true;
+            }
+
+            /**
+             * Returns a copy of the represented binary data. The data is copied into an array upon the first invocation
+             * and the same array is returned by any subsequent invocation. Copying can be avoided altogether by using
+             * {@link ForByteBuffer#getByteBuffer()}.
+             *
+             * @return The represented binary data.
+             */
+            @CachedReturnPlugin.Enhance("binaryRepresentation")
+            public byte[] resolve() {
+                byte[] binaryRepresentation = new byte[byteBuffer.remaining()];
+                byteBuffer.duplicate().get(binaryRepresentation);
+                return binaryRepresentation;
+            }
+
+            /**
+             * Returns a read-only view of the represented binary data without copying it.
+             *
+             * @return A read-only buffer of the represented binary data.
+             */
+            public ByteBuffer getByteBuffer() {
+                return byteBuffer.asReadOnlyBuffer();
+            }
+        }
+
+        /**
+         * Represents a class file that is contained in a {@link ByteBuffer} and that only retains a type's metadata as its code and
+         * debugging information were removed. Such a class file can be used for describing a type, for example by a
+         * {@link net.bytebuddy.pool.TypePool}, but it cannot be used as the source of a transformation, such as a rebasement or a
+         * redefinition, as the transformed type's method bodies would be lost. Byte Buddy refuses to transform such a class file.
+         */
+        @HashCodeAndEqualsPlugin.Enhance
+        class ForStrippedClassFile extends ForByteBuffer {
+
+            /**
+             * Creates a new resolution for a stripped class file that is contained in a buffer.
+             *
+             * @param byteBuffer The buffer containing the class file between its position and limit. The buffer must not be modified.
+             */
+            public ForStrippedClassFile(ByteBuffer byteBuffer) {
+                super(byteBuffer);
+            }
+        }
     }
 
     /**
@@ -708,161 +790,1323 @@ public interface ClassFileLocator extends Closeable {
             }
 
             /**
-             * {@inheritDoc}
+             * {@inheritDoc}
+             */
+            public Resolution locate(String name) throws IOException {
+                Object module = get();
+                return module == null
+                        ? new Resolution.Illegal(name)
+                        : ForModule.locate(JavaModule.of(module), name);
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public void close() {
+                /* do nothing */
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public int hashCode() {
+                return hashCode;
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public boolean equals(@MaybeNull Object other) {
+                if (this == other) {
+                    return true;
+                } else if (other == null || getClass() != other.getClass()) {
+                    return false;
+                }
+                WeaklyReferenced weaklyReferenced = (WeaklyReferenced) other;
+                Object module = weaklyReferenced.get();
+                return module != null && get() == module;
+            }
+        }
+    }
+
+    /**
+     * A class file locator that locates classes within a Java <i>jar</i> file.
+     */
+    @HashCodeAndEqualsPlugin.Enhance
+    class ForJarFile implements ClassFileLocator {
+
+        /**
+         * A list of potential locations of the runtime jar for different platforms.
+         */
+        private static final List<String> RUNTIME_LOCATIONS = Arrays.asList("lib/rt.jar", "../lib/rt.jar", "../Classes/classes.jar");
+
+        /**
+         * The jar file to read from.
+         */
+        private final JarFile jarFile;
+
+        /**
+         * Creates a new class file locator for the given jar file.
+         *
+         * @param jarFile The jar file to read from.
+         */
+        public ForJarFile(JarFile jarFile) {
+            this.jarFile = jarFile;
+        }
+
+        /**
+         * Creates a new class file locator for the given jar file.
+         *
+         * @param file The jar file to read from.
+         * @return A class file locator for the jar file.
+         * @throws IOException If an I/O exception is thrown.
+         */
+        public static ClassFileLocator of(File file) throws IOException {
+            return new ForJarFile(new JarFile(file));
+        }
+
+        /**
+         * Resolves a class file locator for the class path that reads class files directly from the file system. The resulting
+         * class file locator does not imply classes on the boot path.
+         *
+         * @return A class file locator for the class path.
+         * @throws IOException If an I/O exception occurs.
+         */
+        public static ClassFileLocator ofClassPath() throws IOException {
+            return ofClassPath(System.getProperty("java.class.path"));
+        }
+
+        /**
+         * <p>
+         * Resolves a class file locator for the class path that reads class files directly from the file system.
+         * </p>
+         * <p>
+         * <b>Note</b>: The resulting class file locator does not include classes of the bootstrap class loader.
+         * </p>
+         *
+         * @param classPath The class path to scan with the elements separated by {@code path.separator}.
+         * @return A class file locator for the class path.
+         * @throws IOException If an I/O exception occurs.
+         */
+        public static ClassFileLocator ofClassPath(String classPath) throws IOException {
+            List<ClassFileLocator> classFileLocators = new ArrayList<ClassFileLocator>();
+            for (String element : Pattern.compile(System.getProperty("path.separator"), Pattern.LITERAL).split(classPath)) {
+                File file = new File(element);
+                if (file.isDirectory()) {
+                    classFileLocators.add(new ForFolder(file));
+                } else if (file.isFile()) {
+                    classFileLocators.add(of(file));
+                }
+            }
+            return new Compound(classFileLocators);
+        }
+
+        /**
+         * Resolves a class file locator for the runtime jar. If such a file does not exist or cannot be located, a runtime exception is thrown.
+         *
+         * @return A class file locator for the runtime jar, if available.
+         * @throws IOException If an I/O exception occurs.
+         */
+        public static ClassFileLocator ofRuntimeJar() throws IOException {
+            String javaHome = System.getProperty("java.home").replace('\\', '/');
+            File runtimeJar = null;
+            for (String location : RUNTIME_LOCATIONS) {
+                File candidate = new File(javaHome, location);
+                if (candidate.isFile()) {
+                    runtimeJar = candidate;
+                    break;
+                }
+            }
+            if (runtimeJar == null) {
+                throw new IllegalStateException("Runtime jar does not exist in " + javaHome + " for any of " + RUNTIME_LOCATIONS);
+            }
+            return of(runtimeJar);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public Resolution locate(String name) throws IOException {
+            ZipEntry zipEntry = jarFile.getEntry(name.replace('.', '/') + CLASS_FILE_EXTENSION);
+            if (zipEntry == null) {
+                return new Resolution.Illegal(name);
+            } else {
+                InputStream inputStream = jarFile.getInputStream(zipEntry);
+                try {
+                    return new Resolution.Explicit(StreamDrainer.DEFAULT.drain(inputStream));
+                } finally {
+                    inputStream.close();
+                }
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void close() throws IOException {
+            jarFile.close();
+        }
+    }
+
+    /**
+     * <p>
+     * A class file locator that memory-maps a jar file and reads class files from the mapped archive without using a {@link JarFile}.
+     * The archive's central directory is parsed once upon creation. Class files that are stored without compression are returned
+     * as a {@link Resolution.ForByteBuffer} that represents a slice of the mapped file. Such a class file is only copied if it is
+     * resolved as an array, what happens at most once per resolution, and not at all if the class file is read from
+     * {@link Resolution.ForByteBuffer#getByteBuffer()}. Compressed class files are inflated directly into an array of the class file's
+     * size, where inflaters and input buffers are reused. A truncated or corrupt archive is reported as an {@link IOException}.
+     * </p>
+     * <p>
+     * <b>Important</b>: This locator does not support archives that exceed 2 GB or that use the ZIP64 format. A mapping cannot
+     * be released explicitly and remains valid until the locator is garbage collected, which might prevent the deletion of the
+     * jar file on some operating systems.
+     * </p>
+     */
+    class ForMappedJarFile implements ClassFileLocator {
+
+        /**
+         * The signature of a zip file's end of central directory record.
+         */
+        private static final int END_OF_CENTRAL_DIRECTORY = 0x06054b50;
+
+        /**
+         * The signature of a ZIP64 end of central directory locator.
+         */
+        private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR = 0x07064b50;
+
+        /**
+         * The length of a ZIP64 end of central directory locator.
+         */
+        private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_LENGTH = 20;
+
+        /**
+         * The signature of a central directory file header.
+         */
+        private static final int CENTRAL_DIRECTORY = 0x02014b50;
+
+        /**
+         * The signature of a local file header.
+         */
+        private static final int LOCAL_FILE_HEADER = 0x04034b50;
+
+        /**
+         * The minimal length of the end of central directory record.
+         */
+        private static final int END_OF_CENTRAL_DIRECTORY_LENGTH = 22;
+
+        /**
+         * The fixed length of a central directory file header.
+         */
+        private static final int CENTRAL_DIRECTORY_LENGTH = 46;
+
+        /**
+         * The fixed length of a local file header.
+         */
+        private static final int LOCAL_FILE_HEADER_LENGTH = 30;
+
+        /**
+         * The compression method of an entry that is stored without compression.
+         */
+        private static final int STORED = 0;
+
+        /**
+         * The compression method of an entry that is compressed using the deflate algorithm.
+         */
+        private static final int DEFLATED = 8;
+
+        /**
+         * The mapped jar file in little endian byte order. The position of this buffer is never altered.
+         */
+        private final ByteBuffer buffer;
+
+        /**
+         * A mapping of class file entry names to their entries.
+         */
+        private final Map<String, Entry> entries;
+
+        /**
+         * A queue of inflaters that are currently not used.
+         */
+        private final Queue<Inflation> inflations;
+
+        /**
+         * Creates a new class file locator for a memory-mapped jar file.
+         *
+         * @param file The jar file to map.
+         * @throws IOException If an I/O exception is thrown or if the jar file cannot be parsed.
+         */
+        public ForMappedJarFile(File file) throws IOException {
+            RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+            try {
+                FileChannel channel = randomAccessFile.getChannel();
+                if (channel.size() > Integer.MAX_VALUE) {
+                    throw new IOException("Cannot map file exceeding 2 GB: " + file);
+                }
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+            } finally {
+                randomAccessFile.close();
+            }
+            entries = toEntries(buffer, file);
+            inflations = new ConcurrentLinkedQueue<Inflation>();
+        }
+
+        /**
+         * Parses the central directory of a mapped jar file.
+         *
+         * @param buffer The mapped jar file.
+         * @param file   The jar file being parsed.
+         * @return A mapping of class file entry names to their entries.
+         * @throws IOException If the central directory cannot be parsed.
+         */
+        private static Map<String, Entry> toEntries(ByteBuffer buffer, File file) throws IOException {
+            int end = -1;
+            for (int position = buffer.limit() - END_OF_CENTRAL_DIRECTORY_LENGTH;
+                 position >= Math.max(0, buffer.limit() - END_OF_CENTRAL_DIRECTORY_LENGTH - 0xFFFF);
+                 position--) {
+                if (buffer.getInt(position) == END_OF_CENTRAL_DIRECTORY) {
+                    end = position;
+                    break;
+                }
+            }
+            if (end == -1) {
+                throw new IOException("Cannot locate central directory of: " + file);
+            }
+            if (end >= ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_LENGTH
+                    && buffer.getInt(end - ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_LENGTH) == ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR) {
+                throw new IOException("ZIP64 archives are not supported: " + file);
+            }
+            int count = buffer.getShort(end + 10) & 0xFFFF;
+            long offset = buffer.getInt(end + 16) & 0xFFFFFFFFL;
+            if (offset > end) {
+                throw new IOException("Malformed central directory of: " + file);
+            }
+            Map<String, Entry> entries = new HashMap<String, Entry>();
+            int position = (int) offset;
+            for (int index = 0; index < count; index++) {
+                if ((long) position + CENTRAL_DIRECTORY_LENGTH > buffer.limit() || buffer.getInt(position) != CENTRAL_DIRECTORY) {
+                    throw new IOException("Malformed central directory of: " + file);
+                }
+                int nameLength = buffer.getShort(position + 28) & 0xFFFF;
+                if ((long) position + CENTRAL_DIRECTORY_LENGTH + nameLength > buffer.limit()) {
+                    throw new IOException("Malformed central directory of: " + file);
+                }
+                byte[] name = new byte[nameLength];
+                ByteBuffer source = buffer.duplicate();
+                ((Buffer) source).position(position + CENTRAL_DIRECTORY_LENGTH);
+                source.get(name);
+                String entryName = new String(name, "UTF-8");
+                if (entryName.endsWith(CLASS_FILE_EXTENSION) && !entries.containsKey(entryName)) {
+                    long compressedSize = buffer.getInt(position + 20) & 0xFFFFFFFFL, size = buffer.getInt(position + 24) & 0xFFFFFFFFL;
+                    long header = buffer.getInt(position + 42) & 0xFFFFFFFFL;
+                    if (compressedSize == 0xFFFFFFFFL || size == 0xFFFFFFFFL || header == 0xFFFFFFFFL) {
+                        throw new IOException("ZIP64 archives are not supported: " + file);
+                    } else if (compressedSize > Integer.MAX_VALUE || size > Integer.MAX_VALUE || header + LOCAL_FILE_HEADER_LENGTH > buffer.limit()) {
+                        throw new IOException("Malformed central directory of: " + file);
+                    }
+                    entries.put(entryName, new Entry(buffer.getShort(position + 10) & 0xFFFF, (int) header, (int) compressedSize, (int) size));
+                }
+                position += CENTRAL_DIRECTORY_LENGTH
+                        + nameLength
+                        + (buffer.getShort(position + 30) & 0xFFFF)
+                        + (buffer.getShort(position + 32) & 0xFFFF);
+            }
+            return entries;
+        }
+
+        /**
+         * Returns the internal names of all class files that are contained in this jar file.
+         *
+         * @return The internal names of all class files that are contained in this jar file.
+         */
+        protected String[] getInternalNames() {
+            String[] internalNames = new String[entries.size()];
+            int index = 0;
+            for (String name : entries.keySet()) {
+                internalNames[index++] = name.substring(0, name.length() - CLASS_FILE_EXTENSION.length());
+            }
+            return internalNames;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public Resolution locate(String name) throws IOException {
+            Entry entry = entries.get(name.replace('.', '/') + CLASS_FILE_EXTENSION);
+            if (entry == null) {
+                return new Resolution.Illegal(name);
+            } else if (buffer.getInt(entry.header) != LOCAL_FILE_HEADER) {
+                throw new IOException("Malformed local file header for " + name);
+            }
+            long offset = (long) entry.header
+                    + LOCAL_FILE_HEADER_LENGTH
+                    + (buffer.getShort(entry.header + 26) & 0xFFFF)
+                    + (buffer.getShort(entry.header + 28) & 0xFFFF);
+            if (offset + (entry.method == STORED ? entry.size : entry.compressedSize) > buffer.limit()) {
+                throw new IOException("Truncated class file entry for " + name);
+            }
+            ByteBuffer source = buffer.duplicate();
+            ((Buffer) source).position((int) offset);
+            if (entry.method == STORED) {
+                ((Buffer) source).limit((int) offset + entry.size);
+                return new Resolution.ForByteBuffer(source.slice());
+            } else if (entry.method == DEFLATED) {
+                Inflation inflation = inflations.poll();
+                if (inflation == null) {
+                    inflation = new Inflation();
+                }
+                try {
+                    return new Resolution.Explicit(inflation.inflate(source, entry.compressedSize, entry.size));
+                } finally {
+                    inflations.add(inflation);
+                }
+            } else {
+                throw new IOException("Unsupported compression method " + entry.method + " for " + name);
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void close() {
+            Inflation inflation;
+            while ((inflation = inflations.poll()) != null) {
+                inflation.inflater.end();
+            }
+        }
+
+        /**
+         * An entry of a class file within a mapped jar file.
+         */
+        protected static class Entry {
+
+            /**
+             * The entry's compression method.
+             */
+            private final int method;
+
+            /**
+             * The offset of the entry's local file header.
+             */
+            private final int header;
+
+            /**
+             * The entry's compressed size.
+             */
+            private final int compressedSize;
+
+            /**
+             * The entry's uncompressed size.
+             */
+            private final int size;
+
+            /**
+             * Creates a new entry.
+             *
+             * @param method         The entry's compression method.
+             * @param header         The offset of the entry's local file header.
+             * @param compressedSize The entry's compressed size.
+             * @param size           The entry's uncompressed size.
+             */
+            protected Entry(int method, int header, int compressedSize, int size) {
+                this.method = method;
+                this.header = header;
+                this.compressedSize = compressedSize;
+                this.size = size;
+            }
+        }
+
+        /**
+         * A reusable inflater with an input buffer. An instance is not thread-safe.
+         */
+        protected static class Inflation {
+
+            /**
+             * The inflater to use.
+             */
+            private final Inflater inflater;
+
+            /**
+             * The input buffer of compressed data.
+             */
+            private byte[] input;
+
+            /**
+             * Creates a new inflation.
+             */
+            protected Inflation() {
+                inflater = new Inflater(true);
+                input = new byte[1024];
+            }
+
+            /**
+             * Inflates a compressed entry.
+             *
+             * @param source         The buffer positioned at the compressed data.
+             * @param compressedSize The size of the compressed data.
+             * @param size           The size of the uncompressed data.
+             * @return The uncompressed data.
+             * @throws IOException If the compressed data is malformed.
+             */
+            protected byte[] inflate(ByteBuffer source, int compressedSize, int size) throws IOException {
+                if (input.length < compressedSize + 1) {
+                    input = new byte[Math.max(compressedSize + 1, input.length * 2)];
+                }
+                source.get(input, 0, compressedSize);
+                input[compressedSize] = 0;
+                byte[] binaryRepresentation = new byte[size];
+                try {
+                    inflater.setInput(input, 0, compressedSize + 1);
+                    int offset = 0;
+                    while (offset < size) {
+                        int inflated = inflater.inflate(binaryRepresentation, offset, size - offset);
+                        if (inflated == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                            throw new IOException("Unexpected end of compressed data");
+                        }
+                        offset += inflated;
+                    }
+                } catch (DataFormatException exception) {
+                    throw new IOException("Malformed compressed data: " + exception.getMessage());
+                } finally {
+                    inflater.reset();
+                }
+                return binaryRepresentation;
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * A class file locator that reads class files from a memory-mapped archive of class files that was precomputed from a set of
+     * jar files, <i>jmod</i> files or folders, or from the runtime image of the current VM, for example from a JDK's modules and from
+     * an application's dependencies. Each archived class file only retains the metadata that is read by a
+     * {@link net.bytebuddy.pool.TypePool.Default} with a {@link net.bytebuddy.pool.TypePool.Default.ReaderMode#FAST} or
+     * {@link net.bytebuddy.pool.TypePool.Default.ReaderMode#LAZY} reader mode, i.e. a type's names, modifiers, super types, interfaces,
+     * annotations, generic signatures and member tokens, while code and debugging information are removed. Types are located by a
+     * binary search over the archive's sorted type names without reading the archive's entries upon creation.
+     * </p>
+     * <p>
+     * An archive avoids opening, reading and decompressing the archived jar files or runtime image. It is not an index of parsed
+     * types: a located class file is still parsed by a type pool when a type is described, what is only cheaper to the degree that a
+     * stripped class file is smaller than the original one.
+     * </p>
+     * <p>
+     * An archive is created by {@link ForClassFileArchive#write(File, List)}, by {@link ForClassFileArchive#writeRuntimeImage(File, List)}
+     * or by the {@link ClassFileArchiveTool}. If a type is contained in several archived sources, the first occurrence is retained,
+     * similarly to a class path.
+     * </p>
+     * <p>
+     * <b>Important</b>: As code and debugging information are removed, this locator must only be used for describing types, for
+     * example via {@link net.bytebuddy.pool.TypePool.Default#ofClassFileArchive(File)}, but never as a source of class files for a
+     * transformation, such as a rebasement or a redefinition, which would otherwise lose all method bodies. Located class files are
+     * therefore represented as {@link Resolution.ForStrippedClassFile} which Byte Buddy refuses to transform. Also, parameter names that
+     * are only contained in a method's local variable table cannot be resolved from an archive, also when using
+     * {@link net.bytebuddy.pool.TypePool.Default.ReaderMode#EXTENDED}. An archive must not exceed 2 GB. A mapping cannot be released
+     * explicitly and remains valid until the locator is garbage collected.
+     * </p>
+     */
+    class ForClassFileArchive implements ClassFileLocator {
+
+        /**
+         * The magic number of a class file archive.
+         */
+        private static final int MAGIC = 0xB1D1DE0F;
+
+        /**
+         * The version of the class file archive format.
+         */
+        private static final int VERSION = 1;
+
+        /**
+         * The length of a class file archive's header.
+         */
+        private static final int HEADER_LENGTH = 12;
+
+        /**
+         * The length of an entry within a class file archive's table.
+         */
+        private static final int ENTRY_LENGTH = 16;
+
+        /**
+         * The prefix of class files within a <i>jmod</i> file.
+         */
+        private static final String JMOD_PREFIX = "classes/";
+
+        /**
+         * The name of a module descriptor's class file.
+         */
+        private static final String MODULE_INFO = "module-info" + CLASS_FILE_EXTENSION;
+
+        /**
+         * The charset of the type names within a class file archive.
+         */
+        private static final String CHARSET = "UTF-8";
+
+        /**
+         * A dispatcher for {@code java.lang.module.ModuleFinder}.
+         */
+        private static final ModuleFinder MODULE_FINDER = doPrivileged(JavaDispatcher.of(ModuleFinder.class));
+
+        /**
+         * A dispatcher for {@code java.lang.module.ModuleReference}.
+         */
+        private static final ModuleReference MODULE_REFERENCE = doPrivileged(JavaDispatcher.of(ModuleReference.class));
+
+        /**
+         * A dispatcher for {@code java.lang.module.ModuleReader}.
+         */
+        private static final ModuleReader MODULE_READER = doPrivileged(JavaDispatcher.of(ModuleReader.class));
+
+        /**
+         * A dispatcher for {@code java.util.stream.Stream}.
+         */
+        private static final Stream STREAM = doPrivileged(JavaDispatcher.of(Stream.class));
+
+        /**
+         * A dispatcher for {@code java.util.Optional}.
+         */
+        private static final Optional OPTIONAL = doPrivileged(JavaDispatcher.of(Optional.class));
+
+        /**
+         * The mapped class file archive. The position of this buffer is never altered.
+         */
+        private final ByteBuffer buffer;
+
+        /**
+         * The number of types in this archive.
+         */
+        private final int size;
+
+        /**
+         * A description of the archive's origin for error messages.
+         */
+        private final String origin;
+
+        /**
+         * Creates a new class file locator for a class file archive.
+         *
+         * @param file The class file archive to map.
+         * @throws IOException If an I/O exception is thrown or if the file is not a valid class file archive.
+         */
+        public ForClassFileArchive(File file) throws IOException {
+            this(map(file), file.toString());
+        }
+
+        /**
+         * Creates a new class file locator for a class file archive that is represented by a buffer.
+         *
+         * @param buffer The buffer representing the archive. The position of this buffer is never altered.
+         * @param origin A description of the archive's origin for error messages.
+         * @throws IOException If the buffer does not represent a valid class file archive.
+         */
+        protected ForClassFileArchive(ByteBuffer buffer, String origin) throws IOException {
+            if (buffer.limit() < HEADER_LENGTH || buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a class file archive: " + origin);
+            } else if (buffer.getInt(4) != VERSION) {
+                throw new IOException("Unsupported class file archive version " + buffer.getInt(4) + ": " + origin);
+            }
+            this.buffer = buffer;
+            this.origin = origin;
+            size = buffer.getInt(8);
+            if (size < 0 || HEADER_LENGTH + (long) size * ENTRY_LENGTH > buffer.limit()) {
+                throw new IOException("Malformed class file archive: " + origin);
+            }
+        }
+
+        /**
+         * A proxy for {@code java.security.AccessController#doPrivileged} that is activated if available.
+         *
+         * @param action The action to execute from a privileged context.
+         * @param <T>    The type of the action's resolved value.
+         * @return The action's resolved value.
+         */
+        @AccessControllerPlugin.Enhance
+        private static <T> T doPrivileged(PrivilegedAction<T> action) {
+            return action.run();
+        }
+
+        /**
+         * Maps a file into memory.
+         *
+         * @param file The file to map.
+         * @return A read-only buffer representing the file's content.
+         * @throws IOException If an I/O exception is thrown or if the file exceeds 2 GB.
+         */
+        protected static ByteBuffer map(File file) throws IOException {
+            RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+            try {
+                FileChannel channel = randomAccessFile.getChannel();
+                if (channel.size() > Integer.MAX_VALUE) {
+                    throw new IOException("Cannot map file exceeding 2 GB: " + file);
+                }
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } finally {
+                randomAccessFile.close();
+            }
+        }
+
+        /**
+         * Writes a class file archive for the class files that are contained in the supplied jar files, <i>jmod</i> files or folders.
+         *
+         * @param file    The class file archive to write.
+         * @param sources The jar files, <i>jmod</i> files or folders to archive, in the order of their precedence.
+         * @throws IOException If an I/O exception is thrown.
+         */
+        public static void write(File file, List<? extends File> sources) throws IOException {
+            Map<String, byte[]> classFiles = new LinkedHashMap<String, byte[]>();
+            collect(sources, classFiles);
+            write(file, classFiles);
+        }
+
+        /**
+         * Writes a class file archive for the class files of the current VM's runtime image, i.e. of all system modules, followed by
+         * the class files that are contained in the supplied jar files, <i>jmod</i> files or folders. The runtime image is read via
+         * the module system's API what requires a VM of at least version 9.
+         *
+         * @param file    The class file archive to write.
+         * @param sources The jar files, <i>jmod</i> files or folders to archive after the runtime image, in the order of their precedence.
+         * @throws IOException If an I/O exception is thrown.
+         */
+        public static void writeRuntimeImage(File file, List<? extends File> sources) throws IOException {
+            if (!JavaModule.isSupported()) {
+                throw new IllegalStateException("The current VM does not provide a modular runtime image");
+            }
+            Map<String, byte[]> classFiles = new LinkedHashMap<String, byte[]>();
+            for (Object moduleReference : MODULE_FINDER.findAll(MODULE_FINDER.ofSystem())) {
+                Object moduleReader = MODULE_REFERENCE.open(moduleReference);
+                try {
+                    Iterator<?> iterator = STREAM.iterator(MODULE_READER.list(moduleReader));
+                    while (iterator.hasNext()) {
+                        String name = (String) iterator.next();
+                        if (isClassFile(name)) {
+                            InputStream inputStream = (InputStream) OPTIONAL.get(MODULE_READER.open(moduleReader, name));
+                            try {
+                                register(StreamDrainer.DEFAULT.drain(inputStream), classFiles);
+                            } finally {
+                                inputStream.close();
+                            }
+                        }
+                    }
+                } finally {
+                    ((Closeable) moduleReader).close();
+                }
+            }
+            collect(sources, classFiles);
+            write(file, classFiles);
+        }
+
+        /**
+         * Writes a class file archive for the supplied class files.
+         *
+         * @param file       The class file archive to write.
+         * @param classFiles A mapping of binary type names to their class files.
+         * @throws IOException If an I/O exception is thrown.
+         */
+        public static void write(File file, Map<String, byte[]> classFiles) throws IOException {
+            OutputStream outputStream = new FileOutputStream(file);
+            try {
+                write(outputStream, classFiles);
+            } finally {
+                outputStream.close();
+            }
+        }
+
+        /**
+         * Writes a class file archive for the supplied class files to an output stream.
+         *
+         * @param outputStream The output stream to write the archive to. The stream is not closed by this method.
+         * @param classFiles   A mapping of binary type names to their class files.
+         * @throws IOException If an I/O exception is thrown.
+         */
+        protected static void write(OutputStream outputStream, Map<String, byte[]> classFiles) throws IOException {
+            List<Entry> entries = new ArrayList<Entry>(classFiles.size());
+            long length = HEADER_LENGTH + (long) classFiles.size() * ENTRY_LENGTH;
+            for (Map.Entry<String, byte[]> entry : classFiles.entrySet()) {
+                byte[] name = entry.getKey().getBytes(CHARSET), binaryRepresentation = strip(entry.getValue());
+                entries.add(new Entry(name, binaryRepresentation));
+                length += name.length + binaryRepresentation.length;
+            }
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("Cannot write class file archive exceeding 2 GB");
+            }
+            Collections.sort(entries);
+            DataOutputStream dataOutputStream = new DataOutputStream(new BufferedOutputStream(outputStream));
+            dataOutputStream.writeInt(MAGIC);
+            dataOutputStream.writeInt(VERSION);
+            dataOutputStream.writeInt(entries.size());
+            int offset = HEADER_LENGTH + entries.size() * ENTRY_LENGTH;
+            for (Entry entry : entries) {
+                dataOutputStream.writeInt(offset);
+                dataOutputStream.writeInt(entry.name.length);
+                dataOutputStream.writeInt(offset + entry.name.length);
+                dataOutputStream.writeInt(entry.binaryRepresentation.length);
+                offset += entry.name.length + entry.binaryRepresentation.length;
+            }
+            for (Entry entry : entries) {
+                dataOutputStream.write(entry.name);
+                dataOutputStream.write(entry.binaryRepresentation);
+            }
+            dataOutputStream.flush();
+        }
+
+        /**
+         * Collects all class files of the supplied jar files, <i>jmod</i> files or folders.
+         *
+         * @param sources    The jar files, <i>jmod</i> files or folders to collect class files from, in the order of their precedence.
+         * @param classFiles A mapping of binary type names to their class files to which collected class files are added.
+         * @throws IOException If an I/O exception is thrown.
+         */
+        private static void collect(List<? extends File> sources, Map<String, byte[]> classFiles) throws IOException {
+            for (File source : sources) {
+                if (source.isDirectory()) {
+                    collect(source, classFiles);
+                } else {
+                    ZipFile zipFile = new ZipFile(source);
+                    try {
+                        Enumeration<? extends ZipEntry> enumeration = zipFile.entries();
+                        while (enumeration.hasMoreElements()) {
+                            ZipEntry zipEntry = enumeration.nextElement();
+                            String name = zipEntry.getName();
+                            if (name.startsWith(JMOD_PREFIX)) {
+                                name = name.substring(JMOD_PREFIX.length());
+                            }
+                            if (!zipEntry.isDirectory() && isClassFile(name)) {
+                                InputStream inputStream = zipFile.getInputStream(zipEntry);
+                                try {
+                                    register(StreamDrainer.DEFAULT.drain(inputStream), classFiles);
+                                } finally {
+                                    inputStream.close();
+                                }
+                            }
+                        }
+                    } finally {
+                        zipFile.close();
+                    }
+                }
+            }
+        }
+
+        /**
+         * Collects all class files of a folder.
+         *
+         * @param folder     The folder to collect class files from.
+         * @param classFiles A mapping of binary type names to their class files to which collected class files are added.
+         * @throws IOException If an I/O exception is thrown.
+         */
+        private static void collect(File folder, Map<String, byte[]> classFiles) throws IOException {
+            File[] file = folder.listFiles();
+            if (file != null) {
+                for (File aFile : file) {
+                    if (aFile.isDirectory()) {
+                        collect(aFile, classFiles);
+                    } else if (isClassFile(aFile.getName())) {
+                        InputStream inputStream = new FileInputStream(aFile);
+                        try {
+                            register(StreamDrainer.DEFAULT.drain(inputStream), classFiles);
+                        } finally {
+                            inputStream.close();
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Determines if a resource name represents a class file that is archived.
+         *
+         * @param name The resource name.
+         * @return {@code true} if the resource represents a class file that is archived.
+         */
+        private static boolean isClassFile(String name) {
+            return name.endsWith(CLASS_FILE_EXTENSION) && !name.endsWith(MODULE_INFO) && !name.startsWith("META-INF/");
+        }
+
+        /**
+         * Registers a class file by its type name if no class file of the same name was registered before.
+         *
+         * @param binaryRepresentation The class file to register.
+         * @param classFiles           A mapping of binary type names to their class files.
+         */
+        private static void register(byte[] binaryRepresentation, Map<String, byte[]> classFiles) {
+            String name = OpenedClassReader.of(binaryRepresentation).getClassName().replace('/', '.');
+            if (!classFiles.containsKey(name)) {
+                classFiles.put(name, binaryRepresentation);
+            }
+        }
+
+        /**
+         * Removes code and debugging information from a class file.
+         *
+         * @param binaryRepresentation The class file to strip.
+         * @return A class file that only contains the class file's metadata.
+         */
+        private static byte[] strip(byte[] binaryRepresentation) {
+            ClassWriter classWriter = new ClassWriter(0);
+            OpenedClassReader.of(binaryRepresentation).accept(classWriter, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG);
+            return classWriter.toByteArray();
+        }
+
+        /**
+         * Returns the number of types in this archive.
+         *
+         * @return The number of types in this archive.
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public Resolution locate(String name) throws IOException {
+            byte[] target = name.getBytes(CHARSET);
+            int low = 0, high = size - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1, entry = HEADER_LENGTH + middle * ENTRY_LENGTH;
+                int comparison = compare(check(buffer.getInt(entry), buffer.getInt(entry + 4)), buffer.getInt(entry + 4), target);
+                if (comparison < 0) {
+                    low = middle + 1;
+                } else if (comparison > 0) {
+                    high = middle - 1;
+                } else {
+                    ByteBuffer source = buffer.duplicate();
+                    int offset = check(buffer.getInt(entry + 8), buffer.getInt(entry + 12));
+                    ((Buffer) source).position(offset);
+                    ((Buffer) source).limit(offset + buffer.getInt(entry + 12));
+                    return new Resolution.ForStrippedClassFile(source.slice());
+                }
+            }
+            return new Resolution.Illegal(name);
+        }
+
+        /**
+         * Validates that a region that is referenced by an entry of this archive's table is contained in the data section of the archive.
+         *
+         * @param offset The offset of the region.
+         * @param length The length of the region.
+         * @return The offset of the region.
+         * @throws IOException If the region is not contained in the data section of the archive.
+         */
+        private int check(int offset, int length) throws IOException {
+            if (offset < HEADER_LENGTH + size * ENTRY_LENGTH || length < 0 || (long) offset + length > buffer.limit()) {
+                throw new IOException("Malformed class file archive: " + origin);
+            }
+            return offset;
+        }
+
+        /**
+         * Compares an archived type name with a target name by the unsigned values of their encoded bytes.
+         *
+         * @param offset The offset of the archived name.
+         * @param length The length of the archived name.
+         * @param target The encoded target name.
+         * @return A negative number, zero or a positive number if the archived name is smaller, equal or larger than the target name.
+         */
+        private int compare(int offset, int length, byte[] target) {
+            for (int index = 0; index < Math.min(length, target.length); index++) {
+                int comparison = (buffer.get(offset + index) & 0xFF) - (target[index] & 0xFF);
+                if (comparison != 0) {
+                    return comparison;
+                }
+            }
+            return length - target.length;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void close() {
+            /* do nothing */
+        }
+
+        /**
+         * An entry of a class file archive that is written.
+         */
+        protected static class Entry implements Comparable<Entry> {
+
+            /**
+             * The encoded type name.
+             */
+            private final byte[] name;
+
+            /**
+             * The stripped class file.
+             */
+            private final byte[] binaryRepresentation;
+
+            /**
+             * Creates a new entry.
+             *
+             * @param name                 The encoded type name.
+             * @param binaryRepresentation The stripped class file.
+             */
+            protected Entry(byte[] name, byte[] binaryRepresentation) {
+                this.name = name;
+                this.binaryRepresentation = binaryRepresentation;
+            }
+
+            /**
+             * Compares this entry's name with the name of another entry by the unsigned values of their bytes.
+             *
+             * @param other The other entry.
+             * @return A negative number, zero or a positive number if this entry's name is smaller, equal or larger than the other entry's name.
+             */
+            public int compareTo(Entry other) {
+                for (int index = 0; index < Math.min(name.length, other.name.length); index++) {
+                    int comparison = (name[index] & 0xFF) - (other.name[index] & 0xFF);
+                    if (comparison != 0) {
+                        return comparison;
+                    }
+                }
+                return name.length - other.name.length;
+            }
+        }
+
+        /**
+         * A dispatcher for {@code java.lang.module.ModuleFinder}.
+         */
+        @JavaDispatcher.Proxied("java.lang.module.ModuleFinder")
+        protected interface ModuleFinder {
+
+            /**
+             * Returns a module finder for the system modules of the current VM's runtime image.
+             *
+             * @return A {@code java.lang.module.ModuleFinder} for the system modules.
+             */
+            @JavaDispatcher.IsStatic
+            Object ofSystem();
+
+            /**
+             * Returns all module references that are found by a module finder.
+             *
+             * @param value The {@code java.lang.module.ModuleFinder} to query.
+             * @return A set of {@code java.lang.module.ModuleReference}s.
+             */
+            Set<?> findAll(Object value);
+        }
+
+        /**
+         * A dispatcher for {@code java.lang.module.ModuleReference}.
+         */
+        @JavaDispatcher.Proxied("java.lang.module.ModuleReference")
+        protected interface ModuleReference {
+
+            /**
+             * Opens a module's content for reading.
+             *
+             * @param value The {@code java.lang.module.ModuleReference} to open.
+             * @return A {@code java.lang.module.ModuleReader} which is {@link Closeable}.
+             * @throws IOException If an I/O exception occurs.
+             */
+            Object open(Object value) throws IOException;
+        }
+
+        /**
+         * A dispatcher for {@code java.lang.module.ModuleReader}.
+         */
+        @JavaDispatcher.Proxied("java.lang.module.ModuleReader")
+        protected interface ModuleReader {
+
+            /**
+             * Lists the names of all resources of a module.
+             *
+             * @param value The {@code java.lang.module.ModuleReader} to query.
+             * @return A {@code java.util.stream.Stream} of resource names.
+             * @throws IOException If an I/O exception occurs.
              */
-            public Resolution locate(String name) throws IOException {
-                Object module = get();
-                return module == null
-                        ? new Resolution.Illegal(name)
-                        : ForModule.locate(JavaModule.of(module), name);
-            }
+            Object list(Object value) throws IOException;
 
             /**
-             * {@inheritDoc}
+             * Opens a resource of a module.
+             *
+             * @param value The {@code java.lang.module.ModuleReader} to query.
+             * @param name  The name of the resource.
+             * @return A {@code java.util.Optional} of an {@link InputStream}.
+             * @throws IOException If an I/O exception occurs.
              */
-            public void close() {
-                /* do nothing */
-            }
+            Object open(Object value, String name) throws IOException;
+        }
+
+        /**
+         * A dispatcher for {@code java.util.stream.Stream}.
+         */
+        @JavaDispatcher.Proxied("java.util.stream.Stream")
+        protected interface Stream {
 
             /**
-             * {@inheritDoc}
+             * Returns an iterator over a stream's elements.
+             *
+             * @param value The {@code java.util.stream.Stream} to iterate.
+             * @return An iterator over the stream's elements.
              */
-            public int hashCode() {
-                return hashCode;
-            }
+            Iterator<?> iterator(Object value);
+        }
+
+        /**
+         * A dispatcher for {@code java.util.Optional}.
+         */
+        @JavaDispatcher.Proxied("java.util.Optional")
+        protected interface Optional {
 
             /**
-             * {@inheritDoc}
+             * Returns an optional's value.
+             *
+             * @param value The {@code java.util.Optional} to resolve.
+             * @return The optional's value.
              */
-            public boolean equals(@MaybeNull Object other) {
-                if (this == other) {
-                    return true;
-                } else if (other == null || getClass() != other.getClass()) {
-                    return false;
-                }
-                WeaklyReferenced weaklyReferenced = (WeaklyReferenced) other;
-                Object module = weaklyReferenced.get();
-                return module != null && get() == module;
-            }
+            Object get(Object value);
         }
     }
 
     /**
-     * A class file locator that locates classes within a Java <i>jar</i> file.
+     * <p>
+     * A class file locator that reads class files from a memory-mapped snapshot of the types that a type pool resolved from a class
+     * path, for example during a previous run of an application or of a build. Similarly to a {@link ForClassFileArchive}, only the metadata
+     * of each class file is retained and located class files are represented as {@link Resolution.ForStrippedClassFile}. Class files
+     * are grouped by the jar file from which they were read, together with this jar file's length and modification time. Additionally,
+     * a snapshot records all other jar files and folders of the class path. Upon creation, groups are considered in the order of the
+     * supplied class path but only until the first element of the class path that was not recorded by the snapshot or that was changed
+     * since the snapshot was written, as this element might contain any type of a subsequent group. Types are located lazily by a
+     * binary search over each group's sorted type names.
+     * </p>
+     * <p>
+     * A snapshot is created by {@link ForSnapshotFile#write(File, Collection, List)}, for example from the resolved types of a
+     * {@link net.bytebuddy.pool.TypePool.CacheProvider.Simple}. Types that are contained in folders of the class path are not
+     * included in a snapshot as a folder does not indicate changes of its content reliably. A snapshot locator should be combined
+     * with a locator for the actual class path as it does not locate types that were not included in the snapshot or whose jar file
+     * was changed.
+     * </p>
+     * <p>
+     * <b>Important</b>: Changes of the content of a folder are not detected such that a type that is added to a folder of the class
+     * path might be shadowed by a type of the snapshot. The same restrictions as for a {@link ForClassFileArchive} apply.
+     * </p>
      */
-    @HashCodeAndEqualsPlugin.Enhance
-    class ForJarFile implements ClassFileLocator {
+    class ForSnapshotFile implements ClassFileLocator {
 
         /**
-         * A list of potential locations of the runtime jar for different platforms.
+         * The magic number of a snapshot file.
          */
-        private static final List<String> RUNTIME_LOCATIONS = Arrays.asList("lib/rt.jar", "../lib/rt.jar", "../Classes/classes.jar");
+        private static final int MAGIC = 0xB1D15AB5;
 
         /**
-         * The jar file to read from.
+         * The version of the snapshot file format.
          */
-        private final JarFile jarFile;
+        private static final int VERSION = 2;
 
         /**
-         * Creates a new class file locator for the given jar file.
-         *
-         * @param jarFile The jar file to read from.
+         * The length that is recorded for a folder of the class path.
          */
-        public ForJarFile(JarFile jarFile) {
-            this.jarFile = jarFile;
-        }
+        private static final long FOLDER = -1L;
 
         /**
-         * Creates a new class file locator for the given jar file.
-         *
-         * @param file The jar file to read from.
-         * @return A class file locator for the jar file.
-         * @throws IOException If an I/O exception is thrown.
+         * The length of a snapshot file's header.
          */
-        public static ClassFileLocator of(File file) throws IOException {
-            return new ForJarFile(new JarFile(file));
+        private static final int HEADER_LENGTH = 12;
+
+        /**
+         * The length of a section's description within a snapshot file's header, excluding the jar file's path.
+         */
+        private static final int SECTION_LENGTH = 28;
+
+        /**
+         * The charset of the jar file paths within a snapshot file.
+         */
+        private static final String CHARSET = "UTF-8";
+
+        /**
+         * The indices of all valid sections of the snapshot in the order of the class path.
+         */
+        private final List<ForClassFileArchive> sections;
+
+        /**
+         * Creates a new class file locator for a snapshot file.
+         *
+         * @param file      The snapshot file to map.
+         * @param classPath The current class path.
+         * @throws IOException If an I/O exception is thrown or if the file is not a valid snapshot file.
+         */
+        public ForSnapshotFile(File file, List<? extends File> classPath) throws IOException {
+            ByteBuffer buffer = ForClassFileArchive.map(file);
+            if (buffer.limit() < HEADER_LENGTH || buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a snapshot file: " + file);
+            } else if (buffer.getInt(4) != VERSION) {
+                throw new IOException("Unsupported snapshot file version " + buffer.getInt(4) + ": " + file);
+            }
+            Map<String, ForClassFileArchive> sections = new HashMap<String, ForClassFileArchive>();
+            int count = buffer.getInt(8), position = HEADER_LENGTH;
+            for (int index = 0; index < count; index++) {
+                if (position + SECTION_LENGTH > buffer.limit()) {
+                    throw new IOException("Malformed snapshot file: " + file);
+                }
+                int length = buffer.getInt(position);
+                if (length < 0 || position + SECTION_LENGTH + (long) length > buffer.limit()) {
+                    throw new IOException("Malformed snapshot file: " + file);
+                }
+                byte[] path = new byte[length];
+                ByteBuffer source = buffer.duplicate();
+                ((Buffer) source).position(position + 4);
+                source.get(path);
+                position += 4 + length;
+                long size = buffer.getLong(position), lastModified = buffer.getLong(position + 8);
+                int offset = buffer.getInt(position + 16), limit = buffer.getInt(position + 20);
+                position += SECTION_LENGTH - 4;
+                if (offset < 0 || limit < 0 || (long) offset + limit > buffer.limit()) {
+                    throw new IOException("Malformed snapshot file: " + file);
+                }
+                File jar = new File(new String(path, CHARSET));
+                if (size == FOLDER
+                        ? jar.isDirectory()
+                        : jar.isFile() && jar.length() == size && jar.lastModified() == lastModified) {
+                    ((Buffer) source).position(offset);
+                    ((Buffer) source).limit(offset + limit);
+                    sections.put(jar.getAbsolutePath(), new ForClassFileArchive(source.slice(), file + " (" + jar + ")"));
+                }
+            }
+            this.sections = new ArrayList<ForClassFileArchive>(sections.size());
+            for (File element : classPath) {
+                if (!element.exists()) {
+                    continue;
+                }
+                ForClassFileArchive section = sections.remove(element.getAbsolutePath());
+                if (section == null) {
+                    break;
+                }
+                this.sections.add(section);
+            }
         }
 
         /**
-         * Resolves a class file locator for the class path that reads class files directly from the file system. The resulting
-         * class file locator does not imply classes on the boot path.
+         * Resolves a class file locator for a snapshot file if it exists.
          *
-         * @return A class file locator for the class path.
-         * @throws IOException If an I/O exception occurs.
+         * @param file      The snapshot file to map.
+         * @param classPath The current class path.
+         * @return A class file locator for the snapshot file or a no-op class file locator if the file does not exist.
+         * @throws IOException If an I/O exception is thrown or if the file is not a valid snapshot file.
          */
-        public static ClassFileLocator ofClassPath() throws IOException {
-            return ofClassPath(System.getProperty("java.class.path"));
+        public static ClassFileLocator of(File file, List<? extends File> classPath) throws IOException {
+            return file.isFile()
+                    ? new ForSnapshotFile(file, classPath)
+                    : NoOp.INSTANCE;
         }
 
         /**
-         * <p>
-         * Resolves a class file locator for the class path that reads class files directly from the file system.
-         * </p>
-         * <p>
-         * <b>Note</b>: The resulting class file locator does not include classes of the bootstrap class loader.
-         * </p>
+         * Writes a snapshot file of the types of the supplied names that are contained in the jar files of the supplied class path.
+         * Names of types that are not contained in any jar file of the class path or that are first contained in a folder of the
+         * class path are ignored. All jar files and folders of the class path are recorded, also if they do not contain any of the
+         * included types.
          *
-         * @param classPath The class path to scan with the elements separated by {@code path.separator}.
-         * @return A class file locator for the class path.
-         * @throws IOException If an I/O exception occurs.
+         * @param file      The snapshot file to write.
+         * @param names     The binary names of the types to include.
+         * @param classPath The class path from which the types were resolved, in the order of its precedence.
+         * @throws IOException If an I/O exception is thrown.
          */
-        public static ClassFileLocator ofClassPath(String classPath) throws IOException {
-            List<ClassFileLocator> classFileLocators = new ArrayList<ClassFileLocator>();
-            for (String element : Pattern.compile(System.getProperty("path.separator"), Pattern.LITERAL).split(classPath)) {
-                File file = new File(element);
-                if (file.isDirectory()) {
-                    classFileLocators.add(new ForFolder(file));
-                } else if (file.isFile()) {
-                    classFileLocators.add(of(file));
+        public static void write(File file, Collection<String> names, List<? extends File> classPath) throws IOException {
+            Set<String> pending = new HashSet<String>(names);
+            List<File> elements = new ArrayList<File>(classPath.size());
+            List<byte[]> paths = new ArrayList<byte[]>(classPath.size());
+            List<byte[]> indices = new ArrayList<byte[]>(classPath.size());
+            long length = HEADER_LENGTH;
+            for (File element : classPath) {
+                if (!element.exists()) {
+                    continue;
+                }
+                Map<String, byte[]> classFiles = new HashMap<String, byte[]>();
+                if (element.isFile() && !pending.isEmpty()) {
+                    ZipFile zipFile = new ZipFile(element);
+                    try {
+                        Iterator<String> iterator = pending.iterator();
+                        while (iterator.hasNext()) {
+                            String name = iterator.next();
+                            ZipEntry zipEntry = zipFile.getEntry(name.replace('.', '/') + CLASS_FILE_EXTENSION);
+                            if (zipEntry != null) {
+                                InputStream inputStream = zipFile.getInputStream(zipEntry);
+                                try {
+                                    classFiles.put(name, StreamDrainer.DEFAULT.drain(inputStream));
+                                } finally {
+                                    inputStream.close();
+                                }
+                                iterator.remove();
+                            }
+                        }
+                    } finally {
+                        zipFile.close();
+                    }
+                } else if (element.isDirectory()) {
+                    Iterator<String> iterator = pending.iterator();
+                    while (iterator.hasNext()) {
+                        if (new File(element, iterator.next().replace('.', File.separatorChar) + CLASS_FILE_EXTENSION).isFile()) {
+                            iterator.remove();
+                        }
+                    }
                 }
+                ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+                ForClassFileArchive.write(outputStream, classFiles);
+                byte[] path = element.getAbsolutePath().getBytes(CHARSET), index = outputStream.toByteArray();
+                elements.add(element);
+                paths.add(path);
+                indices.add(index);
+                length += SECTION_LENGTH + path.length + index.length;
+            }
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("Cannot write snapshot exceeding 2 GB: " + file);
+            }
+            DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+            try {
+                outputStream.writeInt(MAGIC);
+                outputStream.writeInt(VERSION);
+                outputStream.writeInt(elements.size());
+                int offset = HEADER_LENGTH;
+                for (byte[] path : paths) {
+                    offset += SECTION_LENGTH + path.length;
+                }
+                for (int index = 0; index < elements.size(); index++) {
+                    outputStream.writeInt(paths.get(index).length);
+                    outputStream.write(paths.get(index));
+                    outputStream.writeLong(elements.get(index).isDirectory() ? FOLDER : elements.get(index).length());
+                    outputStream.writeLong(elements.get(index).lastModified());
+                    outputStream.writeInt(offset);
+                    outputStream.writeInt(indices.get(index).length);
+                    offset += indices.get(index).length;
+                }
+                for (byte[] index : indices) {
+                    outputStream.write(index);
+                }
+            } finally {
+                outputStream.close();
             }
-            return new Compound(classFileLocators);
         }
 
         /**
-         * Resolves a class file locator for the runtime jar. If such a file does not exist or cannot be located, a runtime exception is thrown.
+         * Returns the number of types that are located by this snapshot, considering only groups that are valid for the current class path.
          *
-         * @return A class file locator for the runtime jar, if available.
-         * @throws IOException If an I/O exception occurs.
+         * @return The number of types that are located by this snapshot.
          */
-        public static ClassFileLocator ofRuntimeJar() throws IOException {
-            String javaHome = System.getProperty("java.home").replace('\\', '/');
-            File runtimeJar = null;
-            for (String location : RUNTIME_LOCATIONS) {
-                File candidate = new File(javaHome, location);
-                if (candidate.isFile()) {
-                    runtimeJar = candidate;
-                    break;
-                }
-            }
-            if (runtimeJar == null) {
-                throw new IllegalStateException("Runtime jar does not exist in " + javaHome + " for any of " + RUNTIME_LOCATIONS);
+        public int size() {
+            int size = 0;
+            for (ForClassFileArchive section : sections) {
+                size += section.size();
             }
-            return of(runtimeJar);
+            return size;
         }
 
         /**
          * {@inheritDoc}
          */
         public Resolution locate(String name) throws IOException {
-            ZipEntry zipEntry = jarFile.getEntry(name.replace('.', '/') + CLASS_FILE_EXTENSION);
-            if (zipEntry == null) {
-                return new Resolution.Illegal(name);
-            } else {
-                InputStream inputStream = jarFile.getInputStream(zipEntry);
-                try {
-                    return new Resolution.Explicit(StreamDrainer.DEFAULT.drain(inputStream));
-                } finally {
-                    inputStream.close();
+            for (ForClassFileArchive section : sections) {
+                Resolution resolution = section.locate(name);
+                if (resolution.isResolved()) {
+                    return resolution;
                 }
             }
+            return new Resolution.Illegal(name);
         }
 
         /**
          * {@inheritDoc}
          */
-        public void close() throws IOException {
-            jarFile.close();
+        public void close() {
+            /* do nothing */
         }
     }
 
@@ -1947,5 +3191,222 @@ public interface ClassFileLocator extends Closeable {
                 classFileLocator.close();
             }
         }
+
+        /**
+         * <p>
+         * A compound class file locator that indexes the class files of all {@link ForJarFile}, {@link ForMappedJarFile} and {@link ForFolder} delegates
+         * once, such that a class file is read from the first delegate that contains it by a single lookup rather than by querying
+         * each delegate. Any other delegate is queried in its position within the chain, as for a regular {@link Compound} locator.
+         * </p>
+         * <p>
+         * <b>Important</b>: Jar files are not expected to change while they are opened. The contents of folders might however change
+         * what requires to call {@link Indexed#invalidate()} to rescan all {@link ForFolder} delegates. If an indexed class file is
+         * removed from a folder without invalidation, any later delegate is queried in order.
+         * </p>
+         */
+        public static class Indexed implements ClassFileLocator, Closeable {
+
+            /**
+             * Indicates that a type is not contained in any indexed class file locator.
+             */
+            private static final int UNINDEXED = Integer.MAX_VALUE;
+
+            /**
+             * The prefix of jar file entries that are not considered as class files of the jar file's class path.
+             */
+            private static final String META_INF = "META-INF/";
+
+            /**
+             * The class file locators in the order of their application.
+             */
+            private final List<ClassFileLocator> classFileLocators;
+
+            /**
+             * The internal names of all class files of a class file locator by its index or {@code null} if a class file locator
+             * is not indexed.
+             */
+            private final String[][] internalNames;
+
+            /**
+             * The indices of all class file locators that are not indexed and that need to be queried in order.
+             */
+            private final int[] unindexed;
+
+            /**
+             * A mapping of internal names to the index of the first class file locator that contains a class file of this name.
+             */
+            private volatile Map<String, Integer> index;
+
+            /**
+             * Creates a new indexed compound class file locator.
+             *
+             * @param classFileLocator The {@link ClassFileLocator}s to be represented by this compound class file locator in the
+             *                         order of their application.
+             * @throws IOException If an I/O exception occurs when indexing a class file locator.
+             */
+            public Indexed(ClassFileLocator... classFileLocator) throws IOException {
+                this(Arrays.asList(classFileLocator));
+            }
+
+            /**
+             * Creates a new indexed compound class file locator.
+             *
+             * @param classFileLocators The {@link ClassFileLocator}s to be represented by this compound class file locator in
+             *                          the order of their application.
+             * @throws IOException If an I/O exception occurs when indexing a class file locator.
+             */
+            public Indexed(List<? extends ClassFileLocator> classFileLocators) throws IOException {
+                this.classFileLocators = new Compound(classFileLocators).classFileLocators;
+                internalNames = new String[this.classFileLocators.size()][];
+                List<Integer> unindexed = new ArrayList<Integer>();
+                for (int index = 0; index < this.classFileLocators.size(); index++) {
+                    ClassFileLocator classFileLocator = this.classFileLocators.get(index);
+                    if (classFileLocator instanceof ForJarFile) {
+                        internalNames[index] = scan(((ForJarFile) classFileLocator).jarFile);
+                    } else if (classFileLocator instanceof ForMappedJarFile) {
+                        internalNames[index] = ((ForMappedJarFile) classFileLocator).getInternalNames();
+                    } else if (classFileLocator instanceof ForFolder) {
+                        internalNames[index] = scan(((ForFolder) classFileLocator).folder);
+                    } else {
+                        unindexed.add(index);
+                    }
+                }
+                this.unindexed = new int[unindexed.size()];
+                for (int index = 0; index < unindexed.size(); index++) {
+                    this.unindexed[index] = unindexed.get(index);
+                }
+                this.index = toIndex(internalNames);
+            }
+
+            /**
+             * Resolves the internal names of all class files within a jar file.
+             *
+             * @param jarFile The jar file to scan.
+             * @return The internal names of all class files within the jar file.
+             */
+            private static String[] scan(JarFile jarFile) {
+                List<String> internalNames = new ArrayList<String>();
+                Enumeration<JarEntry> entries = jarFile.entries();
+                while (entries.hasMoreElements()) {
+                    JarEntry entry = entries.nextElement();
+                    String name = entry.getName();
+                    if (!entry.isDirectory() && name.endsWith(CLASS_FILE_EXTENSION) && !name.startsWith(META_INF)) {
+                        internalNames.add(name.substring(0, name.length() - CLASS_FILE_EXTENSION.length()));
+                    }
+                }
+                return internalNames.toArray(new String[0]);
+            }
+
+            /**
+             * Resolves the internal names of all class files within a folder.
+             *
+             * @param folder The folder to scan.
+             * @return The internal names of all class files within the folder.
+             * @throws IOException If the folder cannot be read.
+             */
+            private static String[] scan(File folder) throws IOException {
+                List<String> internalNames = new ArrayList<String>();
+                if (folder.isDirectory()) {
+                    Queue<File> queue = new LinkedList<File>(Collections.singleton(folder));
+                    String prefix = folder.getPath() + File.separatorChar;
+                    while (!queue.isEmpty()) {
+                        File[] file = queue.remove().listFiles();
+                        if (file == null) {
+                            throw new IOException("Cannot list files of folder: " + folder);
+                        }
+                        for (File candidate : file) {
+                            if (candidate.isDirectory()) {
+                                queue.add(candidate);
+                            } else if (candidate.getName().endsWith(CLASS_FILE_EXTENSION)) {
+                                String path = candidate.getPath();
+                                internalNames.add(path.substring(prefix.length(), path.length() - CLASS_FILE_EXTENSION.length()).replace(File.separatorChar, '/'));
+                            }
+                        }
+                    }
+                }
+                return internalNames.toArray(new String[0]);
+            }
+
+            /**
+             * Creates an index of internal names to the index of the first class file locator that contains a class file of this name.
+             *
+             * @param internalNames The internal names of all class files of a class file locator by its index.
+             * @return A mapping of internal names to the index of the first class file locator that contains the type.
+             */
+            private static Map<String, Integer> toIndex(String[][] internalNames) {
+                int size = 0;
+                for (String[] names : internalNames) {
+                    size += names == null ? 0 : names.length;
+                }
+                Map<String, Integer> index = new HashMap<String, Integer>(Math.max(16, (int) (size / 0.75f) + 1));
+                for (int ordinal = internalNames.length - 1; ordinal >= 0; ordinal--) {
+                    if (internalNames[ordinal] != null) {
+                        Integer value = ordinal;
+                        for (String name : internalNames[ordinal]) {
+                            index.put(name, value);
+                        }
+                    }
+                }
+                return index;
+            }
+
+            /**
+             * Rescans all {@link ForFolder} class file locators for changes of their contents.
+             *
+             * @throws IOException If an I/O exception occurs when scanning a folder.
+             */
+            public synchronized void invalidate() throws IOException {
+                boolean changed = false;
+                for (int index = 0; index < classFileLocators.size(); index++) {
+                    ClassFileLocator classFileLocator = classFileLocators.get(index);
+                    if (classFileLocator instanceof ForFolder) {
+                        internalNames[index] = scan(((ForFolder) classFileLocator).folder);
+                        changed = true;
+                    }
+                }
+                if (changed) {
+                    index = toIndex(internalNames);
+                }
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public Resolution locate(String name) throws IOException {
+                Integer indexed = index.get(name.replace('.', '/'));
+                int ordinal = indexed == null ? UNINDEXED : indexed;
+                for (int candidate : unindexed) {
+                    if (candidate > ordinal) {
+                        break;
+                    }
+                    Resolution resolution = classFileLocators.get(candidate).locate(name);
+                    if (resolution.isResolved()) {
+                        return resolution;
+                    }
+                }
+                if (indexed != null) {
+                    Resolution resolution = classFileLocators.get(ordinal).locate(name);
+                    if (resolution.isResolved()) {
+                        return resolution;
+                    }
+                    for (int candidate = ordinal + 1; candidate < classFileLocators.size(); candidate++) {
+                        resolution = classFileLocators.get(candidate).locate(name);
+                        if (resolution.isResolved()) {
+                            return resolution;
+                        }
+                    }
+                }
+                return new Resolution.Illegal(name);
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public void close() throws IOException {
+                for (ClassFileLocator classFileLocator : classFileLocators) {
+                    classFileLocator.close();
+                }
+            }
+        }
     }
 }
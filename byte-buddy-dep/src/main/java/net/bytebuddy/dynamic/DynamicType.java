@@ -1523,6 +1523,16 @@ public interface DynamicType extends ClassFileLocator {
          */
         TypeDescription toTypeDescription();
 
+        /**
+         * Determines if this builder is known to create a class file that is equivalent to the class file of the type it
+         * was created for, i.e. if no member is instrumented, no member or auxiliary type is added and no ASM visitor wrapper
+         * applies to any member of the type. This check is conservative: if a builder cannot determine this property without
+         * creating the type, {@code false} is returned.
+         *
+         * @return {@code true} if this builder is known to not alter its type.
+         */
+        boolean isUnmodified();
+
         /**
          * An inner type definition for defining a type that is contained within another type, method or constructor.
          *
@@ -3739,6 +3749,13 @@ public interface DynamicType extends ClassFileLocator {
                 return make(TypeResolutionStrategy.Passive.INSTANCE);
             }
 
+            /**
+             * {@inheritDoc}
+             */
+            public boolean isUnmodified() {
+                return false;
+            }
+
             /**
              * A delegator for a dynamic type builder delegating all invocations to another dynamic type builder.
              *
@@ -4019,6 +4036,13 @@ public interface DynamicType extends ClassFileLocator {
                     return materialize().toTypeDescription();
                 }
 
+                /**
+                 * {@inheritDoc}
+                 */
+                public boolean isUnmodified() {
+                    return materialize().isUnmodified();
+                }
+
                 /**
                  * Creates a new builder that realizes the current state of the builder.
                  *
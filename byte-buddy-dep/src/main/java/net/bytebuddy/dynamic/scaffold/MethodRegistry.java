@@ -346,6 +346,14 @@ public interface MethodRegistry {
          */
         TypeInitializer getTypeInitializer();
 
+        /**
+         * Determines if this prepared method registry does not implement any method, including the type initializer, and
+         * if the instrumented type does not define any initialization logic.
+         *
+         * @return {@code true} if this prepared method registry does not alter any method of the instrumented type.
+         */
+        boolean isEmpty();
+
         /**
          * Compiles this prepared method registry.
          *
@@ -726,6 +734,13 @@ public interface MethodRegistry {
                 return new MethodList.Explicit<MethodDescription>(new ArrayList<MethodDescription>(implementations.keySet())).filter(not(isTypeInitializer()));
             }
 
+            /**
+             * {@inheritDoc}
+             */
+            public boolean isEmpty() {
+                return implementations.isEmpty() && !typeInitializer.isDefined() && !loadedTypeInitializer.isAlive();
+            }
+
             /**
              * {@inheritDoc}
              */
@@ -4006,7 +4006,11 @@ public interface TypeWriter<T> {
                 try {
                     int writerFlags = asmVisitorWrapper.mergeWriter(AsmVisitorWrapper.NO_FLAGS);
                     int readerFlags = asmVisitorWrapper.mergeReader(AsmVisitorWrapper.NO_FLAGS);
-                    byte[] binaryRepresentation = classFileLocator.locate(originalType.getName()).resolve();
+                    ClassFileLocator.Resolution resolution = classFileLocator.locate(originalType.getName());
+                    if (resolution instanceof ClassFileLocator.Resolution.ForStrippedClassFile) {
+                        throw new IllegalStateException("Cannot transform " + originalType + " from a class file without code, such as from an index file");
+                    }
+                    byte[] binaryRepresentation = resolution.resolve();
                     dispatcher.dump(instrumentedType, true, binaryRepresentation);
                     ClassReader classReader = OpenedClassReader.of(binaryRepresentation);
                     ClassWriter classWriter = classWriterStrategy.resolve(writerFlags, typePool, classReader);
@@ -17,8 +17,11 @@ package net.bytebuddy.dynamic.scaffold.inline;
 
 import net.bytebuddy.ClassFileVersion;
 import net.bytebuddy.asm.AsmVisitorWrapper;
+import net.bytebuddy.build.CachedReturnPlugin;
 import net.bytebuddy.build.HashCodeAndEqualsPlugin;
+import net.bytebuddy.description.field.FieldDescription;
 import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.type.RecordComponentDescription;
 import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.dynamic.ClassFileLocator;
 import net.bytebuddy.dynamic.DynamicType;
@@ -115,6 +118,65 @@ public abstract class AbstractInliningDynamicTypeBuilder<T> extends DynamicType.
         this.classFileLocator = classFileLocator;
     }
 
+    @Override
+    public boolean isUnmodified() {
+        if (!auxiliaryTypes.isEmpty()
+                || !instrumentedType.getName().equals(originalType.getName())
+                || instrumentedType.getModifiers() != originalType.getModifiers()
+                || instrumentedType.getInterfaces().size() != originalType.getInterfaces().size()
+                || instrumentedType.getTypeVariables().size() != originalType.getTypeVariables().size()
+                || instrumentedType.getDeclaredAnnotations().size() != originalType.getDeclaredAnnotations().size()
+                || instrumentedType.getDeclaredFields().size() != originalType.getDeclaredFields().size()
+                || instrumentedType.getDeclaredMethods().size() != originalType.getDeclaredMethods().size()
+                || instrumentedType.getRecordComponents().size() != originalType.getRecordComponents().size()
+                || instrumentedType.getDeclaredTypes().size() != originalType.getDeclaredTypes().size()
+                || instrumentedType.getNestMembers().size() != originalType.getNestMembers().size()
+                || instrumentedType.getPermittedSubtypes().size() != originalType.getPermittedSubtypes().size()
+                || !instrumentedType.getNestHost().equals(originalType.getNestHost())
+                || !(typeAttributeAppender.equals(TypeAttributeAppender.ForInstrumentedType.INSTANCE)
+                || typeAttributeAppender.equals(new TypeAttributeAppender.ForInstrumentedType.Differentiating(originalType)))
+                || !(asmVisitorWrapper instanceof AsmVisitorWrapper.Selective)) {
+            return false;
+        }
+        MethodRegistry.Prepared methodRegistry = prepare();
+        if (!methodRegistry.isEmpty()
+                || methodRegistry.getInstrumentedType().getDeclaredFields().size() != originalType.getDeclaredFields().size()
+                || methodRegistry.getInstrumentedType().getDeclaredMethods().size() != originalType.getDeclaredMethods().size()
+                || ((AsmVisitorWrapper.Selective) asmVisitorWrapper).isApplicable(methodRegistry.getInstrumentedType(),
+                methodRegistry.getInstrumentedType().getDeclaredFields(),
+                methodRegistry.getMethods())) {
+            return false;
+        }
+        FieldRegistry.Compiled fieldPool = fieldRegistry.compile(methodRegistry.getInstrumentedType());
+        for (FieldDescription fieldDescription : methodRegistry.getInstrumentedType().getDeclaredFields()) {
+            if (!fieldPool.target(fieldDescription).isImplicit()) {
+                return false;
+            }
+        }
+        RecordComponentRegistry.Compiled recordComponentPool = recordComponentRegistry.compile(methodRegistry.getInstrumentedType());
+        for (RecordComponentDescription recordComponentDescription : methodRegistry.getInstrumentedType().getRecordComponents()) {
+            if (!recordComponentPool.target(recordComponentDescription).isImplicit()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Prepares the method registry of this builder. As a builder is immutable, the prepared registry is retained such that
+     * it is only computed once if this builder is both checked for being unmodified and made.
+     *
+     * @return The prepared method registry of this builder.
+     */
+    @CachedReturnPlugin.Enhance("prepared")
+    protected MethodRegistry.Prepared prepare() {
+        return methodRegistry.prepare(instrumentedType,
+                methodGraphCompiler,
+                typeValidation,
+                visibilityBridgeStrategy,
+                InliningImplementationMatcher.of(ignoredMethods, originalType));
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -21,6 +21,7 @@ import net.bytebuddy.build.HashCodeAndEqualsPlugin;
 import net.bytebuddy.description.annotation.AnnotationDescription;
 import net.bytebuddy.description.field.FieldDescription;
 import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.method.MethodList;
 import net.bytebuddy.description.modifier.ModifierContributor;
 import net.bytebuddy.description.type.RecordComponentDescription;
 import net.bytebuddy.description.type.TypeDefinition;
@@ -515,4 +516,18 @@ public class DecoratingDynamicTypeBuilder<T> extends DynamicType.Builder.Abstrac
     public TypeDescription toTypeDescription() {
         return instrumentedType;
     }
+
+    @Override
+    public boolean isUnmodified() {
+        return auxiliaryTypes.isEmpty()
+                && (typeAttributeAppender.equals(TypeAttributeAppender.ForInstrumentedType.INSTANCE)
+                || typeAttributeAppender.equals(new TypeAttributeAppender.ForInstrumentedType.Differentiating(instrumentedType)))
+                && asmVisitorWrapper instanceof AsmVisitorWrapper.Selective
+                && !((AsmVisitorWrapper.Selective) asmVisitorWrapper).isApplicable(instrumentedType,
+                instrumentedType.getDeclaredFields(),
+                new MethodList.Explicit<MethodDescription>(CompoundList.of(methodGraphCompiler.compile((TypeDefinition) instrumentedType)
+                        .listNodes()
+                        .asMethodList()
+                        .filter(not(ignoredMethods.resolve(instrumentedType))), instrumentedType.getDeclaredMethods().filter(not(isVirtual())))));
+    }
 }
@@ -217,11 +217,7 @@ public class RebaseDynamicTypeBuilder<T> extends AbstractInliningDynamicTypeBuil
      * {@inheritDoc}
      */
     protected TypeWriter<T> toTypeWriter(TypePool typePool) {
-        MethodRegistry.Prepared methodRegistry = this.methodRegistry.prepare(instrumentedType,
-                methodGraphCompiler,
-                typeValidation,
-                visibilityBridgeStrategy,
-                InliningImplementationMatcher.of(ignoredMethods, originalType));
+        MethodRegistry.Prepared methodRegistry = prepare();
         HashSet<MethodDescription.SignatureToken> rebaseables = new HashSet<MethodDescription.SignatureToken>(
                 originalType.getDeclaredMethods().asSignatureTokenList(is(originalType), instrumentedType));
         rebaseables.retainAll(methodRegistry.getInstrumentedMethods().asSignatureTokenList());
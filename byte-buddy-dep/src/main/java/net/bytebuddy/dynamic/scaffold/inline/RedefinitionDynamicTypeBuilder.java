@@ -200,11 +200,7 @@ public class RedefinitionDynamicTypeBuilder<T> extends AbstractInliningDynamicTy
      * {@inheritDoc}
      */
     protected TypeWriter<T> toTypeWriter(TypePool typePool) {
-        MethodRegistry.Prepared methodRegistry = this.methodRegistry.prepare(instrumentedType,
-            methodGraphCompiler,
-            typeValidation,
-            visibilityBridgeStrategy,
-            InliningImplementationMatcher.of(ignoredMethods, originalType));
+        MethodRegistry.Prepared methodRegistry = prepare();
         return TypeWriter.Default.<T>forRedefinition(methodRegistry,
                 auxiliaryTypes,
                 fieldRegistry.compile(methodRegistry.getInstrumentedType()),
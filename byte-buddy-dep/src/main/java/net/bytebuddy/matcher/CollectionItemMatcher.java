@@ -40,6 +40,15 @@ public class CollectionItemMatcher<T> extends ElementMatcher.Junction.ForNonNull
         this.matcher = matcher;
     }
 
+    /**
+     * Returns the element matcher to apply to each element of a collection.
+     *
+     * @return The element matcher to apply to each element of a collection.
+     */
+    ElementMatcher<? super T> getMatcher() {
+        return matcher;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -41,6 +41,15 @@ public class DeclaringAnnotationMatcher<T extends AnnotationSource> extends Elem
         this.matcher = matcher;
     }
 
+    /**
+     * Returns the matcher to be applied to the provided annotation list.
+     *
+     * @return The matcher to be applied to the provided annotation list.
+     */
+    ElementMatcher<? super AnnotationList> getMatcher() {
+        return matcher;
+    }
+
     /**
      * {@inheritDoc}
      */
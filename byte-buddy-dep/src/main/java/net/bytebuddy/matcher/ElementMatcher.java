@@ -138,6 +138,15 @@ public interface ElementMatcher<T> {
                 }
             }
 
+            /**
+             * Returns the element matchers that constitute this conjunction.
+             *
+             * @return The element matchers that constitute this conjunction.
+             */
+            List<ElementMatcher<? super W>> getMatchers() {
+                return matchers;
+            }
+
             /**
              * {@inheritDoc}
              */
@@ -206,6 +215,15 @@ public interface ElementMatcher<T> {
                 }
             }
 
+            /**
+             * Returns the element matchers that constitute this disjunction.
+             *
+             * @return The element matchers that constitute this disjunction.
+             */
+            List<ElementMatcher<? super W>> getMatchers() {
+                return matchers;
+            }
+
             /**
              * {@inheritDoc}
              */
@@ -43,6 +43,15 @@ public class ErasureMatcher<T extends TypeDefinition> extends ElementMatcher.Jun
         this.matcher = matcher;
     }
 
+    /**
+     * Returns the matcher to apply to the raw type of the matched element.
+     *
+     * @return The matcher to apply to the raw type of the matched element.
+     */
+    ElementMatcher<? super TypeDescription> getMatcher() {
+        return matcher;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -46,6 +46,15 @@ public class HasSuperTypeMatcher<T extends TypeDescription> extends ElementMatch
         this.matcher = matcher;
     }
 
+    /**
+     * Returns the matcher to apply to any super type of the matched type.
+     *
+     * @return The matcher to apply to any super type of the matched type.
+     */
+    ElementMatcher<? super TypeDescription.Generic> getMatcher() {
+        return matcher;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -39,6 +39,15 @@ public class StringSetMatcher extends ElementMatcher.Junction.ForNonNullValues<S
         this.values = values;
     }
 
+    /**
+     * Returns the values to check against.
+     *
+     * @return The values to check against.
+     */
+    Set<String> getValues() {
+        return values;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,416 @@
+/*
+ * Copyright 2014 - Present Rafael Winterhalter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.bytebuddy.matcher;
+
+import net.bytebuddy.build.HashCodeAndEqualsPlugin;
+import net.bytebuddy.description.annotation.AnnotationDescription;
+import net.bytebuddy.description.type.TypeDefinition;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.utility.QueueFactory;
+import net.bytebuddy.utility.nullability.MaybeNull;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * <p>
+ * An index over a list of type matchers that narrows down the matchers that can possibly match a given type without
+ * applying any of them. For each matcher, the index considers a set of {@link Key}s of which at least one must apply to
+ * a type for the matcher to match this type. Such a requirement is derived from the structure of matchers that are
+ * created by {@link ElementMatchers#named(String)}, {@link ElementMatchers#namedOneOf(String...)},
+ * {@link ElementMatchers#nameStartsWith(String)}, {@link ElementMatchers#is(TypeDescription)},
+ * {@link ElementMatchers#isAnnotatedWith(ElementMatcher)} and {@link ElementMatchers#hasSuperType(ElementMatcher)} and
+ * any conjunction or disjunction of those. Matchers without such a requirement are considered a candidate for any type.
+ * </p>
+ * <p>
+ * <b>Important</b>: The index only excludes matchers that cannot match a type. Any candidate matcher must still be applied.
+ * </p>
+ */
+public class TypeMatcherIndex {
+
+    /**
+     * The indices of all matchers that do not declare a requirement.
+     */
+    private final BitSet unconstrained;
+
+    /**
+     * A mapping of exact type names to the indices of the matchers that require them.
+     */
+    private final Map<String, BitSet> names;
+
+    /**
+     * A mapping of type name prefixes to the indices of the matchers that require them.
+     */
+    private final Map<String, BitSet> prefixes;
+
+    /**
+     * The distinct lengths of all registered prefixes in ascending order.
+     */
+    private final int[] prefixLengths;
+
+    /**
+     * A mapping of the names of declared annotation types to the indices of the matchers that require them.
+     */
+    private final Map<String, BitSet> annotations;
+
+    /**
+     * A mapping of the names of super types to the indices of the matchers that require them.
+     */
+    private final Map<String, BitSet> superTypes;
+
+    /**
+     * Creates a new type matcher index.
+     *
+     * @param requirements The requirements of the indexed matchers in their application order where a {@code null}
+     *                     value represents a matcher without a requirement.
+     */
+    public TypeMatcherIndex(List<? extends Set<Key>> requirements) {
+        unconstrained = new BitSet(requirements.size());
+        names = new HashMap<String, BitSet>();
+        prefixes = new HashMap<String, BitSet>();
+        annotations = new HashMap<String, BitSet>();
+        superTypes = new HashMap<String, BitSet>();
+        Set<Integer> prefixLengths = new TreeSet<Integer>();
+        int index = 0;
+        for (Set<Key> requirement : requirements) {
+            if (requirement == null) {
+                unconstrained.set(index);
+            } else {
+                for (Key key : requirement) {
+                    Map<String, BitSet> keys;
+                    if (key.getSort() == Key.Sort.NAME) {
+                        keys = names;
+                    } else if (key.getSort() == Key.Sort.PREFIX) {
+                        keys = prefixes;
+                        prefixLengths.add(key.getValue().length());
+                    } else if (key.getSort() == Key.Sort.ANNOTATION) {
+                        keys = annotations;
+                    } else {
+                        keys = superTypes;
+                    }
+                    BitSet indices = keys.get(key.getValue());
+                    if (indices == null) {
+                        indices = new BitSet(requirements.size());
+                        keys.put(key.getValue(), indices);
+                    }
+                    indices.set(index);
+                }
+            }
+            index++;
+        }
+        this.prefixLengths = new int[prefixLengths.size()];
+        index = 0;
+        for (int prefixLength : prefixLengths) {
+            this.prefixLengths[index++] = prefixLength;
+        }
+    }
+
+    /**
+     * Resolves the requirement of a matcher for a {@link TypeDescription}.
+     *
+     * @param matcher The matcher to resolve.
+     * @return A set of keys of which at least one must apply to a type that is matched or {@code null} if the matcher does not declare a requirement.
+     */
+    @MaybeNull
+    public static Set<Key> of(ElementMatcher<?> matcher) {
+        if (matcher instanceof ElementMatcher.Junction.Conjunction<?>) {
+            return conjunction(of(((ElementMatcher.Junction.Conjunction<?>) matcher).getMatchers()));
+        } else if (matcher instanceof ElementMatcher.Junction.Disjunction<?>) {
+            return disjunction(of(((ElementMatcher.Junction.Disjunction<?>) matcher).getMatchers()));
+        } else if (matcher instanceof NameMatcher<?>) {
+            return ofName(((NameMatcher<?>) matcher).getMatcher());
+        } else if (matcher instanceof EqualityMatcher<?> && ((EqualityMatcher<?>) matcher).getValue() instanceof TypeDescription) {
+            Set<Key> keys = new HashSet<Key>();
+            keys.add(new Key(Key.Sort.NAME, ((TypeDescription) ((EqualityMatcher<?>) matcher).getValue()).getActualName()));
+            return keys;
+        } else if (matcher instanceof DeclaringAnnotationMatcher<?>) {
+            Object annotationsMatcher = ((DeclaringAnnotationMatcher<?>) matcher).getMatcher();
+            return annotationsMatcher instanceof CollectionItemMatcher<?> && ((CollectionItemMatcher<?>) annotationsMatcher).getMatcher() instanceof AnnotationTypeMatcher<?>
+                    ? of(((AnnotationTypeMatcher<?>) ((CollectionItemMatcher<?>) annotationsMatcher).getMatcher()).getMatcher(), Key.Sort.ANNOTATION)
+                    : null;
+        } else if (matcher instanceof HasSuperTypeMatcher<?> && ((HasSuperTypeMatcher<?>) matcher).getMatcher() instanceof ErasureMatcher<?>) {
+            return of(((ErasureMatcher<?>) ((HasSuperTypeMatcher<?>) matcher).getMatcher()).getMatcher(), Key.Sort.SUPER_TYPE);
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Resolves the requirement of a matcher for a type's name.
+     *
+     * @param matcher The matcher to resolve.
+     * @return A set of keys of which at least one must apply to a type that is matched or {@code null} if the matcher does not declare a requirement.
+     */
+    @MaybeNull
+    public static Set<Key> ofName(ElementMatcher<?> matcher) {
+        if (matcher instanceof ElementMatcher.Junction.Conjunction<?>) {
+            return conjunction(ofName(((ElementMatcher.Junction.Conjunction<?>) matcher).getMatchers()));
+        } else if (matcher instanceof ElementMatcher.Junction.Disjunction<?>) {
+            return disjunction(ofName(((ElementMatcher.Junction.Disjunction<?>) matcher).getMatchers()));
+        } else if (matcher instanceof StringMatcher && ((StringMatcher) matcher).getMode() == StringMatcher.Mode.EQUALS_FULLY) {
+            Set<Key> keys = new HashSet<Key>();
+            keys.add(new Key(Key.Sort.NAME, ((StringMatcher) matcher).getValue()));
+            return keys;
+        } else if (matcher instanceof StringMatcher && ((StringMatcher) matcher).getMode() == StringMatcher.Mode.STARTS_WITH) {
+            Set<Key> keys = new HashSet<Key>();
+            keys.add(new Key(Key.Sort.PREFIX, ((StringMatcher) matcher).getValue()));
+            return keys;
+        } else if (matcher instanceof StringSetMatcher) {
+            Set<Key> keys = new HashSet<Key>();
+            for (String value : ((StringSetMatcher) matcher).getValues()) {
+                keys.add(new Key(Key.Sort.NAME, value));
+            }
+            return keys;
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Resolves the requirement of a matcher for a type that is related to the matched type, such as an annotation type or a super type.
+     *
+     * @param matcher The matcher to resolve.
+     * @param sort    The sort of the keys that represent the related type.
+     * @return A set of keys of which at least one must apply to a type that is matched or {@code null} if the matcher does not declare a requirement.
+     */
+    @MaybeNull
+    private static Set<Key> of(ElementMatcher<?> matcher, Key.Sort sort) {
+        Set<Key> keys = of(matcher);
+        if (keys == null) {
+            return null;
+        }
+        Set<Key> resolved = new HashSet<Key>();
+        for (Key key : keys) {
+            if (key.getSort() != Key.Sort.NAME) {
+                return null;
+            }
+            resolved.add(new Key(sort, key.getValue()));
+        }
+        return resolved;
+    }
+
+    /**
+     * Resolves the requirements of a list of matchers for a {@link TypeDescription}.
+     *
+     * @param matchers The matchers to resolve.
+     * @return A list of the resolved requirements.
+     */
+    private static List<Set<Key>> of(List<? extends ElementMatcher<?>> matchers) {
+        List<Set<Key>> requirements = new ArrayList<Set<Key>>(matchers.size());
+        for (ElementMatcher<?> matcher : matchers) {
+            requirements.add(of(matcher));
+        }
+        return requirements;
+    }
+
+    /**
+     * Resolves the requirements of a list of matchers for a type's name.
+     *
+     * @param matchers The matchers to resolve.
+     * @return A list of the resolved requirements.
+     */
+    private static List<Set<Key>> ofName(List<? extends ElementMatcher<?>> matchers) {
+        List<Set<Key>> requirements = new ArrayList<Set<Key>>(matchers.size());
+        for (ElementMatcher<?> matcher : matchers) {
+            requirements.add(ofName(matcher));
+        }
+        return requirements;
+    }
+
+    /**
+     * Resolves the requirement of a conjunction. Any requirement of a conjunction's elements is also a requirement of the conjunction
+     * such that the requirement that is cheapest to evaluate is chosen.
+     *
+     * @param requirements The requirements of the conjunction's elements where {@code null} represents an element without a requirement.
+     * @return The requirement of the conjunction or {@code null} if no element declares a requirement.
+     */
+    @MaybeNull
+    public static Set<Key> conjunction(List<? extends Set<Key>> requirements) {
+        Set<Key> resolved = null;
+        int cost = Integer.MAX_VALUE;
+        for (Set<Key> requirement : requirements) {
+            if (requirement != null) {
+                int candidate = -1;
+                for (Key key : requirement) {
+                    candidate = Math.max(candidate, key.getSort().ordinal());
+                }
+                if (candidate < cost || candidate == cost && requirement.size() < resolved.size()) {
+                    resolved = requirement;
+                    cost = candidate;
+                }
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * Resolves the requirement of a disjunction. A disjunction only declares a requirement if all of its elements declare a
+     * requirement, where the disjunction requires any of these requirements.
+     *
+     * @param requirements The requirements of the disjunction's elements where {@code null} represents an element without a requirement.
+     * @return The requirement of the disjunction or {@code null} if any element does not declare a requirement.
+     */
+    @MaybeNull
+    public static Set<Key> disjunction(List<? extends Set<Key>> requirements) {
+        Set<Key> resolved = new HashSet<Key>();
+        for (Set<Key> requirement : requirements) {
+            if (requirement == null) {
+                return null;
+            }
+            resolved.addAll(requirement);
+        }
+        return resolved;
+    }
+
+    /**
+     * Resolves the indices of all matchers that can possibly match the supplied type.
+     *
+     * @param typeDescription A description of the type to match.
+     * @return The indices of all matchers that can possibly match the supplied type.
+     */
+    public BitSet candidates(TypeDescription typeDescription) {
+        BitSet candidates = (BitSet) unconstrained.clone();
+        String name = typeDescription.getActualName();
+        merge(candidates, names, name);
+        for (int prefixLength : prefixLengths) {
+            if (prefixLength > name.length()) {
+                break;
+            }
+            merge(candidates, prefixes, name.substring(0, prefixLength));
+        }
+        if (!annotations.isEmpty()) {
+            for (AnnotationDescription annotationDescription : typeDescription.getDeclaredAnnotations()) {
+                merge(candidates, annotations, annotationDescription.getAnnotationType().getActualName());
+            }
+        }
+        if (!superTypes.isEmpty()) {
+            Set<TypeDescription> previous = new HashSet<TypeDescription>();
+            for (TypeDefinition typeDefinition : typeDescription) {
+                if (!previous.add(typeDefinition.asErasure())) {
+                    break;
+                }
+                merge(candidates, superTypes, typeDefinition.asErasure().getActualName());
+                Queue<TypeDefinition> interfaceTypes = QueueFactory.<TypeDefinition>make(typeDefinition.getInterfaces());
+                while (!interfaceTypes.isEmpty()) {
+                    TypeDefinition interfaceType = interfaceTypes.remove();
+                    if (previous.add(interfaceType.asErasure())) {
+                        merge(candidates, superTypes, interfaceType.asErasure().getActualName());
+                        interfaceTypes.addAll(interfaceType.getInterfaces());
+                    }
+                }
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Adds the indices that are registered for a given key to a set of candidates.
+     *
+     * @param candidates The candidates to amend.
+     * @param keys       The registered keys.
+     * @param value      The key's value.
+     */
+    private static void merge(BitSet candidates, Map<String, BitSet> keys, String value) {
+        BitSet indices = keys.get(value);
+        if (indices != null) {
+            candidates.or(indices);
+        }
+    }
+
+    /**
+     * A key that describes a property of a type.
+     */
+    @HashCodeAndEqualsPlugin.Enhance
+    public static class Key {
+
+        /**
+         * The sort of this key.
+         */
+        private final Sort sort;
+
+        /**
+         * The key's value.
+         */
+        private final String value;
+
+        /**
+         * Creates a new key.
+         *
+         * @param sort  The sort of this key.
+         * @param value The key's value.
+         */
+        public Key(Sort sort, String value) {
+            this.sort = sort;
+            this.value = value;
+        }
+
+        /**
+         * Returns the sort of this key.
+         *
+         * @return The sort of this key.
+         */
+        public Sort getSort() {
+            return sort;
+        }
+
+        /**
+         * Returns the key's value.
+         *
+         * @return The key's value.
+         */
+        public String getValue() {
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return sort + "(" + value + ")";
+        }
+
+        /**
+         * Describes the sort of a key in the order of the cost to evaluate it.
+         */
+        public enum Sort {
+
+            /**
+             * A key that describes the exact name of a type.
+             */
+            NAME,
+
+            /**
+             * A key that describes a prefix of a type's name.
+             */
+            PREFIX,
+
+            /**
+             * A key that describes the name of an annotation that is declared by a type.
+             */
+            ANNOTATION,
+
+            /**
+             * A key that describes the name of a type's super type, including the type itself.
+             */
+            SUPER_TYPE
+        }
+    }
+}
@@ -61,18 +61,35 @@ import org.objectweb.asm.signature.SignatureReader;
 import org.objectweb.asm.signature.SignatureVisitor;
 
 import javax.annotation.Nonnull;
+import java.io.File;
 import java.io.IOException;
 import java.lang.annotation.Annotation;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
 import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.GenericSignatureFormatError;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static net.bytebuddy.matcher.ElementMatchers.hasDescriptor;
@@ -367,6 +384,25 @@ public interface TypePool {
                 return storage;
             }
 
+            /**
+             * Writes a snapshot of all resolved types of this cache that are contained in the jar files of the supplied class path.
+             * The snapshot can be read by a {@link ClassFileLocator.ForSnapshotFile} to avoid reading these types from the class
+             * path when a type pool is created for the same class path again.
+             *
+             * @param file      The snapshot file to write.
+             * @param classPath The class path from which the types of this cache were resolved, in the order of its precedence.
+             * @throws IOException If an I/O exception is thrown.
+             */
+            public void snapshot(File file, List<? extends File> classPath) throws IOException {
+                List<String> names = new ArrayList<String>(storage.size());
+                for (Map.Entry<String, Resolution> entry : storage.entrySet()) {
+                    if (entry.getValue().isResolved()) {
+                        names.add(entry.getKey());
+                    }
+                }
+                ClassFileLocator.ForSnapshotFile.write(file, names, classPath);
+            }
+
             /**
              * A {@link Simple} cache provider that clears its storage if the heap is filled, by using a soft reference.
              */
@@ -486,6 +522,362 @@ public interface TypePool {
                 }
             }
         }
+
+        /**
+         * <p>
+         * A thread-safe cache provider that retains a bounded number of resolutions. Each resolution is assigned a weight by
+         * a {@link Weigher} and resolutions are evicted once the summed weight exceeds a maximum. By default, each resolution
+         * is weighted as a single entry such that the cache is bounded by its number of entries.
+         * </p>
+         * <p>
+         * Eviction is frequency-aware by applying a generalized clock algorithm: every successful lookup increments a saturating
+         * counter of the looked-up resolution without acquiring a lock. When evicting, resolutions are visited in their order of
+         * registration where a resolution with a positive counter is retained once with a decremented counter, before a resolution
+         * without any recent lookup is removed. As a result, frequently used types such as {@link Object} are retained in favor of
+         * types that are only described once.
+         * </p>
+         */
+        class Bounded implements CacheProvider {
+
+            /**
+             * The maximum frequency that is recorded for a resolution.
+             */
+            private static final int MAXIMUM_FREQUENCY = 3;
+
+            /**
+             * The maximum number of misses for which the load time is tracked concurrently.
+             */
+            private static final int MAXIMUM_PENDING = 1024;
+
+            /**
+             * The maximum weight of all retained resolutions.
+             */
+            private final long maximumWeight;
+
+            /**
+             * The weigher to use for determining the weight of a resolution.
+             */
+            private final Weigher weigher;
+
+            /**
+             * A map containing all cached entries by their names.
+             */
+            private final ConcurrentMap<String, Entry> entries;
+
+            /**
+             * A map of the nano time of a cache-miss for names that were not yet registered.
+             */
+            private final ConcurrentMap<String, Long> pending;
+
+            /**
+             * All retained entries in their order of consideration for eviction. Access requires to lock this instance.
+             */
+            private final Queue<Entry> clock;
+
+            /**
+             * The current weight of all retained entries. Access requires to lock this instance.
+             */
+            private long weight;
+
+            /**
+             * The number of successful lookups.
+             */
+            private final AtomicLong hits;
+
+            /**
+             * The number of unsuccessful lookups.
+             */
+            private final AtomicLong misses;
+
+            /**
+             * The number of evicted resolutions.
+             */
+            private final AtomicLong evictions;
+
+            /**
+             * The number of registered resolutions.
+             */
+            private final AtomicLong loads;
+
+            /**
+             * The total time in nanoseconds between a cache-miss and the registration of a resolution.
+             */
+            private final AtomicLong loadTime;
+
+            /**
+             * Creates a new bounded cache provider that retains a maximum number of resolutions.
+             *
+             * @param maximumSize The maximum number of resolutions to retain.
+             */
+            public Bounded(long maximumSize) {
+                this(maximumSize, Weigher.ForEntry.INSTANCE);
+            }
+
+            /**
+             * Creates a new bounded cache provider.
+             *
+             * @param maximumWeight The maximum weight of all retained resolutions.
+             * @param weigher       The weigher to use for determining the weight of a resolution.
+             */
+            public Bounded(long maximumWeight, Weigher weigher) {
+                if (maximumWeight < 1) {
+                    throw new IllegalArgumentException("Maximum weight must be positive: " + maximumWeight);
+                }
+                this.maximumWeight = maximumWeight;
+                this.weigher = weigher;
+                entries = new ConcurrentHashMap<String, Entry>();
+                pending = new ConcurrentHashMap<String, Long>();
+                clock = new LinkedList<Entry>();
+                hits = new AtomicLong();
+                misses = new AtomicLong();
+                evictions = new AtomicLong();
+                loads = new AtomicLong();
+                loadTime = new AtomicLong();
+            }
+
+            /**
+             * Returns a bounded cache provider that is prepopulated with the {@link Object} type.
+             *
+             * @param maximumSize The maximum number of resolutions to retain.
+             * @return A bounded cache provider that is prepopulated with the {@link Object} type.
+             */
+            public static CacheProvider withObjectType(long maximumSize) {
+                return withObjectType(maximumSize, Weigher.ForEntry.INSTANCE);
+            }
+
+            /**
+             * Returns a bounded cache provider that is prepopulated with the {@link Object} type.
+             *
+             * @param maximumWeight The maximum weight of all retained resolutions.
+             * @param weigher       The weigher to use for determining the weight of a resolution.
+             * @return A bounded cache provider that is prepopulated with the {@link Object} type.
+             */
+            public static CacheProvider withObjectType(long maximumWeight, Weigher weigher) {
+                CacheProvider cacheProvider = new Bounded(maximumWeight, weigher);
+                cacheProvider.register(Object.class.getName(), new Resolution.Simple(TypeDescription.ForLoadedType.of(Object.class)));
+                return cacheProvider;
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            @MaybeNull
+            public Resolution find(String name) {
+                Entry entry = entries.get(name);
+                if (entry == null) {
+                    misses.incrementAndGet();
+                    if (pending.size() < MAXIMUM_PENDING) {
+                        pending.putIfAbsent(name, System.nanoTime());
+                    }
+                    return UNRESOLVED;
+                } else {
+                    hits.incrementAndGet();
+                    entry.touch();
+                    return entry.resolution;
+                }
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public Resolution register(String name, Resolution resolution) {
+                Long started = pending.remove(name);
+                Entry entry = new Entry(name, resolution, weigher.weigh(name, resolution)), previous = entries.putIfAbsent(name, entry);
+                if (previous != null) {
+                    previous.touch();
+                    return previous.resolution;
+                }
+                loads.incrementAndGet();
+                if (started != null) {
+                    loadTime.addAndGet(System.nanoTime() - started);
+                }
+                synchronized (this) {
+                    if (entries.get(name) == entry) {
+                        clock.add(entry);
+                        weight += entry.weight;
+                        while (weight > maximumWeight) {
+                            Entry candidate = clock.remove();
+                            if (candidate.frequency > 0) {
+                                candidate.frequency--;
+                                clock.add(candidate);
+                            } else {
+                                weight -= candidate.weight;
+                                if (entries.remove(candidate.name, candidate)) {
+                                    evictions.incrementAndGet();
+                                }
+                            }
+                        }
+                    }
+                }
+                return resolution;
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            public synchronized void clear() {
+                entries.clear();
+                pending.clear();
+                clock.clear();
+                weight = 0;
+            }
+
+            /**
+             * Returns the number of currently retained resolutions.
+             *
+             * @return The number of currently retained resolutions.
+             */
+            public int getSize() {
+                return entries.size();
+            }
+
+            /**
+             * Returns the summed weight of all currently retained resolutions.
+             *
+             * @return The summed weight of all currently retained resolutions.
+             */
+            public synchronized long getWeight() {
+                return weight;
+            }
+
+            /**
+             * Returns the maximum weight of all retained resolutions.
+             *
+             * @return The maximum weight of all retained resolutions.
+             */
+            public long getMaximumWeight() {
+                return maximumWeight;
+            }
+
+            /**
+             * Returns the number of lookups that found a resolution.
+             *
+             * @return The number of lookups that found a resolution.
+             */
+            public long getHitCount() {
+                return hits.get();
+            }
+
+            /**
+             * Returns the number of lookups that did not find a resolution.
+             *
+             * @return The number of lookups that did not find a resolution.
+             */
+            public long getMissCount() {
+                return misses.get();
+            }
+
+            /**
+             * Returns the number of resolutions that were evicted to retain the maximum weight.
+             *
+             * @return The number of resolutions that were evicted to retain the maximum weight.
+             */
+            public long getEvictionCount() {
+                return evictions.get();
+            }
+
+            /**
+             * Returns the number of resolutions that were registered.
+             *
+             * @return The number of resolutions that were registered.
+             */
+            public long getLoadCount() {
+                return loads.get();
+            }
+
+            /**
+             * Returns the total time in nanoseconds between a lookup that did not find a resolution and the registration of the
+             * type's resolution. For a lazy type pool, this only includes the time until a type's lazy resolution is registered.
+             *
+             * @return The total load time in nanoseconds.
+             */
+            public long getTotalLoadTime() {
+                return loadTime.get();
+            }
+
+            /**
+             * A weigher determines the weight of a resolution that is registered in a {@link Bounded} cache provider.
+             */
+            public interface Weigher {
+
+                /**
+                 * Determines the weight of a resolution.
+                 *
+                 * @param name       The name of the resolved type.
+                 * @param resolution The resolution to weigh.
+                 * @return The weight of the resolution which must not be negative.
+                 */
+                long weigh(String name, Resolution resolution);
+
+                /**
+                 * A weigher that weights every resolution as a single entry.
+                 */
+                enum ForEntry implements Weigher {
+
+                    /**
+                     * The singleton instance.
+                     */
+                    INSTANCE;
+
+                    /**
+                     * {@inheritDoc}
+                     */
+                    public long weigh(String name, Resolution resolution) {
+                        return 1;
+                    }
+                }
+            }
+
+            /**
+             * An entry of a bounded cache provider.
+             */
+            protected static class Entry {
+
+                /**
+                 * The name of the resolved type.
+                 */
+                private final String name;
+
+                /**
+                 * The cached resolution.
+                 */
+                private final Resolution resolution;
+
+                /**
+                 * The weight of the resolution.
+                 */
+                private final long weight;
+
+                /**
+                 * A saturating counter of recent lookups of this entry. Access to this field is not synchronized as lost
+                 * updates only have an impact on the eviction order.
+                 */
+                private volatile int frequency;
+
+                /**
+                 * Creates a new entry.
+                 *
+                 * @param name       The name of the resolved type.
+                 * @param resolution The cached resolution.
+                 * @param weight     The weight of the resolution.
+                 */
+                protected Entry(String name, Resolution resolution, long weight) {
+                    this.name = name;
+                    this.resolution = resolution;
+                    this.weight = weight;
+                }
+
+                /**
+                 * Records a lookup of this entry.
+                 */
+                @SuppressFBWarnings(value = "VO_VOLATILE_INCREMENT", justification = "Lost updates only have an impact on the eviction order.")
+                protected void touch() {
+                    if (frequency < MAXIMUM_FREQUENCY) {
+                        frequency++;
+                    }
+                }
+            }
+        }
     }
 
     /**
@@ -562,6 +954,12 @@ public interface TypePool {
          */
         protected final CacheProvider cacheProvider;
 
+        /**
+         * A map of asynchronous descriptions that are currently in flight by the name of the described type.
+         */
+        @HashCodeAndEqualsPlugin.ValueHandling(HashCodeAndEqualsPlugin.ValueHandling.Sort.IGNORE)
+        private final ConcurrentMap<String, Future<Resolution>> pending;
+
         /**
          * Creates a new instance.
          *
@@ -569,6 +967,7 @@ public interface TypePool {
          */
         protected AbstractBase(CacheProvider cacheProvider) {
             this.cacheProvider = cacheProvider;
+            pending = new ConcurrentHashMap<String, Future<Resolution>>();
         }
 
         /**
@@ -618,6 +1017,144 @@ public interface TypePool {
             cacheProvider.clear();
         }
 
+        /**
+         * Describes all types of the given names on the current thread.
+         *
+         * @param names The names of the types to describe.
+         * @return A map of resolutions by the names of the described types, in the iteration order of the supplied names.
+         */
+        public Map<String, Resolution> describeAll(Collection<String> names) {
+            Map<String, Resolution> resolutions = new LinkedHashMap<String, Resolution>();
+            for (String name : names) {
+                if (!resolutions.containsKey(name)) {
+                    resolutions.put(name, describe(name));
+                }
+            }
+            return resolutions;
+        }
+
+        /**
+         * Describes all types of the given names where class files are located and parsed concurrently by the supplied executor.
+         *
+         * @param names    The names of the types to describe.
+         * @param executor The executor to use for describing types.
+         * @return A map of resolutions by the names of the described types, in the iteration order of the supplied names.
+         */
+        public Map<String, Resolution> describeAll(Collection<String> names, Executor executor) {
+            return describeAll(names, executor, false);
+        }
+
+        /**
+         * Describes all types of the given names where class files are located and parsed concurrently by the supplied executor.
+         * Optionally, the super classes and interfaces of all resolved types are prefetched, level by level, such that the type
+         * hierarchy of the described types can later be traversed without locating further class files. As this method awaits
+         * the described types, it must not be invoked from a task of a bounded executor that is also supplied to this method,
+         * as explained in {@link AbstractBase#describeAsync(String, Executor)}.
+         *
+         * @param names      The names of the types to describe.
+         * @param executor   The executor to use for describing types.
+         * @param superTypes {@code true} if the closure of all super types of resolved types should be prefetched.
+         * @return A map of resolutions by the names of the described types, in the iteration order of the supplied names. Prefetched
+         * super types are not included in the returned map unless they were requested explicitly.
+         */
+        public Map<String, Resolution> describeAll(Collection<String> names, Executor executor, boolean superTypes) {
+            Map<String, Future<Resolution>> futures = new LinkedHashMap<String, Future<Resolution>>();
+            for (String name : names) {
+                if (!futures.containsKey(name)) {
+                    futures.put(name, describeAsync(name, executor));
+                }
+            }
+            Map<String, Resolution> resolutions = new LinkedHashMap<String, Resolution>();
+            Set<String> visited = new HashSet<String>(futures.keySet());
+            try {
+                boolean requested = true;
+                while (!futures.isEmpty()) {
+                    Map<String, Future<Resolution>> prefetches = new LinkedHashMap<String, Future<Resolution>>();
+                    for (Map.Entry<String, Future<Resolution>> entry : futures.entrySet()) {
+                        Resolution resolution = entry.getValue().get();
+                        if (requested) {
+                            resolutions.put(entry.getKey(), resolution);
+                        }
+                        if (superTypes && resolution.isResolved()) {
+                            for (String name : toSuperTypeNames(resolution.resolve())) {
+                                if (visited.add(name)) {
+                                    prefetches.put(name, describeAsync(name, executor));
+                                }
+                            }
+                        }
+                    }
+                    futures = prefetches;
+                    requested = false;
+                }
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(exception);
+            } catch (ExecutionException exception) {
+                Throwable cause = exception.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                } else {
+                    throw new IllegalStateException(cause);
+                }
+            }
+            return resolutions;
+        }
+
+        /**
+         * <p>
+         * Describes a type asynchronously by locating and parsing its class file using the supplied executor. If a description of
+         * the same name is already in flight, the pending future is returned instead of locating the class file a second time.
+         * </p>
+         * <p>
+         * <b>Important</b>: The returned future must not be awaited from a task that is itself executed by a bounded executor
+         * that is also supplied to this method. If all threads of such an executor are blocked while awaiting descriptions that
+         * are queued on the same executor, no thread remains to complete these descriptions and the awaiting tasks deadlock.
+         * Within such a task, a type should rather be described synchronously by {@link TypePool#describe(String)}.
+         * </p>
+         *
+         * @param name     The name of the type to describe.
+         * @param executor The executor to use for describing the type.
+         * @return A future of the type's resolution. The returned resolution is resolved eagerly, also for type pools that resolve lazily.
+         */
+        public Future<Resolution> describeAsync(String name, Executor executor) {
+            Future<Resolution> future = pending.get(name);
+            if (future != null) {
+                return future;
+            }
+            PendingResolution resolution = new PendingResolution(this, name, pending);
+            future = pending.putIfAbsent(name, resolution);
+            if (future != null) {
+                return future;
+            }
+            try {
+                executor.execute(resolution);
+            } catch (RuntimeException exception) {
+                pending.remove(name, resolution);
+                throw exception;
+            }
+            return resolution;
+        }
+
+        /**
+         * Returns the names of the direct super class and interfaces of a type description that was resolved by this type pool.
+         *
+         * @param typeDescription The type description for which to resolve the names of its direct super types.
+         * @return The names of the direct super class and interfaces of the supplied type.
+         */
+        protected List<String> toSuperTypeNames(TypeDescription typeDescription) {
+            List<String> names = new ArrayList<String>();
+            TypeDescription.Generic superClass = typeDescription.getSuperClass();
+            if (superClass != null) {
+                names.add(superClass.asErasure().getName());
+            }
+            for (TypeDescription interfaceType : typeDescription.getInterfaces().asErasures()) {
+                names.add(interfaceType.getName());
+            }
+            return names;
+        }
+
         /**
          * Determines a resolution to a non-primitive, non-array type.
          *
@@ -692,6 +1229,80 @@ public interface TypePool {
             }
         }
 
+        /**
+         * A pending asynchronous description of a type that discards itself from the map of in-flight descriptions once it completes.
+         */
+        protected static class PendingResolution extends FutureTask<Resolution> {
+
+            /**
+             * The name of the described type.
+             */
+            private final String name;
+
+            /**
+             * A map of asynchronous descriptions that are currently in flight by the name of the described type.
+             */
+            private final ConcurrentMap<String, Future<Resolution>> pending;
+
+            /**
+             * Creates a new pending resolution.
+             *
+             * @param typePool The type pool to use for describing the type.
+             * @param name     The name of the described type.
+             * @param pending  A map of asynchronous descriptions that are currently in flight by the name of the described type.
+             */
+            protected PendingResolution(TypePool typePool, String name, ConcurrentMap<String, Future<Resolution>> pending) {
+                super(new Dispatcher(typePool, name));
+                this.name = name;
+                this.pending = pending;
+            }
+
+            /**
+             * {@inheritDoc}
+             */
+            protected void done() {
+                pending.remove(name, this);
+            }
+
+            /**
+             * A callable that describes a type and that eagerly resolves the type's resolution.
+             */
+            @HashCodeAndEqualsPlugin.Enhance
+            protected static class Dispatcher implements Callable<Resolution> {
+
+                /**
+                 * The type pool to use for describing the type.
+                 */
+                private final TypePool typePool;
+
+                /**
+                 * The name of the described type.
+                 */
+                private final String name;
+
+                /**
+                 * Creates a new dispatcher.
+                 *
+                 * @param typePool The type pool to use for describing the type.
+                 * @param name     The name of the described type.
+                 */
+                protected Dispatcher(TypePool typePool, String name) {
+                    this.typePool = typePool;
+                    this.name = name;
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                public Resolution call() {
+                    Resolution resolution = typePool.describe(name);
+                    // Forces lazy resolutions to locate the class file on the executing thread.
+                    resolution.isResolved();
+                    return resolution;
+                }
+            }
+        }
+
         /**
          * A resolution for a type that, if resolved, represents an array type.
          */
@@ -769,6 +1380,12 @@ public interface TypePool {
         @AlwaysNull
         private static final MethodVisitor IGNORE_METHOD = null;
 
+        /**
+         * Indicates that a visited field should be ignored.
+         */
+        @AlwaysNull
+        private static final FieldVisitor IGNORE_FIELD = null;
+
         /**
          * The locator to query for finding binary data of a type.
          */
@@ -779,6 +1396,11 @@ public interface TypePool {
          */
         protected final ReaderMode readerMode;
 
+        /**
+         * The symbol table to use for sharing equal strings among all parsed type descriptions.
+         */
+        protected final SymbolTable symbolTable;
+
         /**
          * Creates a new default type pool without a parent pool.
          *
@@ -799,9 +1421,27 @@ public interface TypePool {
          * @param parentPool       The parent type pool.
          */
         public Default(CacheProvider cacheProvider, ClassFileLocator classFileLocator, ReaderMode readerMode, TypePool parentPool) {
+            this(cacheProvider, classFileLocator, readerMode, SymbolTable.NoOp.INSTANCE, parentPool);
+        }
+
+        /**
+         * Creates a new default type pool.
+         *
+         * @param cacheProvider    The cache provider to be used.
+         * @param classFileLocator The class file locator to be used.
+         * @param readerMode       The reader mode to apply by this default type pool.
+         * @param symbolTable      The symbol table to use for sharing equal strings among all parsed type descriptions.
+         * @param parentPool       The parent type pool.
+         */
+        public Default(CacheProvider cacheProvider,
+                       ClassFileLocator classFileLocator,
+                       ReaderMode readerMode,
+                       SymbolTable symbolTable,
+                       TypePool parentPool) {
             super(cacheProvider, parentPool);
             this.classFileLocator = classFileLocator;
             this.readerMode = readerMode;
+            this.symbolTable = symbolTable;
         }
 
         /**
@@ -856,6 +1496,34 @@ public interface TypePool {
             return new Default(new CacheProvider.Simple(), classFileLocator, ReaderMode.FAST);
         }
 
+        /**
+         * Creates a default {@link net.bytebuddy.pool.TypePool} that looks up data from a precomputed class file archive. The returned
+         * instance is configured to use a fast reading mode and a simple cache.
+         *
+         * @param file The class file archive to read.
+         * @return A type pool that reads its data from the supplied class file archive.
+         * @throws IOException If the class file archive cannot be read.
+         * @see ClassFileLocator.ForClassFileArchive
+         */
+        public static TypePool ofClassFileArchive(File file) throws IOException {
+            return ofClassFileArchive(file, Empty.INSTANCE);
+        }
+
+        /**
+         * Creates a default {@link net.bytebuddy.pool.TypePool} that looks up data from a precomputed class file archive after
+         * querying a parent pool, for example a pool of an archive of the JDK's runtime image. The returned instance is configured to
+         * use a fast reading mode and a simple cache.
+         *
+         * @param file       The class file archive to read.
+         * @param parentPool The parent type pool.
+         * @return A type pool that reads its data from the supplied class file archive.
+         * @throws IOException If the class file archive cannot be read.
+         * @see ClassFileLocator.ForClassFileArchive
+         */
+        public static TypePool ofClassFileArchive(File file, TypePool parentPool) throws IOException {
+            return new Default(new CacheProvider.Simple(), new ClassFileLocator.ForClassFileArchive(file), ReaderMode.FAST, parentPool);
+        }
+
         @Override
         protected Resolution doDescribe(String name) {
             try {
@@ -868,6 +1536,26 @@ public interface TypePool {
             }
         }
 
+        /**
+         * {@inheritDoc}
+         */
+        protected List<String> toSuperTypeNames(TypeDescription typeDescription) {
+            return typeDescription instanceof LazyTypeDescription
+                    ? ((LazyTypeDescription) typeDescription).getSuperTypeNames()
+                    : super.toSuperTypeNames(typeDescription);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void clear() {
+            try {
+                super.clear();
+            } finally {
+                symbolTable.clear();
+            }
+        }
+
         /**
          * Parses a binary representation and transforms it into a type description.
          *
@@ -876,7 +1564,9 @@ public interface TypePool {
          */
         private TypeDescription parse(byte[] binaryRepresentation) {
             ClassReader classReader = OpenedClassReader.of(binaryRepresentation);
-            TypeExtractor typeExtractor = new TypeExtractor();
+            TypeExtractor typeExtractor = readerMode.isLazy()
+                    ? new TypeExtractor(new LazyMemberTokens(binaryRepresentation))
+                    : new TypeExtractor();
             classReader.accept(typeExtractor, readerMode.getFlags());
             return typeExtractor.toTypeDescription();
         }
@@ -890,45 +1580,290 @@ public interface TypePool {
              * The extended reader mode parses the code segment of each method in order to detect parameter names
              * that are only stored in a method's debugging information but are not explicitly included.
              */
-            EXTENDED(ClassReader.SKIP_FRAMES),
+            EXTENDED(ClassReader.SKIP_FRAMES),
+
+            /**
+             * The fast reader mode skips the code segment of each method and cannot detect parameter names that are
+             * only contained within the debugging information. This mode still detects explicitly included method
+             * parameter names.
+             */
+            FAST(ClassReader.SKIP_CODE),
+
+            /**
+             * The lazy reader mode only parses a class file's header, its annotations and its record components when a type
+             * is described. The type's fields and methods are parsed from the retained class file, similarly to {@link ReaderMode#FAST},
+             * once they are first accessed. This mode reduces the cost of describing types of which only the name, modifiers,
+             * super types or annotations are considered, for example by type matchers, at the cost of retaining the class
+             * file until the type's members are parsed.
+             */
+            LAZY(ClassReader.SKIP_CODE);
+
+            /**
+             * The flags to provide to a {@link ClassReader} for parsing a file.
+             */
+            private final int flags;
+
+            /**
+             * Creates a new reader mode constant.
+             *
+             * @param flags The flags to provide to a {@link ClassReader} for parsing a file.
+             */
+            ReaderMode(int flags) {
+                this.flags = flags;
+            }
+
+            /**
+             * Returns the flags to provide to a {@link ClassReader} for parsing a file.
+             *
+             * @return The flags to provide to a {@link ClassReader} for parsing a file.
+             */
+            protected int getFlags() {
+                return flags;
+            }
+
+            /**
+             * Determines if this reader mode represents extended reading.
+             *
+             * @return {@code true} if this reader mode represents extended reading.
+             */
+            public boolean isExtended() {
+                return this == EXTENDED;
+            }
+
+            /**
+             * Determines if this reader mode represents lazy parsing of a type's members.
+             *
+             * @return {@code true} if this reader mode represents lazy parsing of a type's members.
+             */
+            public boolean isLazy() {
+                return this == LAZY;
+            }
+        }
+
+        /**
+         * <p>
+         * A symbol table that is consulted by a {@link TypePool.Default} for every string that is retained by a parsed type
+         * description, such as descriptors, generic signatures or member names. Many of these strings, for example
+         * {@code Ljava/lang/Object;} or {@code ()V}, recur in a majority of class files. By sharing a single instance of
+         * each string, a type pool that describes many types retains considerably less memory. Similarly, a symbol table
+         * determines the representation of the lists and maps that a parsed type description retains.
+         * </p>
+         * <p>
+         * <b>Important</b>: A symbol table must be thread-safe as it might be shared among type pools and threads.
+         * </p>
+         */
+        public interface SymbolTable {
+
+            /**
+             * Returns a canonical representation of the supplied string.
+             *
+             * @param value The string to intern.
+             * @return A string that is equal to the supplied string.
+             */
+            String intern(String value);
 
             /**
-             * The fast reader mode skips the code segment of each method and cannot detect parameter names that are
-             * only contained within the debugging information. This mode still detects explicitly included method
-             * parameter names.
+             * Returns a representation of a list that was collected while parsing a class file and that is retained by a type description.
+             *
+             * @param list The list to represent which must not be modified after calling this method.
+             * @param <T>  The type of the list's elements.
+             * @return A list with the same elements as the supplied list.
              */
-            FAST(ClassReader.SKIP_CODE);
+            <T> List<T> compact(List<T> list);
 
             /**
-             * The flags to provide to a {@link ClassReader} for parsing a file.
+             * Returns a representation of a map that was collected while parsing a class file and that is retained by a type description.
+             *
+             * @param map The map to represent which must not be modified after calling this method.
+             * @param <K> The type of the map's keys.
+             * @param <V> The type of the map's values.
+             * @return A map with the same entries as the supplied map.
              */
-            private final int flags;
+            <K, V> Map<K, V> compact(Map<K, V> map);
 
             /**
-             * Creates a new reader mode constant.
-             *
-             * @param flags The flags to provide to a {@link ClassReader} for parsing a file.
+             * Clears this symbol table.
              */
-            ReaderMode(int flags) {
-                this.flags = flags;
-            }
+            void clear();
 
             /**
-             * Returns the flags to provide to a {@link ClassReader} for parsing a file.
-             *
-             * @return The flags to provide to a {@link ClassReader} for parsing a file.
+             * A non-operational symbol table that retains every string and collection as it is read from a class file.
              */
-            protected int getFlags() {
-                return flags;
+            enum NoOp implements SymbolTable {
+
+                /**
+                 * The singleton instance.
+                 */
+                INSTANCE;
+
+                /**
+                 * {@inheritDoc}
+                 */
+                public String intern(String value) {
+                    return value;
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                public <T> List<T> compact(List<T> list) {
+                    return list;
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                public <K, V> Map<K, V> compact(Map<K, V> map) {
+                    return map;
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                public void clear() {
+                    /* do nothing */
+                }
             }
 
             /**
-             * Determines if this reader mode represents extended reading.
-             *
-             * @return {@code true} if this reader mode represents extended reading.
+             * A simple, thread-safe symbol table based on a {@link java.util.concurrent.ConcurrentHashMap} that only weakly
+             * references interned strings. Other than {@link String#intern()}, an interned string is only retained as long as it
+             * is referenced by a type description or elsewhere, such that the symbol table does not outgrow a bounded cache of the
+             * type pool that uses it. Additionally, empty and singular lists and maps are replaced by more compact representations.
              */
-            public boolean isExtended() {
-                return this == EXTENDED;
+            class Simple extends ReferenceQueue<String> implements SymbolTable {
+
+                /**
+                 * A map of all interned strings by themselves.
+                 */
+                private final ConcurrentMap<Symbol, Symbol> symbols;
+
+                /**
+                 * Creates a new simple symbol table.
+                 */
+                public Simple() {
+                    symbols = new ConcurrentHashMap<Symbol, Symbol>();
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                public String intern(String value) {
+                    expungeStaleEntries();
+                    Symbol symbol = new Symbol(value, this);
+                    while (true) {
+                        Symbol previous = symbols.putIfAbsent(symbol, symbol);
+                        if (previous == null) {
+                            return value;
+                        }
+                        String interned = previous.get();
+                        if (interned != null) {
+                            return interned;
+                        }
+                        symbols.remove(previous, previous);
+                    }
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                public <T> List<T> compact(List<T> list) {
+                    switch (list.size()) {
+                        case 0:
+                            return Collections.emptyList();
+                        case 1:
+                            return Collections.singletonList(list.get(0));
+                        default:
+                            if (list instanceof ArrayList<?>) {
+                                ((ArrayList<T>) list).trimToSize();
+                            }
+                            return list;
+                    }
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                public <K, V> Map<K, V> compact(Map<K, V> map) {
+                    switch (map.size()) {
+                        case 0:
+                            return Collections.emptyMap();
+                        case 1:
+                            Map.Entry<K, V> entry = map.entrySet().iterator().next();
+                            return Collections.singletonMap(entry.getKey(), entry.getValue());
+                        default:
+                            return map;
+                    }
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                public void clear() {
+                    symbols.clear();
+                }
+
+                /**
+                 * Removes all strings that were collected from this symbol table.
+                 */
+                public void expungeStaleEntries() {
+                    Reference<?> reference;
+                    while ((reference = poll()) != null) {
+                        symbols.remove(reference);
+                    }
+                }
+
+                /**
+                 * Returns the number of strings that are currently interned by this symbol table, including strings that were
+                 * collected but not yet expunged.
+                 *
+                 * @return The number of strings that are currently interned by this symbol table.
+                 */
+                public int size() {
+                    return symbols.size();
+                }
+
+                /**
+                 * A weak reference to an interned string that is equal to another symbol if both reference equal strings.
+                 */
+                protected static class Symbol extends WeakReference<String> {
+
+                    /**
+                     * The hash code of the referenced string.
+                     */
+                    private final int hashCode;
+
+                    /**
+                     * Creates a new symbol.
+                     *
+                     * @param value          The referenced string.
+                     * @param referenceQueue The reference queue to enqueue this symbol to once its string is collected.
+                     */
+                    protected Symbol(String value, ReferenceQueue<? super String> referenceQueue) {
+                        super(value, referenceQueue);
+                        hashCode = value.hashCode();
+                    }
+
+                    @Override
+                    public int hashCode() {
+                        return hashCode;
+                    }
+
+                    @Override
+                    public boolean equals(@MaybeNull Object other) {
+                        if (this == other) {
+                            return true;
+                        } else if (!(other instanceof Symbol)) {
+                            return false;
+                        }
+                        Symbol symbol = (Symbol) other;
+                        if (hashCode != symbol.hashCode) {
+                            return false;
+                        }
+                        String value = get();
+                        return value != null && value.equals(symbol.get());
+                    }
+                }
             }
         }
 
@@ -963,7 +1898,24 @@ public interface TypePool {
              * @param parentPool       The parent type pool.
              */
             public WithLazyResolution(CacheProvider cacheProvider, ClassFileLocator classFileLocator, ReaderMode readerMode, TypePool parentPool) {
-                super(cacheProvider, classFileLocator, readerMode, parentPool);
+                this(cacheProvider, classFileLocator, readerMode, SymbolTable.NoOp.INSTANCE, parentPool);
+            }
+
+            /**
+             * Creates a new default type pool with lazy resolution.
+             *
+             * @param cacheProvider    The cache provider to be used.
+             * @param classFileLocator The class file locator to be used.
+             * @param readerMode       The reader mode to apply by this default type pool.
+             * @param symbolTable      The symbol table to use for sharing equal strings among all parsed type descriptions.
+             * @param parentPool       The parent type pool.
+             */
+            public WithLazyResolution(CacheProvider cacheProvider,
+                                      ClassFileLocator classFileLocator,
+                                      ReaderMode readerMode,
+                                      SymbolTable symbolTable,
+                                      TypePool parentPool) {
+                super(cacheProvider, classFileLocator, readerMode, symbolTable, parentPool);
             }
 
             /**
@@ -2692,6 +3644,7 @@ public interface TypePool {
              * Creates a new lazy type description.
              *
              * @param typePool                           The type pool to be used for looking up linked types.
+             * @param symbolTable                        The symbol table to use for sharing the descriptors and names that are derived by this type.
              * @param actualModifiers                    The actual modifiers of this type.
              * @param modifiers                          The modifiers of this type.
              * @param name                               The binary name of this type.
@@ -2717,6 +3670,7 @@ public interface TypePool {
              * @param classFileVersion                   The type's class file version.
              */
             protected LazyTypeDescription(TypePool typePool,
+                                          SymbolTable symbolTable,
                                           int actualModifiers,
                                           int modifiers,
                                           String name,
@@ -2745,7 +3699,7 @@ public interface TypePool {
                 this.name = Type.getObjectType(name).getClassName();
                 this.superClassDescriptor = superClassInternalName == null
                         ? NO_TYPE
-                        : Type.getObjectType(superClassInternalName).getDescriptor();
+                        : symbolTable.intern(Type.getObjectType(superClassInternalName).getDescriptor());
                 this.genericSignature = genericSignature;
                 signatureResolution = RAW_TYPES
                         ? GenericTypeToken.Resolution.Raw.INSTANCE
@@ -2755,21 +3709,25 @@ public interface TypePool {
                 } else {
                     interfaceTypeDescriptors = new ArrayList<String>(interfaceInternalName.length);
                     for (String internalName : interfaceInternalName) {
-                        interfaceTypeDescriptors.add(Type.getObjectType(internalName).getDescriptor());
+                        interfaceTypeDescriptors.add(symbolTable.intern(Type.getObjectType(internalName).getDescriptor()));
                     }
                 }
                 this.typeContainment = typeContainment;
                 declaringTypeName = declaringTypeInternalName == null
                         ? NO_TYPE
-                        : declaringTypeInternalName.replace('/', '.');
+                        : symbolTable.intern(declaringTypeInternalName.replace('/', '.'));
                 this.declaredTypes = declaredTypes;
                 this.anonymousType = anonymousType;
                 nestHost = nestHostInternalName == null
                         ? NO_TYPE
-                        : Type.getObjectType(nestHostInternalName).getClassName();
-                nestMembers = new ArrayList<String>(nestMemberInternalNames.size());
-                for (String nestMemberInternalName : nestMemberInternalNames) {
-                    nestMembers.add(Type.getObjectType(nestMemberInternalName).getClassName());
+                        : symbolTable.intern(Type.getObjectType(nestHostInternalName).getClassName());
+                if (nestMemberInternalNames.isEmpty()) {
+                    nestMembers = Collections.emptyList();
+                } else {
+                    nestMembers = new ArrayList<String>(nestMemberInternalNames.size());
+                    for (String nestMemberInternalName : nestMemberInternalNames) {
+                        nestMembers.add(symbolTable.intern(Type.getObjectType(nestMemberInternalName).getClassName()));
+                    }
                 }
                 this.superClassAnnotationTokens = superClassAnnotationTokens;
                 this.interfaceAnnotationTokens = interfaceAnnotationTokens;
@@ -2779,9 +3737,13 @@ public interface TypePool {
                 this.fieldTokens = fieldTokens;
                 this.methodTokens = methodTokens;
                 this.recordComponentTokens = recordComponentTokens;
-                this.permittedSubclasses = new ArrayList<String>(permittedSubclasses.size());
-                for (String internalName : permittedSubclasses) {
-                    this.permittedSubclasses.add(Type.getObjectType(internalName).getDescriptor());
+                if (permittedSubclasses.isEmpty()) {
+                    this.permittedSubclasses = Collections.emptyList();
+                } else {
+                    this.permittedSubclasses = new ArrayList<String>(permittedSubclasses.size());
+                    for (String internalName : permittedSubclasses) {
+                        this.permittedSubclasses.add(symbolTable.intern(Type.getObjectType(internalName).getDescriptor()));
+                    }
                 }
                 this.classFileVersion = classFileVersion;
             }
@@ -2803,6 +3765,50 @@ public interface TypePool {
                 return signatureResolution.resolveInterfaceTypes(interfaceTypeDescriptors, typePool, interfaceAnnotationTokens, this);
             }
 
+            /**
+             * Returns the names of the direct super class and interfaces of this type without resolving their descriptions.
+             *
+             * @return The names of the direct super class and interfaces of this type.
+             */
+            protected List<String> getSuperTypeNames() {
+                List<String> names = new ArrayList<String>(interfaceTypeDescriptors.size() + 1);
+                if (superClassDescriptor != null && !isInterface()) {
+                    names.add(Type.getType(superClassDescriptor).getClassName());
+                }
+                for (String interfaceTypeDescriptor : interfaceTypeDescriptors) {
+                    names.add(Type.getType(interfaceTypeDescriptor).getClassName());
+                }
+                return names;
+            }
+
+            /**
+             * Returns the names of all super classes and interfaces of this type. The names are computed once from the descriptions
+             * of this type pool and retained by this description. If any super type cannot be resolved, {@code null} is returned such
+             * that an assignability check walks the type hierarchy only as far as required.
+             *
+             * @return The names of all super classes and interfaces of this type or {@code null} if a super type cannot be resolved.
+             */
+            @Override
+            @MaybeNull
+            @CachedReturnPlugin.Enhance("superTypeClosure")
+            protected Set<String> getSuperTypeClosure() {
+                Set<String> superTypeClosure = new HashSet<String>();
+                for (String name : getSuperTypeNames()) {
+                    Resolution resolution = typePool.describe(name);
+                    if (!resolution.isResolved()) {
+                        return null;
+                    }
+                    TypeDescription typeDescription = resolution.resolve();
+                    Set<String> names = toSuperTypeClosure(typeDescription);
+                    if (names == null) {
+                        return null;
+                    }
+                    superTypeClosure.add(typeDescription.getName());
+                    superTypeClosure.addAll(names);
+                }
+                return superTypeClosure;
+            }
+
             /**
              * {@inheritDoc}
              */
@@ -8030,6 +9036,121 @@ public interface TypePool {
             }
         }
 
+        /**
+         * Lazily parses the field and method tokens of a type from its retained class file once they are first accessed.
+         */
+        protected class LazyMemberTokens {
+
+            /**
+             * The class file of the represented type or {@code null} if the class file was already parsed.
+             */
+            @MaybeNull
+            private byte[] binaryRepresentation;
+
+            /**
+             * The parsed field tokens or {@code null} if the class file was not yet parsed.
+             */
+            @MaybeNull
+            private volatile List<LazyTypeDescription.FieldToken> fieldTokens;
+
+            /**
+             * The parsed method tokens or {@code null} if the class file was not yet parsed.
+             */
+            @MaybeNull
+            private volatile List<LazyTypeDescription.MethodToken> methodTokens;
+
+            /**
+             * Creates new lazy member tokens.
+             *
+             * @param binaryRepresentation The class file of the represented type.
+             */
+            @SuppressFBWarnings(value = "EI_EXPOSE_REP2", justification = "The array is not modified by class contract.")
+            protected LazyMemberTokens(byte[] binaryRepresentation) {
+                this.binaryRepresentation = binaryRepresentation;
+            }
+
+            /**
+             * Parses the retained class file if this was not yet done and releases it thereafter.
+             */
+            private synchronized void resolve() {
+                if (fieldTokens == null && binaryRepresentation != null) {
+                    TypeExtractor typeExtractor = new TypeExtractor();
+                    OpenedClassReader.of(binaryRepresentation).accept(typeExtractor, readerMode.getFlags());
+                    methodTokens = typeExtractor.methodTokens;
+                    fieldTokens = typeExtractor.fieldTokens;
+                    binaryRepresentation = null;
+                }
+            }
+
+            /**
+             * Returns the field tokens of the represented type.
+             *
+             * @return The field tokens of the represented type.
+             */
+            protected List<LazyTypeDescription.FieldToken> getFieldTokens() {
+                List<LazyTypeDescription.FieldToken> fieldTokens = this.fieldTokens;
+                if (fieldTokens == null) {
+                    resolve();
+                    fieldTokens = this.fieldTokens;
+                }
+                return fieldTokens;
+            }
+
+            /**
+             * Returns the method tokens of the represented type.
+             *
+             * @return The method tokens of the represented type.
+             */
+            protected List<LazyTypeDescription.MethodToken> getMethodTokens() {
+                List<LazyTypeDescription.MethodToken> methodTokens = this.methodTokens;
+                if (methodTokens == null) {
+                    resolve();
+                    methodTokens = this.methodTokens;
+                }
+                return methodTokens;
+            }
+
+            /**
+             * A list of field tokens that are parsed on their first access.
+             */
+            protected class FieldTokenList extends AbstractList<LazyTypeDescription.FieldToken> {
+
+                /**
+                 * {@inheritDoc}
+                 */
+                public LazyTypeDescription.FieldToken get(int index) {
+                    return getFieldTokens().get(index);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                public int size() {
+                    return getFieldTokens().size();
+                }
+            }
+
+            /**
+             * A list of method tokens that are parsed on their first access.
+             */
+            protected class MethodTokenList extends AbstractList<LazyTypeDescription.MethodToken> {
+
+                /**
+                 * {@inheritDoc}
+                 */
+                public LazyTypeDescription.MethodToken get(int index) {
+                    return getMethodTokens().get(index);
+                }
+
+                /**
+                 * {@inheritDoc}
+                 */
+                public int size() {
+                    return getMethodTokens().size();
+                }
+            }
+        }
+
         /**
          * A type extractor reads a class file and collects data that is relevant to create a type description.
          */
@@ -8158,11 +9279,28 @@ public interface TypePool {
             @MaybeNull
             private ClassFileVersion classFileVersion;
 
+            /**
+             * The lazily parsed member tokens of the visited type or {@code null} if the type's members are extracted by this extractor.
+             */
+            @MaybeNull
+            private final LazyMemberTokens lazyMemberTokens;
+
             /**
              * Creates a new type extractor.
              */
             protected TypeExtractor() {
+                this(null);
+            }
+
+            /**
+             * Creates a new type extractor.
+             *
+             * @param lazyMemberTokens The lazily parsed member tokens of the visited type or {@code null} if the type's members
+             *                         are extracted by this extractor.
+             */
+            protected TypeExtractor(@MaybeNull LazyMemberTokens lazyMemberTokens) {
                 super(OpenedClassReader.ASM_API);
+                this.lazyMemberTokens = lazyMemberTokens;
                 superTypeAnnotationTokens = new HashMap<Integer, Map<String, List<LazyTypeDescription.AnnotationToken>>>();
                 typeVariableAnnotationTokens = new HashMap<Integer, Map<String, List<LazyTypeDescription.AnnotationToken>>>();
                 typeVariableBoundsAnnotationTokens = new HashMap<Integer, Map<Integer, Map<String, List<LazyTypeDescription.AnnotationToken>>>>();
@@ -8188,7 +9326,7 @@ public interface TypePool {
                 this.modifiers = modifiers & REAL_MODIFIER_MASK;
                 actualModifiers = modifiers;
                 this.internalName = internalName;
-                this.genericSignature = genericSignature;
+                this.genericSignature = intern(genericSignature);
                 this.superClassName = superClassName;
                 this.interfaceName = interfaceName;
                 this.classFileVersion = ClassFileVersion.ofMinorMajor(classFileVersion);
@@ -8227,19 +9365,19 @@ public interface TypePool {
                 TypeReference typeReference = new TypeReference(rawTypeReference);
                 switch (typeReference.getSort()) {
                     case TypeReference.CLASS_EXTENDS:
-                        annotationRegistrant = new AnnotationRegistrant.ForTypeVariable.WithIndex(descriptor,
+                        annotationRegistrant = new AnnotationRegistrant.ForTypeVariable.WithIndex(intern(descriptor),
                                 typePath,
                                 typeReference.getSuperTypeIndex(),
                                 superTypeAnnotationTokens);
                         break;
                     case TypeReference.CLASS_TYPE_PARAMETER:
-                        annotationRegistrant = new AnnotationRegistrant.ForTypeVariable.WithIndex(descriptor,
+                        annotationRegistrant = new AnnotationRegistrant.ForTypeVariable.WithIndex(intern(descriptor),
                                 typePath,
                                 typeReference.getTypeParameterIndex(),
                                 typeVariableAnnotationTokens);
                         break;
                     case TypeReference.CLASS_TYPE_PARAMETER_BOUND:
-                        annotationRegistrant = new AnnotationRegistrant.ForTypeVariable.WithIndex.DoubleIndexed(descriptor,
+                        annotationRegistrant = new AnnotationRegistrant.ForTypeVariable.WithIndex.DoubleIndexed(intern(descriptor),
                                 typePath,
                                 typeReference.getTypeParameterBoundIndex(),
                                 typeReference.getTypeParameterIndex(),
@@ -8257,16 +9395,19 @@ public interface TypePool {
             }
 
             @Override
+            @MaybeNull
             public FieldVisitor visitField(int modifiers, String internalName, String descriptor, @MaybeNull String genericSignature, @MaybeNull Object value) {
-                return new FieldExtractor(modifiers & REAL_MODIFIER_MASK, internalName, descriptor, genericSignature);
+                return lazyMemberTokens == null
+                        ? new FieldExtractor(modifiers & REAL_MODIFIER_MASK, intern(internalName), intern(descriptor), intern(genericSignature))
+                        : IGNORE_FIELD;
             }
 
             @Override
             @MaybeNull
             public MethodVisitor visitMethod(int modifiers, String internalName, String descriptor, @MaybeNull String genericSignature, @MaybeNull String[] exceptionName) {
-                return internalName.equals(MethodDescription.TYPE_INITIALIZER_INTERNAL_NAME)
+                return lazyMemberTokens != null || internalName.equals(MethodDescription.TYPE_INITIALIZER_INTERNAL_NAME)
                         ? IGNORE_METHOD
-                        : new MethodExtractor(modifiers & REAL_MODIFIER_MASK, internalName, descriptor, genericSignature, exceptionName);
+                        : new MethodExtractor(modifiers & REAL_MODIFIER_MASK, intern(internalName), intern(descriptor), intern(genericSignature), intern(exceptionName));
             }
 
             @Override
@@ -8281,7 +9422,7 @@ public interface TypePool {
 
             @Override
             public RecordComponentVisitor visitRecordComponent(String name, String descriptor, @MaybeNull String signature) {
-                return new RecordComponentExtractor(name, descriptor, signature);
+                return new RecordComponentExtractor(intern(name), intern(descriptor), intern(signature));
             }
 
             @Override
@@ -8301,6 +9442,7 @@ public interface TypePool {
                 }
                 Map<String, List<LazyTypeDescription.AnnotationToken>> superClassAnnotationTokens = superTypeAnnotationTokens.remove(SUPER_CLASS_INDEX);
                 return new LazyTypeDescription(Default.this,
+                        symbolTable,
                         actualModifiers,
                         modifiers,
                         internalName,
@@ -8309,24 +9451,53 @@ public interface TypePool {
                         genericSignature,
                         typeContainment,
                         declaringTypeName,
-                        declaredTypes,
+                        symbolTable.compact(declaredTypes),
                         anonymousType,
                         nestHost,
                         nestMembers,
                         superClassAnnotationTokens == null
                                 ? Collections.<String, List<LazyTypeDescription.AnnotationToken>>emptyMap()
-                                : superClassAnnotationTokens,
-                        superTypeAnnotationTokens,
-                        typeVariableAnnotationTokens,
-                        typeVariableBoundsAnnotationTokens,
-                        annotationTokens,
-                        fieldTokens,
-                        methodTokens,
-                        recordComponentTokens,
+                                : symbolTable.compact(superClassAnnotationTokens),
+                        symbolTable.compact(superTypeAnnotationTokens),
+                        symbolTable.compact(typeVariableAnnotationTokens),
+                        symbolTable.compact(typeVariableBoundsAnnotationTokens),
+                        symbolTable.compact(annotationTokens),
+                        lazyMemberTokens == null ? symbolTable.compact(fieldTokens) : lazyMemberTokens.new FieldTokenList(),
+                        lazyMemberTokens == null ? symbolTable.compact(methodTokens) : lazyMemberTokens.new MethodTokenList(),
+                        symbolTable.compact(recordComponentTokens),
                         permittedSubclasses,
                         classFileVersion);
             }
 
+            /**
+             * Returns a canonical representation of the supplied string as provided by this type pool's symbol table.
+             *
+             * @param value The string to intern or {@code null}.
+             * @return A string that is equal to the supplied string or {@code null} if the supplied value is {@code null}.
+             */
+            @MaybeNull
+            private String intern(@MaybeNull String value) {
+                return value == null
+                        ? null
+                        : symbolTable.intern(value);
+            }
+
+            /**
+             * Replaces all strings of the supplied array by their canonical representation as provided by this type pool's symbol table.
+             *
+             * @param value The array of strings to intern or {@code null}.
+             * @return The supplied array after interning its elements or {@code null} if the supplied value is {@code null}.
+             */
+            @MaybeNull
+            private String[] intern(@MaybeNull String[] value) {
+                if (value != null) {
+                    for (int index = 0; index < value.length; index++) {
+                        value[index] = symbolTable.intern(value[index]);
+                    }
+                }
+                return value;
+            }
+
             /**
              * An annotation extractor reads an annotation found in a class field an collects data that
              * is relevant to creating a related annotation description.
@@ -8351,7 +9522,7 @@ public interface TypePool {
                  * @param componentTypeLocator The component type locator to use.
                  */
                 protected AnnotationExtractor(String descriptor, List<LazyTypeDescription.AnnotationToken> annotationTokens, ComponentTypeLocator componentTypeLocator) {
-                    this(new AnnotationRegistrant.ForByteCodeElement(descriptor, annotationTokens), componentTypeLocator);
+                    this(new AnnotationRegistrant.ForByteCodeElement(intern(descriptor), annotationTokens), componentTypeLocator);
                 }
 
                 /**
@@ -8366,7 +9537,7 @@ public interface TypePool {
                                               int index,
                                               Map<Integer, List<LazyTypeDescription.AnnotationToken>> annotationTokens,
                                               ComponentTypeLocator componentTypeLocator) {
-                    this(new AnnotationRegistrant.ForByteCodeElement.WithIndex(descriptor, index, annotationTokens), componentTypeLocator);
+                    this(new AnnotationRegistrant.ForByteCodeElement.WithIndex(intern(descriptor), index, annotationTokens), componentTypeLocator);
                 }
 
                 /**
@@ -8402,7 +9573,7 @@ public interface TypePool {
 
                 @Override
                 public AnnotationVisitor visitAnnotation(String name, String descriptor) {
-                    return new AnnotationExtractor(new AnnotationLookup(descriptor, name), new ComponentTypeLocator.ForAnnotationProperty(TypePool.Default.this, descriptor));
+                    return new AnnotationExtractor(new AnnotationLookup(intern(descriptor), name), new ComponentTypeLocator.ForAnnotationProperty(TypePool.Default.this, descriptor));
                 }
 
                 @Override
@@ -8578,7 +9749,7 @@ public interface TypePool {
                     TypeReference typeReference = new TypeReference(rawTypeReference);
                     switch (typeReference.getSort()) {
                         case TypeReference.FIELD:
-                            annotationRegistrant = new AnnotationRegistrant.ForTypeVariable(descriptor, typePath, typeAnnotationTokens);
+                            annotationRegistrant = new AnnotationRegistrant.ForTypeVariable(intern(descriptor), typePath, typeAnnotationTokens);
                             break;
                         default:
                             throw new IllegalStateException("Unexpected type reference on field: " + typeReference.getSort());
@@ -8597,8 +9768,8 @@ public interface TypePool {
                             modifiers,
                             descriptor,
                             genericSignature,
-                            typeAnnotationTokens,
-                            annotationTokens));
+                            symbolTable.compact(typeAnnotationTokens),
+                            symbolTable.compact(annotationTokens)));
                 }
             }
 
@@ -8751,37 +9922,37 @@ public interface TypePool {
                     TypeReference typeReference = new TypeReference(rawTypeReference);
                     switch (typeReference.getSort()) {
                         case TypeReference.METHOD_TYPE_PARAMETER:
-                            annotationRegistrant = new ForTypeVariable.WithIndex(descriptor,
+                            annotationRegistrant = new ForTypeVariable.WithIndex(intern(descriptor),
                                     typePath,
                                     typeReference.getTypeParameterIndex(),
                                     typeVariableAnnotationTokens);
                             break;
                         case TypeReference.METHOD_TYPE_PARAMETER_BOUND:
-                            annotationRegistrant = new ForTypeVariable.WithIndex.DoubleIndexed(descriptor,
+                            annotationRegistrant = new ForTypeVariable.WithIndex.DoubleIndexed(intern(descriptor),
                                     typePath,
                                     typeReference.getTypeParameterBoundIndex(),
                                     typeReference.getTypeParameterIndex(),
                                     typeVariableBoundAnnotationTokens);
                             break;
                         case TypeReference.METHOD_RETURN:
-                            annotationRegistrant = new ForTypeVariable(descriptor,
+                            annotationRegistrant = new ForTypeVariable(intern(descriptor),
                                     typePath,
                                     returnTypeAnnotationTokens);
                             break;
                         case TypeReference.METHOD_FORMAL_PARAMETER:
-                            annotationRegistrant = new ForTypeVariable.WithIndex(descriptor,
+                            annotationRegistrant = new ForTypeVariable.WithIndex(intern(descriptor),
                                     typePath,
                                     typeReference.getFormalParameterIndex(),
                                     parameterTypeAnnotationTokens);
                             break;
                         case TypeReference.THROWS:
-                            annotationRegistrant = new ForTypeVariable.WithIndex(descriptor,
+                            annotationRegistrant = new ForTypeVariable.WithIndex(intern(descriptor),
                                     typePath,
                                     typeReference.getExceptionIndex(),
                                     exceptionTypeAnnotationTokens);
                             break;
                         case TypeReference.METHOD_RECEIVER:
-                            annotationRegistrant = new ForTypeVariable(descriptor,
+                            annotationRegistrant = new ForTypeVariable(intern(descriptor),
                                     typePath,
                                     receiverTypeAnnotationTokens);
                             break;
@@ -8825,13 +9996,13 @@ public interface TypePool {
                 @Override
                 public void visitLocalVariable(String name, String descriptor, String signature, Label start, Label end, int offset) {
                     if (readerMode.isExtended() && start == firstLabel) {
-                        legacyParameterBag.register(offset, name);
+                        legacyParameterBag.register(offset, intern(name));
                     }
                 }
 
                 @Override
                 public void visitParameter(String name, int modifiers) {
-                    parameterTokens.add(new LazyTypeDescription.MethodToken.ParameterToken(name, modifiers));
+                    parameterTokens.add(new LazyTypeDescription.MethodToken.ParameterToken(intern(name), modifiers));
                 }
 
                 @Override
@@ -8860,17 +10031,17 @@ public interface TypePool {
                             descriptor,
                             genericSignature,
                             exceptionName,
-                            typeVariableAnnotationTokens,
-                            typeVariableBoundAnnotationTokens,
-                            returnTypeAnnotationTokens,
-                            parameterTypeAnnotationTokens,
-                            exceptionTypeAnnotationTokens,
-                            receiverTypeAnnotationTokens,
-                            annotationTokens,
-                            parameterAnnotationTokens,
-                            parameterTokens.isEmpty()
+                            symbolTable.compact(typeVariableAnnotationTokens),
+                            symbolTable.compact(typeVariableBoundAnnotationTokens),
+                            symbolTable.compact(returnTypeAnnotationTokens),
+                            symbolTable.compact(parameterTypeAnnotationTokens),
+                            symbolTable.compact(exceptionTypeAnnotationTokens),
+                            symbolTable.compact(receiverTypeAnnotationTokens),
+                            symbolTable.compact(annotationTokens),
+                            symbolTable.compact(parameterAnnotationTokens),
+                            symbolTable.compact(parameterTokens.isEmpty()
                                     ? legacyParameterBag.resolve((modifiers & Opcodes.ACC_STATIC) != 0)
-                                    : parameterTokens,
+                                    : parameterTokens),
                             defaultValue));
                 }
             }
@@ -8928,7 +10099,7 @@ public interface TypePool {
                     TypeReference typeReference = new TypeReference(rawTypeReference);
                     switch (typeReference.getSort()) {
                         case TypeReference.FIELD:
-                            annotationRegistrant = new AnnotationRegistrant.ForTypeVariable(descriptor, typePath, typeAnnotationTokens);
+                            annotationRegistrant = new AnnotationRegistrant.ForTypeVariable(intern(descriptor), typePath, typeAnnotationTokens);
                             break;
                         default:
                             throw new IllegalStateException("Unexpected type reference on record component: " + typeReference.getSort());
@@ -8946,8 +10117,8 @@ public interface TypePool {
                     recordComponentTokens.add(new LazyTypeDescription.RecordComponentToken(name,
                             descriptor,
                             genericSignature,
-                            typeAnnotationTokens,
-                            annotationTokens));
+                            symbolTable.compact(typeAnnotationTokens),
+                            symbolTable.compact(annotationTokens)));
                 }
             }
         }
@@ -3,6 +3,7 @@ package net.bytebuddy.agent.builder;
 import org.junit.Test;
 
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -21,6 +22,47 @@ public class AgentBuilderCircularityLockTest {
         assertThat(circularityLock.isLocked(), is(false));
     }
 
+    @Test
+    public void testCircularityLockForThreadLocal() throws Exception {
+        final AgentBuilder.CircularityLock.ForThreadLocal circularityLock = new AgentBuilder.CircularityLock.ForThreadLocal();
+        assertThat(circularityLock.isLocked(), is(false));
+        circularityLock.release();
+        assertThat(circularityLock.acquire(), is(true));
+        assertThat(circularityLock.acquire(), is(false));
+        assertThat(circularityLock.isLocked(), is(true));
+        final AtomicBoolean acquired = new AtomicBoolean();
+        Thread thread = new Thread(new Runnable() {
+            public void run() {
+                acquired.set(!circularityLock.isLocked() && circularityLock.acquire());
+            }
+        });
+        thread.start();
+        thread.join();
+        assertThat(acquired.get(), is(true));
+        circularityLock.release();
+        assertThat(circularityLock.isLocked(), is(false));
+        assertThat(circularityLock.acquire(), is(true));
+        circularityLock.release();
+    }
+
+    @Test
+    public void testCircularityLockForThreadLocalRefused() throws Exception {
+        AgentBuilder.CircularityLock.ForThreadLocal circularityLock = new AgentBuilder.CircularityLock.ForThreadLocal(new ThreadLocal<boolean[]>() {
+            @Override
+            public void set(boolean[] value) {
+                throw new UnsupportedOperationException();
+            }
+        });
+        assertThat(circularityLock.isLocked(), is(false));
+        assertThat(circularityLock.acquire(), is(true));
+        assertThat(circularityLock.acquire(), is(false));
+        assertThat(circularityLock.isLocked(), is(true));
+        circularityLock.release();
+        assertThat(circularityLock.isLocked(), is(false));
+        assertThat(circularityLock.acquire(), is(true));
+        circularityLock.release();
+    }
+
     @Test
     public void testCircularityLockInactive() throws Exception {
         AgentBuilder.CircularityLock circularityLock = AgentBuilder.CircularityLock.Inactive.INSTANCE;
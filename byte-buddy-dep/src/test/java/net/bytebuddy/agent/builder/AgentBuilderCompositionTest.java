@@ -0,0 +1,178 @@
+package net.bytebuddy.agent.builder;
+
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.ClassFileLocator;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.dynamic.loading.ByteArrayClassLoader;
+import net.bytebuddy.implementation.FixedValue;
+import net.bytebuddy.utility.JavaModule;
+import net.bytebuddy.utility.nullability.MaybeNull;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.MethodRule;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnit;
+
+import java.lang.instrument.ClassFileTransformer;
+import java.lang.instrument.Instrumentation;
+import java.security.ProtectionDomain;
+import java.util.Collections;
+import java.util.List;
+
+import static net.bytebuddy.matcher.ElementMatchers.named;
+import static net.bytebuddy.matcher.ElementMatchers.none;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.*;
+
+public class AgentBuilderCompositionTest {
+
+    private static final String FOO = "foo", BAR = "bar", QUX = "qux", BAZ = "baz";
+
+    @Rule
+    public MethodRule mockitoRule = MockitoJUnit.rule().silent();
+
+    @Mock
+    private Instrumentation instrumentation;
+
+    @Mock
+    private AgentBuilder.Listener first, second;
+
+    private AgentBuilder.Transformer firstTransformer, secondTransformer;
+
+    private AgentBuilder firstAgentBuilder, secondAgentBuilder;
+
+    @Before
+    public void setUp() throws Exception {
+        firstTransformer = new FixedValueTransformer(FOO, QUX);
+        secondTransformer = new FixedValueTransformer(BAR, QUX);
+        firstAgentBuilder = new AgentBuilder.Default()
+                .with(AgentBuilder.TypeStrategy.Default.REDEFINE)
+                .with(AgentBuilder.InitializationStrategy.NoOp.INSTANCE)
+                .with(first)
+                .ignore(none())
+                .type(named(Sample.class.getName())).transform(firstTransformer).asTerminalTransformation()
+                .type(named(Sample.class.getName())).transform(new FixedValueTransformer(FOO, BAZ));
+        secondAgentBuilder = new AgentBuilder.Default()
+                .with(second)
+                .ignore(none())
+                .type(named(Sample.class.getName())).transform(secondTransformer);
+    }
+
+    @Test
+    public void testComposition() throws Exception {
+        List<ResettableClassFileTransformer> classFileTransformers = new AgentBuilder.Composition(firstAgentBuilder, secondAgentBuilder).installOn(instrumentation);
+        assertThat(classFileTransformers.size(), is(2));
+        ArgumentCaptor<ClassFileTransformer> classFileTransformer = ArgumentCaptor.forClass(ClassFileTransformer.class);
+        verify(instrumentation).addTransformer(classFileTransformer.capture());
+        Object sample = load(classFileTransformer.getValue().transform(Sample.class.getClassLoader(),
+                Sample.class.getName().replace('.', '/'),
+                null,
+                Sample.class.getProtectionDomain(),
+                ClassFileLocator.ForClassLoader.read(Sample.class)));
+        assertThat(sample.getClass().getMethod(FOO).invoke(sample), is((Object) QUX));
+        assertThat(sample.getClass().getMethod(BAR).invoke(sample), is((Object) QUX));
+        verify(first).onTransformation(Mockito.any(TypeDescription.class), eq(Sample.class.getClassLoader()), Mockito.<JavaModule>any(), eq(false), Mockito.any(DynamicType.class));
+        verify(second).onTransformation(Mockito.any(TypeDescription.class), eq(Sample.class.getClassLoader()), Mockito.<JavaModule>any(), eq(false), Mockito.any(DynamicType.class));
+    }
+
+    @Test
+    public void testCompositionMemberReset() throws Exception {
+        List<ResettableClassFileTransformer> classFileTransformers = new AgentBuilder.Composition(firstAgentBuilder, secondAgentBuilder).installOn(instrumentation);
+        ArgumentCaptor<ClassFileTransformer> classFileTransformer = ArgumentCaptor.forClass(ClassFileTransformer.class);
+        verify(instrumentation).addTransformer(classFileTransformer.capture());
+        assertThat(classFileTransformers.get(0).reset(instrumentation, AgentBuilder.RedefinitionStrategy.DISABLED), is(true));
+        assertThat(classFileTransformers.get(0).reset(instrumentation, AgentBuilder.RedefinitionStrategy.DISABLED), is(false));
+        verifyNoMoreInteractions(instrumentation);
+        Object sample = load(classFileTransformer.getValue().transform(Sample.class.getClassLoader(),
+                Sample.class.getName().replace('.', '/'),
+                null,
+                Sample.class.getProtectionDomain(),
+                ClassFileLocator.ForClassLoader.read(Sample.class)));
+        assertThat(sample.getClass().getMethod(FOO).invoke(sample), is((Object) FOO));
+        assertThat(sample.getClass().getMethod(BAR).invoke(sample), is((Object) QUX));
+        when(instrumentation.removeTransformer(classFileTransformer.getValue())).thenReturn(true);
+        assertThat(classFileTransformers.get(1).reset(instrumentation, AgentBuilder.RedefinitionStrategy.DISABLED), is(true));
+        verify(instrumentation).removeTransformer(classFileTransformer.getValue());
+        verifyNoMoreInteractions(instrumentation);
+        assertThat(classFileTransformers.get(1).reset(instrumentation, AgentBuilder.RedefinitionStrategy.DISABLED), is(false));
+    }
+
+    @Test
+    public void testCompositionIgnoreMatcher() throws Exception {
+        new AgentBuilder.Composition(firstAgentBuilder, secondAgentBuilder.ignore(named(Sample.class.getName()))).installOn(instrumentation);
+        ArgumentCaptor<ClassFileTransformer> classFileTransformer = ArgumentCaptor.forClass(ClassFileTransformer.class);
+        verify(instrumentation).addTransformer(classFileTransformer.capture());
+        Object sample = load(classFileTransformer.getValue().transform(Sample.class.getClassLoader(),
+                Sample.class.getName().replace('.', '/'),
+                null,
+                Sample.class.getProtectionDomain(),
+                ClassFileLocator.ForClassLoader.read(Sample.class)));
+        assertThat(sample.getClass().getMethod(FOO).invoke(sample), is((Object) QUX));
+        assertThat(sample.getClass().getMethod(BAR).invoke(sample), is((Object) BAR));
+    }
+
+    @Test
+    public void testCompositionMemberIterator() throws Exception {
+        List<ResettableClassFileTransformer> classFileTransformers = new AgentBuilder.Composition(firstAgentBuilder, secondAgentBuilder).installOn(instrumentation);
+        TypeDescription typeDescription = TypeDescription.ForLoadedType.of(Sample.class);
+        assertThat(classFileTransformers.get(0).iterator(typeDescription, null, null, null, null).next(), sameInstance(firstTransformer));
+        assertThat(classFileTransformers.get(1).iterator(typeDescription, null, null, null, null).next(), sameInstance(secondTransformer));
+        assertThat(classFileTransformers.get(0).transform(null, FOO, null, null, new byte[0]), nullValue(byte[].class));
+        assertThat(classFileTransformers.get(0).reset(instrumentation, AgentBuilder.RedefinitionStrategy.DISABLED), is(true));
+        assertThat(classFileTransformers.get(0).iterator(typeDescription, null, null, null, null).hasNext(), is(false));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCompositionEmpty() throws Exception {
+        new AgentBuilder.Composition(Collections.<AgentBuilder>emptyList());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCompositionUnknownAgentBuilder() throws Exception {
+        new AgentBuilder.Composition(mock(AgentBuilder.class)).installOn(instrumentation);
+    }
+
+    private static Object load(byte[] binaryRepresentation) throws Exception {
+        ClassLoader classLoader = new ByteArrayClassLoader(null,
+                Collections.singletonMap(Sample.class.getName(), binaryRepresentation),
+                ByteArrayClassLoader.PersistenceHandler.MANIFEST);
+        return classLoader.loadClass(Sample.class.getName()).getConstructor().newInstance();
+    }
+
+    public static class Sample {
+
+        public String foo() {
+            return FOO;
+        }
+
+        public String bar() {
+            return BAR;
+        }
+    }
+
+    private static class FixedValueTransformer implements AgentBuilder.Transformer {
+
+        private final String name;
+
+        private final String value;
+
+        private FixedValueTransformer(String name, String value) {
+            this.name = name;
+            this.value = value;
+        }
+
+        public DynamicType.Builder<?> transform(DynamicType.Builder<?> builder,
+                                                TypeDescription typeDescription,
+                                                @MaybeNull ClassLoader classLoader,
+                                                @MaybeNull JavaModule module,
+                                                @MaybeNull ProtectionDomain protectionDomain) {
+            return builder.method(named(name)).intercept(FixedValue.value(value));
+        }
+    }
+}
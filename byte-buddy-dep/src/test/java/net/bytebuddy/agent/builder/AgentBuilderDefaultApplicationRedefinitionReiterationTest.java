@@ -48,7 +48,7 @@ public class AgentBuilderDefaultApplicationRedefinitionReiterationTest {
     @AgentAttachmentRule.Enforce(retransformsClasses = true)
     public void testAdviceWithoutLoadedClasses() throws Exception {
         assertThat(ByteBuddyAgent.install(), instanceOf(Instrumentation.class));
-        ClassFileTransformer classFileTransformer = installInstrumentation();
+        ClassFileTransformer classFileTransformer = installInstrumentation(AgentBuilder.RedefinitionStrategy.DiscoveryStrategy.Reiterating.INSTANCE);
         try {
             assertAdvice();
         } finally {
@@ -61,7 +61,7 @@ public class AgentBuilderDefaultApplicationRedefinitionReiterationTest {
     public void testAdviceWithOneLoadedClass() throws Exception {
         assertThat(ByteBuddyAgent.install(), instanceOf(Instrumentation.class));
         classLoader.loadClass(Foo.class.getName());
-        ClassFileTransformer classFileTransformer = installInstrumentation();
+        ClassFileTransformer classFileTransformer = installInstrumentation(AgentBuilder.RedefinitionStrategy.DiscoveryStrategy.Reiterating.INSTANCE);
         try {
             assertAdvice();
         } finally {
@@ -75,7 +75,34 @@ public class AgentBuilderDefaultApplicationRedefinitionReiterationTest {
         assertThat(ByteBuddyAgent.install(), instanceOf(Instrumentation.class));
         classLoader.loadClass(Foo.class.getName());
         classLoader.loadClass(Bar.class.getName());
-        ClassFileTransformer classFileTransformer = installInstrumentation();
+        ClassFileTransformer classFileTransformer = installInstrumentation(AgentBuilder.RedefinitionStrategy.DiscoveryStrategy.Reiterating.INSTANCE);
+        try {
+            assertAdvice();
+        } finally {
+            assertThat(ByteBuddyAgent.getInstrumentation().removeTransformer(classFileTransformer), is(true));
+        }
+    }
+
+    @Test
+    @AgentAttachmentRule.Enforce(retransformsClasses = true)
+    public void testAdviceWithOneLoadedClassRecording() throws Exception {
+        assertThat(ByteBuddyAgent.install(), instanceOf(Instrumentation.class));
+        classLoader.loadClass(Foo.class.getName());
+        ClassFileTransformer classFileTransformer = installInstrumentation(AgentBuilder.RedefinitionStrategy.DiscoveryStrategy.Recording.INSTANCE);
+        try {
+            assertAdvice();
+        } finally {
+            assertThat(ByteBuddyAgent.getInstrumentation().removeTransformer(classFileTransformer), is(true));
+        }
+    }
+
+    @Test
+    @AgentAttachmentRule.Enforce(retransformsClasses = true)
+    public void testAdviceWithTwoLoadedClassesRecording() throws Exception {
+        assertThat(ByteBuddyAgent.install(), instanceOf(Instrumentation.class));
+        classLoader.loadClass(Foo.class.getName());
+        classLoader.loadClass(Bar.class.getName());
+        ClassFileTransformer classFileTransformer = installInstrumentation(AgentBuilder.RedefinitionStrategy.DiscoveryStrategy.Recording.INSTANCE);
         try {
             assertAdvice();
         } finally {
@@ -88,11 +115,11 @@ public class AgentBuilderDefaultApplicationRedefinitionReiterationTest {
         assertThat(type.getDeclaredMethod("createBar").invoke(type.getDeclaredConstructor().newInstance()).toString(), is((Object) (QUX + FOO + BAR)));
     }
 
-    private ClassFileTransformer installInstrumentation() {
+    private ClassFileTransformer installInstrumentation(AgentBuilder.RedefinitionStrategy.DiscoveryStrategy discoveryStrategy) {
         return new AgentBuilder.Default()
                 .disableClassFormatChanges()
                 .with(AgentBuilder.RedefinitionStrategy.RETRANSFORMATION)
-                .with(AgentBuilder.RedefinitionStrategy.DiscoveryStrategy.Reiterating.INSTANCE)
+                .with(discoveryStrategy)
                 .ignore(none())
                 .type(named(Foo.class.getName()), ElementMatchers.is(classLoader))
                 .transform(new AgentBuilder.Transformer.ForAdvice()
@@ -128,6 +128,74 @@ public class AgentBuilderDefaultApplicationResubmissionTest {
         }
     }
 
+    @Test
+    @AgentAttachmentRule.Enforce(retransformsClasses = true)
+    @IntegrationRule.Enforce
+    public void testDeferredResubmission() throws Exception {
+        // A redefinition reflects on loaded types which are eagerly validated types (Java 7- for redefinition).
+        // This causes type equality for outer/inner classes to fail which is why an external class is used.
+        ScheduledExecutorService scheduledExecutorService = Executors.newSingleThreadScheduledExecutor();
+        try {
+            assertThat(ByteBuddyAgent.install(), instanceOf(Instrumentation.class));
+            AgentBuilder.RedefinitionStrategy.ResubmissionScheduler.Deferred resubmissionScheduler = new AgentBuilder.RedefinitionStrategy.ResubmissionScheduler.Deferred(scheduledExecutorService,
+                    TimeUnit.HOURS.toSeconds(TIMEOUT),
+                    TIMEOUT,
+                    TimeUnit.SECONDS);
+            ClassFileTransformer classFileTransformer = new AgentBuilder.Default(new ByteBuddy().with(TypeValidation.DISABLED))
+                    .ignore(none())
+                    .disableClassFormatChanges()
+                    .with(AgentBuilder.LocationStrategy.NoOp.INSTANCE)
+                    .with(AgentBuilder.RedefinitionStrategy.RETRANSFORMATION)
+                    .withResubmission(resubmissionScheduler)
+                    .resubmitImmediate()
+                    .type(ElementMatchers.is(SimpleType.class), ElementMatchers.is(classLoader)).transform(new SampleTransformer())
+                    .type(ElementMatchers.is(Object.class)).transform(new SampleTransformer()).asEagerTransformation()
+                    .installOnByteBuddyAgent();
+            try {
+                Class<?> type = classLoader.loadClass(SimpleType.class.getName());
+                Thread.sleep(TimeUnit.SECONDS.toMillis(TIMEOUT * 3));
+                assertThat(type.getDeclaredMethod(FOO).invoke(type.getDeclaredConstructor().newInstance()), is((Object) FOO));
+                resubmissionScheduler.ready();
+                assertThat(resubmissionScheduler.isReady(), is(true));
+                Thread.sleep(TimeUnit.SECONDS.toMillis(TIMEOUT * 3));
+                assertThat(type.getDeclaredMethod(FOO).invoke(type.getDeclaredConstructor().newInstance()), is((Object) BAR));
+            } finally {
+                assertThat(ByteBuddyAgent.getInstrumentation().removeTransformer(classFileTransformer), is(true));
+            }
+        } finally {
+            scheduledExecutorService.shutdown();
+        }
+    }
+
+    @Test
+    @AgentAttachmentRule.Enforce(retransformsClasses = true)
+    @IntegrationRule.Enforce
+    public void testDeferredResubmissionEagerTransformation() throws Exception {
+        ScheduledExecutorService scheduledExecutorService = Executors.newSingleThreadScheduledExecutor();
+        try {
+            assertThat(ByteBuddyAgent.install(), instanceOf(Instrumentation.class));
+            ClassFileTransformer classFileTransformer = new AgentBuilder.Default(new ByteBuddy().with(TypeValidation.DISABLED))
+                    .ignore(none())
+                    .disableClassFormatChanges()
+                    .with(AgentBuilder.RedefinitionStrategy.RETRANSFORMATION)
+                    .withResubmission(new AgentBuilder.RedefinitionStrategy.ResubmissionScheduler.Deferred(scheduledExecutorService,
+                            TimeUnit.HOURS.toSeconds(TIMEOUT),
+                            TIMEOUT,
+                            TimeUnit.SECONDS))
+                    .resubmitImmediate()
+                    .type(ElementMatchers.is(SimpleType.class), ElementMatchers.is(classLoader)).transform(new SampleTransformer()).asEagerTransformation()
+                    .installOnByteBuddyAgent();
+            try {
+                Class<?> type = classLoader.loadClass(SimpleType.class.getName());
+                assertThat(type.getDeclaredMethod(FOO).invoke(type.getDeclaredConstructor().newInstance()), is((Object) BAR));
+            } finally {
+                assertThat(ByteBuddyAgent.getInstrumentation().removeTransformer(classFileTransformer), is(true));
+            }
+        } finally {
+            scheduledExecutorService.shutdown();
+        }
+    }
+
     @Test
     public void testResubmissionCancellationNonOperational() throws Exception {
         AgentBuilder.RedefinitionStrategy.ResubmissionScheduler.Cancelable.NoOp.INSTANCE.cancel();
@@ -35,6 +35,7 @@ import java.lang.instrument.UnmodifiableClassException;
 import java.lang.reflect.InvocationTargetException;
 import java.security.ProtectionDomain;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 import static net.bytebuddy.matcher.ElementMatchers.none;
 import static net.bytebuddy.test.utility.FieldByFieldComparison.hasPrototype;
@@ -172,6 +173,353 @@ public class AgentBuilderDefaultTest {
         verifyNoMoreInteractions(installationListener);
     }
 
+    @Test
+    public void testSuccessfulWithIndexedTransformations() throws Exception {
+        when(dynamicType.getBytes()).thenReturn(BAZ);
+        when(resolution.resolve()).thenReturn(TypeDescription.ForLoadedType.of(REDEFINED));
+        when(typeMatcher.matches(TypeDescription.ForLoadedType.of(REDEFINED), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), null, REDEFINED.getProtectionDomain()))
+                .thenReturn(true);
+        AgentBuilder.Transformer otherTransformer = mock(AgentBuilder.Transformer.class);
+        ResettableClassFileTransformer classFileTransformer = new AgentBuilder.Default(byteBuddy)
+                .with(initializationStrategy)
+                .with(poolStrategy)
+                .with(typeStrategy)
+                .disableNativeMethodPrefix()
+                .ignore(none())
+                .type(ElementMatchers.named(FOO)).transform(otherTransformer)
+                .type(ElementMatchers.named(REDEFINED.getName())).and(typeMatcher).transform(transformer)
+                .type(ElementMatchers.nameStartsWith(FOO).or(ElementMatchers.hasSuperType(ElementMatchers.named(FOO)))).transform(otherTransformer)
+                .installOn(instrumentation);
+        assertThat(transform(classFileTransformer, JavaModule.ofType(REDEFINED), REDEFINED.getClassLoader(), REDEFINED.getName(), null, REDEFINED.getProtectionDomain(), QUX), is(BAZ));
+        verify(transformer).transform(builder, TypeDescription.ForLoadedType.of(REDEFINED), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), REDEFINED.getProtectionDomain());
+        verifyNoMoreInteractions(transformer);
+        verifyNoMoreInteractions(otherTransformer);
+        Iterator<AgentBuilder.Transformer> iterator = classFileTransformer.iterator(TypeDescription.ForLoadedType.of(REDEFINED),
+                REDEFINED.getClassLoader(),
+                JavaModule.ofType(REDEFINED),
+                null,
+                REDEFINED.getProtectionDomain());
+        assertThat(iterator.hasNext(), is(true));
+        assertThat(iterator.next(), is(transformer));
+        assertThat(iterator.hasNext(), is(false));
+    }
+
+    @Test
+    public void testSuccessfulWithTransformationCacheRegistration() throws Exception {
+        when(dynamicType.getBytes()).thenReturn(BAZ);
+        when(resolution.resolve()).thenReturn(TypeDescription.ForLoadedType.of(REDEFINED));
+        when(typeMatcher.matches(TypeDescription.ForLoadedType.of(REDEFINED), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), null, REDEFINED.getProtectionDomain()))
+                .thenReturn(true);
+        AgentBuilder.TransformationCache transformationCache = mock(AgentBuilder.TransformationCache.class);
+        ResettableClassFileTransformer classFileTransformer = new AgentBuilder.Default(byteBuddy)
+                .with(initializationStrategy)
+                .with(poolStrategy)
+                .with(typeStrategy)
+                .with(transformationCache)
+                .disableNativeMethodPrefix()
+                .ignore(none())
+                .type(none()).transform(transformer)
+                .type(typeMatcher).transform(transformer)
+                .installOn(instrumentation);
+        assertThat(transform(classFileTransformer, JavaModule.ofType(REDEFINED), REDEFINED.getClassLoader(), REDEFINED.getName(), null, REDEFINED.getProtectionDomain(), QUX), is(BAZ));
+        verify(transformationCache).find(REDEFINED.getName(), REDEFINED.getClassLoader(), QUX, Collections.singletonList(1));
+        verify(transformationCache).register(REDEFINED.getName(), REDEFINED.getClassLoader(), QUX, Collections.singletonList(1), BAZ);
+        verifyNoMoreInteractions(transformationCache);
+        verify(transformer).transform(builder, TypeDescription.ForLoadedType.of(REDEFINED), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), REDEFINED.getProtectionDomain());
+        verifyNoMoreInteractions(transformer);
+    }
+
+    @Test
+    public void testSuccessfulWithUnmodifiedBuilder() throws Exception {
+        when(builder.isUnmodified()).thenReturn(true);
+        when(resolution.resolve()).thenReturn(TypeDescription.ForLoadedType.of(REDEFINED));
+        when(typeMatcher.matches(TypeDescription.ForLoadedType.of(REDEFINED), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), null, REDEFINED.getProtectionDomain()))
+                .thenReturn(true);
+        ResettableClassFileTransformer classFileTransformer = new AgentBuilder.Default(byteBuddy)
+                .with(initializationStrategy)
+                .with(poolStrategy)
+                .with(typeStrategy)
+                .with(installationListener)
+                .with(listener)
+                .disableNativeMethodPrefix()
+                .ignore(none())
+                .type(typeMatcher).transform(transformer)
+                .installOn(instrumentation);
+        assertThat(transform(classFileTransformer, JavaModule.ofType(REDEFINED), REDEFINED.getClassLoader(), REDEFINED.getName(), null, REDEFINED.getProtectionDomain(), QUX), nullValue(byte[].class));
+        verify(listener).onDiscovery(REDEFINED.getName(), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), false);
+        verify(listener).onIgnored(TypeDescription.ForLoadedType.of(REDEFINED), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), false);
+        verify(listener).onComplete(REDEFINED.getName(), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), false);
+        verifyNoMoreInteractions(listener);
+        verifyNoMoreInteractions(dispatcher);
+        verify(builder).isUnmodified();
+        verify(builder, never()).make(TypeResolutionStrategy.Disabled.INSTANCE, typePool);
+        verify(transformer).transform(builder, TypeDescription.ForLoadedType.of(REDEFINED), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), REDEFINED.getProtectionDomain());
+        verifyNoMoreInteractions(transformer);
+    }
+
+    @Test
+    public void testSuccessfulWithUnmodifiedBuilderAndDefaultInitializationStrategy() throws Exception {
+        ResettableClassFileTransformer classFileTransformer = new AgentBuilder.Default()
+                .with(installationListener)
+                .with(listener)
+                .ignore(none())
+                .type(ElementMatchers.is(REDEFINED)).transform(new AgentBuilder.Transformer() {
+                    public DynamicType.Builder<?> transform(DynamicType.Builder<?> builder,
+                                                            TypeDescription typeDescription,
+                                                            ClassLoader classLoader,
+                                                            JavaModule module,
+                                                            ProtectionDomain protectionDomain) {
+                        return builder;
+                    }
+                })
+                .installOn(instrumentation);
+        assertThat(transform(classFileTransformer,
+                JavaModule.ofType(REDEFINED),
+                REDEFINED.getClassLoader(),
+                REDEFINED.getName().replace('.', '/'),
+                null,
+                REDEFINED.getProtectionDomain(),
+                ClassFileLocator.ForClassLoader.read(REDEFINED)), nullValue(byte[].class));
+        verify(listener).onDiscovery(REDEFINED.getName(), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), false);
+        verify(listener).onIgnored(any(TypeDescription.class), eq(REDEFINED.getClassLoader()), eq(JavaModule.ofType(REDEFINED)), eq(false));
+        verify(listener).onComplete(REDEFINED.getName(), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), false);
+        verifyNoMoreInteractions(listener);
+    }
+
+    @Test
+    public void testSuccessfulWithEagerTransformation() throws Exception {
+        when(instrumentation.isRetransformClassesSupported()).thenReturn(true);
+        when(dynamicType.getBytes()).thenReturn(BAZ);
+        when(resolution.resolve()).thenReturn(TypeDescription.ForLoadedType.of(REDEFINED));
+        when(typeMatcher.matches(TypeDescription.ForLoadedType.of(REDEFINED), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), null, REDEFINED.getProtectionDomain()))
+                .thenReturn(true);
+        AgentBuilder.RedefinitionStrategy.ResubmissionScheduler resubmissionScheduler = mock(AgentBuilder.RedefinitionStrategy.ResubmissionScheduler.class);
+        when(resubmissionScheduler.isAlive()).thenReturn(true);
+        ResettableClassFileTransformer classFileTransformer = new AgentBuilder.Default(byteBuddy)
+                .with(initializationStrategy)
+                .with(poolStrategy)
+                .with(typeStrategy)
+                .disableNativeMethodPrefix()
+                .with(AgentBuilder.RedefinitionStrategy.RETRANSFORMATION)
+                .redefineOnly()
+                .withResubmission(resubmissionScheduler)
+                .resubmitImmediate()
+                .ignore(none())
+                .type(typeMatcher).transform(transformer).asEagerTransformation()
+                .installOn(instrumentation);
+        assertThat(transform(classFileTransformer, JavaModule.ofType(REDEFINED), REDEFINED.getClassLoader(), REDEFINED.getName(), null, REDEFINED.getProtectionDomain(), QUX), is(BAZ));
+        verify(transformer).transform(builder, TypeDescription.ForLoadedType.of(REDEFINED), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), REDEFINED.getProtectionDomain());
+        verifyNoMoreInteractions(transformer);
+    }
+
+    @Test
+    public void testDeferredWithEagerTransformation() throws Exception {
+        when(instrumentation.isRetransformClassesSupported()).thenReturn(true);
+        when(resolution.resolve()).thenReturn(TypeDescription.ForLoadedType.of(REDEFINED));
+        when(typeMatcher.matches(TypeDescription.ForLoadedType.of(REDEFINED), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), null, REDEFINED.getProtectionDomain()))
+                .thenReturn(true);
+        AgentBuilder.RedefinitionStrategy.ResubmissionScheduler resubmissionScheduler = mock(AgentBuilder.RedefinitionStrategy.ResubmissionScheduler.class);
+        when(resubmissionScheduler.isAlive()).thenReturn(true);
+        AgentBuilder.Transformer otherTransformer = mock(AgentBuilder.Transformer.class);
+        ResettableClassFileTransformer classFileTransformer = new AgentBuilder.Default(byteBuddy)
+                .with(initializationStrategy)
+                .with(poolStrategy)
+                .with(typeStrategy)
+                .with(listener)
+                .disableNativeMethodPrefix()
+                .with(AgentBuilder.RedefinitionStrategy.RETRANSFORMATION)
+                .redefineOnly()
+                .withResubmission(resubmissionScheduler)
+                .resubmitImmediate()
+                .ignore(none())
+                .type(none()).transform(otherTransformer).asEagerTransformation()
+                .type(typeMatcher).transform(transformer)
+                .installOn(instrumentation);
+        assertThat(transform(classFileTransformer, JavaModule.ofType(REDEFINED), REDEFINED.getClassLoader(), REDEFINED.getName(), null, REDEFINED.getProtectionDomain(), QUX), nullValue(byte[].class));
+        verify(listener).onDiscovery(REDEFINED.getName(), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), false);
+        verify(listener).onComplete(REDEFINED.getName(), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), false);
+        verifyNoMoreInteractions(listener);
+        verifyNoMoreInteractions(transformer);
+        verifyNoMoreInteractions(otherTransformer);
+        verify(resubmissionScheduler).isAlive();
+        verify(resubmissionScheduler).schedule(any(Runnable.class));
+        verifyNoMoreInteractions(resubmissionScheduler);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testTimeBudgetExceeded() throws Exception {
+        when(dynamicType.getBytes()).thenReturn(BAZ);
+        when(resolution.resolve()).thenReturn(TypeDescription.ForLoadedType.of(REDEFINED));
+        when(typeMatcher.matches(TypeDescription.ForLoadedType.of(REDEFINED), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), null, REDEFINED.getProtectionDomain()))
+                .thenReturn(true);
+        when(transformer.transform(builder, TypeDescription.ForLoadedType.of(REDEFINED), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), REDEFINED.getProtectionDomain()))
+                .then(new Answer<DynamicType.Builder<?>>() {
+                    public DynamicType.Builder<?> answer(InvocationOnMock invocation) throws Throwable {
+                        Thread.sleep(10L);
+                        return builder;
+                    }
+                });
+        AgentBuilder.TransformerDecorator.WithTimeBudget transformerDecorator = new AgentBuilder.TransformerDecorator.WithTimeBudget(1L, TimeUnit.MILLISECONDS);
+        ResettableClassFileTransformer classFileTransformer = new AgentBuilder.Default(byteBuddy)
+                .with(initializationStrategy)
+                .with(poolStrategy)
+                .with(typeStrategy)
+                .with(listener)
+                .with(transformerDecorator)
+                .disableNativeMethodPrefix()
+                .ignore(none())
+                .type(typeMatcher).transform(transformer)
+                .installOn(instrumentation);
+        assertThat(transform(classFileTransformer, JavaModule.ofType(REDEFINED), REDEFINED.getClassLoader(), REDEFINED.getName(), null, REDEFINED.getProtectionDomain(), QUX), nullValue(byte[].class));
+        assertThat(transformerDecorator.getExceededTypes(), is(Collections.singleton(REDEFINED.getName())));
+        verify(listener).onDiscovery(REDEFINED.getName(), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), false);
+        verify(listener).onError(eq(REDEFINED.getName()),
+                eq(REDEFINED.getClassLoader()),
+                eq(JavaModule.ofType(REDEFINED)),
+                eq(false),
+                Mockito.any(AgentBuilder.TransformerDecorator.WithTimeBudget.ExceededException.class));
+        verify(listener).onComplete(REDEFINED.getName(), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), false);
+        verifyNoMoreInteractions(listener);
+        verify(builder, never()).make(TypeResolutionStrategy.Disabled.INSTANCE, typePool);
+    }
+
+    @Test
+    public void testTimeBudgetNotExceeded() throws Exception {
+        when(dynamicType.getBytes()).thenReturn(BAZ);
+        when(resolution.resolve()).thenReturn(TypeDescription.ForLoadedType.of(REDEFINED));
+        when(typeMatcher.matches(TypeDescription.ForLoadedType.of(REDEFINED), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), null, REDEFINED.getProtectionDomain()))
+                .thenReturn(true);
+        AgentBuilder.TransformerDecorator.WithTimeBudget transformerDecorator = new AgentBuilder.TransformerDecorator.WithTimeBudget(1L, TimeUnit.MINUTES);
+        ResettableClassFileTransformer classFileTransformer = new AgentBuilder.Default(byteBuddy)
+                .with(initializationStrategy)
+                .with(poolStrategy)
+                .with(typeStrategy)
+                .with(transformerDecorator)
+                .disableNativeMethodPrefix()
+                .ignore(none())
+                .type(typeMatcher).transform(transformer)
+                .installOn(instrumentation);
+        assertThat(transform(classFileTransformer, JavaModule.ofType(REDEFINED), REDEFINED.getClassLoader(), REDEFINED.getName(), null, REDEFINED.getProtectionDomain(), QUX), is(BAZ));
+        assertThat(transformerDecorator.getExceededTypes().isEmpty(), is(true));
+    }
+
+    @Test
+    public void testTimeBudgetExceededWhileMaking() throws Exception {
+        when(dynamicType.getBytes()).thenReturn(BAZ);
+        when(resolution.resolve()).thenReturn(TypeDescription.ForLoadedType.of(REDEFINED));
+        when(typeMatcher.matches(TypeDescription.ForLoadedType.of(REDEFINED), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), null, REDEFINED.getProtectionDomain()))
+                .thenReturn(true);
+        when(builder.make(TypeResolutionStrategy.Disabled.INSTANCE, typePool)).then(new Answer<DynamicType.Unloaded<?>>() {
+            public DynamicType.Unloaded<?> answer(InvocationOnMock invocation) throws Throwable {
+                Thread.sleep(1000L);
+                return dynamicType;
+            }
+        });
+        AgentBuilder.TransformerDecorator.WithTimeBudget transformerDecorator = new AgentBuilder.TransformerDecorator.WithTimeBudget(500L, TimeUnit.MILLISECONDS);
+        ResettableClassFileTransformer classFileTransformer = new AgentBuilder.Default(byteBuddy)
+                .with(initializationStrategy)
+                .with(poolStrategy)
+                .with(typeStrategy)
+                .with(transformerDecorator)
+                .disableNativeMethodPrefix()
+                .ignore(none())
+                .type(typeMatcher).transform(transformer)
+                .installOn(instrumentation);
+        assertThat(transform(classFileTransformer, JavaModule.ofType(REDEFINED), REDEFINED.getClassLoader(), REDEFINED.getName(), null, REDEFINED.getProtectionDomain(), QUX), is(BAZ));
+        assertThat(transformerDecorator.getExceededTypes().isEmpty(), is(true));
+    }
+
+    @Test
+    public void testSuccessfulWithTransformationMetrics() throws Exception {
+        when(dynamicType.getBytes()).thenReturn(BAZ);
+        when(resolution.resolve()).thenReturn(TypeDescription.ForLoadedType.of(REDEFINED));
+        when(typeMatcher.matches(TypeDescription.ForLoadedType.of(REDEFINED), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), null, REDEFINED.getProtectionDomain()))
+                .thenReturn(true);
+        AgentBuilder.TransformationMetrics.Recording transformationMetrics = new AgentBuilder.TransformationMetrics.Recording();
+        ResettableClassFileTransformer classFileTransformer = new AgentBuilder.Default(byteBuddy)
+                .with(initializationStrategy)
+                .with(poolStrategy)
+                .with(typeStrategy)
+                .with(transformationMetrics)
+                .disableNativeMethodPrefix()
+                .ignore(none())
+                .type(none()).transform(transformer)
+                .type(typeMatcher).transform(transformer)
+                .installOn(instrumentation);
+        assertThat(transform(classFileTransformer, JavaModule.ofType(REDEFINED), REDEFINED.getClassLoader(), REDEFINED.getName(), null, REDEFINED.getProtectionDomain(), QUX), is(BAZ));
+        AgentBuilder.TransformationMetrics.Recording.Snapshot snapshot = transformationMetrics.getSnapshot();
+        assertThat(snapshot.getTransformedCount(), is(1L));
+        assertThat(snapshot.getIgnoredCount(), is(0L));
+        assertThat(snapshot.getFailedCount(), is(0L));
+        assertThat(snapshot.getPhase(AgentBuilder.TransformationMetrics.Phase.DESCRIPTION).getCount(), is(1L));
+        assertThat(snapshot.getPhase(AgentBuilder.TransformationMetrics.Phase.MATCHING).getCount(), is(1L));
+        assertThat(snapshot.getPhase(AgentBuilder.TransformationMetrics.Phase.BUILDING).getCount(), is(1L));
+        assertThat(snapshot.getPhase(AgentBuilder.TransformationMetrics.Phase.MAKING).getCount(), is(1L));
+        assertThat(snapshot.getTransformations().size(), is(2));
+        assertThat(snapshot.getTransformations().get(0).getCount(), is(0L));
+        assertThat(snapshot.getTransformations().get(1).getCount(), is(1L));
+    }
+
+    @Test
+    public void testSuccessfulWithTransformationCacheAliveInitializer() throws Exception {
+        when(dynamicType.getBytes()).thenReturn(BAZ);
+        when(dynamicType.hasAliveLoadedTypeInitializers()).thenReturn(true);
+        when(resolution.resolve()).thenReturn(TypeDescription.ForLoadedType.of(REDEFINED));
+        when(typeMatcher.matches(TypeDescription.ForLoadedType.of(REDEFINED), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), null, REDEFINED.getProtectionDomain()))
+                .thenReturn(true);
+        AgentBuilder.TransformationCache transformationCache = mock(AgentBuilder.TransformationCache.class);
+        ResettableClassFileTransformer classFileTransformer = new AgentBuilder.Default(byteBuddy)
+                .with(initializationStrategy)
+                .with(poolStrategy)
+                .with(typeStrategy)
+                .with(transformationCache)
+                .disableNativeMethodPrefix()
+                .ignore(none())
+                .type(typeMatcher).transform(transformer)
+                .installOn(instrumentation);
+        assertThat(transform(classFileTransformer, JavaModule.ofType(REDEFINED), REDEFINED.getClassLoader(), REDEFINED.getName(), null, REDEFINED.getProtectionDomain(), QUX), is(BAZ));
+        verify(transformationCache).find(REDEFINED.getName(), REDEFINED.getClassLoader(), QUX, Collections.singletonList(0));
+        verifyNoMoreInteractions(transformationCache);
+    }
+
+    @Test
+    public void testSuccessfulWithTransformationCacheHit() throws Exception {
+        when(resolution.resolve()).thenReturn(TypeDescription.ForLoadedType.of(REDEFINED));
+        when(typeMatcher.matches(TypeDescription.ForLoadedType.of(REDEFINED), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), null, REDEFINED.getProtectionDomain()))
+                .thenReturn(true);
+        AgentBuilder.TransformationCache transformationCache = mock(AgentBuilder.TransformationCache.class);
+        when(transformationCache.find(REDEFINED.getName(), REDEFINED.getClassLoader(), QUX, Collections.singletonList(0))).thenReturn(BAZ);
+        ResettableClassFileTransformer classFileTransformer = new AgentBuilder.Default(byteBuddy)
+                .with(initializationStrategy)
+                .with(poolStrategy)
+                .with(typeStrategy)
+                .with(listener)
+                .with(transformationCache)
+                .disableNativeMethodPrefix()
+                .ignore(none())
+                .type(typeMatcher).transform(transformer)
+                .installOn(instrumentation);
+        assertThat(transform(classFileTransformer, JavaModule.ofType(REDEFINED), REDEFINED.getClassLoader(), REDEFINED.getName(), null, REDEFINED.getProtectionDomain(), QUX), is(BAZ));
+        verify(listener).onDiscovery(REDEFINED.getName(), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), false);
+        verify(listener).onTransformation(eq(TypeDescription.ForLoadedType.of(REDEFINED)),
+                eq(REDEFINED.getClassLoader()),
+                eq(JavaModule.ofType(REDEFINED)),
+                eq(false),
+                any(DynamicType.class));
+        verify(listener).onComplete(REDEFINED.getName(), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), false);
+        verifyNoMoreInteractions(listener);
+        verify(transformationCache).find(REDEFINED.getName(), REDEFINED.getClassLoader(), QUX, Collections.singletonList(0));
+        verifyNoMoreInteractions(transformationCache);
+        verify(dispatcher).register(any(DynamicType.class),
+                eq(REDEFINED.getClassLoader()),
+                eq(REDEFINED.getProtectionDomain()),
+                eq(AgentBuilder.InjectionStrategy.UsingReflection.INSTANCE));
+        verifyNoMoreInteractions(dispatcher);
+        verifyNoMoreInteractions(typeStrategy);
+        verifyNoMoreInteractions(transformer);
+    }
+
     @Test
     public void testSuccessfulWithoutExistingClassConjunction() throws Exception {
         when(dynamicType.getBytes()).thenReturn(BAZ);
@@ -1020,6 +1368,41 @@ public class AgentBuilderDefaultTest {
         verifyNoMoreInteractions(installationListener);
     }
 
+    @Test
+    public void testRetransformationWithRecordingDiscoveryFailsEscalated() throws Exception {
+        when(instrumentation.getAllLoadedClasses()).thenReturn(new Class<?>[]{REDEFINED});
+        when(typeMatcher.matches(TypeDescription.ForLoadedType.of(REDEFINED), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), REDEFINED, REDEFINED.getProtectionDomain())).thenReturn(true);
+        when(instrumentation.isModifiableClass(REDEFINED)).thenReturn(true);
+        when(instrumentation.isRetransformClassesSupported()).thenReturn(true);
+        Throwable throwable = new RuntimeException();
+        doThrow(throwable).when(instrumentation).retransformClasses(REDEFINED);
+        ResettableClassFileTransformer classFileTransformer = new AgentBuilder.Default(byteBuddy)
+                .with(initializationStrategy)
+                .with(AgentBuilder.RedefinitionStrategy.RETRANSFORMATION)
+                .with(AgentBuilder.RedefinitionStrategy.DiscoveryStrategy.Recording.INSTANCE)
+                .with(AgentBuilder.RedefinitionStrategy.Listener.ErrorEscalating.FAIL_FAST)
+                .with(poolStrategy)
+                .with(typeStrategy)
+                .with(installationListener)
+                .with(listener)
+                .disableNativeMethodPrefix()
+                .ignore(none())
+                .type(typeMatcher).transform(transformer)
+                .installOn(instrumentation);
+        verify(instrumentation).addTransformer(classFileTransformer, true);
+        verify(instrumentation).addTransformer(any(AgentBuilder.RedefinitionStrategy.DiscoveryStrategy.Recording.RecordingTransformer.class));
+        verify(instrumentation).removeTransformer(any(AgentBuilder.RedefinitionStrategy.DiscoveryStrategy.Recording.RecordingTransformer.class));
+        verify(instrumentation).getAllLoadedClasses();
+        verify(instrumentation).isModifiableClass(REDEFINED);
+        verify(instrumentation).retransformClasses(REDEFINED);
+        verify(instrumentation).isRetransformClassesSupported();
+        verifyNoMoreInteractions(instrumentation);
+        verify(installationListener).onBeforeInstall(instrumentation, classFileTransformer);
+        verify(installationListener).onError(eq(instrumentation), eq(classFileTransformer), argThat(new CauseMatcher(throwable, 1)));
+        verify(installationListener).onInstall(instrumentation, classFileTransformer);
+        verifyNoMoreInteractions(installationListener);
+    }
+
     @Test
     public void testRetransformationPatchPreviousDoesNotMatch() throws Exception {
         when(typeMatcher.matches(TypeDescription.ForLoadedType.of(REDEFINED), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), REDEFINED, REDEFINED.getProtectionDomain())).thenReturn(true);
@@ -2067,6 +2450,106 @@ public class AgentBuilderDefaultTest {
         verifyNoMoreInteractions(installationListener);
     }
 
+    @Test
+    public void testIgnoredTypeCache() throws Exception {
+        when(resolution.resolve()).thenReturn(TypeDescription.ForLoadedType.of(REDEFINED));
+        when(typeMatcher.matches(TypeDescription.ForLoadedType.of(REDEFINED), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), REDEFINED, REDEFINED.getProtectionDomain()))
+                .thenReturn(false);
+        ResettableClassFileTransformer classFileTransformer = new AgentBuilder.Default(byteBuddy)
+                .with(initializationStrategy)
+                .with(poolStrategy)
+                .with(typeStrategy)
+                .with(installationListener)
+                .with(listener)
+                .with(new AgentBuilder.IgnoredTypeCache.Bounded(1))
+                .disableNativeMethodPrefix()
+                .ignore(none())
+                .type(typeMatcher).transform(transformer)
+                .installOn(instrumentation);
+        assertThat(transform(classFileTransformer, JavaModule.ofType(REDEFINED), REDEFINED.getClassLoader(), REDEFINED.getName(), REDEFINED, REDEFINED.getProtectionDomain(), QUX),
+                nullValue(byte[].class));
+        assertThat(transform(classFileTransformer, JavaModule.ofType(REDEFINED), REDEFINED.getClassLoader(), REDEFINED.getName(), REDEFINED, REDEFINED.getProtectionDomain(), QUX),
+                nullValue(byte[].class));
+        verify(listener, times(2)).onDiscovery(REDEFINED.getName(), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), true);
+        verify(listener, times(2)).onIgnored(TypeDescription.ForLoadedType.of(REDEFINED), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), true);
+        verify(listener, times(2)).onComplete(REDEFINED.getName(), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), true);
+        verifyNoMoreInteractions(listener);
+        verify(typeMatcher).matches(TypeDescription.ForLoadedType.of(REDEFINED), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), REDEFINED, REDEFINED.getProtectionDomain());
+        verifyNoMoreInteractions(typeMatcher);
+        verifyNoMoreInteractions(transformer);
+    }
+
+    @Test
+    public void testIgnoredTypeCacheDoesNotRegisterUnloadedTypes() throws Exception {
+        when(dynamicType.getBytes()).thenReturn(BAZ);
+        when(resolution.resolve()).thenReturn(TypeDescription.ForLoadedType.of(REDEFINED));
+        ResettableClassFileTransformer classFileTransformer = new AgentBuilder.Default(byteBuddy)
+                .with(initializationStrategy)
+                .with(poolStrategy)
+                .with(typeStrategy)
+                .with(installationListener)
+                .with(listener)
+                .with(new AgentBuilder.IgnoredTypeCache.Bounded(1))
+                .disableNativeMethodPrefix()
+                .ignore(none())
+                .type(AgentBuilder.RawMatcher.ForLoadState.LOADED).transform(transformer)
+                .installOn(instrumentation);
+        assertThat(transform(classFileTransformer, JavaModule.ofType(REDEFINED), REDEFINED.getClassLoader(), REDEFINED.getName(), null, REDEFINED.getProtectionDomain(), QUX),
+                nullValue(byte[].class));
+        assertThat(transform(classFileTransformer, JavaModule.ofType(REDEFINED), REDEFINED.getClassLoader(), REDEFINED.getName(), REDEFINED, REDEFINED.getProtectionDomain(), QUX),
+                is(BAZ));
+        verify(listener).onIgnored(TypeDescription.ForLoadedType.of(REDEFINED), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), false);
+        verify(listener).onTransformation(TypeDescription.ForLoadedType.of(REDEFINED), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), true, dynamicType);
+        verify(transformer).transform(builder, TypeDescription.ForLoadedType.of(REDEFINED), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), REDEFINED.getProtectionDomain());
+        verifyNoMoreInteractions(transformer);
+    }
+
+    @Test
+    public void testIgnoredByNameOnly() throws Exception {
+        ResettableClassFileTransformer classFileTransformer = new AgentBuilder.Default(byteBuddy)
+                .with(initializationStrategy)
+                .with(poolStrategy)
+                .with(typeStrategy)
+                .with(installationListener)
+                .with(listener)
+                .disableNativeMethodPrefix()
+                .ignore(new AgentBuilder.RawMatcher.ForNameOnly(ElementMatchers.is(REDEFINED.getName())))
+                .type(typeMatcher).transform(transformer)
+                .installOn(instrumentation);
+        assertThat(transform(classFileTransformer, JavaModule.ofType(REDEFINED), REDEFINED.getClassLoader(), REDEFINED.getName(), REDEFINED, REDEFINED.getProtectionDomain(), QUX),
+                nullValue(byte[].class));
+        verify(listener).onDiscovery(REDEFINED.getName(), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), true);
+        verify(listener).onIgnored(TypeDescription.ForLoadedType.of(REDEFINED), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), true);
+        verify(listener).onComplete(REDEFINED.getName(), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), true);
+        verifyNoMoreInteractions(listener);
+        verifyNoMoreInteractions(poolStrategy);
+        verifyNoMoreInteractions(locationStrategy);
+        verifyNoMoreInteractions(typeMatcher);
+        verifyNoMoreInteractions(transformer);
+    }
+
+    @Test
+    public void testUnmatchedByNameOnly() throws Exception {
+        ResettableClassFileTransformer classFileTransformer = new AgentBuilder.Default(byteBuddy)
+                .with(initializationStrategy)
+                .with(poolStrategy)
+                .with(typeStrategy)
+                .with(installationListener)
+                .with(listener)
+                .disableNativeMethodPrefix()
+                .ignore(none())
+                .type(new AgentBuilder.RawMatcher.ForNameOnly(ElementMatchers.is(FOO))).transform(transformer)
+                .installOn(instrumentation);
+        assertThat(transform(classFileTransformer, JavaModule.ofType(REDEFINED), REDEFINED.getClassLoader(), REDEFINED.getName(), null, REDEFINED.getProtectionDomain(), QUX),
+                nullValue(byte[].class));
+        verify(listener).onDiscovery(REDEFINED.getName(), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), false);
+        verify(listener).onIgnored(TypeDescription.ForLoadedType.of(REDEFINED), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), false);
+        verify(listener).onComplete(REDEFINED.getName(), REDEFINED.getClassLoader(), JavaModule.ofType(REDEFINED), false);
+        verifyNoMoreInteractions(listener);
+        verifyNoMoreInteractions(poolStrategy);
+        verifyNoMoreInteractions(transformer);
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testEmptyPrefixThrowsException() throws Exception {
         new AgentBuilder.Default(byteBuddy).enableNativeMethodPrefix("");
@@ -2352,6 +2835,9 @@ public class AgentBuilderDefaultTest {
                 AgentBuilder.DescriptionStrategy.Default.HYBRID,
                 mock(AgentBuilder.FallbackStrategy.class),
                 mock(AgentBuilder.ClassFileBufferStrategy.class),
+                mock(AgentBuilder.TransformationCache.class),
+                AgentBuilder.TransformationMetrics.Disabled.INSTANCE,
+                AgentBuilder.IgnoredTypeCache.Disabled.INSTANCE,
                 mock(AgentBuilder.InstallationListener.class),
                 mock(AgentBuilder.RawMatcher.class),
                 mock(AgentBuilder.RedefinitionStrategy.ResubmissionEnforcer.class),
@@ -2386,6 +2872,9 @@ public class AgentBuilderDefaultTest {
                 AgentBuilder.DescriptionStrategy.Default.HYBRID,
                 mock(AgentBuilder.FallbackStrategy.class),
                 mock(AgentBuilder.ClassFileBufferStrategy.class),
+                mock(AgentBuilder.TransformationCache.class),
+                AgentBuilder.TransformationMetrics.Disabled.INSTANCE,
+                AgentBuilder.IgnoredTypeCache.Disabled.INSTANCE,
                 mock(AgentBuilder.InstallationListener.class),
                 mock(AgentBuilder.RawMatcher.class),
                 mock(AgentBuilder.RedefinitionStrategy.ResubmissionEnforcer.class),
@@ -2427,6 +2916,9 @@ public class AgentBuilderDefaultTest {
                 AgentBuilder.DescriptionStrategy.Default.HYBRID,
                 mock(AgentBuilder.FallbackStrategy.class),
                 mock(AgentBuilder.ClassFileBufferStrategy.class),
+                mock(AgentBuilder.TransformationCache.class),
+                AgentBuilder.TransformationMetrics.Disabled.INSTANCE,
+                AgentBuilder.IgnoredTypeCache.Disabled.INSTANCE,
                 mock(AgentBuilder.InstallationListener.class),
                 mock(AgentBuilder.RawMatcher.class),
                 mock(AgentBuilder.RedefinitionStrategy.ResubmissionEnforcer.class),
@@ -2557,6 +3049,13 @@ public class AgentBuilderDefaultTest {
                 .withResubmission(mock(AgentBuilder.RedefinitionStrategy.ResubmissionScheduler.class));
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void testResubmissionNonPositiveMaximumPending() throws Exception {
+        new AgentBuilder.Default()
+                .with(AgentBuilder.RedefinitionStrategy.RETRANSFORMATION)
+                .withResubmission(mock(AgentBuilder.RedefinitionStrategy.ResubmissionScheduler.class), 0);
+    }
+
     public static class Foo {
         /* empty */
     }
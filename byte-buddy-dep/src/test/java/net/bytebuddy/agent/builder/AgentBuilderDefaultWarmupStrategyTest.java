@@ -16,13 +16,18 @@ import java.security.ProtectionDomain;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Mockito.*;
 
 public class AgentBuilderDefaultWarmupStrategyTest {
 
+    private static final String FOO = "foo";
+
     @Rule
     public MethodRule mockitoRule = MockitoJUnit.rule().silent();
 
@@ -206,6 +211,75 @@ public class AgentBuilderDefaultWarmupStrategyTest {
                 instanceOf(AgentBuilder.Default.WarmupStrategy.Enabled.class));
     }
 
+    @Test
+    public void testReplaying() throws Exception {
+        when(locationStrategy.classFileLocator(null, null)).thenReturn(new ClassFileLocator.Simple(Collections.singletonMap(Object.class.getName(), new byte[0])));
+        AgentBuilder.Default.WarmupStrategy delegate = mock(AgentBuilder.Default.WarmupStrategy.class);
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            new AgentBuilder.Default.WarmupStrategy.Replaying(delegate, new AgentBuilder.WarmupProfile(Arrays.asList(AgentBuilder.WarmupProfile.Entry.of(Object.class.getName(), null),
+                    AgentBuilder.WarmupProfile.Entry.of(String.class.getName(), null),
+                    new AgentBuilder.WarmupProfile.Entry(FOO, Object.class.getName()))), executorService).apply(classFileTransformer,
+                    locationStrategy,
+                    AgentBuilder.RedefinitionStrategy.DISABLED,
+                    circularityLock,
+                    listener);
+        } finally {
+            executorService.shutdown();
+        }
+        verify(delegate).apply(classFileTransformer, locationStrategy, AgentBuilder.RedefinitionStrategy.DISABLED, circularityLock, listener);
+        verifyNoMoreInteractions(delegate);
+        verify(classFileTransformer).transform(null, Type.getInternalName(Object.class), null, null, new byte[0]);
+        verifyNoMoreInteractions(classFileTransformer);
+        verify(locationStrategy, times(2)).classFileLocator(null, null);
+        verifyNoMoreInteractions(locationStrategy);
+        verify(circularityLock).release();
+        verify(circularityLock).acquire();
+        verifyNoMoreInteractions(circularityLock);
+        verifyNoMoreInteractions(listener);
+    }
+
+    @Test
+    public void testReplayingError() throws Exception {
+        when(locationStrategy.classFileLocator(null, null)).thenReturn(new ClassFileLocator.Simple(Collections.singletonMap(Object.class.getName(), new byte[0])));
+        when(classFileTransformer.transform(null, Type.getInternalName(Object.class), null, null, new byte[0])).thenThrow(throwable);
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            new AgentBuilder.Default.WarmupStrategy.Replaying(AgentBuilder.Default.WarmupStrategy.NoOp.INSTANCE,
+                    new AgentBuilder.WarmupProfile(Collections.singleton(AgentBuilder.WarmupProfile.Entry.of(Object.class.getName(), null))),
+                    executorService).apply(classFileTransformer,
+                    locationStrategy,
+                    AgentBuilder.RedefinitionStrategy.DISABLED,
+                    circularityLock,
+                    listener);
+        } finally {
+            executorService.shutdown();
+        }
+        verify(classFileTransformer).transform(null, Type.getInternalName(Object.class), null, null, new byte[0]);
+        verifyNoMoreInteractions(classFileTransformer);
+        verify(circularityLock).release();
+        verify(circularityLock).acquire();
+        verifyNoMoreInteractions(circularityLock);
+        verify(listener).onWarmUpError(Object.class.getName(), null, classFileTransformer, throwable);
+        verifyNoMoreInteractions(listener);
+    }
+
+    @Test
+    public void testReplayingChained() throws Exception {
+        ExecutorService executorService = mock(ExecutorService.class);
+        AgentBuilder.WarmupProfile profile = new AgentBuilder.WarmupProfile(Collections.<AgentBuilder.WarmupProfile.Entry>emptySet());
+        assertThat(AgentBuilder.Default.WarmupStrategy.NoOp.INSTANCE.with(profile, executorService),
+                instanceOf(AgentBuilder.Default.WarmupStrategy.Replaying.class));
+        assertThat(new AgentBuilder.Default.WarmupStrategy.Enabled(Collections.<Class<?>>emptySet()).with(profile, executorService),
+                instanceOf(AgentBuilder.Default.WarmupStrategy.Replaying.class));
+        assertThat(AgentBuilder.Default.WarmupStrategy.NoOp.INSTANCE.with(profile, executorService).with(Collections.<Class<?>>singleton(Object.class)),
+                is((AgentBuilder.Default.WarmupStrategy) new AgentBuilder.Default.WarmupStrategy.Replaying(new AgentBuilder.Default.WarmupStrategy.Enabled(Collections.<Class<?>>singleton(Object.class)),
+                        profile,
+                        executorService)));
+        assertThat(AgentBuilder.Default.WarmupStrategy.NoOp.INSTANCE.with(profile, executorService).with(profile, executorService),
+                instanceOf(AgentBuilder.Default.WarmupStrategy.Replaying.class));
+    }
+
     private static byte[] transform(ClassFileTransformer classFileTransformer,
                                     JavaModule javaModule,
                                     ClassLoader classLoader,
@@ -0,0 +1,63 @@
+package net.bytebuddy.agent.builder;
+
+import org.junit.Test;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class AgentBuilderIgnoredTypeCacheTest {
+
+    private static final String FOO = "foo", BAR = "bar";
+
+    @Test
+    public void testDisabled() throws Exception {
+        AgentBuilder.IgnoredTypeCache.Storage storage = AgentBuilder.IgnoredTypeCache.Disabled.INSTANCE.make();
+        assertThat(storage, sameInstance((AgentBuilder.IgnoredTypeCache.Storage) AgentBuilder.IgnoredTypeCache.Disabled.INSTANCE));
+        storage.register(FOO, null);
+        assertThat(storage.isIgnored(FOO, null), is(false));
+        storage.clear();
+    }
+
+    @Test
+    public void testBounded() throws Exception {
+        AgentBuilder.IgnoredTypeCache.Storage storage = new AgentBuilder.IgnoredTypeCache.Bounded(2).make();
+        ClassLoader classLoader = new URLClassLoader(new URL[0], null);
+        assertThat(storage.isIgnored(FOO, null), is(false));
+        storage.register(FOO, null);
+        storage.register(BAR, classLoader);
+        assertThat(storage.isIgnored(FOO, null), is(true));
+        assertThat(storage.isIgnored(BAR, null), is(false));
+        assertThat(storage.isIgnored(FOO, classLoader), is(false));
+        assertThat(storage.isIgnored(BAR, classLoader), is(true));
+        storage.clear();
+        assertThat(storage.isIgnored(FOO, null), is(false));
+        assertThat(storage.isIgnored(BAR, classLoader), is(false));
+    }
+
+    @Test
+    public void testBoundedEviction() throws Exception {
+        AgentBuilder.IgnoredTypeCache.Storage storage = new AgentBuilder.IgnoredTypeCache.Bounded(2).make();
+        storage.register(FOO, null);
+        storage.register(BAR, null);
+        storage.register(FOO + BAR, null);
+        assertThat(storage.isIgnored(FOO, null), is(false));
+        assertThat(storage.isIgnored(BAR, null), is(false));
+        assertThat(storage.isIgnored(FOO + BAR, null), is(true));
+    }
+
+    @Test
+    public void testBoundedStorageNotShared() throws Exception {
+        AgentBuilder.IgnoredTypeCache ignoredTypeCache = new AgentBuilder.IgnoredTypeCache.Bounded(1);
+        ignoredTypeCache.make().register(FOO, null);
+        assertThat(ignoredTypeCache.make().isIgnored(FOO, null), is(false));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBoundedIllegalSize() throws Exception {
+        new AgentBuilder.IgnoredTypeCache.Bounded(0);
+    }
+}
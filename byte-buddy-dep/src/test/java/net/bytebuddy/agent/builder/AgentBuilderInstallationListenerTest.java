@@ -38,6 +38,7 @@ public class AgentBuilderInstallationListenerTest {
         AgentBuilder.InstallationListener.NoOp.INSTANCE.onReset(instrumentation, classFileTransformer);
         AgentBuilder.InstallationListener.NoOp.INSTANCE.onBeforeWarmUp(Collections.<Class<?>>singleton(Object.class), classFileTransformer);
         AgentBuilder.InstallationListener.NoOp.INSTANCE.onWarmUpError(Object.class, classFileTransformer, throwable);
+        AgentBuilder.InstallationListener.NoOp.INSTANCE.onWarmUpError(Object.class.getName(), null, classFileTransformer, throwable);
         AgentBuilder.InstallationListener.NoOp.INSTANCE.onAfterWarmUp(Collections.<Class<?>, byte[]>singletonMap(Object.class, null), classFileTransformer, false);
         verifyNoMoreInteractions(instrumentation, classFileTransformer, throwable);
     }
@@ -51,6 +52,7 @@ public class AgentBuilderInstallationListenerTest {
         pseudoAdapter.onReset(instrumentation, classFileTransformer);
         pseudoAdapter.onBeforeWarmUp(Collections.<Class<?>>singleton(Object.class), classFileTransformer);
         pseudoAdapter.onWarmUpError(Object.class, classFileTransformer, throwable);
+        pseudoAdapter.onWarmUpError(Object.class.getName(), null, classFileTransformer, throwable);
         pseudoAdapter.onAfterWarmUp(Collections.<Class<?>, byte[]>singletonMap(Object.class, null), classFileTransformer, false);
         verifyNoMoreInteractions(instrumentation, classFileTransformer, throwable);
     }
@@ -62,6 +64,7 @@ public class AgentBuilderInstallationListenerTest {
         AgentBuilder.InstallationListener.NoOp.INSTANCE.onReset(instrumentation, classFileTransformer);
         AgentBuilder.InstallationListener.NoOp.INSTANCE.onBeforeWarmUp(Collections.<Class<?>>singleton(Object.class), classFileTransformer);
         AgentBuilder.InstallationListener.NoOp.INSTANCE.onWarmUpError(Object.class, classFileTransformer, throwable);
+        AgentBuilder.InstallationListener.NoOp.INSTANCE.onWarmUpError(Object.class.getName(), null, classFileTransformer, throwable);
         AgentBuilder.InstallationListener.NoOp.INSTANCE.onAfterWarmUp(Collections.<Class<?>, byte[]>singletonMap(Object.class, null), classFileTransformer, false);
         verifyNoMoreInteractions(instrumentation, classFileTransformer, throwable);
     }
@@ -130,6 +133,17 @@ public class AgentBuilderInstallationListenerTest {
         verifyNoMoreInteractions(throwable);
     }
 
+    @Test
+    public void testStreamWritingListenerReplayedWarmUpError() throws Exception {
+        PrintStream printStream = mock(PrintStream.class);
+        AgentBuilder.InstallationListener installationListener = new AgentBuilder.InstallationListener.StreamWriting(printStream);
+        installationListener.onWarmUpError(Object.class.getName(), null, classFileTransformer, throwable);
+        verify(printStream).printf("[Byte Buddy] ERROR_WARMUP %s on %s [%s]%n", classFileTransformer, Object.class.getName(), null);
+        verifyNoMoreInteractions(printStream);
+        verify(throwable).printStackTrace(printStream);
+        verifyNoMoreInteractions(throwable);
+    }
+
     @Test
     public void testStreamWritingListenerAfterWarmUp() throws Exception {
         PrintStream printStream = mock(PrintStream.class);
@@ -212,6 +226,16 @@ public class AgentBuilderInstallationListenerTest {
         verifyNoMoreInteractions(first, second);
     }
 
+    @Test
+    public void testCompoundListenerReplayedWarmUpError() throws Exception {
+        AgentBuilder.InstallationListener first = mock(AgentBuilder.InstallationListener.class), second = mock(AgentBuilder.InstallationListener.class);
+        AgentBuilder.InstallationListener installationListener = new AgentBuilder.InstallationListener.Compound(first, second);
+        installationListener.onWarmUpError(Object.class.getName(), null, classFileTransformer, throwable);
+        verify(first).onWarmUpError(Object.class.getName(), null, classFileTransformer, throwable);
+        verify(second).onWarmUpError(Object.class.getName(), null, classFileTransformer, throwable);
+        verifyNoMoreInteractions(first, second);
+    }
+
     @Test
     public void testCompoundListenerAfterWarmUp() throws Exception {
         AgentBuilder.InstallationListener first = mock(AgentBuilder.InstallationListener.class), second = mock(AgentBuilder.InstallationListener.class);
@@ -1,5 +1,7 @@
 package net.bytebuddy.agent.builder;
 
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.dynamic.ClassFileLocator;
 import net.bytebuddy.pool.TypePool;
 import org.junit.Rule;
@@ -8,11 +10,18 @@ import org.junit.rules.MethodRule;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.*;
 
 public class AgentBuilderPoolStrategyTest {
 
+    private static final String FOO = "foo", BAR = "foo.Bar", QUX = "foo.Qux";
+
     @Rule
     public MethodRule mockitoRule = MockitoJUnit.rule().silent();
 
@@ -51,4 +60,44 @@ public class AgentBuilderPoolStrategyTest {
     public void testExtendedLoadingTypePool() throws Exception {
         assertThat(AgentBuilder.PoolStrategy.ClassLoading.EXTENDED.typePool(classFileLocator, classLoader), notNullValue(TypePool.class));
     }
+
+    @Test
+    public void testSnapshotTypePool() throws Exception {
+        ClassFileLocator snapshot = mock(ClassFileLocator.class);
+        when(snapshot.locate(FOO)).thenReturn(new ClassFileLocator.Resolution.Illegal(FOO));
+        when(classFileLocator.locate(FOO)).thenReturn(new ClassFileLocator.Resolution.Illegal(FOO));
+        AgentBuilder.PoolStrategy poolStrategy = new AgentBuilder.PoolStrategy.WithSnapshot(AgentBuilder.PoolStrategy.Default.FAST, snapshot, classLoader);
+        assertThat(poolStrategy.typePool(classFileLocator, classLoader).describe(FOO).isResolved(), is(false));
+        verify(snapshot).locate(FOO);
+        verify(classFileLocator).locate(FOO);
+        assertThat(poolStrategy.typePool(classFileLocator, classLoader, FOO).describe(FOO).isResolved(), is(false));
+        verify(snapshot).locate(FOO);
+        verify(classFileLocator, times(2)).locate(FOO);
+    }
+
+    @Test
+    public void testSnapshotTypePoolDescribesInstrumentedTypeFromBuffer() throws Exception {
+        Map<String, byte[]> binaryRepresentations = new HashMap<String, byte[]>();
+        binaryRepresentations.put(BAR, new ByteBuddy().subclass(Object.class).name(BAR).make().getBytes());
+        binaryRepresentations.put(QUX, new ByteBuddy().subclass(Object.class).name(QUX).make().getBytes());
+        ClassFileLocator buffer = ClassFileLocator.Simple.of(BAR, new ByteBuddy().subclass(Number.class).name(BAR).make().getBytes());
+        AgentBuilder.PoolStrategy poolStrategy = new AgentBuilder.PoolStrategy.WithSnapshot(AgentBuilder.PoolStrategy.Default.FAST,
+                new ClassFileLocator.Simple(binaryRepresentations),
+                classLoader);
+        TypePool typePool = poolStrategy.typePool(new ClassFileLocator.Compound(buffer, ClassFileLocator.ForClassLoader.ofSystemLoader()), classLoader, BAR);
+        TypeDescription.Generic superClass = typePool.describe(BAR).resolve().getSuperClass();
+        assertThat(superClass, notNullValue(TypeDescription.Generic.class));
+        assertThat(superClass.asErasure().represents(Number.class), is(true));
+        assertThat(typePool.describe(QUX).isResolved(), is(true));
+    }
+
+    @Test
+    public void testSnapshotTypePoolOtherClassLoader() throws Exception {
+        ClassFileLocator snapshot = mock(ClassFileLocator.class);
+        when(classFileLocator.locate(FOO)).thenReturn(new ClassFileLocator.Resolution.Illegal(FOO));
+        AgentBuilder.PoolStrategy poolStrategy = new AgentBuilder.PoolStrategy.WithSnapshot(AgentBuilder.PoolStrategy.Default.FAST, snapshot);
+        assertThat(poolStrategy.typePool(classFileLocator, classLoader).describe(FOO).isResolved(), is(false));
+        assertThat(poolStrategy.typePool(classFileLocator, null, FOO).describe(FOO).isResolved(), is(false));
+        verifyNoMoreInteractions(snapshot);
+    }
 }
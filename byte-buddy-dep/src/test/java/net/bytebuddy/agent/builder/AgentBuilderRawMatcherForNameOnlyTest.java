@@ -0,0 +1,165 @@
+package net.bytebuddy.agent.builder;
+
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.matcher.ElementMatcher;
+import net.bytebuddy.matcher.ElementMatchers;
+import net.bytebuddy.utility.JavaModule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.MethodRule;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+
+import java.security.ProtectionDomain;
+
+import static net.bytebuddy.matcher.ElementMatchers.any;
+import static net.bytebuddy.matcher.ElementMatchers.none;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.*;
+
+public class AgentBuilderRawMatcherForNameOnlyTest {
+
+    private static final String FOO = "foo";
+
+    @Rule
+    public MethodRule mockitoRule = MockitoJUnit.rule().silent();
+
+    @Mock
+    private ElementMatcher<String> nameMatcher;
+
+    @Mock
+    private ElementMatcher<ClassLoader> classLoaderMatcher;
+
+    @Mock
+    private ElementMatcher<JavaModule> moduleMatcher;
+
+    @Mock
+    private AgentBuilder.RawMatcher rawMatcher;
+
+    @Mock
+    private TypeDescription typeDescription;
+
+    @Mock
+    private ClassLoader classLoader;
+
+    @Mock
+    private JavaModule module;
+
+    @Mock
+    private ProtectionDomain protectionDomain;
+
+    @Before
+    public void setUp() throws Exception {
+        when(typeDescription.getName()).thenReturn(FOO);
+    }
+
+    @Test
+    public void testAllMatches() throws Exception {
+        when(nameMatcher.matches(FOO)).thenReturn(true);
+        when(classLoaderMatcher.matches(classLoader)).thenReturn(true);
+        when(moduleMatcher.matches(module)).thenReturn(true);
+        assertThat(new AgentBuilder.RawMatcher.ForNameOnly(nameMatcher, classLoaderMatcher, moduleMatcher)
+                .matches(typeDescription, classLoader, module, Object.class, protectionDomain), is(true));
+        verify(typeDescription).getName();
+        verifyNoMoreInteractions(typeDescription);
+    }
+
+    @Test
+    public void testNameDoesNotMatch() throws Exception {
+        when(classLoaderMatcher.matches(classLoader)).thenReturn(true);
+        when(moduleMatcher.matches(module)).thenReturn(true);
+        assertThat(new AgentBuilder.RawMatcher.ForNameOnly(nameMatcher, classLoaderMatcher, moduleMatcher)
+                .matches(FOO, classLoader, module), is(false));
+        verify(nameMatcher).matches(FOO);
+        verifyNoMoreInteractions(nameMatcher);
+    }
+
+    @Test
+    public void testClassLoaderDoesNotMatch() throws Exception {
+        when(moduleMatcher.matches(module)).thenReturn(true);
+        assertThat(new AgentBuilder.RawMatcher.ForNameOnly(nameMatcher, classLoaderMatcher, moduleMatcher)
+                .matches(FOO, classLoader, module), is(false));
+        verifyNoMoreInteractions(nameMatcher);
+    }
+
+    @Test
+    public void testModuleDoesNotMatch() throws Exception {
+        assertThat(new AgentBuilder.RawMatcher.ForNameOnly(nameMatcher, classLoaderMatcher, moduleMatcher)
+                .matches(FOO, classLoader, module), is(false));
+        verifyNoMoreInteractions(classLoaderMatcher);
+        verifyNoMoreInteractions(nameMatcher);
+    }
+
+    @Test
+    public void testResolutionOfNameOnly() throws Exception {
+        when(nameMatcher.matches(FOO)).thenReturn(true);
+        assertThat(AgentBuilder.RawMatcher.ForNameOnly.Resolution.of(new AgentBuilder.RawMatcher.ForNameOnly(nameMatcher),
+                FOO,
+                classLoader,
+                module,
+                null), is(AgentBuilder.RawMatcher.ForNameOnly.Resolution.MATCHED));
+        assertThat(AgentBuilder.RawMatcher.ForNameOnly.Resolution.of(new AgentBuilder.RawMatcher.ForNameOnly(none()),
+                FOO,
+                classLoader,
+                module,
+                null), is(AgentBuilder.RawMatcher.ForNameOnly.Resolution.UNMATCHED));
+    }
+
+    @Test
+    public void testResolutionOfTrivialAndLoadState() throws Exception {
+        assertThat(AgentBuilder.RawMatcher.ForNameOnly.Resolution.of(AgentBuilder.RawMatcher.Trivial.MATCHING, FOO, classLoader, module, null),
+                is(AgentBuilder.RawMatcher.ForNameOnly.Resolution.MATCHED));
+        assertThat(AgentBuilder.RawMatcher.ForNameOnly.Resolution.of(AgentBuilder.RawMatcher.Trivial.NON_MATCHING, FOO, classLoader, module, null),
+                is(AgentBuilder.RawMatcher.ForNameOnly.Resolution.UNMATCHED));
+        assertThat(AgentBuilder.RawMatcher.ForNameOnly.Resolution.of(AgentBuilder.RawMatcher.ForLoadState.LOADED, FOO, classLoader, module, Object.class),
+                is(AgentBuilder.RawMatcher.ForNameOnly.Resolution.MATCHED));
+        assertThat(AgentBuilder.RawMatcher.ForNameOnly.Resolution.of(AgentBuilder.RawMatcher.ForLoadState.LOADED, FOO, classLoader, module, null),
+                is(AgentBuilder.RawMatcher.ForNameOnly.Resolution.UNMATCHED));
+    }
+
+    @Test
+    public void testResolutionOfElementMatchers() throws Exception {
+        assertThat(AgentBuilder.RawMatcher.ForNameOnly.Resolution.of(new AgentBuilder.RawMatcher.ForElementMatchers(any(), classLoaderMatcher, moduleMatcher),
+                FOO,
+                classLoader,
+                module,
+                null), is(AgentBuilder.RawMatcher.ForNameOnly.Resolution.UNMATCHED));
+        when(classLoaderMatcher.matches(classLoader)).thenReturn(true);
+        when(moduleMatcher.matches(module)).thenReturn(true);
+        assertThat(AgentBuilder.RawMatcher.ForNameOnly.Resolution.of(new AgentBuilder.RawMatcher.ForElementMatchers(any(), classLoaderMatcher, moduleMatcher),
+                FOO,
+                classLoader,
+                module,
+                null), is(AgentBuilder.RawMatcher.ForNameOnly.Resolution.MATCHED));
+        assertThat(AgentBuilder.RawMatcher.ForNameOnly.Resolution.of(new AgentBuilder.RawMatcher.ForElementMatchers(none(), classLoaderMatcher, moduleMatcher),
+                FOO,
+                classLoader,
+                module,
+                null), is(AgentBuilder.RawMatcher.ForNameOnly.Resolution.UNMATCHED));
+        assertThat(AgentBuilder.RawMatcher.ForNameOnly.Resolution.of(new AgentBuilder.RawMatcher.ForElementMatchers(ElementMatchers.<TypeDescription>isInterface(), classLoaderMatcher, moduleMatcher),
+                FOO,
+                classLoader,
+                module,
+                null), is(AgentBuilder.RawMatcher.ForNameOnly.Resolution.UNRESOLVED));
+    }
+
+    @Test
+    public void testResolutionOfCompounds() throws Exception {
+        AgentBuilder.RawMatcher matched = new AgentBuilder.RawMatcher.ForNameOnly(any()), unmatched = new AgentBuilder.RawMatcher.ForNameOnly(none());
+        assertThat(AgentBuilder.RawMatcher.ForNameOnly.Resolution.of(new AgentBuilder.RawMatcher.Conjunction(rawMatcher, unmatched), FOO, classLoader, module, null),
+                is(AgentBuilder.RawMatcher.ForNameOnly.Resolution.UNMATCHED));
+        assertThat(AgentBuilder.RawMatcher.ForNameOnly.Resolution.of(new AgentBuilder.RawMatcher.Conjunction(rawMatcher, matched), FOO, classLoader, module, null),
+                is(AgentBuilder.RawMatcher.ForNameOnly.Resolution.UNRESOLVED));
+        assertThat(AgentBuilder.RawMatcher.ForNameOnly.Resolution.of(new AgentBuilder.RawMatcher.Disjunction(rawMatcher, matched), FOO, classLoader, module, null),
+                is(AgentBuilder.RawMatcher.ForNameOnly.Resolution.MATCHED));
+        assertThat(AgentBuilder.RawMatcher.ForNameOnly.Resolution.of(new AgentBuilder.RawMatcher.Disjunction(rawMatcher, unmatched), FOO, classLoader, module, null),
+                is(AgentBuilder.RawMatcher.ForNameOnly.Resolution.UNRESOLVED));
+        assertThat(AgentBuilder.RawMatcher.ForNameOnly.Resolution.of(new AgentBuilder.RawMatcher.Inversion(unmatched), FOO, classLoader, module, null),
+                is(AgentBuilder.RawMatcher.ForNameOnly.Resolution.MATCHED));
+        assertThat(AgentBuilder.RawMatcher.ForNameOnly.Resolution.of(new AgentBuilder.RawMatcher.Inversion(rawMatcher), FOO, classLoader, module, null),
+                is(AgentBuilder.RawMatcher.ForNameOnly.Resolution.UNRESOLVED));
+        verifyNoMoreInteractions(rawMatcher);
+    }
+}
@@ -7,6 +7,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static net.bytebuddy.test.utility.FieldByFieldComparison.hasPrototype;
 import static org.hamcrest.CoreMatchers.is;
@@ -332,4 +333,89 @@ public class AgentBuilderRedefinitionStrategyBatchAllocatorTest {
     public void testPartitioningIllegalArgument() throws Exception {
         AgentBuilder.RedefinitionStrategy.BatchAllocator.Partitioning.of(0);
     }
+
+    @Test
+    public void testForPauseTargetEmpty() throws Exception {
+        AgentBuilder.RedefinitionStrategy.BatchAllocator batchAllocator = AgentBuilder.RedefinitionStrategy.BatchAllocator.ForPauseTarget.of(1, TimeUnit.HOURS);
+        Iterator<? extends List<Class<?>>> iterator = batchAllocator.batch(Collections.<Class<?>>emptyList()).iterator();
+        assertThat(iterator.hasNext(), is(false));
+    }
+
+    @Test
+    public void testForPauseTargetGrowing() throws Exception {
+        AgentBuilder.RedefinitionStrategy.BatchAllocator.ForPauseTarget batchAllocator = AgentBuilder.RedefinitionStrategy.BatchAllocator.ForPauseTarget.of(1, TimeUnit.HOURS);
+        List<Class<?>> types = Arrays.<Class<?>>asList(Object.class, Void.class, String.class, Integer.class, Long.class, Short.class, Byte.class);
+        AgentBuilder.RedefinitionStrategy.Listener listener = batchAllocator.getListener();
+        Iterator<? extends List<Class<?>>> iterator = batchAllocator.batch(types).iterator();
+        assertThat(iterator.hasNext(), is(true));
+        assertThat(iterator.next(), is(Collections.<Class<?>>singletonList(Object.class)));
+        assertThat(iterator.hasNext(), is(true));
+        assertThat(iterator.next(), is(Arrays.<Class<?>>asList(Void.class, String.class)));
+        assertThat(iterator.hasNext(), is(true));
+        assertThat(iterator.next(), is(Arrays.<Class<?>>asList(Integer.class, Long.class, Short.class, Byte.class)));
+        assertThat(iterator.hasNext(), is(false));
+        assertThat(batchAllocator.getPauses().getCount(), is(2L));
+        listener.onComplete(3, types, Collections.<List<Class<?>>, Throwable>emptyMap());
+        assertThat(batchAllocator.getPauses().getCount(), is(3L));
+        assertThat(batchAllocator.getBatchSize(), is(8));
+    }
+
+    @Test
+    public void testForPauseTargetShrinking() throws Exception {
+        AgentBuilder.RedefinitionStrategy.BatchAllocator.ForPauseTarget batchAllocator = AgentBuilder.RedefinitionStrategy.BatchAllocator.ForPauseTarget.of(1,
+                TimeUnit.NANOSECONDS,
+                2,
+                1,
+                10);
+        AgentBuilder.RedefinitionStrategy.Listener listener = batchAllocator.getListener();
+        List<Class<?>> types = Arrays.<Class<?>>asList(Object.class, Void.class, String.class);
+        Iterator<? extends List<Class<?>>> iterator = batchAllocator.batch(types).iterator();
+        assertThat(iterator.hasNext(), is(true));
+        List<Class<?>> batch = iterator.next();
+        assertThat(batch, is(Arrays.<Class<?>>asList(Object.class, Void.class)));
+        listener.onBatch(0, batch, types);
+        Thread.sleep(1);
+        assertThat(listener.onError(0, batch, new Throwable(), types).iterator().hasNext(), is(false));
+        assertThat(batchAllocator.getBatchSize(), is(1));
+        assertThat(batchAllocator.getPauses().getCount(), is(1L));
+        assertThat(batchAllocator.getPauses().getMaximum() >= TimeUnit.MILLISECONDS.toNanos(1), is(true));
+        assertThat(iterator.hasNext(), is(true));
+        assertThat(iterator.next(), is(Collections.<Class<?>>singletonList(String.class)));
+        assertThat(iterator.hasNext(), is(false));
+    }
+
+    @Test
+    public void testForPauseTargetDiscardsIncompleteMeasurement() throws Exception {
+        AgentBuilder.RedefinitionStrategy.BatchAllocator.ForPauseTarget batchAllocator = AgentBuilder.RedefinitionStrategy.BatchAllocator.ForPauseTarget.of(1, TimeUnit.HOURS);
+        List<Class<?>> types = Collections.<Class<?>>singletonList(Object.class);
+        Iterator<? extends List<Class<?>>> iterator = batchAllocator.batch(types).iterator();
+        assertThat(iterator.next(), is(types));
+        assertThat(iterator.hasNext(), is(false));
+        Thread.sleep(10);
+        iterator = batchAllocator.batch(types).iterator();
+        assertThat(iterator.next(), is(types));
+        assertThat(iterator.hasNext(), is(false));
+        assertThat(batchAllocator.getPauses().getCount(), is(0L));
+        assertThat(batchAllocator.getBatchSize(), is(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testForPauseTargetIllegalTarget() throws Exception {
+        AgentBuilder.RedefinitionStrategy.BatchAllocator.ForPauseTarget.of(0, TimeUnit.MILLISECONDS);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testForPauseTargetIllegalMinimum() throws Exception {
+        AgentBuilder.RedefinitionStrategy.BatchAllocator.ForPauseTarget.of(1, TimeUnit.MILLISECONDS, 1, 0, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testForPauseTargetIllegalRange() throws Exception {
+        AgentBuilder.RedefinitionStrategy.BatchAllocator.ForPauseTarget.of(1, TimeUnit.MILLISECONDS, 2, 2, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testForPauseTargetIllegalInitial() throws Exception {
+        AgentBuilder.RedefinitionStrategy.BatchAllocator.ForPauseTarget.of(1, TimeUnit.MILLISECONDS, 3, 1, 2);
+    }
 }
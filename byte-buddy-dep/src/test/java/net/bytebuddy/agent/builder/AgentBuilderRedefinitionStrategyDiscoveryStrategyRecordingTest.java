@@ -0,0 +1,166 @@
+package net.bytebuddy.agent.builder;
+
+import org.hamcrest.CoreMatchers;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.MethodRule;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+
+import java.io.Closeable;
+import java.lang.instrument.ClassFileTransformer;
+import java.lang.instrument.Instrumentation;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.*;
+
+public class AgentBuilderRedefinitionStrategyDiscoveryStrategyRecordingTest {
+
+    private static final byte[] FOO = new byte[]{1, 2, 3};
+
+    @Rule
+    public MethodRule mockitoRule = MockitoJUnit.rule().silent();
+
+    @Mock
+    private Instrumentation instrumentation;
+
+    @Test
+    public void testSinglePass() throws Exception {
+        when(instrumentation.getAllLoadedClasses()).thenReturn(new Class<?>[]{String.class, Integer.class});
+        Iterator<Iterable<Class<?>>> types = AgentBuilder.RedefinitionStrategy.DiscoveryStrategy.Recording.INSTANCE.resolve(instrumentation).iterator();
+        assertThat(types.hasNext(), is(true));
+        assertThat(types.next(), CoreMatchers.<Iterable<Class<?>>>equalTo(Arrays.<Class<?>>asList(String.class, Integer.class)));
+        assertThat(types.hasNext(), is(false));
+        ArgumentCaptor<ClassFileTransformer> classFileTransformer = ArgumentCaptor.forClass(ClassFileTransformer.class);
+        verify(instrumentation).addTransformer(classFileTransformer.capture());
+        verify(instrumentation, times(2)).getAllLoadedClasses();
+        verify(instrumentation).removeTransformer(classFileTransformer.getValue());
+        verifyNoMoreInteractions(instrumentation);
+    }
+
+    @Test
+    public void testRecording() throws Exception {
+        when(instrumentation.getAllLoadedClasses()).thenReturn(new Class<?>[]{String.class, Integer.class});
+        Iterator<Iterable<Class<?>>> types = AgentBuilder.RedefinitionStrategy.DiscoveryStrategy.Recording.INSTANCE.resolve(instrumentation).iterator();
+        assertThat(types.hasNext(), is(true));
+        assertThat(types.next(), CoreMatchers.<Iterable<Class<?>>>equalTo(Arrays.<Class<?>>asList(String.class, Integer.class)));
+        ArgumentCaptor<ClassFileTransformer> classFileTransformer = ArgumentCaptor.forClass(ClassFileTransformer.class);
+        verify(instrumentation).addTransformer(classFileTransformer.capture());
+        assertThat(classFileTransformer.getValue().transform(null, "java/lang/Void", null, null, FOO), nullValue(byte[].class));
+        assertThat(classFileTransformer.getValue().transform(null, "java/lang/Void", null, null, FOO), nullValue(byte[].class));
+        assertThat(classFileTransformer.getValue().transform(null, "java/lang/Long", Long.class, null, FOO), nullValue(byte[].class));
+        assertThat(classFileTransformer.getValue().transform(getClass().getClassLoader(), "java/lang/Short", null, null, FOO), nullValue(byte[].class));
+        assertThat(classFileTransformer.getValue().transform(null, "foo/Bar", null, null, FOO), nullValue(byte[].class));
+        assertThat(classFileTransformer.getValue().transform(null, null, null, null, FOO), nullValue(byte[].class));
+        assertThat(types.hasNext(), is(true));
+        assertThat(types.next(), CoreMatchers.<Iterable<Class<?>>>equalTo(Collections.<Class<?>>singletonList(Void.class)));
+        assertThat(classFileTransformer.getValue().transform(null, "java/lang/Void", null, null, FOO), nullValue(byte[].class));
+        assertThat(types.hasNext(), is(false));
+        verify(instrumentation, times(2)).getAllLoadedClasses();
+        verify(instrumentation).removeTransformer(classFileTransformer.getValue());
+        verifyNoMoreInteractions(instrumentation);
+    }
+
+    @Test
+    public void testClosingSnapshot() throws Exception {
+        when(instrumentation.getAllLoadedClasses()).thenReturn(new Class<?>[]{String.class, Integer.class},
+                new Class<?>[]{String.class, Integer.class, Void.class},
+                new Class<?>[]{String.class, Integer.class, Void.class});
+        Iterator<Iterable<Class<?>>> types = AgentBuilder.RedefinitionStrategy.DiscoveryStrategy.Recording.INSTANCE.resolve(instrumentation).iterator();
+        assertThat(types.hasNext(), is(true));
+        assertThat(types.next(), CoreMatchers.<Iterable<Class<?>>>equalTo(Arrays.<Class<?>>asList(String.class, Integer.class)));
+        assertThat(types.hasNext(), is(true));
+        assertThat(types.next(), CoreMatchers.<Iterable<Class<?>>>equalTo(Collections.<Class<?>>singletonList(Void.class)));
+        assertThat(types.hasNext(), is(false));
+        ArgumentCaptor<ClassFileTransformer> classFileTransformer = ArgumentCaptor.forClass(ClassFileTransformer.class);
+        verify(instrumentation).addTransformer(classFileTransformer.capture());
+        verify(instrumentation, times(3)).getAllLoadedClasses();
+        verify(instrumentation).removeTransformer(classFileTransformer.getValue());
+        verifyNoMoreInteractions(instrumentation);
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        when(instrumentation.getAllLoadedClasses()).thenReturn(new Class<?>[]{String.class, Integer.class});
+        Iterator<Iterable<Class<?>>> types = AgentBuilder.RedefinitionStrategy.DiscoveryStrategy.Recording.INSTANCE.resolve(instrumentation).iterator();
+        assertThat(types, instanceOf(Closeable.class));
+        assertThat(types.hasNext(), is(true));
+        assertThat(types.next(), CoreMatchers.<Iterable<Class<?>>>equalTo(Arrays.<Class<?>>asList(String.class, Integer.class)));
+        ((Closeable) types).close();
+        ((Closeable) types).close();
+        assertThat(types.hasNext(), is(false));
+        ArgumentCaptor<ClassFileTransformer> classFileTransformer = ArgumentCaptor.forClass(ClassFileTransformer.class);
+        verify(instrumentation).addTransformer(classFileTransformer.capture());
+        verify(instrumentation).getAllLoadedClasses();
+        verify(instrumentation).removeTransformer(classFileTransformer.getValue());
+        verifyNoMoreInteractions(instrumentation);
+    }
+
+    @Test
+    public void testCloseWithoutIteration() throws Exception {
+        Iterator<Iterable<Class<?>>> types = AgentBuilder.RedefinitionStrategy.DiscoveryStrategy.Recording.INSTANCE.resolve(instrumentation).iterator();
+        ((Closeable) types).close();
+        assertThat(types.hasNext(), is(false));
+        verifyNoMoreInteractions(instrumentation);
+    }
+
+    @Test
+    public void testRecordingIsBounded() throws Exception {
+        when(instrumentation.getAllLoadedClasses()).thenReturn(new Class<?>[]{String.class, Integer.class});
+        Iterator<Iterable<Class<?>>> types = AgentBuilder.RedefinitionStrategy.DiscoveryStrategy.Recording.INSTANCE.resolve(instrumentation).iterator();
+        assertThat(types.hasNext(), is(true));
+        assertThat(types.next(), CoreMatchers.<Iterable<Class<?>>>equalTo(Arrays.<Class<?>>asList(String.class, Integer.class)));
+        ArgumentCaptor<ClassFileTransformer> classFileTransformer = ArgumentCaptor.forClass(ClassFileTransformer.class);
+        verify(instrumentation).addTransformer(classFileTransformer.capture());
+        for (int index = 0; index < AgentBuilder.RedefinitionStrategy.DiscoveryStrategy.Recording.RecordingTransformer.CAPACITY; index++) {
+            assertThat(classFileTransformer.getValue().transform(null, "java/lang/Void", null, null, FOO), nullValue(byte[].class));
+        }
+        assertThat(classFileTransformer.getValue().transform(null, "java/lang/Long", null, null, FOO), nullValue(byte[].class));
+        assertThat(types.hasNext(), is(true));
+        assertThat(types.next(), CoreMatchers.<Iterable<Class<?>>>equalTo(Collections.<Class<?>>singletonList(Void.class)));
+    }
+
+    @Test
+    public void testRecordingCapacityIsReleasedOnDrain() throws Exception {
+        AgentBuilder.RedefinitionStrategy.DiscoveryStrategy.Recording.RecordingTransformer recordingTransformer = new AgentBuilder.RedefinitionStrategy.DiscoveryStrategy.Recording.RecordingTransformer();
+        for (int index = 0; index < AgentBuilder.RedefinitionStrategy.DiscoveryStrategy.Recording.RecordingTransformer.CAPACITY + 1; index++) {
+            assertThat(recordingTransformer.transform(null, "java/lang/Void", null, null, FOO), nullValue(byte[].class));
+        }
+        assertThat(recordingTransformer.drain().size(), is(AgentBuilder.RedefinitionStrategy.DiscoveryStrategy.Recording.RecordingTransformer.CAPACITY));
+        assertThat(recordingTransformer.transform(null, "java/lang/Long", null, null, FOO), nullValue(byte[].class));
+        assertThat(recordingTransformer.drain(), CoreMatchers.<List<Class<?>>>equalTo(Collections.<Class<?>>singletonList(Long.class)));
+    }
+
+    @Test
+    public void testRecordedTypeOfCollectedClassLoader() throws Exception {
+        AgentBuilder.RedefinitionStrategy.DiscoveryStrategy.Recording.RecordedType recordedType = new AgentBuilder.RedefinitionStrategy.DiscoveryStrategy.Recording.RecordedType(getClass().getClassLoader(), getClass().getName());
+        assertThat(recordedType.resolve(), CoreMatchers.<Class<?>>is(getClass()));
+        Field field = AgentBuilder.RedefinitionStrategy.DiscoveryStrategy.Recording.RecordedType.class.getDeclaredField("classLoader");
+        field.setAccessible(true);
+        ((WeakReference<?>) field.get(recordedType)).clear();
+        assertThat(recordedType.resolve(), nullValue(Class.class));
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testNoMoreElement() throws Exception {
+        when(instrumentation.getAllLoadedClasses()).thenReturn(new Class<?>[0]);
+        AgentBuilder.RedefinitionStrategy.DiscoveryStrategy.Recording.INSTANCE.resolve(instrumentation).iterator().next();
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testNoRemoval() throws Exception {
+        when(instrumentation.getAllLoadedClasses()).thenReturn(new Class<?>[]{String.class, Integer.class});
+        AgentBuilder.RedefinitionStrategy.DiscoveryStrategy.Recording.INSTANCE.resolve(instrumentation).iterator().remove();
+    }
+}
@@ -23,8 +23,12 @@ import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.CoreMatchers.*;
@@ -779,64 +783,50 @@ public class AgentBuilderRedefinitionStrategyResubmissionStrategyTest {
     }
 
     @Test
-    public void testLookupKeyBootstrapLoaderReference() throws Exception {
-        AgentBuilder.RedefinitionStrategy.ResubmissionStrategy.Enabled.LookupKey key = new AgentBuilder.RedefinitionStrategy.ResubmissionStrategy.Enabled.LookupKey(ClassLoadingStrategy.BOOTSTRAP_LOADER);
-        assertThat(key.hashCode(), is(0));
-        AgentBuilder.RedefinitionStrategy.ResubmissionStrategy.Enabled.LookupKey other = new AgentBuilder.RedefinitionStrategy.ResubmissionStrategy.Enabled.LookupKey(new URLClassLoader(new URL[0]));
-        System.gc();
-        assertThat(key, not(is(other)));
-        assertThat(key, is(new AgentBuilder.RedefinitionStrategy.ResubmissionStrategy.Enabled.LookupKey(ClassLoadingStrategy.BOOTSTRAP_LOADER)));
-        assertThat(key, is((Object) new AgentBuilder.RedefinitionStrategy.ResubmissionStrategy.Enabled.StorageKey(ClassLoadingStrategy.BOOTSTRAP_LOADER)));
-        assertThat(key, not(is((Object) new AgentBuilder.RedefinitionStrategy.ResubmissionStrategy.Enabled.StorageKey(new URLClassLoader(new URL[0])))));
-        assertThat(key, is(key));
-        assertThat(key, not(is(new Object())));
+    public void testRegistryBounded() throws Exception {
+        AgentBuilder.RedefinitionStrategy.ResubmissionStrategy.Enabled.Registry registry = new AgentBuilder.RedefinitionStrategy.ResubmissionStrategy.Enabled.Registry(2);
+        assertThat(registry.register(Foo.class.getName(), Foo.class.getClassLoader()), is(true));
+        assertThat(registry.register(Foo.class.getName(), ClassLoadingStrategy.BOOTSTRAP_LOADER), is(true));
+        assertThat(registry.register(Foo.class.getName(), Foo.class.getClassLoader()), is(false));
+        assertThat(registry.getPending(), is(2));
+        Iterator<Map.Entry<AgentBuilder.RedefinitionStrategy.ResubmissionStrategy.Enabled.StorageKey, Queue<String>>> iterator = registry.iterator();
+        Map.Entry<AgentBuilder.RedefinitionStrategy.ResubmissionStrategy.Enabled.StorageKey, Queue<String>> entry = iterator.next();
+        assertThat(registry.poll(entry.getValue()), is(Foo.class.getName()));
+        assertThat(registry.poll(entry.getValue()), nullValue(String.class));
+        assertThat(registry.getPending(), is(1));
+        assertThat(registry.register(Foo.class.getName(), Foo.class.getClassLoader()), is(true));
+        assertThat(registry.getPending(), is(2));
     }
 
     @Test
-    public void testLookupKeyNonBootstrapReference() throws Exception {
+    public void testRegistryExpunge() throws Exception {
+        AgentBuilder.RedefinitionStrategy.ResubmissionStrategy.Enabled.Registry registry = new AgentBuilder.RedefinitionStrategy.ResubmissionStrategy.Enabled.Registry(Integer.MAX_VALUE);
         ClassLoader classLoader = new URLClassLoader(new URL[0]);
-        AgentBuilder.RedefinitionStrategy.ResubmissionStrategy.Enabled.LookupKey key = new AgentBuilder.RedefinitionStrategy.ResubmissionStrategy.Enabled.LookupKey(classLoader);
-        assertThat(key, is(new AgentBuilder.RedefinitionStrategy.ResubmissionStrategy.Enabled.LookupKey(classLoader)));
-        assertThat(key.hashCode(), is(classLoader.hashCode()));
-        assertThat(key, not(is(new AgentBuilder.RedefinitionStrategy.ResubmissionStrategy.Enabled.LookupKey(ClassLoadingStrategy.BOOTSTRAP_LOADER))));
-        assertThat(key, not(is((Object) new AgentBuilder.RedefinitionStrategy.ResubmissionStrategy.Enabled.StorageKey(new URLClassLoader(new URL[0])))));
-        assertThat(key, is(key));
-        assertThat(key, not(is(new Object())));
-    }
-
-    @Test
-    public void testStorageKeyBootstrapLoaderReference() throws Exception {
-        AgentBuilder.RedefinitionStrategy.ResubmissionStrategy.Enabled.StorageKey key = new AgentBuilder.RedefinitionStrategy.ResubmissionStrategy.Enabled.StorageKey(ClassLoadingStrategy.BOOTSTRAP_LOADER);
-        assertThat(key.isBootstrapLoader(), is(true));
-        assertThat(key.hashCode(), is(0));
-        assertThat(key.get(), nullValue(ClassLoader.class));
-        AgentBuilder.RedefinitionStrategy.ResubmissionStrategy.Enabled.StorageKey other = new AgentBuilder.RedefinitionStrategy.ResubmissionStrategy.Enabled.StorageKey(new URLClassLoader(new URL[0]));
-        System.gc();
-        assertThat(other.get(), nullValue(ClassLoader.class));
-        assertThat(key, not(is(other)));
-        assertThat(key, is(new AgentBuilder.RedefinitionStrategy.ResubmissionStrategy.Enabled.StorageKey(ClassLoadingStrategy.BOOTSTRAP_LOADER)));
-        assertThat(key, is((Object) new AgentBuilder.RedefinitionStrategy.ResubmissionStrategy.Enabled.LookupKey(ClassLoadingStrategy.BOOTSTRAP_LOADER)));
-        assertThat(key, not(is((Object) new AgentBuilder.RedefinitionStrategy.ResubmissionStrategy.Enabled.LookupKey(new URLClassLoader(new URL[0])))));
-        assertThat(key, is(key));
-        assertThat(key, not(is(new Object())));
+        assertThat(registry.register(Foo.class.getName(), classLoader), is(true));
+        assertThat(registry.register(Object.class.getName(), classLoader), is(true));
+        assertThat(registry.getPending(), is(2));
+        classLoader = null; // Make GC eligible.
+        for (int index = 0; index < 10 && registry.getPending() > 0; index++) {
+            System.gc();
+            Thread.sleep(10L);
+            registry.expunge();
+        }
+        assertThat(registry.getPending(), is(0));
+        assertThat(registry.iterator().hasNext(), is(false));
     }
 
     @Test
-    public void testStorageKeyNonBootstrapReference() throws Exception {
-        ClassLoader classLoader = new URLClassLoader(new URL[0]);
-        AgentBuilder.RedefinitionStrategy.ResubmissionStrategy.Enabled.StorageKey key = new AgentBuilder.RedefinitionStrategy.ResubmissionStrategy.Enabled.StorageKey(classLoader);
-        assertThat(key.isBootstrapLoader(), is(false));
-        assertThat(key, is(new AgentBuilder.RedefinitionStrategy.ResubmissionStrategy.Enabled.StorageKey(classLoader)));
-        assertThat(key.hashCode(), is(classLoader.hashCode()));
-        assertThat(key.get(), is(classLoader));
-        classLoader = null; // Make GC eligible.
-        System.gc();
-        assertThat(key.get(), nullValue(ClassLoader.class));
-        assertThat(key, not(is(new AgentBuilder.RedefinitionStrategy.ResubmissionStrategy.Enabled.StorageKey(ClassLoadingStrategy.BOOTSTRAP_LOADER))));
-        assertThat(key, not(is((Object) new AgentBuilder.RedefinitionStrategy.ResubmissionStrategy.Enabled.LookupKey(new URLClassLoader(new URL[0])))));
-        assertThat(key, is(key));
-        assertThat(key, not(is(new Object())));
-        assertThat(key.isBootstrapLoader(), is(false));
+    public void testRegistryExpungeWithConcurrentPoll() throws Exception {
+        AgentBuilder.RedefinitionStrategy.ResubmissionStrategy.Enabled.Registry registry = new AgentBuilder.RedefinitionStrategy.ResubmissionStrategy.Enabled.Registry(1);
+        assertThat(registry.register(Foo.class.getName(), new URLClassLoader(new URL[0])), is(true));
+        Map.Entry<AgentBuilder.RedefinitionStrategy.ResubmissionStrategy.Enabled.StorageKey, Queue<String>> entry = registry.iterator().next();
+        assertThat(entry.getKey().enqueue(), is(true));
+        registry.expunge();
+        assertThat(registry.getPending(), is(0));
+        assertThat(registry.poll(entry.getValue()), nullValue(String.class));
+        assertThat(registry.getPending(), is(0));
+        assertThat(registry.register(Foo.class.getName(), Foo.class.getClassLoader()), is(true));
+        assertThat(registry.register(Foo.class.getName(), Foo.class.getClassLoader()), is(false));
     }
 
     @Test
@@ -869,6 +859,75 @@ public class AgentBuilderRedefinitionStrategyResubmissionStrategyTest {
         verify(scheduledExecutorService).isShutdown();
     }
 
+    @Test
+    public void testSchedulerDeferred() throws Exception {
+        ScheduledExecutorService scheduledExecutorService = mock(ScheduledExecutorService.class);
+        ScheduledFuture<?> timeout = mock(ScheduledFuture.class), future = mock(ScheduledFuture.class);
+        doReturn(timeout).when(scheduledExecutorService).schedule(Mockito.any(Runnable.class), eq(42L), eq(TimeUnit.SECONDS));
+        doReturn(future).when(scheduledExecutorService).scheduleWithFixedDelay(Mockito.any(Runnable.class), eq(0L), eq(21L), eq(TimeUnit.SECONDS));
+        Runnable runnable = mock(Runnable.class);
+        AgentBuilder.RedefinitionStrategy.ResubmissionScheduler.Deferred resubmissionScheduler = new AgentBuilder.RedefinitionStrategy.ResubmissionScheduler.Deferred(scheduledExecutorService, 42L, 21L, TimeUnit.SECONDS);
+        AgentBuilder.RedefinitionStrategy.ResubmissionScheduler.Cancelable cancelable = resubmissionScheduler.schedule(runnable);
+        verify(scheduledExecutorService).schedule((Runnable) cancelable, 42L, TimeUnit.SECONDS);
+        verifyNoMoreInteractions(scheduledExecutorService);
+        assertThat(resubmissionScheduler.isReady(), is(false));
+        resubmissionScheduler.ready();
+        assertThat(resubmissionScheduler.isReady(), is(true));
+        verify(scheduledExecutorService).scheduleWithFixedDelay(runnable, 0L, 21L, TimeUnit.SECONDS);
+        verify(timeout).cancel(false);
+        ((Runnable) cancelable).run();
+        verifyNoMoreInteractions(scheduledExecutorService);
+        cancelable.cancel();
+        verify(future).cancel(true);
+        verifyNoMoreInteractions(runnable);
+    }
+
+    @Test
+    public void testSchedulerDeferredAfterDelay() throws Exception {
+        ScheduledExecutorService scheduledExecutorService = mock(ScheduledExecutorService.class);
+        Runnable runnable = mock(Runnable.class);
+        AgentBuilder.RedefinitionStrategy.ResubmissionScheduler.Deferred resubmissionScheduler = new AgentBuilder.RedefinitionStrategy.ResubmissionScheduler.Deferred(scheduledExecutorService, 42L, 21L, TimeUnit.SECONDS);
+        AgentBuilder.RedefinitionStrategy.ResubmissionScheduler.Cancelable cancelable = resubmissionScheduler.schedule(runnable);
+        ((Runnable) cancelable).run();
+        verify(scheduledExecutorService).schedule((Runnable) cancelable, 42L, TimeUnit.SECONDS);
+        verify(scheduledExecutorService).scheduleWithFixedDelay(runnable, 0L, 21L, TimeUnit.SECONDS);
+        resubmissionScheduler.ready();
+        verifyNoMoreInteractions(scheduledExecutorService);
+        assertThat(resubmissionScheduler.isReady(), is(true));
+    }
+
+    @Test
+    public void testSchedulerDeferredWhenReady() throws Exception {
+        ScheduledExecutorService scheduledExecutorService = mock(ScheduledExecutorService.class);
+        Runnable runnable = mock(Runnable.class);
+        AgentBuilder.RedefinitionStrategy.ResubmissionScheduler.Deferred resubmissionScheduler = new AgentBuilder.RedefinitionStrategy.ResubmissionScheduler.Deferred(scheduledExecutorService, 42L, 21L, TimeUnit.SECONDS);
+        resubmissionScheduler.ready();
+        resubmissionScheduler.schedule(runnable);
+        verify(scheduledExecutorService).scheduleWithFixedDelay(runnable, 0L, 21L, TimeUnit.SECONDS);
+        verifyNoMoreInteractions(scheduledExecutorService);
+    }
+
+    @Test
+    public void testSchedulerDeferredCanceled() throws Exception {
+        ScheduledExecutorService scheduledExecutorService = mock(ScheduledExecutorService.class);
+        ScheduledFuture<?> timeout = mock(ScheduledFuture.class);
+        doReturn(timeout).when(scheduledExecutorService).schedule(Mockito.any(Runnable.class), eq(42L), eq(TimeUnit.SECONDS));
+        Runnable runnable = mock(Runnable.class);
+        AgentBuilder.RedefinitionStrategy.ResubmissionScheduler.Deferred resubmissionScheduler = new AgentBuilder.RedefinitionStrategy.ResubmissionScheduler.Deferred(scheduledExecutorService, 42L, 21L, TimeUnit.SECONDS);
+        resubmissionScheduler.schedule(runnable).cancel();
+        verify(timeout).cancel(false);
+        resubmissionScheduler.ready();
+        verify(scheduledExecutorService).schedule(Mockito.any(Runnable.class), eq(42L), eq(TimeUnit.SECONDS));
+        verifyNoMoreInteractions(scheduledExecutorService);
+    }
+
+    @Test
+    public void testSchedulerDeferredIsAlive() throws Exception {
+        ScheduledExecutorService scheduledExecutorService = mock(ScheduledExecutorService.class);
+        assertThat(new AgentBuilder.RedefinitionStrategy.ResubmissionScheduler.Deferred(scheduledExecutorService, 42L, 21L, TimeUnit.SECONDS).isAlive(), is(true));
+        verify(scheduledExecutorService).isShutdown();
+    }
+
     private static class Foo {
         /* empty */
     }
@@ -0,0 +1,132 @@
+package net.bytebuddy.agent.builder;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class AgentBuilderTransformationCacheTest {
+
+    private static final String FOO = "foo", BAR = "bar";
+
+    private static final byte[] ORIGINAL = new byte[]{1, 2, 3}, TRANSFORMED = new byte[]{(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE, 4, 5, 6};
+
+    private static final List<Integer> TRANSFORMATIONS = Arrays.asList(0, 2);
+
+    private File folder;
+
+    @Before
+    public void setUp() throws Exception {
+        folder = File.createTempFile(FOO, BAR);
+        assertThat(folder.delete(), is(true));
+        assertThat(folder.mkdir(), is(true));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        File[] file = folder.listFiles();
+        if (file != null) {
+            for (File aFile : file) {
+                assertThat(aFile.delete(), is(true));
+            }
+        }
+        assertThat(folder.delete(), is(true));
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        AgentBuilder.TransformationCache.Disabled.INSTANCE.register(FOO, null, ORIGINAL, TRANSFORMATIONS, TRANSFORMED);
+        assertThat(AgentBuilder.TransformationCache.Disabled.INSTANCE.find(FOO, null, ORIGINAL, TRANSFORMATIONS), nullValue(byte[].class));
+    }
+
+    @Test
+    public void testForFolderRoundTrip() throws Exception {
+        AgentBuilder.TransformationCache transformationCache = new AgentBuilder.TransformationCache.ForFolder(folder, BAR);
+        assertThat(transformationCache.find(FOO, null, ORIGINAL, TRANSFORMATIONS), nullValue(byte[].class));
+        transformationCache.register(FOO, null, ORIGINAL, TRANSFORMATIONS, TRANSFORMED);
+        assertThat(transformationCache.find(FOO, null, ORIGINAL, TRANSFORMATIONS), is(TRANSFORMED));
+        assertThat(new AgentBuilder.TransformationCache.ForFolder(folder, BAR).find(FOO, null, ORIGINAL, TRANSFORMATIONS), is(TRANSFORMED));
+        assertThat(folder.listFiles().length, is(1));
+    }
+
+    @Test
+    public void testForFolderKey() throws Exception {
+        AgentBuilder.TransformationCache transformationCache = new AgentBuilder.TransformationCache.ForFolder(folder, BAR);
+        transformationCache.register(FOO, null, ORIGINAL, TRANSFORMATIONS, TRANSFORMED);
+        assertThat(transformationCache.find(BAR, null, ORIGINAL, TRANSFORMATIONS), nullValue(byte[].class));
+        assertThat(transformationCache.find(FOO, null, new byte[]{1, 2, 4}, TRANSFORMATIONS), nullValue(byte[].class));
+        assertThat(transformationCache.find(FOO, null, ORIGINAL, Collections.singletonList(0)), nullValue(byte[].class));
+        assertThat(new AgentBuilder.TransformationCache.ForFolder(folder, FOO).find(FOO, null, ORIGINAL, TRANSFORMATIONS), nullValue(byte[].class));
+    }
+
+    @Test
+    public void testForFolderClassLoader() throws Exception {
+        ClassLoader first = new URLClassLoader(new URL[]{new File(FOO).toURI().toURL()}, null), second = new URLClassLoader(new URL[]{new File(BAR).toURI().toURL()}, null);
+        AgentBuilder.TransformationCache transformationCache = new AgentBuilder.TransformationCache.ForFolder(folder, BAR);
+        transformationCache.register(FOO, first, ORIGINAL, TRANSFORMATIONS, TRANSFORMED);
+        assertThat(transformationCache.find(FOO, first, ORIGINAL, TRANSFORMATIONS), is(TRANSFORMED));
+        assertThat(transformationCache.find(FOO, null, ORIGINAL, TRANSFORMATIONS), nullValue(byte[].class));
+        assertThat(transformationCache.find(FOO, second, ORIGINAL, TRANSFORMATIONS), nullValue(byte[].class));
+        assertThat(transformationCache.find(FOO, new URLClassLoader(new URL[]{new File(FOO).toURI().toURL()}, second), ORIGINAL, TRANSFORMATIONS), nullValue(byte[].class));
+        assertThat(new AgentBuilder.TransformationCache.ForFolder(folder, BAR).find(FOO,
+                new URLClassLoader(new URL[]{new File(FOO).toURI().toURL()}, null),
+                ORIGINAL,
+                TRANSFORMATIONS), is(TRANSFORMED));
+    }
+
+    @Test
+    public void testForFolderSystemClassLoader() throws Exception {
+        AgentBuilder.TransformationCache transformationCache = new AgentBuilder.TransformationCache.ForFolder(folder, BAR);
+        transformationCache.register(FOO, ClassLoader.getSystemClassLoader(), ORIGINAL, TRANSFORMATIONS, TRANSFORMED);
+        assertThat(new AgentBuilder.TransformationCache.ForFolder(folder, BAR).find(FOO, ClassLoader.getSystemClassLoader(), ORIGINAL, TRANSFORMATIONS), is(TRANSFORMED));
+        assertThat(transformationCache.find(FOO, ClassLoader.getSystemClassLoader().getParent(), ORIGINAL, TRANSFORMATIONS), nullValue(byte[].class));
+    }
+
+    @Test
+    public void testForFolderUncacheableClassLoader() throws Exception {
+        ClassLoader classLoader = new ClassLoader(null) {
+            /* empty */
+        };
+        AgentBuilder.TransformationCache transformationCache = new AgentBuilder.TransformationCache.ForFolder(folder, BAR);
+        transformationCache.register(FOO, classLoader, ORIGINAL, TRANSFORMATIONS, TRANSFORMED);
+        assertThat(folder.listFiles().length, is(0));
+        assertThat(transformationCache.find(FOO, classLoader, ORIGINAL, TRANSFORMATIONS), nullValue(byte[].class));
+        transformationCache.register(FOO, new URLClassLoader(new URL[0], classLoader), ORIGINAL, TRANSFORMATIONS, TRANSFORMED);
+        assertThat(folder.listFiles().length, is(0));
+    }
+
+    @Test
+    public void testForFolderCreatesFolder() throws Exception {
+        assertThat(folder.delete(), is(true));
+        AgentBuilder.TransformationCache transformationCache = new AgentBuilder.TransformationCache.ForFolder(folder, BAR);
+        transformationCache.register(FOO, null, ORIGINAL, TRANSFORMATIONS, TRANSFORMED);
+        assertThat(transformationCache.find(FOO, null, ORIGINAL, TRANSFORMATIONS), is(TRANSFORMED));
+    }
+
+    @Test
+    public void testForFolderIllegalEntry() throws Exception {
+        AgentBuilder.TransformationCache transformationCache = new AgentBuilder.TransformationCache.ForFolder(folder, BAR);
+        transformationCache.register(FOO, null, ORIGINAL, TRANSFORMATIONS, TRANSFORMED);
+        File[] file = folder.listFiles();
+        assertThat(file.length, is(1));
+        OutputStream outputStream = new FileOutputStream(file[0]);
+        try {
+            outputStream.write(ORIGINAL);
+        } finally {
+            outputStream.close();
+        }
+        assertThat(transformationCache.find(FOO, null, ORIGINAL, TRANSFORMATIONS), nullValue(byte[].class));
+    }
+}
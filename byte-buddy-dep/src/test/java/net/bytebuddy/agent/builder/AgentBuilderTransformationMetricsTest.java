@@ -0,0 +1,120 @@
+package net.bytebuddy.agent.builder;
+
+import net.bytebuddy.dynamic.ClassFileLocator;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectInstance;
+import java.lang.management.ManagementFactory;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AgentBuilderTransformationMetricsTest {
+
+    private static final String FOO = "foo";
+
+    @Test
+    public void testDisabled() throws Exception {
+        ClassFileLocator classFileLocator = mock(ClassFileLocator.class);
+        assertThat(AgentBuilder.TransformationMetrics.Disabled.INSTANCE.tick(), is(0L));
+        assertThat(AgentBuilder.TransformationMetrics.Disabled.INSTANCE.decorate(classFileLocator), sameInstance(classFileLocator));
+    }
+
+    @Test
+    public void testHistogramBuckets() throws Exception {
+        for (long value = 0; value < 1L << 20; value++) {
+            int bucket = AgentBuilder.TransformationMetrics.Histogram.bucket(value);
+            assertThat(value <= AgentBuilder.TransformationMetrics.Histogram.limit(bucket), is(true));
+            assertThat(bucket == 0 || value > AgentBuilder.TransformationMetrics.Histogram.limit(bucket - 1), is(true));
+        }
+        assertThat(AgentBuilder.TransformationMetrics.Histogram.limit(AgentBuilder.TransformationMetrics.Histogram.bucket(Long.MAX_VALUE)), is(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testHistogramSnapshot() throws Exception {
+        AgentBuilder.TransformationMetrics.Histogram histogram = new AgentBuilder.TransformationMetrics.Histogram();
+        for (long value = 1; value <= 100; value++) {
+            histogram.record(value * 1000L);
+        }
+        histogram.record(-1L);
+        AgentBuilder.TransformationMetrics.Histogram.Snapshot snapshot = histogram.getSnapshot();
+        assertThat(snapshot.getCount(), is(101L));
+        assertThat(snapshot.getTotal(), is(5050000L));
+        assertThat(snapshot.getMaximum(), is(100000L));
+        assertThat(snapshot.getValueAtPercentile(0d), is(0L));
+        assertThat(snapshot.getValueAtPercentile(100d), is(100000L));
+        long median = snapshot.getValueAtPercentile(50d);
+        assertThat(median >= 50000L && median <= 50000L * 17 / 16, is(true));
+        histogram.reset();
+        assertThat(histogram.getSnapshot().getCount(), is(0L));
+        assertThat(histogram.getSnapshot().getValueAtPercentile(99d), is(0L));
+        assertThat(histogram.getSnapshot().getMean(), is(0d));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testHistogramIllegalPercentile() throws Exception {
+        new AgentBuilder.TransformationMetrics.Histogram().getSnapshot().getValueAtPercentile(101d);
+    }
+
+    @Test
+    public void testRecording() throws Exception {
+        AgentBuilder.TransformationMetrics.Recording recording = new AgentBuilder.TransformationMetrics.Recording();
+        recording.onPhase(AgentBuilder.TransformationMetrics.Phase.MAKING, recording.tick());
+        recording.onTransformation(2, recording.tick());
+        recording.onResult(AgentBuilder.TransformationMetrics.Result.IGNORED);
+        recording.onResult(AgentBuilder.TransformationMetrics.Result.TRANSFORMED);
+        recording.onResult(AgentBuilder.TransformationMetrics.Result.TRANSFORMED);
+        recording.onResult(AgentBuilder.TransformationMetrics.Result.FAILED);
+        AgentBuilder.TransformationMetrics.Recording.Snapshot snapshot = recording.getSnapshot();
+        assertThat(snapshot.getIgnoredCount(), is(1L));
+        assertThat(snapshot.getTransformedCount(), is(2L));
+        assertThat(snapshot.getFailedCount(), is(1L));
+        assertThat(snapshot.getPhase(AgentBuilder.TransformationMetrics.Phase.MAKING).getCount(), is(1L));
+        assertThat(snapshot.getPhase(AgentBuilder.TransformationMetrics.Phase.BUILDING).getCount(), is(0L));
+        assertThat(snapshot.getTransformations().size(), is(3));
+        assertThat(recording.getPhaseCount(AgentBuilder.TransformationMetrics.Phase.MAKING.name()), is(1L));
+        assertThat(recording.getTransformationCount(2), is(1L));
+        assertThat(recording.getTransformationCount(3), is(0L));
+        recording.reset();
+        assertThat(recording.getTransformedCount(), is(0L));
+        assertThat(recording.getPhaseCount(AgentBuilder.TransformationMetrics.Phase.MAKING.name()), is(0L));
+        assertThat(recording.getTransformationCount(2), is(0L));
+    }
+
+    @Test
+    public void testRecordingClassFileLocator() throws Exception {
+        AgentBuilder.TransformationMetrics.Recording recording = new AgentBuilder.TransformationMetrics.Recording();
+        ClassFileLocator classFileLocator = mock(ClassFileLocator.class);
+        ClassFileLocator.Resolution resolution = mock(ClassFileLocator.Resolution.class);
+        when(classFileLocator.locate(FOO)).thenReturn(resolution);
+        ClassFileLocator decorated = recording.decorate(classFileLocator);
+        assertThat(decorated, not(sameInstance(classFileLocator)));
+        assertThat(decorated.locate(FOO), sameInstance(resolution));
+        decorated.close();
+        verify(classFileLocator).close();
+        assertThat(recording.getPhaseCount(AgentBuilder.TransformationMetrics.Phase.LOCATION.name()), is(1L));
+    }
+
+    @Test
+    public void testRecordingMBean() throws Exception {
+        AgentBuilder.TransformationMetrics.Recording recording = new AgentBuilder.TransformationMetrics.Recording();
+        recording.onResult(AgentBuilder.TransformationMetrics.Result.TRANSFORMED);
+        ObjectInstance objectInstance = recording.register();
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        try {
+            assertThat(mBeanServer.getAttribute(objectInstance.getObjectName(), "TransformedCount"), is((Object) 1L));
+            assertThat(mBeanServer.invoke(objectInstance.getObjectName(),
+                    "getPhaseCount",
+                    new Object[]{AgentBuilder.TransformationMetrics.Phase.MAKING.name()},
+                    new String[]{String.class.getName()}), is((Object) 0L));
+        } finally {
+            mBeanServer.unregisterMBean(objectInstance.getObjectName());
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package net.bytebuddy.agent.builder;
+
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.test.utility.JavaVersionRule;
+import net.bytebuddy.utility.JavaModule;
+import net.bytebuddy.utility.JavaType;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.MethodRule;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.stubbing.Answer;
+
+import java.io.File;
+import java.lang.instrument.ClassFileTransformer;
+import java.lang.reflect.Method;
+import java.security.ProtectionDomain;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AgentBuilderTransformerDecoratorWithTimeBudgetTest {
+
+    private static final String FOO = "foo/Bar", BAR = "bar/Qux";
+
+    private static final byte[] QUX = new byte[]{1, 2, 3}, BAZ = new byte[]{4, 5, 6};
+
+    @Rule
+    public MethodRule mockitoRule = MockitoJUnit.rule().silent();
+
+    @Rule
+    public MethodRule javaVersionRule = new JavaVersionRule();
+
+    @Mock
+    private ResettableClassFileTransformer classFileTransformer;
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonPositiveBudget() throws Exception {
+        new AgentBuilder.TransformerDecorator.WithTimeBudget(0L, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void testWithinBudget() throws Exception {
+        when(classFileTransformer.transform(null, FOO, null, null, QUX)).thenReturn(BAZ);
+        AgentBuilder.TransformerDecorator.WithTimeBudget transformerDecorator = new AgentBuilder.TransformerDecorator.WithTimeBudget(1L, TimeUnit.MINUTES);
+        assertThat(transformerDecorator.decorate(classFileTransformer).transform(null, FOO, null, null, QUX), is(BAZ));
+        assertThat(transformerDecorator.getExceededTypes().isEmpty(), is(true));
+    }
+
+    @Test
+    public void testExceeded() throws Exception {
+        when(classFileTransformer.transform(null, FOO, null, null, QUX)).then(new Exceeding());
+        File ignoreList = File.createTempFile("ignore", ".list");
+        try {
+            assertThat(ignoreList.delete(), is(true));
+            AgentBuilder.TransformerDecorator.WithTimeBudget transformerDecorator = new AgentBuilder.TransformerDecorator.WithTimeBudget(1L, TimeUnit.NANOSECONDS, ignoreList);
+            assertThat(transformerDecorator.decorate(classFileTransformer).transform(null, FOO, null, null, QUX), nullValue(byte[].class));
+            assertThat(transformerDecorator.decorate(classFileTransformer).transform(null, FOO, null, null, QUX), nullValue(byte[].class));
+            assertThat(transformerDecorator.getExceededTypes(), is(Collections.singleton("foo.Bar")));
+            AgentBuilder.RawMatcher matcher = AgentBuilder.TransformerDecorator.WithTimeBudget.ofIgnoreList(ignoreList);
+            assertThat(matcher.matches(TypeDescription.ForLoadedType.of(Object.class), null, null, null, null), is(false));
+            assertThat(matcher, is(AgentBuilder.TransformerDecorator.WithTimeBudget.ofIgnoreList(ignoreList)));
+            assertThat(((AgentBuilder.RawMatcher.ForNameOnly) matcher).matches("foo.Bar", null, null), is(true));
+        } finally {
+            ignoreList.delete();
+        }
+    }
+
+    @Test
+    public void testOtherTransformerWithoutBudget() throws Exception {
+        when(classFileTransformer.transform(null, FOO, null, null, QUX)).then(new Answer<byte[]>() {
+            public byte[] answer(InvocationOnMock invocation) throws Throwable {
+                Thread.sleep(1L);
+                AgentBuilder.TransformerDecorator.WithTimeBudget.checkpoint(mock(ClassFileTransformer.class));
+                return BAZ;
+            }
+        });
+        AgentBuilder.TransformerDecorator.WithTimeBudget transformerDecorator = new AgentBuilder.TransformerDecorator.WithTimeBudget(1L, TimeUnit.NANOSECONDS);
+        assertThat(transformerDecorator.decorate(classFileTransformer).transform(null, FOO, null, null, QUX), is(BAZ));
+        assertThat(transformerDecorator.getExceededTypes().isEmpty(), is(true));
+    }
+
+    @Test
+    public void testNestedBudgetIsRestored() throws Exception {
+        final ResettableClassFileTransformer otherClassFileTransformer = mock(ResettableClassFileTransformer.class);
+        when(otherClassFileTransformer.transform(null, BAR, null, null, QUX)).thenReturn(BAZ);
+        final AgentBuilder.TransformerDecorator.WithTimeBudget otherTransformerDecorator = new AgentBuilder.TransformerDecorator.WithTimeBudget(1L, TimeUnit.MINUTES);
+        when(classFileTransformer.transform(null, FOO, null, null, QUX)).then(new Answer<byte[]>() {
+            public byte[] answer(InvocationOnMock invocation) throws Throwable {
+                assertThat(otherTransformerDecorator.decorate(otherClassFileTransformer).transform(null, BAR, null, null, QUX), is(BAZ));
+                return new Exceeding().answer(invocation);
+            }
+        });
+        AgentBuilder.TransformerDecorator.WithTimeBudget transformerDecorator = new AgentBuilder.TransformerDecorator.WithTimeBudget(1L, TimeUnit.NANOSECONDS);
+        assertThat(transformerDecorator.decorate(classFileTransformer).transform(null, FOO, null, null, QUX), nullValue(byte[].class));
+        assertThat(transformerDecorator.getExceededTypes(), is(Collections.singleton("foo.Bar")));
+        assertThat(otherTransformerDecorator.getExceededTypes().isEmpty(), is(true));
+    }
+
+    @Test
+    public void testRedefinitionWithoutBudget() throws Exception {
+        when(classFileTransformer.transform(null, FOO, Object.class, null, QUX)).then(new Exceeding());
+        AgentBuilder.TransformerDecorator.WithTimeBudget transformerDecorator = new AgentBuilder.TransformerDecorator.WithTimeBudget(1L, TimeUnit.NANOSECONDS);
+        assertThat(transformerDecorator.decorate(classFileTransformer).transform(null, FOO, Object.class, null, QUX), is(BAZ));
+        assertThat(transformerDecorator.getExceededTypes().isEmpty(), is(true));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testOtherError() throws Exception {
+        when(classFileTransformer.transform(null, FOO, null, null, QUX)).thenThrow(new IllegalStateException());
+        new AgentBuilder.TransformerDecorator.WithTimeBudget(1L, TimeUnit.NANOSECONDS).decorate(classFileTransformer).transform(null, FOO, null, null, QUX);
+    }
+
+    @Test
+    public void testIgnoreListNotExistent() throws Exception {
+        File ignoreList = File.createTempFile("ignore", ".list");
+        assertThat(ignoreList.delete(), is(true));
+        assertThat(((AgentBuilder.RawMatcher.ForNameOnly) AgentBuilder.TransformerDecorator.WithTimeBudget.ofIgnoreList(ignoreList)).matches("foo.Bar", null, null), is(false));
+    }
+
+    @Test
+    @JavaVersionRule.Enforce(9)
+    public void testTransformModern() throws Exception {
+        Method transform = ClassFileTransformer.class.getMethod("transform",
+                JavaType.MODULE.load(),
+                ClassLoader.class,
+                String.class,
+                Class.class,
+                ProtectionDomain.class,
+                byte[].class);
+        Object module = JavaModule.ofType(Object.class).unwrap();
+        when(transform.invoke(classFileTransformer, module, null, FOO, null, null, QUX)).then(new Exceeding());
+        AgentBuilder.TransformerDecorator.WithTimeBudget transformerDecorator = new AgentBuilder.TransformerDecorator.WithTimeBudget(1L, TimeUnit.NANOSECONDS);
+        assertThat(transform.invoke(transformerDecorator.decorate(classFileTransformer), module, null, FOO, null, null, QUX), nullValue());
+        assertThat(transformerDecorator.getExceededTypes(), is(Collections.singleton("foo.Bar")));
+    }
+
+    private static class Exceeding implements Answer<byte[]> {
+
+        public byte[] answer(InvocationOnMock invocation) throws Throwable {
+            Thread.sleep(1L);
+            try {
+                AgentBuilder.TransformerDecorator.WithTimeBudget.checkpoint((ClassFileTransformer) invocation.getMock());
+            } catch (AgentBuilder.TransformerDecorator.WithTimeBudget.ExceededException exception) {
+                throw new IllegalStateException("Failed transformation", exception);
+            }
+            return BAZ;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package net.bytebuddy.agent.builder;
 
 import net.bytebuddy.dynamic.ClassFileLocator;
+import net.bytebuddy.matcher.ElementMatchers;
 import net.bytebuddy.pool.TypePool;
 import org.junit.Rule;
 import org.junit.Test;
@@ -8,16 +9,26 @@ import org.junit.rules.MethodRule;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static net.bytebuddy.test.utility.FieldByFieldComparison.hasPrototype;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 
 public class AgentBuilderTypeLocatorWithTypePoolCacheSimpleTest {
 
+    private static final String FOO = "foo.Bar";
+
     @Rule
     public MethodRule mockitoRule = MockitoJUnit.rule().silent();
 
@@ -49,4 +60,81 @@ public class AgentBuilderTypeLocatorWithTypePoolCacheSimpleTest {
         assertThat(poolStrategy.typePool(classFileLocator, null), hasPrototype(poolStrategy.typePool(classFileLocator, null)));
         assertThat(poolStrategy.typePool(classFileLocator, null), not(hasPrototype(poolStrategy.typePool(classFileLocator, second))));
     }
+
+    @Test
+    public void testBoundedImplementation() throws Exception {
+        ConcurrentMap<ClassLoader, TypePool.CacheProvider> cacheProviders = new ConcurrentHashMap<ClassLoader, TypePool.CacheProvider>();
+        AgentBuilder.PoolStrategy poolStrategy = new AgentBuilder.PoolStrategy.WithTypePoolCache.Simple.Bounded(cacheProviders, 10);
+        poolStrategy.typePool(classFileLocator, first);
+        assertThat(cacheProviders.get(first), instanceOf(TypePool.CacheProvider.Bounded.class));
+        assertThat(((TypePool.CacheProvider.Bounded) cacheProviders.get(first)).getMaximumWeight(), is(10L));
+        assertThat(cacheProviders.get(first).find(Object.class.getName()), notNullValue(TypePool.Resolution.class));
+    }
+
+    @Test
+    public void testSharedImplementation() throws Exception {
+        ConcurrentMap<ClassLoader, TypePool.CacheProvider> cacheProviders = new ConcurrentHashMap<ClassLoader, TypePool.CacheProvider>();
+        TypePool.CacheProvider.Simple sharedCacheProvider = new TypePool.CacheProvider.Simple();
+        AgentBuilder.PoolStrategy poolStrategy = new AgentBuilder.PoolStrategy.WithTypePoolCache.Simple.Shared(TypePool.Default.ReaderMode.FAST,
+                cacheProviders,
+                ElementMatchers.<ClassLoader>is(ClassLoader.getSystemClassLoader()),
+                sharedCacheProvider);
+        ClassLoader classLoader = new URLClassLoader(new URL[0], ClassLoader.getSystemClassLoader());
+        TypePool typePool = poolStrategy.typePool(ClassFileLocator.ForClassLoader.of(classLoader), classLoader);
+        assertThat(typePool.describe(String.class.getName()).resolve().represents(String.class), is(true));
+        assertThat(typePool.describe(getClass().getName()).resolve().represents(getClass()), is(true));
+        assertThat(typePool.describe(FOO).isResolved(), is(false));
+        assertThat(sharedCacheProvider.getStorage().containsKey(String.class.getName()), is(true));
+        assertThat(sharedCacheProvider.getStorage().containsKey(getClass().getName()), is(true));
+        assertThat(sharedCacheProvider.getStorage().containsKey(FOO), is(false));
+        assertThat(cacheProviders.get(classLoader).find(String.class.getName()), nullValue(TypePool.Resolution.class));
+        assertThat(cacheProviders.get(classLoader).find(FOO), notNullValue(TypePool.Resolution.class));
+    }
+
+    @Test
+    public void testSharedImplementationRemembersTypesOfNonSharedLoader() throws Exception {
+        ConcurrentMap<ClassLoader, TypePool.CacheProvider> cacheProviders = new ConcurrentHashMap<ClassLoader, TypePool.CacheProvider>();
+        TypePool.CacheProvider.Simple sharedCacheProvider = new TypePool.CacheProvider.Simple();
+        final AtomicInteger lookups = new AtomicInteger();
+        ClassLoader sharedLoader = new URLClassLoader(new URL[0], null) {
+            @Override
+            public InputStream getResourceAsStream(String name) {
+                lookups.incrementAndGet();
+                return super.getResourceAsStream(name);
+            }
+        };
+        AgentBuilder.PoolStrategy poolStrategy = new AgentBuilder.PoolStrategy.WithTypePoolCache.Simple.Shared(TypePool.Default.ReaderMode.FAST,
+                cacheProviders,
+                ElementMatchers.<ClassLoader>is(sharedLoader),
+                sharedCacheProvider);
+        ClassLoader classLoader = new URLClassLoader(new URL[0], sharedLoader);
+        TypePool typePool = poolStrategy.typePool(ClassFileLocator.Simple.of(getClass().getName(), ClassFileLocator.ForClassLoader.read(getClass())), classLoader);
+        assertThat(typePool.describe(getClass().getName()).isResolved(), is(true));
+        assertThat(typePool.describe(FOO).isResolved(), is(false));
+        assertThat(lookups.get(), is(2));
+        assertThat(typePool.describe(getClass().getName()).isResolved(), is(true));
+        assertThat(typePool.describe(FOO).isResolved(), is(false));
+        assertThat(lookups.get(), is(2));
+        assertThat(typePool.describe(String.class.getName()).isResolved(), is(true));
+        assertThat(lookups.get(), is(3));
+        typePool.clear();
+        assertThat(sharedCacheProvider.getStorage().containsKey(String.class.getName()), is(true));
+        assertThat(cacheProviders.get(classLoader).find(getClass().getName()), nullValue(TypePool.Resolution.class));
+    }
+
+    @Test
+    public void testSharedImplementationSharedLoader() throws Exception {
+        ConcurrentMap<ClassLoader, TypePool.CacheProvider> cacheProviders = new ConcurrentHashMap<ClassLoader, TypePool.CacheProvider>();
+        TypePool.CacheProvider.Simple sharedCacheProvider = new TypePool.CacheProvider.Simple();
+        AgentBuilder.PoolStrategy poolStrategy = new AgentBuilder.PoolStrategy.WithTypePoolCache.Simple.Shared(TypePool.Default.ReaderMode.FAST,
+                cacheProviders,
+                ElementMatchers.<ClassLoader>none(),
+                sharedCacheProvider);
+        TypePool typePool = poolStrategy.typePool(ClassFileLocator.ForClassLoader.ofBootLoader(), null);
+        assertThat(typePool.describe(String.class.getName()).isResolved(), is(true));
+        assertThat(sharedCacheProvider.getStorage().containsKey(String.class.getName()), is(true));
+        assertThat(poolStrategy.typePool(ClassFileLocator.ForClassLoader.ofBootLoader(), null, FOO).describe(FOO).isResolved(), is(false));
+        assertThat(sharedCacheProvider.getStorage().containsKey(FOO), is(false));
+        assertThat(cacheProviders.isEmpty(), is(true));
+    }
 }
@@ -0,0 +1,101 @@
+package net.bytebuddy.agent.builder;
+
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.DynamicType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class AgentBuilderWarmupProfileTest {
+
+    private static final String FOO = "foo", BAR = "bar";
+
+    private File file;
+
+    @Before
+    public void setUp() throws Exception {
+        file = File.createTempFile(FOO, BAR);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        assertThat(!file.exists() || file.delete(), is(true));
+    }
+
+    @Test
+    public void testEntry() throws Exception {
+        assertThat(AgentBuilder.WarmupProfile.Entry.of(FOO, null), is(new AgentBuilder.WarmupProfile.Entry(AgentBuilder.WarmupProfile.BOOT_LOADER, FOO)));
+        assertThat(AgentBuilder.WarmupProfile.Entry.of(FOO, ClassLoader.getSystemClassLoader()),
+                is(new AgentBuilder.WarmupProfile.Entry(ClassLoader.getSystemClassLoader().getClass().getName(), FOO)));
+        assertThat(AgentBuilder.WarmupProfile.Entry.of(FOO, null).getName(), is(FOO));
+        assertThat(AgentBuilder.WarmupProfile.Entry.of(FOO, null).getClassLoader(), is(AgentBuilder.WarmupProfile.BOOT_LOADER));
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        AgentBuilder.WarmupProfile profile = new AgentBuilder.WarmupProfile(Arrays.asList(AgentBuilder.WarmupProfile.Entry.of(FOO, null),
+                AgentBuilder.WarmupProfile.Entry.of(BAR, ClassLoader.getSystemClassLoader())));
+        profile.write(file);
+        assertThat(AgentBuilder.WarmupProfile.read(file), is(profile));
+        assertThat(AgentBuilder.WarmupProfile.read(file).getEntries().size(), is(2));
+    }
+
+    @Test(expected = IOException.class)
+    public void testMalformed() throws Exception {
+        OutputStream outputStream = new FileOutputStream(file);
+        try {
+            outputStream.write(FOO.getBytes("UTF-8"));
+        } finally {
+            outputStream.close();
+        }
+        AgentBuilder.WarmupProfile.read(file);
+    }
+
+    @Test
+    public void testRecording() throws Exception {
+        AgentBuilder.WarmupProfile.Recording recording = new AgentBuilder.WarmupProfile.Recording();
+        recording.onTransformation(TypeDescription.ForLoadedType.of(Object.class), null, null, false, mock(DynamicType.class));
+        recording.onTransformation(TypeDescription.ForLoadedType.of(Object.class), null, null, true, mock(DynamicType.class));
+        recording.onIgnored(TypeDescription.ForLoadedType.of(String.class), null, null, false);
+        assertThat(recording.toProfile().getEntries(), is(Collections.singleton(AgentBuilder.WarmupProfile.Entry.of(Object.class.getName(), null))));
+    }
+
+    @Test
+    public void testWriteOnShutdown() throws Exception {
+        assertThat(file.delete(), is(true));
+        AgentBuilder.WarmupProfile.Recording recording = new AgentBuilder.WarmupProfile.Recording();
+        recording.onTransformation(TypeDescription.ForLoadedType.of(Object.class), null, null, false, mock(DynamicType.class));
+        Thread thread = recording.writeOnShutdown(file);
+        assertThat(Runtime.getRuntime().removeShutdownHook(thread), is(true));
+        thread.run();
+        assertThat(AgentBuilder.WarmupProfile.read(file), is(recording.toProfile()));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testWriteOnShutdownError() throws Exception {
+        new AgentBuilder.WarmupProfile.Recording.ShutdownHook(new AgentBuilder.WarmupProfile.Recording(), new File(file, FOO)).run();
+    }
+
+    @Test
+    public void testClassLoaders() throws Exception {
+        Map<String, ClassLoader> classLoaders = AgentBuilder.WarmupProfile.classLoaders();
+        assertThat(classLoaders.containsKey(AgentBuilder.WarmupProfile.BOOT_LOADER), is(true));
+        assertThat(classLoaders.get(AgentBuilder.WarmupProfile.BOOT_LOADER), nullValue(ClassLoader.class));
+        assertThat(classLoaders.get(ClassLoader.getSystemClassLoader().getClass().getName()), is(ClassLoader.getSystemClassLoader()));
+        assertThat(new HashSet<ClassLoader>(classLoaders.values()).contains(ClassLoader.getSystemClassLoader().getParent()), is(true));
+    }
+}
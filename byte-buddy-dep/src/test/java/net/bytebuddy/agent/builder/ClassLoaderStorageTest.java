@@ -0,0 +1,88 @@
+package net.bytebuddy.agent.builder;
+
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import org.junit.Test;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ClassLoaderStorageTest {
+
+    @Test
+    public void testLookupKeyBootstrapLoaderReference() throws Exception {
+        ClassLoaderStorage.LookupKey key = new ClassLoaderStorage.LookupKey(ClassLoadingStrategy.BOOTSTRAP_LOADER);
+        assertThat(key.hashCode(), is(0));
+        ClassLoaderStorage.LookupKey other = new ClassLoaderStorage.LookupKey(new URLClassLoader(new URL[0]));
+        System.gc();
+        assertThat(key, not(is(other)));
+        assertThat(key, is(new ClassLoaderStorage.LookupKey(ClassLoadingStrategy.BOOTSTRAP_LOADER)));
+        assertThat(key, is((Object) new ClassLoaderStorage.StorageKey(ClassLoadingStrategy.BOOTSTRAP_LOADER)));
+        assertThat(key, not(is((Object) new ClassLoaderStorage.StorageKey(new URLClassLoader(new URL[0])))));
+        assertThat(key, is(key));
+        assertThat(key, not(is(new Object())));
+    }
+
+    @Test
+    public void testLookupKeyNonBootstrapReference() throws Exception {
+        ClassLoader classLoader = new URLClassLoader(new URL[0]);
+        ClassLoaderStorage.LookupKey key = new ClassLoaderStorage.LookupKey(classLoader);
+        assertThat(key, is(new ClassLoaderStorage.LookupKey(classLoader)));
+        assertThat(key.hashCode(), is(classLoader.hashCode()));
+        assertThat(key, not(is(new ClassLoaderStorage.LookupKey(ClassLoadingStrategy.BOOTSTRAP_LOADER))));
+        assertThat(key, not(is((Object) new ClassLoaderStorage.StorageKey(new URLClassLoader(new URL[0])))));
+        assertThat(key, is(key));
+        assertThat(key, not(is(new Object())));
+    }
+
+    @Test
+    public void testStorageKeyBootstrapLoaderReference() throws Exception {
+        ClassLoaderStorage.StorageKey key = new ClassLoaderStorage.StorageKey(ClassLoadingStrategy.BOOTSTRAP_LOADER);
+        assertThat(key.isBootstrapLoader(), is(true));
+        assertThat(key.hashCode(), is(0));
+        assertThat(key.get(), nullValue(ClassLoader.class));
+        ClassLoaderStorage.StorageKey other = new ClassLoaderStorage.StorageKey(new URLClassLoader(new URL[0]));
+        System.gc();
+        assertThat(other.get(), nullValue(ClassLoader.class));
+        assertThat(key, not(is(other)));
+        assertThat(key, is(new ClassLoaderStorage.StorageKey(ClassLoadingStrategy.BOOTSTRAP_LOADER)));
+        assertThat(key, is((Object) new ClassLoaderStorage.LookupKey(ClassLoadingStrategy.BOOTSTRAP_LOADER)));
+        assertThat(key, not(is((Object) new ClassLoaderStorage.LookupKey(new URLClassLoader(new URL[0])))));
+        assertThat(key, is(key));
+        assertThat(key, not(is(new Object())));
+    }
+
+    @Test
+    public void testStorageKeyNonBootstrapReference() throws Exception {
+        ClassLoader classLoader = new URLClassLoader(new URL[0]);
+        ClassLoaderStorage.StorageKey key = new ClassLoaderStorage.StorageKey(classLoader);
+        assertThat(key.isBootstrapLoader(), is(false));
+        assertThat(key, is(new ClassLoaderStorage.StorageKey(classLoader)));
+        assertThat(key.hashCode(), is(classLoader.hashCode()));
+        assertThat(key.get(), is(classLoader));
+        classLoader = null; // Make GC eligible.
+        System.gc();
+        assertThat(key.get(), nullValue(ClassLoader.class));
+        assertThat(key, not(is(new ClassLoaderStorage.StorageKey(ClassLoadingStrategy.BOOTSTRAP_LOADER))));
+        assertThat(key, not(is((Object) new ClassLoaderStorage.LookupKey(new URLClassLoader(new URL[0])))));
+        assertThat(key, is(key));
+        assertThat(key, not(is(new Object())));
+        assertThat(key.isBootstrapLoader(), is(false));
+    }
+
+    @Test
+    public void testConcurrentHashSet() throws Exception {
+        ClassLoaderStorage.ConcurrentHashSet<String> set = new ClassLoaderStorage.ConcurrentHashSet<String>();
+        assertThat(set.add("foo"), is(true));
+        assertThat(set.add("foo"), is(false));
+        assertThat(set.size(), is(1));
+        assertThat(set.iterator().next(), is("foo"));
+        assertThat(set.remove("foo"), is(true));
+        assertThat(set.remove("foo"), is(false));
+        assertThat(set.isEmpty(), is(true));
+    }
+}
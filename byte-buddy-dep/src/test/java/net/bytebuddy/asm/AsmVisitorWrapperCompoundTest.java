@@ -94,4 +94,14 @@ public class AsmVisitorWrapperCompoundTest {
         verify(append).mergeWriter(QUX);
         verifyNoMoreInteractions(append);
     }
+
+    @Test
+    public void testApplicable() throws Exception {
+        AsmVisitorWrapper.Selective first = mock(AsmVisitorWrapper.Selective.class), second = mock(AsmVisitorWrapper.Selective.class);
+        when(second.isApplicable(instrumentedType, fields, methods)).thenReturn(true);
+        assertThat(new AsmVisitorWrapper.Compound(first).isApplicable(instrumentedType, fields, methods), is(false));
+        assertThat(new AsmVisitorWrapper.Compound(first, second).isApplicable(instrumentedType, fields, methods), is(true));
+        assertThat(new AsmVisitorWrapper.Compound(first, wrapper).isApplicable(instrumentedType, fields, methods), is(true));
+        assertThat(new AsmVisitorWrapper.Compound().isApplicable(instrumentedType, fields, methods), is(false));
+    }
 }
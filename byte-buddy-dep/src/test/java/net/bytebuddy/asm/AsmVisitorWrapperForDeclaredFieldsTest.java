@@ -118,4 +118,17 @@ public class AsmVisitorWrapperForDeclaredFieldsTest {
         verifyNoMoreInteractions(matcher);
         verifyNoMoreInteractions(fieldVisitorWrapper);
     }
+
+    @Test
+    public void testApplicable() throws Exception {
+        assertThat(new AsmVisitorWrapper.ForDeclaredFields()
+                .field(matcher, fieldVisitorWrapper)
+                .isApplicable(instrumentedType, new FieldList.Explicit<FieldDescription.InDefinedShape>(foo, bar), new MethodList.Empty<MethodDescription>()), is(true));
+        assertThat(new AsmVisitorWrapper.ForDeclaredFields()
+                .field(matcher, fieldVisitorWrapper)
+                .isApplicable(instrumentedType, new FieldList.Explicit<FieldDescription.InDefinedShape>(bar), new MethodList.Empty<MethodDescription>()), is(false));
+        assertThat(new AsmVisitorWrapper.ForDeclaredFields()
+                .isApplicable(instrumentedType, new FieldList.Explicit<FieldDescription.InDefinedShape>(foo, bar), new MethodList.Empty<MethodDescription>()), is(false));
+        verifyNoMoreInteractions(fieldVisitorWrapper);
+    }
 }
@@ -163,4 +163,17 @@ public class AsmVisitorWrapperForDeclaredMethodsTest {
     public void testReaderFlags() throws Exception {
         assertThat(new AsmVisitorWrapper.ForDeclaredMethods().readerFlags(FLAGS).mergeReader(0), is(FLAGS));
     }
+
+    @Test
+    public void testApplicable() throws Exception {
+        assertThat(new AsmVisitorWrapper.ForDeclaredMethods()
+                .invokable(matcher, methodVisitorWrapper)
+                .isApplicable(instrumentedType, new FieldList.Empty<FieldDescription.InDefinedShape>(), new MethodList.Explicit<MethodDescription>(foo, bar)), is(true));
+        assertThat(new AsmVisitorWrapper.ForDeclaredMethods()
+                .invokable(matcher, methodVisitorWrapper)
+                .isApplicable(instrumentedType, new FieldList.Empty<FieldDescription.InDefinedShape>(), new MethodList.Explicit<MethodDescription>(bar)), is(false));
+        assertThat(new AsmVisitorWrapper.ForDeclaredMethods()
+                .isApplicable(instrumentedType, new FieldList.Empty<FieldDescription.InDefinedShape>(), new MethodList.Explicit<MethodDescription>(foo, bar)), is(false));
+        verifyNoMoreInteractions(methodVisitorWrapper);
+    }
 }
@@ -42,4 +42,11 @@ public class AsmVisitorWrapperNoOpTest {
     public void testWriterFlags() throws Exception {
         assertThat(AsmVisitorWrapper.NoOp.INSTANCE.mergeWriter(FOO), is(FOO));
     }
+
+    @Test
+    public void testNotApplicable() throws Exception {
+        assertThat(AsmVisitorWrapper.NoOp.INSTANCE.isApplicable(mock(TypeDescription.class),
+                new FieldList.Empty<FieldDescription.InDefinedShape>(),
+                new MethodList.Empty<MethodDescription>()), is(false));
+    }
 }
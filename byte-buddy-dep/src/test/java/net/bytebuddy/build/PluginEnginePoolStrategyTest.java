@@ -9,7 +9,10 @@ import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 
 import static net.bytebuddy.test.utility.FieldByFieldComparison.hasPrototype;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.*;
 
 public class PluginEnginePoolStrategyTest {
 
@@ -54,4 +57,27 @@ public class PluginEnginePoolStrategyTest {
                         TypePool.Default.ReaderMode.EXTENDED,
                         TypePool.ClassLoading.ofPlatformLoader())));
     }
+
+    @Test
+    public void testBounded() {
+        assertThat(new Plugin.Engine.PoolStrategy.Bounded(10).typePool(classFileLocator), instanceOf(TypePool.Default.WithLazyResolution.class));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBoundedIllegalWeight() {
+        new Plugin.Engine.PoolStrategy.Bounded(0);
+    }
+
+    @Test
+    public void testWithSnapshot() throws Exception {
+        ClassFileLocator snapshot = mock(ClassFileLocator.class);
+        when(snapshot.locate(PluginEnginePoolStrategyTest.class.getName()))
+                .thenReturn(new ClassFileLocator.Resolution.Explicit(ClassFileLocator.ForClassLoader.read(PluginEnginePoolStrategyTest.class)));
+        TypePool typePool = new Plugin.Engine.PoolStrategy.WithSnapshot(new TypePool.CacheProvider.Simple(), snapshot).typePool(classFileLocator);
+        assertThat(typePool, instanceOf(TypePool.Default.WithLazyResolution.class));
+        assertThat(typePool.describe(PluginEnginePoolStrategyTest.class.getName()).resolve().getDeclaredMethods().isEmpty(), is(false));
+        verify(snapshot).locate(PluginEnginePoolStrategyTest.class.getName());
+        verifyNoMoreInteractions(snapshot);
+        verifyNoMoreInteractions(classFileLocator);
+    }
 }
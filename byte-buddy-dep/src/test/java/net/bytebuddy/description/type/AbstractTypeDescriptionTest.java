@@ -489,6 +489,21 @@ public abstract class AbstractTypeDescriptionTest extends AbstractTypeDescriptio
         assertThat(describe(Object[].class).isAssignableFrom(boolean[].class), is(false));
     }
 
+    @Test
+    public void testIsAssignableInHierarchy() throws Exception {
+        for (int index = 0; index < 2; index++) {
+            assertThat(describe(SampleIndirectInterfaceImplementation.class).isAssignableTo(describe(SampleInterface.class)), is(true));
+            assertThat(describe(SampleIndirectInterfaceImplementation.class).isAssignableTo(describe(SampleInterfaceImplementation.class)), is(true));
+            assertThat(describe(SampleIndirectInterfaceImplementation.class).isAssignableTo(describe(SampleTransitiveInterface.class)), is(false));
+            assertThat(describe(SampleTransitiveInterfaceImplementation.class).isAssignableTo(describe(SampleTransitiveInterface.class)), is(true));
+            assertThat(describe(SampleTransitiveInterfaceImplementation.class).isAssignableTo(describe(SampleInterfaceImplementation.class)), is(false));
+            assertThat(describe(SampleTransitiveInterface.class).isAssignableTo(describe(SampleInterface.class)), is(true));
+            assertThat(describe(SampleInterface.class).isAssignableTo(describe(SampleTransitiveInterface.class)), is(false));
+            assertThat(describe(SampleClassInherited.class).isAssignableTo(describe(SampleClass.class)), is(true));
+            assertThat(describe(SampleClass.class).isAssignableTo(describe(SampleClassInherited.class)), is(false));
+        }
+    }
+
     @Test
     public void testIsAssignableClassLoader() throws Exception {
         ClassLoader classLoader = new ByteArrayClassLoader(ClassLoadingStrategy.BOOTSTRAP_LOADER,
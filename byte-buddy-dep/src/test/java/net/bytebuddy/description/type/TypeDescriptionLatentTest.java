@@ -6,14 +6,15 @@ import org.junit.Test;
 import org.junit.rules.MethodRule;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
+import org.objectweb.asm.Opcodes;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 public class TypeDescriptionLatentTest {
 
-    private static final String FOO = "foo";
+    private static final String FOO = "foo", BAR = "bar", QUX = "qux", BAZ = "baz";
 
     private static final int MODIFIERS = 42;
 
@@ -50,6 +51,35 @@ public class TypeDescriptionLatentTest {
         assertThat(new TypeDescription.Latent(FOO, MODIFIERS, superClass, interfaceType).getInterfaces().getOnly(), is(interfaceType));
     }
 
+    @Test
+    public void testAssignabilityWalksTypeHierarchy() throws Exception {
+        when(superClass.asErasure()).thenReturn(new TypeDescription.Latent(BAR, Opcodes.ACC_PUBLIC, null));
+        when(interfaceType.asErasure()).thenReturn(new TypeDescription.Latent(QUX, Opcodes.ACC_PUBLIC | Opcodes.ACC_INTERFACE | Opcodes.ACC_ABSTRACT, null));
+        TypeDescription typeDescription = new TypeDescription.Latent(FOO, MODIFIERS, superClass, interfaceType);
+        for (int index = 0; index < 2; index++) {
+            assertThat(typeDescription.isAssignableTo(new TypeDescription.Latent(BAR, Opcodes.ACC_PUBLIC, null)), is(true));
+            assertThat(typeDescription.isAssignableTo(new TypeDescription.Latent(QUX, Opcodes.ACC_PUBLIC | Opcodes.ACC_INTERFACE | Opcodes.ACC_ABSTRACT, null)), is(true));
+            assertThat(typeDescription.isAssignableTo(new TypeDescription.Latent(BAZ, Opcodes.ACC_PUBLIC, null)), is(false));
+        }
+        verify(superClass, times(6)).asErasure();
+        verify(interfaceType, times(2)).asErasure();
+    }
+
+    @Test
+    public void testAssignabilityOfUnmemoizedType() throws Exception {
+        TypeDescription typeDescription = mock(TypeDescription.class);
+        when(typeDescription.getSort()).thenReturn(TypeDefinition.Sort.NON_GENERIC);
+        when(typeDescription.asErasure()).thenReturn(typeDescription);
+        when(typeDescription.getName()).thenReturn(FOO);
+        when(typeDescription.getSuperClass()).thenReturn(superClass);
+        when(typeDescription.getInterfaces()).thenReturn(new TypeList.Generic.Explicit(interfaceType));
+        when(superClass.asErasure()).thenReturn(new TypeDescription.Latent(BAR, Opcodes.ACC_PUBLIC, null));
+        when(interfaceType.asErasure()).thenReturn(new TypeDescription.Latent(QUX, Opcodes.ACC_PUBLIC | Opcodes.ACC_INTERFACE | Opcodes.ACC_ABSTRACT, null));
+        assertThat(new TypeDescription.Latent(BAR, Opcodes.ACC_PUBLIC, null).isAssignableFrom(typeDescription), is(true));
+        assertThat(new TypeDescription.Latent(QUX, Opcodes.ACC_PUBLIC | Opcodes.ACC_INTERFACE | Opcodes.ACC_ABSTRACT, null).isAssignableFrom(typeDescription), is(true));
+        assertThat(new TypeDescription.Latent(BAZ, Opcodes.ACC_PUBLIC, null).isAssignableFrom(typeDescription), is(false));
+    }
+
     @Test(expected = IllegalStateException.class)
     public void testFields() throws Exception {
         new TypeDescription.Latent(FOO, MODIFIERS, superClass, interfaceType).getDeclaredFields();
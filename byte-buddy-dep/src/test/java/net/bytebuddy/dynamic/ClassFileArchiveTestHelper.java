@@ -0,0 +1,48 @@
+package net.bytebuddy.dynamic;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+public class ClassFileArchiveTestHelper {
+
+    public static void write(File jar, Class<?>... type) throws IOException {
+        JarOutputStream jarOutputStream = new JarOutputStream(new FileOutputStream(jar));
+        try {
+            for (Class<?> aType : type) {
+                jarOutputStream.putNextEntry(new JarEntry(aType.getName().replace('.', '/') + ".class"));
+                jarOutputStream.write(ClassFileLocator.ForClassLoader.read(aType));
+                jarOutputStream.closeEntry();
+            }
+        } finally {
+            jarOutputStream.close();
+        }
+    }
+
+    @SampleAnnotation
+    public static class Sample implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        public String foo(String value) {
+            return value + value;
+        }
+    }
+
+    public static class Other {
+
+        public void bar() {
+            System.out.println("bar");
+        }
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface SampleAnnotation {
+        /* empty */
+    }
+}
@@ -0,0 +1,145 @@
+package net.bytebuddy.dynamic;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.MethodRule;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class ClassFileLocatorCompoundIndexedTest {
+
+    private static final String FOO = "foo", BAR = "bar", QUX = "qux";
+
+    private static final int VALUE = 42;
+
+    @Rule
+    public MethodRule mockitoRule = MockitoJUnit.rule().silent();
+
+    @Mock
+    private ClassFileLocator classFileLocator;
+
+    @Mock
+    private ClassFileLocator.Resolution legal;
+
+    private File file, folder;
+
+    private JarFile jarFile;
+
+    @Before
+    public void setUp() throws Exception {
+        file = File.createTempFile(FOO, BAR);
+        JarOutputStream jarOutputStream = new JarOutputStream(new FileOutputStream(file));
+        try {
+            jarOutputStream.putNextEntry(new JarEntry(FOO + "/" + BAR + ".class"));
+            jarOutputStream.write(VALUE);
+            jarOutputStream.closeEntry();
+            jarOutputStream.putNextEntry(new JarEntry(FOO + "/" + QUX + ".class"));
+            jarOutputStream.write(VALUE);
+            jarOutputStream.closeEntry();
+        } finally {
+            jarOutputStream.close();
+        }
+        jarFile = new JarFile(file);
+        folder = new File(file.getParentFile(), FOO + new Random().nextInt());
+        assertThat(folder.mkdir(), is(true));
+        assertThat(new File(folder, FOO).mkdir(), is(true));
+        write(new File(folder, FOO + File.separatorChar + BAR + ".class"), VALUE * 2);
+        when(classFileLocator.locate(anyString())).thenReturn(new ClassFileLocator.Resolution.Illegal(FOO));
+        when(legal.isResolved()).thenReturn(true);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        jarFile.close();
+        assertThat(file.delete(), is(true));
+        for (String name : new String[]{BAR, QUX}) {
+            File file = new File(folder, FOO + File.separatorChar + name + ".class");
+            assertThat(!file.exists() || file.delete(), is(true));
+        }
+        assertThat(new File(folder, FOO).delete(), is(true));
+        assertThat(folder.delete(), is(true));
+    }
+
+    private static void write(File file, int value) throws Exception {
+        OutputStream outputStream = new FileOutputStream(file);
+        try {
+            outputStream.write(value);
+        } finally {
+            outputStream.close();
+        }
+    }
+
+    @Test
+    public void testLocationInOrder() throws Exception {
+        ClassFileLocator classFileLocator = new ClassFileLocator.Compound.Indexed(new ClassFileLocator.ForFolder(folder),
+                new ClassFileLocator.ForJarFile(jarFile));
+        assertThat(classFileLocator.locate(FOO + "." + BAR).resolve(), is(new byte[]{VALUE * 2}));
+        assertThat(classFileLocator.locate(FOO + "." + QUX).resolve(), is(new byte[]{VALUE}));
+        assertThat(classFileLocator.locate(BAR + "." + QUX).isResolved(), is(false));
+    }
+
+    @Test
+    public void testUnindexedLocatorIsQueriedInOrder() throws Exception {
+        ClassFileLocator classFileLocator = new ClassFileLocator.Compound.Indexed(new ClassFileLocator.ForJarFile(jarFile), this.classFileLocator);
+        assertThat(classFileLocator.locate(FOO + "." + BAR).resolve(), is(new byte[]{VALUE}));
+        verifyNoMoreInteractions(this.classFileLocator);
+        assertThat(classFileLocator.locate(BAR + "." + QUX).isResolved(), is(false));
+        verify(this.classFileLocator).locate(BAR + "." + QUX);
+        verifyNoMoreInteractions(this.classFileLocator);
+    }
+
+    @Test
+    public void testUnindexedLocatorPrecedesIndexedLocator() throws Exception {
+        when(this.classFileLocator.locate(FOO + "." + BAR)).thenReturn(legal);
+        ClassFileLocator classFileLocator = new ClassFileLocator.Compound.Indexed(this.classFileLocator, new ClassFileLocator.ForJarFile(jarFile));
+        assertThat(classFileLocator.locate(FOO + "." + BAR), is(legal));
+        assertThat(classFileLocator.locate(FOO + "." + QUX).resolve(), is(new byte[]{VALUE}));
+    }
+
+    @Test
+    public void testFolderInvalidation() throws Exception {
+        ClassFileLocator.Compound.Indexed classFileLocator = new ClassFileLocator.Compound.Indexed(new ClassFileLocator.ForJarFile(jarFile),
+                new ClassFileLocator.ForFolder(folder));
+        File file = new File(folder, FOO + File.separatorChar + QUX + ".class");
+        write(file, VALUE * 3);
+        File added = new File(folder, FOO + File.separatorChar + "Added.class");
+        write(added, VALUE * 3);
+        try {
+            assertThat(classFileLocator.locate(FOO + ".Added").isResolved(), is(false));
+            classFileLocator.invalidate();
+            assertThat(classFileLocator.locate(FOO + ".Added").resolve(), is(new byte[]{VALUE * 3}));
+            assertThat(classFileLocator.locate(FOO + "." + QUX).resolve(), is(new byte[]{VALUE}));
+        } finally {
+            assertThat(added.delete(), is(true));
+        }
+    }
+
+    @Test
+    public void testStaleFolderFallsBackToLaterLocator() throws Exception {
+        ClassFileLocator classFileLocator = new ClassFileLocator.Compound.Indexed(new ClassFileLocator.ForFolder(folder),
+                new ClassFileLocator.ForJarFile(jarFile));
+        assertThat(new File(folder, FOO + File.separatorChar + BAR + ".class").delete(), is(true));
+        assertThat(classFileLocator.locate(FOO + "." + BAR).resolve(), is(new byte[]{VALUE}));
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        new ClassFileLocator.Compound.Indexed(classFileLocator).close();
+        verify(classFileLocator).close();
+    }
+}
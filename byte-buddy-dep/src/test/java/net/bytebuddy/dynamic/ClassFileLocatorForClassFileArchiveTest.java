@@ -0,0 +1,189 @@
+package net.bytebuddy.dynamic;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.ClassFileArchiveTestHelper.Other;
+import net.bytebuddy.dynamic.ClassFileArchiveTestHelper.Sample;
+import net.bytebuddy.pool.TypePool;
+import net.bytebuddy.test.utility.JavaVersionRule;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.MethodRule;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static net.bytebuddy.matcher.ElementMatchers.named;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ClassFileLocatorForClassFileArchiveTest {
+
+    private static final String FOO = "foo", BAR = "bar";
+
+    @Rule
+    public MethodRule javaVersionRule = new JavaVersionRule();
+
+    private File file, jar, folder;
+
+    @Before
+    public void setUp() throws Exception {
+        file = File.createTempFile(FOO, BAR);
+        jar = File.createTempFile(FOO, BAR);
+        JarOutputStream jarOutputStream = new JarOutputStream(new FileOutputStream(jar));
+        try {
+            jarOutputStream.putNextEntry(new JarEntry(Sample.class.getName().replace('.', '/') + ".class"));
+            jarOutputStream.write(ClassFileLocator.ForClassLoader.read(Sample.class));
+            jarOutputStream.closeEntry();
+            jarOutputStream.putNextEntry(new JarEntry("classes/" + Other.class.getName().replace('.', '/') + ".class"));
+            jarOutputStream.write(ClassFileLocator.ForClassLoader.read(Other.class));
+            jarOutputStream.closeEntry();
+            jarOutputStream.putNextEntry(new JarEntry("META-INF/versions/9/" + Other.class.getName().replace('.', '/') + ".class"));
+            jarOutputStream.write(ClassFileLocator.ForClassLoader.read(Sample.class));
+            jarOutputStream.closeEntry();
+            jarOutputStream.putNextEntry(new JarEntry(FOO + ".txt"));
+            jarOutputStream.write(new byte[]{1, 2, 3});
+            jarOutputStream.closeEntry();
+        } finally {
+            jarOutputStream.close();
+        }
+        folder = File.createTempFile(FOO, BAR);
+        assertThat(folder.delete(), is(true));
+        File nested = new File(folder, FOO);
+        assertThat(nested.mkdirs(), is(true));
+        FileOutputStream outputStream = new FileOutputStream(new File(nested, BAR + ".class"));
+        try {
+            outputStream.write(ClassFileLocator.ForClassLoader.read(Object.class));
+        } finally {
+            outputStream.close();
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        file.delete();
+        jar.delete();
+        new File(new File(folder, FOO), BAR + ".class").delete();
+        new File(folder, FOO).delete();
+        folder.delete();
+    }
+
+    @Test
+    public void testLocation() throws Exception {
+        ClassFileLocator.ForClassFileArchive.write(file, Arrays.asList(jar, folder));
+        ClassFileLocator.ForClassFileArchive classFileLocator = new ClassFileLocator.ForClassFileArchive(file);
+        try {
+            assertThat(classFileLocator.size(), is(3));
+            ClassFileLocator.Resolution resolution = classFileLocator.locate(Sample.class.getName());
+            assertThat(resolution, instanceOf(ClassFileLocator.Resolution.ForStrippedClassFile.class));
+            assertThat(resolution.isResolved(), is(true));
+            assertThat(resolution.resolve().length < ClassFileLocator.ForClassLoader.read(Sample.class).length, is(true));
+            assertThat(classFileLocator.locate(Other.class.getName()).isResolved(), is(true));
+            assertThat(classFileLocator.locate(Object.class.getName()).isResolved(), is(true));
+            assertThat(classFileLocator.locate(FOO).isResolved(), is(false));
+            assertThat(classFileLocator.locate(Sample.class.getName() + "$").isResolved(), is(false));
+        } finally {
+            classFileLocator.close();
+        }
+    }
+
+    @Test
+    public void testTypePool() throws Exception {
+        ClassFileLocator.ForClassFileArchive.write(file, Collections.singletonList(jar));
+        TypeDescription typeDescription = TypePool.Default.ofClassFileArchive(file, TypePool.Default.ofSystemLoader()).describe(Sample.class.getName()).resolve();
+        assertThat(typeDescription, is(TypeDescription.ForLoadedType.of(Sample.class)));
+        assertThat(typeDescription.getModifiers(), is(Sample.class.getModifiers()));
+        assertThat(typeDescription.getSuperClass(), is(TypeDescription.ForLoadedType.of(Sample.class).getSuperClass()));
+        assertThat(typeDescription.getInterfaces(), is(TypeDescription.ForLoadedType.of(Sample.class).getInterfaces()));
+        assertThat(typeDescription.getDeclaredAnnotations(), is(TypeDescription.ForLoadedType.of(Sample.class).getDeclaredAnnotations()));
+        assertThat(typeDescription.getDeclaredMethods().filter(named(FOO)).getOnly().asDefined(),
+                is(TypeDescription.ForLoadedType.of(Sample.class).getDeclaredMethods().filter(named(FOO)).getOnly()));
+        assertThat(TypePool.Default.ofClassFileArchive(file).describe(Object.class.getName()).isResolved(), is(false));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testNoTransformation() throws Exception {
+        ClassFileLocator.ForClassFileArchive.write(file, Collections.singletonList(jar));
+        ClassFileLocator classFileLocator = new ClassFileLocator.Compound(new ClassFileLocator.ForClassFileArchive(file), ClassFileLocator.ForClassLoader.ofSystemLoader());
+        new ByteBuddy().rebase(Sample.class, classFileLocator).make();
+    }
+
+    @Test
+    public void testExplicitAndTool() throws Exception {
+        Map<String, byte[]> classFiles = new HashMap<String, byte[]>();
+        classFiles.put(Sample.class.getName(), ClassFileLocator.ForClassLoader.read(Sample.class));
+        classFiles.put(Other.class.getName(), ClassFileLocator.ForClassLoader.read(Other.class));
+        ClassFileLocator.ForClassFileArchive.write(file, classFiles);
+        assertThat(new ClassFileLocator.ForClassFileArchive(file).size(), is(2));
+        ClassFileArchiveTool.main(file.getAbsolutePath(), folder.getAbsolutePath(), jar.getAbsolutePath());
+        ClassFileLocator.ForClassFileArchive classFileLocator = new ClassFileLocator.ForClassFileArchive(file);
+        assertThat(classFileLocator.size(), is(3));
+        assertThat(TypePool.Default.of(classFileLocator).describe(Object.class.getName()).resolve().getName(), is(Object.class.getName()));
+    }
+
+    @Test
+    @JavaVersionRule.Enforce(9)
+    public void testRuntimeImage() throws Exception {
+        ClassFileArchiveTool.main(file.getAbsolutePath(), ClassFileArchiveTool.RUNTIME_IMAGE, jar.getAbsolutePath());
+        ClassFileLocator.ForClassFileArchive classFileLocator = new ClassFileLocator.ForClassFileArchive(file);
+        try {
+            assertThat(classFileLocator.locate(Object.class.getName()).isResolved(), is(true));
+            assertThat(classFileLocator.locate("java.sql.Connection").isResolved(), is(true));
+            assertThat(classFileLocator.locate(Sample.class.getName()).isResolved(), is(true));
+            TypePool typePool = TypePool.Default.of(classFileLocator);
+            assertThat(typePool.describe(String.class.getName()).resolve().getSuperClass().asErasure().represents(Object.class), is(true));
+        } finally {
+            classFileLocator.close();
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testIllegalFile() throws Exception {
+        FileOutputStream outputStream = new FileOutputStream(file);
+        try {
+            outputStream.write(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12});
+        } finally {
+            outputStream.close();
+        }
+        new ClassFileLocator.ForClassFileArchive(file);
+    }
+
+    @Test(expected = IOException.class)
+    public void testIllegalEntry() throws Exception {
+        ClassFileLocator.ForClassFileArchive.write(file, Collections.singletonList(jar));
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            randomAccessFile.seek(12 + 4);
+            randomAccessFile.writeInt(Integer.MAX_VALUE);
+        } finally {
+            randomAccessFile.close();
+        }
+        ClassFileLocator.ForClassFileArchive classFileLocator = new ClassFileLocator.ForClassFileArchive(file);
+        try {
+            classFileLocator.locate(Sample.class.getName());
+        } finally {
+            classFileLocator.close();
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testEmptyFile() throws Exception {
+        new ClassFileLocator.ForClassFileArchive(file);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testToolWithoutSources() throws Exception {
+        ClassFileArchiveTool.main(file.getAbsolutePath());
+    }
+}
@@ -0,0 +1,283 @@
+package net.bytebuddy.dynamic;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+public class ClassFileLocatorForMappedJarFileTest {
+
+    private static final String FOO = "foo", BAR = "bar", QUX = "qux";
+
+    private static final byte[] DATA = new byte[]{1, 2, 3, 1, 2, 3, 1, 2, 3};
+
+    private static final int LOCAL_LENGTH = 30 + "c0.class".length() + DATA.length;
+
+    private File file;
+
+    @Before
+    public void setUp() throws Exception {
+        file = File.createTempFile(FOO, BAR);
+        JarOutputStream jarOutputStream = new JarOutputStream(new FileOutputStream(file));
+        try {
+            JarEntry stored = new JarEntry(FOO + "/" + BAR + ".class");
+            stored.setMethod(ZipEntry.STORED);
+            stored.setSize(DATA.length);
+            CRC32 crc32 = new CRC32();
+            crc32.update(DATA);
+            stored.setCrc(crc32.getValue());
+            jarOutputStream.putNextEntry(stored);
+            jarOutputStream.write(DATA);
+            jarOutputStream.closeEntry();
+            jarOutputStream.putNextEntry(new JarEntry(FOO + "/" + QUX + ".class"));
+            jarOutputStream.write(DATA);
+            jarOutputStream.closeEntry();
+            jarOutputStream.putNextEntry(new JarEntry(FOO + "/" + BAR + ".txt"));
+            jarOutputStream.write(DATA);
+            jarOutputStream.closeEntry();
+        } finally {
+            jarOutputStream.close();
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        // Mapped files cannot be deleted on some platforms.
+        file.delete();
+    }
+
+    @Test
+    public void testStoredLocation() throws Exception {
+        ClassFileLocator classFileLocator = new ClassFileLocator.ForMappedJarFile(file);
+        try {
+            ClassFileLocator.Resolution resolution = classFileLocator.locate(FOO + "." + BAR);
+            assertThat(resolution, instanceOf(ClassFileLocator.Resolution.ForByteBuffer.class));
+            assertThat(resolution.isResolved(), is(true));
+            assertThat(resolution.resolve(), is(DATA));
+            assertThat(resolution.resolve(), sameInstance(resolution.resolve()));
+        } finally {
+            classFileLocator.close();
+        }
+    }
+
+    @Test
+    public void testDeflatedLocation() throws Exception {
+        ClassFileLocator classFileLocator = new ClassFileLocator.ForMappedJarFile(file);
+        try {
+            for (int index = 0; index < 3; index++) {
+                ClassFileLocator.Resolution resolution = classFileLocator.locate(FOO + "." + QUX);
+                assertThat(resolution.isResolved(), is(true));
+                assertThat(resolution.resolve(), is(DATA));
+            }
+        } finally {
+            classFileLocator.close();
+        }
+    }
+
+    @Test
+    public void testNonSuccessfulLocation() throws Exception {
+        ClassFileLocator classFileLocator = new ClassFileLocator.ForMappedJarFile(file);
+        try {
+            assertThat(classFileLocator.locate(BAR + "." + FOO).isResolved(), is(false));
+            assertThat(classFileLocator.locate(FOO + "." + BAR + ".txt").isResolved(), is(false));
+        } finally {
+            classFileLocator.close();
+        }
+    }
+
+    @Test
+    public void testIndexed() throws Exception {
+        ClassFileLocator classFileLocator = new ClassFileLocator.Compound.Indexed(new ClassFileLocator.ForMappedJarFile(file));
+        try {
+            assertThat(classFileLocator.locate(FOO + "." + QUX).resolve(), is(DATA));
+            assertThat(classFileLocator.locate(BAR + "." + FOO).isResolved(), is(false));
+        } finally {
+            classFileLocator.close();
+        }
+    }
+
+    @Test
+    public void testEquivalentToJarFile() throws Exception {
+        File jar = new File(Test.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        ClassFileLocator mapped = new ClassFileLocator.ForMappedJarFile(jar), regular = ClassFileLocator.ForJarFile.of(jar);
+        try {
+            assertThat(mapped.locate(Test.class.getName()).resolve(), is(regular.locate(Test.class.getName()).resolve()));
+            assertThat(mapped.locate(After.class.getName()).resolve(), is(regular.locate(After.class.getName()).resolve()));
+        } finally {
+            mapped.close();
+            regular.close();
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testIllegalFile() throws Exception {
+        File file = File.createTempFile(FOO, QUX);
+        try {
+            new ClassFileLocator.ForMappedJarFile(file);
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testMaximumEntriesWithoutZip64() throws Exception {
+        File file = File.createTempFile(FOO, QUX);
+        try {
+            writeStored(file, 0xFFFF);
+            ClassFileLocator classFileLocator = new ClassFileLocator.ForMappedJarFile(file);
+            try {
+                assertThat(classFileLocator.locate("c0").resolve(), is(DATA));
+                assertThat(classFileLocator.locate("c65534").resolve(), is(DATA));
+            } finally {
+                classFileLocator.close();
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testZip64() throws Exception {
+        File file = File.createTempFile(FOO, QUX);
+        try {
+            JarOutputStream jarOutputStream = new JarOutputStream(new FileOutputStream(file));
+            try {
+                for (int index = 0; index < 0xFFFF; index++) {
+                    jarOutputStream.putNextEntry(new JarEntry("c" + index + ".class"));
+                    jarOutputStream.closeEntry();
+                }
+            } finally {
+                jarOutputStream.close();
+            }
+            new ClassFileLocator.ForMappedJarFile(file);
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testTruncatedName() throws Exception {
+        File file = File.createTempFile(FOO, QUX);
+        try {
+            writeStored(file, 1);
+            RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+            try {
+                randomAccessFile.seek(LOCAL_LENGTH + 28);
+                randomAccessFile.write(new byte[]{(byte) 0xFF, (byte) 0xFF});
+            } finally {
+                randomAccessFile.close();
+            }
+            new ClassFileLocator.ForMappedJarFile(file);
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testTruncatedEntry() throws Exception {
+        File file = File.createTempFile(FOO, QUX);
+        try {
+            writeStored(file, 1);
+            RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+            try {
+                randomAccessFile.seek(LOCAL_LENGTH + 20);
+                randomAccessFile.write(new byte[]{(byte) 0xF0, (byte) 0xFF, (byte) 0xFF, (byte) 0x7F, (byte) 0xF0, (byte) 0xFF, (byte) 0xFF, (byte) 0x7F});
+            } finally {
+                randomAccessFile.close();
+            }
+            ClassFileLocator classFileLocator = new ClassFileLocator.ForMappedJarFile(file);
+            try {
+                classFileLocator.locate("c0");
+                fail();
+            } catch (IOException ignored) {
+                /* expected */
+            } finally {
+                classFileLocator.close();
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static void writeStored(File file, int count) throws Exception {
+        ByteArrayOutputStream local = new ByteArrayOutputStream(), central = new ByteArrayOutputStream();
+        CRC32 crc32 = new CRC32();
+        crc32.update(DATA);
+        for (int index = 0; index < count; index++) {
+            byte[] name = ("c" + index + ".class").getBytes("UTF-8");
+            int offset = local.size();
+            writeInt(local, 0x04034b50);
+            writeShort(local, 10);
+            writeShort(local, 0);
+            writeShort(local, 0);
+            writeInt(local, 0);
+            writeInt(local, (int) crc32.getValue());
+            writeInt(local, DATA.length);
+            writeInt(local, DATA.length);
+            writeShort(local, name.length);
+            writeShort(local, 0);
+            local.write(name);
+            local.write(DATA);
+            writeInt(central, 0x02014b50);
+            writeShort(central, 10);
+            writeShort(central, 10);
+            writeShort(central, 0);
+            writeShort(central, 0);
+            writeInt(central, 0);
+            writeInt(central, (int) crc32.getValue());
+            writeInt(central, DATA.length);
+            writeInt(central, DATA.length);
+            writeShort(central, name.length);
+            writeShort(central, 0);
+            writeShort(central, 0);
+            writeShort(central, 0);
+            writeShort(central, 0);
+            writeInt(central, 0);
+            writeInt(central, offset);
+            central.write(name);
+        }
+        OutputStream outputStream = new FileOutputStream(file);
+        try {
+            outputStream.write(local.toByteArray());
+            outputStream.write(central.toByteArray());
+            ByteArrayOutputStream end = new ByteArrayOutputStream();
+            writeInt(end, 0x06054b50);
+            writeShort(end, 0);
+            writeShort(end, 0);
+            writeShort(end, count);
+            writeShort(end, count);
+            writeInt(end, central.size());
+            writeInt(end, local.size());
+            writeShort(end, 0);
+            outputStream.write(end.toByteArray());
+        } finally {
+            outputStream.close();
+        }
+    }
+
+    private static void writeShort(OutputStream outputStream, int value) throws IOException {
+        outputStream.write(value);
+        outputStream.write(value >>> 8);
+    }
+
+    private static void writeInt(OutputStream outputStream, int value) throws IOException {
+        writeShort(outputStream, value);
+        writeShort(outputStream, value >>> 16);
+    }
+}
@@ -0,0 +1,172 @@
+package net.bytebuddy.dynamic;
+
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.ClassFileArchiveTestHelper.Other;
+import net.bytebuddy.dynamic.ClassFileArchiveTestHelper.Sample;
+import net.bytebuddy.pool.TypePool;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static net.bytebuddy.dynamic.ClassFileArchiveTestHelper.write;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ClassFileLocatorForSnapshotFileTest {
+
+    private static final String FOO = "foo", BAR = "bar";
+
+    private File file, jar, other, folder;
+
+    @Before
+    public void setUp() throws Exception {
+        file = File.createTempFile(FOO, BAR);
+        jar = File.createTempFile(FOO, BAR);
+        write(jar, Sample.class, Other.class);
+        other = File.createTempFile(FOO, BAR);
+        write(other, Sample.class);
+        folder = File.createTempFile(FOO, BAR);
+        assertThat(folder.delete(), is(true));
+        assertThat(folder.mkdir(), is(true));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        file.delete();
+        jar.delete();
+        other.delete();
+        folder.delete();
+    }
+
+    @Test
+    public void testLocation() throws Exception {
+        ClassFileLocator.ForSnapshotFile.write(file, Arrays.asList(Sample.class.getName(), Other.class.getName(), FOO), Arrays.asList(folder, jar, other));
+        ClassFileLocator.ForSnapshotFile classFileLocator = new ClassFileLocator.ForSnapshotFile(file, Arrays.asList(folder, jar, other));
+        try {
+            assertThat(classFileLocator.size(), is(2));
+            ClassFileLocator.Resolution resolution = classFileLocator.locate(Sample.class.getName());
+            assertThat(resolution, instanceOf(ClassFileLocator.Resolution.ForStrippedClassFile.class));
+            assertThat(resolution.isResolved(), is(true));
+            assertThat(resolution.resolve().length < ClassFileLocator.ForClassLoader.read(Sample.class).length, is(true));
+            assertThat(classFileLocator.locate(Other.class.getName()).isResolved(), is(true));
+            assertThat(classFileLocator.locate(FOO).isResolved(), is(false));
+            assertThat(classFileLocator.locate(Object.class.getName()).isResolved(), is(false));
+        } finally {
+            classFileLocator.close();
+        }
+    }
+
+    @Test
+    public void testPrecedenceOfClassPath() throws Exception {
+        ClassFileLocator.ForSnapshotFile.write(file, Collections.singletonList(Sample.class.getName()), Arrays.asList(other, jar));
+        assertThat(new ClassFileLocator.ForSnapshotFile(file, Arrays.asList(other, jar)).size(), is(1));
+        assertThat(new ClassFileLocator.ForSnapshotFile(file, Collections.singletonList(jar)).size(), is(0));
+        assertThat(new ClassFileLocator.ForSnapshotFile(file, Collections.singletonList(other)).size(), is(1));
+    }
+
+    @Test
+    public void testNewJarOnClassPathShadowsSnapshot() throws Exception {
+        ClassFileLocator.ForSnapshotFile.write(file, Collections.singletonList(Sample.class.getName()), Collections.singletonList(jar));
+        ClassFileLocator.ForSnapshotFile classFileLocator = new ClassFileLocator.ForSnapshotFile(file, Arrays.asList(other, jar));
+        assertThat(classFileLocator.size(), is(0));
+        assertThat(classFileLocator.locate(Sample.class.getName()).isResolved(), is(false));
+    }
+
+    @Test
+    public void testUnchangedJarOnClassPathDoesNotShadowSnapshot() throws Exception {
+        ClassFileLocator.ForSnapshotFile.write(file, Collections.singletonList(Other.class.getName()), Arrays.asList(other, jar));
+        assertThat(new ClassFileLocator.ForSnapshotFile(file, Arrays.asList(other, jar)).size(), is(1));
+        assertThat(new ClassFileLocator.ForSnapshotFile(file, Arrays.asList(other, folder, jar)).size(), is(0));
+        assertThat(new ClassFileLocator.ForSnapshotFile(file, Arrays.asList(other, new File(folder, FOO), jar)).size(), is(1));
+    }
+
+    @Test
+    public void testFolderShadowsJar() throws Exception {
+        File classFile = new File(folder, Sample.class.getName().replace('.', File.separatorChar) + ".class");
+        assertThat(classFile.getParentFile().mkdirs(), is(true));
+        FileOutputStream outputStream = new FileOutputStream(classFile);
+        try {
+            outputStream.write(ClassFileLocator.ForClassLoader.read(Sample.class));
+        } finally {
+            outputStream.close();
+        }
+        try {
+            ClassFileLocator.ForSnapshotFile.write(file, Arrays.asList(Sample.class.getName(), Other.class.getName()), Arrays.asList(folder, jar));
+            ClassFileLocator.ForSnapshotFile classFileLocator = new ClassFileLocator.ForSnapshotFile(file, Arrays.asList(folder, jar));
+            assertThat(classFileLocator.size(), is(1));
+            assertThat(classFileLocator.locate(Sample.class.getName()).isResolved(), is(false));
+            assertThat(classFileLocator.locate(Other.class.getName()).isResolved(), is(true));
+        } finally {
+            File current = classFile;
+            while (!current.equals(folder)) {
+                assertThat(current.delete(), is(true));
+                current = current.getParentFile();
+            }
+        }
+    }
+
+    @Test
+    public void testChangedJarIsIgnored() throws Exception {
+        ClassFileLocator.ForSnapshotFile.write(file, Arrays.asList(Sample.class.getName(), Other.class.getName()), Arrays.asList(jar, other));
+        assertThat(jar.setLastModified(jar.lastModified() - 60000L), is(true));
+        ClassFileLocator.ForSnapshotFile classFileLocator = new ClassFileLocator.ForSnapshotFile(file, Arrays.asList(jar, other));
+        assertThat(classFileLocator.size(), is(0));
+        assertThat(classFileLocator.locate(Sample.class.getName()).isResolved(), is(false));
+    }
+
+    @Test
+    public void testJarNotOnClassPathIsIgnored() throws Exception {
+        ClassFileLocator.ForSnapshotFile.write(file, Arrays.asList(Sample.class.getName(), Other.class.getName()), Collections.singletonList(jar));
+        assertThat(new ClassFileLocator.ForSnapshotFile(file, Collections.singletonList(jar)).size(), is(2));
+        assertThat(new ClassFileLocator.ForSnapshotFile(file, Collections.singletonList(other)).size(), is(0));
+    }
+
+    @Test
+    public void testTypePool() throws Exception {
+        ClassFileLocator.ForSnapshotFile.write(file, Collections.singletonList(Sample.class.getName()), Collections.singletonList(jar));
+        TypeDescription typeDescription = TypePool.Default.of(new ClassFileLocator.Compound(ClassFileLocator.ForSnapshotFile.of(file, Collections.singletonList(jar)),
+                ClassFileLocator.ForClassLoader.ofSystemLoader())).describe(Sample.class.getName()).resolve();
+        assertThat(typeDescription, is(TypeDescription.ForLoadedType.of(Sample.class)));
+        assertThat(typeDescription.getInterfaces(), is(TypeDescription.ForLoadedType.of(Sample.class).getInterfaces()));
+    }
+
+    @Test
+    public void testMissingFile() throws Exception {
+        assertThat(file.delete(), is(true));
+        assertThat(ClassFileLocator.ForSnapshotFile.of(file, Collections.singletonList(jar)), is((ClassFileLocator) ClassFileLocator.NoOp.INSTANCE));
+    }
+
+    @Test(expected = IOException.class)
+    public void testIllegalFile() throws Exception {
+        FileOutputStream outputStream = new FileOutputStream(file);
+        try {
+            outputStream.write(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12});
+        } finally {
+            outputStream.close();
+        }
+        new ClassFileLocator.ForSnapshotFile(file, Collections.singletonList(jar));
+    }
+
+    @Test(expected = IOException.class)
+    public void testMalformedFile() throws Exception {
+        FileOutputStream outputStream = new FileOutputStream(file);
+        try {
+            outputStream.write(new byte[]{(byte) 0xB1, (byte) 0xD1, (byte) 0x5A, (byte) 0xB5, 0, 0, 0, 1, 0, 0, 0, 1, 0, 0, 0, 100});
+        } finally {
+            outputStream.close();
+        }
+        new ClassFileLocator.ForSnapshotFile(file, Collections.singletonList(jar));
+    }
+
+    @Test(expected = IOException.class)
+    public void testEmptyFile() throws Exception {
+        ClassFileLocator.ForSnapshotFile.of(file, Collections.singletonList(jar));
+    }
+}
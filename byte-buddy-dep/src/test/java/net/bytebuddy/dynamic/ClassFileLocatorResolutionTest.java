@@ -3,6 +3,8 @@ package net.bytebuddy.dynamic;
 import org.hamcrest.MatcherAssert;
 import org.junit.Test;
 
+import java.nio.ByteBuffer;
+
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 
@@ -31,4 +33,14 @@ public class ClassFileLocatorResolutionTest {
     public void testExplicitGetData() throws Exception {
         assertThat(new ClassFileLocator.Resolution.Explicit(DATA).resolve(), is(DATA));
     }
+
+    @Test
+    public void testByteBuffer() throws Exception {
+        ClassFileLocator.Resolution.ForByteBuffer resolution = new ClassFileLocator.Resolution.ForByteBuffer(ByteBuffer.wrap(new byte[]{0, 1, 2, 3}, 1, 3));
+        assertThat(resolution.isResolved(), is(true));
+        assertThat(resolution.resolve(), is(DATA));
+        assertThat(resolution.resolve(), is(DATA));
+        assertThat(resolution.getByteBuffer().remaining(), is(DATA.length));
+        assertThat(resolution.getByteBuffer().isReadOnly(), is(true));
+    }
 }
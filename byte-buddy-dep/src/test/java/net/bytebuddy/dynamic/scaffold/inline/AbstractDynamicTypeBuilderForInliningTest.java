@@ -365,6 +365,26 @@ public abstract class AbstractDynamicTypeBuilderForInliningTest extends Abstract
         assertThat(type.getDeclaredField(FOO).getModifiers(), is(Opcodes.ACC_PUBLIC));
     }
 
+    @Test
+    public void testUnmodified() throws Exception {
+        AsmVisitorWrapper.ForDeclaredMethods.MethodVisitorWrapper methodVisitorWrapper = mock(AsmVisitorWrapper.ForDeclaredMethods.MethodVisitorWrapper.class);
+        assertThat(create(Transform.class).isUnmodified(), is(true));
+        assertThat(create(Transform.class).visit(new AsmVisitorWrapper.ForDeclaredMethods().method(named(BAR), methodVisitorWrapper)).isUnmodified(), is(true));
+        assertThat(create(Transform.class).method(named(BAR)).intercept(StubMethod.INSTANCE).isUnmodified(), is(true));
+        assertThat(create(Transform.class).field(named(BAR)).transform(Transformer.ForField.withModifiers(Visibility.PUBLIC)).isUnmodified(), is(true));
+        assertThat(create(Transform.class).visit(new AsmVisitorWrapper.ForDeclaredMethods().method(named(FOO), methodVisitorWrapper)).isUnmodified(), is(false));
+        assertThat(create(Transform.class).visit(mock(AsmVisitorWrapper.class)).isUnmodified(), is(false));
+        assertThat(create(Transform.class).method(named(FOO)).intercept(StubMethod.INSTANCE).isUnmodified(), is(false));
+        assertThat(create(Transform.class).invokable(isTypeInitializer()).intercept(StubMethod.INSTANCE).isUnmodified(), is(false));
+        assertThat(create(Transform.class).initializer(new ByteCodeAppender.Simple()).isUnmodified(), is(false));
+        assertThat(create(Transform.class).field(named(FOO)).transform(Transformer.ForField.withModifiers(Visibility.PUBLIC)).isUnmodified(), is(false));
+        assertThat(create(Transform.class).defineField(BAR, Object.class).isUnmodified(), is(false));
+        assertThat(create(Transform.class).defineMethod(BAR, void.class).intercept(StubMethod.INSTANCE).isUnmodified(), is(false));
+        assertThat(create(Transform.class).annotateType(AnnotationDescription.Builder.ofType(SampleAnnotation.class).build()).isUnmodified(), is(false));
+        assertThat(create(Transform.class).modifiers(Visibility.PUBLIC, TypeManifestation.FINAL).isUnmodified(), is(false));
+        verifyNoMoreInteractions(methodVisitorWrapper);
+    }
+
     @Test
     @SuppressWarnings("unchecked")
     public void testReaderHint() throws Exception {
@@ -241,6 +241,25 @@ public class DecoratingDynamicTypeBuilderTest {
         new ByteBuddy().decorate(Foo.class).initializer(mock(LoadedTypeInitializer.class));
     }
 
+    @Test
+    public void testUnmodified() throws Exception {
+        assertThat(new ByteBuddy().decorate(Foo.class).isUnmodified(), is(true));
+        assertThat(new ByteBuddy()
+                .decorate(Foo.class)
+                .visit(new AsmVisitorWrapper.ForDeclaredMethods().method(named(FOO + BAR), mock(AsmVisitorWrapper.ForDeclaredMethods.MethodVisitorWrapper.class)))
+                .isUnmodified(), is(true));
+        assertThat(new ByteBuddy()
+                .decorate(Foo.class)
+                .visit(new AsmVisitorWrapper.ForDeclaredMethods().method(named(FOO), mock(AsmVisitorWrapper.ForDeclaredMethods.MethodVisitorWrapper.class)))
+                .isUnmodified(), is(false));
+        assertThat(new ByteBuddy()
+                .decorate(Foo.class)
+                .visit(new AsmVisitorWrapper.ForDeclaredMethods().method(named(BAR), mock(AsmVisitorWrapper.ForDeclaredMethods.MethodVisitorWrapper.class)))
+                .isUnmodified(), is(false));
+        assertThat(new ByteBuddy().decorate(Foo.class).visit(mock(AsmVisitorWrapper.class)).isUnmodified(), is(false));
+        assertThat(new ByteBuddy().decorate(Foo.class).annotateType(AnnotationDescription.Builder.ofType(Qux.class).build()).isUnmodified(), is(false));
+    }
+
     @Bar
     public static class Foo {
 
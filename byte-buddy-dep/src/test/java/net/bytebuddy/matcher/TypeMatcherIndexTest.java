@@ -0,0 +1,99 @@
+package net.bytebuddy.matcher;
+
+import net.bytebuddy.description.type.TypeDescription;
+import org.junit.Test;
+
+import java.io.Serializable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static net.bytebuddy.matcher.ElementMatchers.*;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class TypeMatcherIndexTest {
+
+    private static final String FOO = "foo", BAR = "bar";
+
+    @Test
+    public void testName() throws Exception {
+        assertThat(TypeMatcherIndex.of(named(FOO)), is(keys(new TypeMatcherIndex.Key(TypeMatcherIndex.Key.Sort.NAME, FOO))));
+        assertThat(TypeMatcherIndex.of(ElementMatchers.is(TypeDescription.ForLoadedType.of(Object.class))),
+                is(keys(new TypeMatcherIndex.Key(TypeMatcherIndex.Key.Sort.NAME, Object.class.getName()))));
+        assertThat(TypeMatcherIndex.of(namedOneOf(FOO, BAR)), is(keys(new TypeMatcherIndex.Key(TypeMatcherIndex.Key.Sort.NAME, FOO),
+                new TypeMatcherIndex.Key(TypeMatcherIndex.Key.Sort.NAME, BAR))));
+        assertThat(TypeMatcherIndex.of(nameStartsWith(FOO)), is(keys(new TypeMatcherIndex.Key(TypeMatcherIndex.Key.Sort.PREFIX, FOO))));
+        assertThat(TypeMatcherIndex.of(nameContains(FOO)), nullValue(Set.class));
+        assertThat(TypeMatcherIndex.of(mock(ElementMatcher.class)), nullValue(Set.class));
+    }
+
+    @Test
+    public void testAnnotationAndSuperType() throws Exception {
+        assertThat(TypeMatcherIndex.of(isAnnotatedWith(named(FOO))), is(keys(new TypeMatcherIndex.Key(TypeMatcherIndex.Key.Sort.ANNOTATION, FOO))));
+        assertThat(TypeMatcherIndex.of(isAnnotatedWith(Retention.class)),
+                is(keys(new TypeMatcherIndex.Key(TypeMatcherIndex.Key.Sort.ANNOTATION, Retention.class.getName()))));
+        assertThat(TypeMatcherIndex.of(isAnnotatedWith(nameStartsWith(FOO))), nullValue(Set.class));
+        assertThat(TypeMatcherIndex.of(hasSuperType(named(FOO))), is(keys(new TypeMatcherIndex.Key(TypeMatcherIndex.Key.Sort.SUPER_TYPE, FOO))));
+        assertThat(TypeMatcherIndex.of(isSubTypeOf(Object.class)), nullValue(Set.class));
+    }
+
+    @Test
+    public void testJunctions() throws Exception {
+        assertThat(TypeMatcherIndex.of(hasSuperType(named(BAR)).and(named(FOO))), is(keys(new TypeMatcherIndex.Key(TypeMatcherIndex.Key.Sort.NAME, FOO))));
+        assertThat(TypeMatcherIndex.of(nameContains(BAR).and(named(FOO))), is(keys(new TypeMatcherIndex.Key(TypeMatcherIndex.Key.Sort.NAME, FOO))));
+        assertThat(TypeMatcherIndex.of(hasSuperType(named(BAR)).or(named(FOO))), is(keys(new TypeMatcherIndex.Key(TypeMatcherIndex.Key.Sort.NAME, FOO),
+                new TypeMatcherIndex.Key(TypeMatcherIndex.Key.Sort.SUPER_TYPE, BAR))));
+        assertThat(TypeMatcherIndex.of(nameContains(BAR).or(named(FOO))), nullValue(Set.class));
+        assertThat(TypeMatcherIndex.ofName(new StringMatcher(FOO, StringMatcher.Mode.EQUALS_FULLY).or(new StringMatcher(BAR, StringMatcher.Mode.STARTS_WITH))),
+                is(keys(new TypeMatcherIndex.Key(TypeMatcherIndex.Key.Sort.NAME, FOO), new TypeMatcherIndex.Key(TypeMatcherIndex.Key.Sort.PREFIX, BAR))));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCandidates() throws Exception {
+        TypeMatcherIndex index = new TypeMatcherIndex(Arrays.asList(TypeMatcherIndex.of(named(Sample.class.getName())),
+                TypeMatcherIndex.of(named(FOO)),
+                TypeMatcherIndex.of(nameStartsWith(Sample.class.getPackage().getName())),
+                TypeMatcherIndex.of(nameStartsWith(FOO)),
+                TypeMatcherIndex.of(isAnnotatedWith(SampleAnnotation.class)),
+                TypeMatcherIndex.of(isAnnotatedWith(named(FOO))),
+                TypeMatcherIndex.of(hasSuperType(named(Serializable.class.getName()))),
+                TypeMatcherIndex.of(hasSuperType(named(FOO))),
+                TypeMatcherIndex.of(mock(ElementMatcher.class)),
+                Collections.<TypeMatcherIndex.Key>emptySet()));
+        BitSet candidates = new BitSet();
+        candidates.set(0);
+        candidates.set(2);
+        candidates.set(4);
+        candidates.set(6);
+        candidates.set(8);
+        assertThat(index.candidates(TypeDescription.ForLoadedType.of(Sample.class)), is(candidates));
+    }
+
+    private static Set<TypeMatcherIndex.Key> keys(TypeMatcherIndex.Key... key) {
+        return new HashSet<TypeMatcherIndex.Key>(Arrays.asList(key));
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface SampleAnnotation {
+        /* empty */
+    }
+
+    @SampleAnnotation
+    public static class Sample extends SampleBase {
+
+        private static final long serialVersionUID = 1L;
+    }
+
+    public static class SampleBase implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+    }
+}
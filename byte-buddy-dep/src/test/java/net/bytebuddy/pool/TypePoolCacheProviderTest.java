@@ -1,5 +1,6 @@
 package net.bytebuddy.pool;
 
+import net.bytebuddy.dynamic.ClassFileLocator;
 import net.bytebuddy.matcher.ElementMatchers;
 import org.junit.Rule;
 import org.junit.Test;
@@ -7,9 +8,15 @@ import org.junit.rules.MethodRule;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.Collections;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
 
+import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -17,7 +24,7 @@ import static org.mockito.Mockito.*;
 
 public class TypePoolCacheProviderTest {
 
-    private static final String FOO = "foo", BAR = "bar";
+    private static final String FOO = "foo", BAR = "bar", QUX = "qux";
 
     @Rule
     public MethodRule mockitoRule = MockitoJUnit.rule().silent();
@@ -55,6 +62,32 @@ public class TypePoolCacheProviderTest {
         assertThat(cacheProvider.getStorage(), sameInstance(storage));
     }
 
+    @Test
+    public void testSimpleSnapshot() throws Exception {
+        File jar = File.createTempFile(FOO, BAR), file = File.createTempFile(FOO, BAR);
+        try {
+            JarOutputStream outputStream = new JarOutputStream(new FileOutputStream(jar));
+            try {
+                outputStream.putNextEntry(new JarEntry(TypePoolCacheProviderTest.class.getName().replace('.', '/') + ".class"));
+                outputStream.write(ClassFileLocator.ForClassLoader.read(TypePoolCacheProviderTest.class));
+                outputStream.closeEntry();
+            } finally {
+                outputStream.close();
+            }
+            TypePool.CacheProvider.Simple cacheProvider = new TypePool.CacheProvider.Simple();
+            when(resolution.isResolved()).thenReturn(true);
+            cacheProvider.register(TypePoolCacheProviderTest.class.getName(), resolution);
+            cacheProvider.register(FOO, new TypePool.Resolution.Illegal(FOO));
+            cacheProvider.snapshot(file, Collections.singletonList(jar));
+            ClassFileLocator.ForSnapshotFile classFileLocator = new ClassFileLocator.ForSnapshotFile(file, Collections.singletonList(jar));
+            assertThat(classFileLocator.size(), is(1));
+            assertThat(classFileLocator.locate(TypePoolCacheProviderTest.class.getName()).isResolved(), is(true));
+        } finally {
+            file.delete();
+            jar.delete();
+        }
+    }
+
     @Test
     public void testSimpleSoftlyReferenced() throws Exception {
         TypePool.CacheProvider simple = new TypePool.CacheProvider.Simple.UsingSoftReference();
@@ -93,4 +126,68 @@ public class TypePoolCacheProviderTest {
         verify(matched).clear();
         verify(unmatched).clear();
     }
+
+    @Test
+    public void testBounded() throws Exception {
+        TypePool.CacheProvider.Bounded bounded = new TypePool.CacheProvider.Bounded(2);
+        assertThat(bounded.find(FOO), nullValue(TypePool.Resolution.class));
+        assertThat(bounded.register(FOO, resolution), sameInstance(resolution));
+        assertThat(bounded.find(FOO), sameInstance(resolution));
+        TypePool.Resolution resolution = mock(TypePool.Resolution.class);
+        assertThat(bounded.register(FOO, resolution), sameInstance(this.resolution));
+        assertThat(bounded.find(FOO), sameInstance(this.resolution));
+        assertThat(bounded.getSize(), is(1));
+        assertThat(bounded.getWeight(), is(1L));
+        assertThat(bounded.getMaximumWeight(), is(2L));
+        assertThat(bounded.getHitCount(), is(2L));
+        assertThat(bounded.getMissCount(), is(1L));
+        assertThat(bounded.getLoadCount(), is(1L));
+        assertThat(bounded.getEvictionCount(), is(0L));
+        assertThat(bounded.getTotalLoadTime() >= 0L, is(true));
+        bounded.clear();
+        assertThat(bounded.find(FOO), nullValue(TypePool.Resolution.class));
+        assertThat(bounded.register(FOO, resolution), sameInstance(resolution));
+        assertThat(bounded.find(FOO), sameInstance(resolution));
+        assertThat(bounded.getWeight(), is(1L));
+    }
+
+    @Test
+    public void testBoundedEvictsInfrequentlyUsed() throws Exception {
+        TypePool.CacheProvider.Bounded bounded = new TypePool.CacheProvider.Bounded(2);
+        TypePool.Resolution first = mock(TypePool.Resolution.class), second = mock(TypePool.Resolution.class);
+        bounded.register(FOO, first);
+        bounded.register(BAR, second);
+        assertThat(bounded.find(FOO), sameInstance(first));
+        bounded.register(QUX, resolution);
+        assertThat(bounded.getSize(), is(2));
+        assertThat(bounded.getEvictionCount(), is(1L));
+        assertThat(bounded.find(FOO), sameInstance(first));
+        assertThat(bounded.find(BAR), nullValue(TypePool.Resolution.class));
+        assertThat(bounded.find(QUX), sameInstance(resolution));
+    }
+
+    @Test
+    public void testBoundedWeigher() throws Exception {
+        TypePool.CacheProvider.Bounded.Weigher weigher = mock(TypePool.CacheProvider.Bounded.Weigher.class);
+        when(weigher.weigh(FOO, resolution)).thenReturn(3L);
+        when(weigher.weigh(BAR, resolution)).thenReturn(2L);
+        TypePool.CacheProvider.Bounded bounded = new TypePool.CacheProvider.Bounded(4, weigher);
+        bounded.register(FOO, resolution);
+        assertThat(bounded.getWeight(), is(3L));
+        bounded.register(BAR, resolution);
+        assertThat(bounded.getWeight(), is(2L));
+        assertThat(bounded.find(FOO), nullValue(TypePool.Resolution.class));
+        assertThat(bounded.find(BAR), sameInstance(resolution));
+    }
+
+    @Test
+    public void testBoundedWithObjectType() throws Exception {
+        TypePool.CacheProvider bounded = TypePool.CacheProvider.Bounded.withObjectType(1);
+        assertThat(bounded.find(Object.class.getName()).resolve().represents(Object.class), is(true));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBoundedIllegalWeight() throws Exception {
+        new TypePool.CacheProvider.Bounded(0);
+    }
 }
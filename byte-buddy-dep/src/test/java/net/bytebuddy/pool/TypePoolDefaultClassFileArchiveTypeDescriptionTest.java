@@ -0,0 +1,69 @@
+package net.bytebuddy.pool;
+
+import net.bytebuddy.description.type.AbstractTypeDescriptionTest;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.ClassFileLocator;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Collections;
+
+import static net.bytebuddy.matcher.ElementMatchers.is;
+
+public class TypePoolDefaultClassFileArchiveTypeDescriptionTest extends AbstractTypeDescriptionTest {
+
+    protected TypeDescription describe(Class<?> type) {
+        try {
+            File file = File.createTempFile("archive", ".bin");
+            try {
+                Class<?> componentType = type;
+                while (componentType.isArray()) {
+                    componentType = componentType.getComponentType();
+                }
+                ClassFileLocator.ForClassFileArchive.write(file, componentType.isPrimitive()
+                        ? Collections.<String, byte[]>emptyMap()
+                        : Collections.singletonMap(componentType.getName(), ClassFileLocator.ForClassLoader.read(componentType)));
+                TypePool typePool = new TypePool.Default(TypePool.CacheProvider.NoOp.INSTANCE,
+                        new ClassFileLocator.Compound(new ClassFileLocator.ForClassFileArchive(file), ClassFileLocator.ForClassLoader.of(type.getClassLoader())),
+                        TypePool.Default.ReaderMode.FAST);
+                try {
+                    return typePool.describe(type.getName()).resolve();
+                } finally {
+                    typePool.clear();
+                }
+            } finally {
+                if (!file.delete()) {
+                    file.deleteOnExit(); // Mapped files cannot be deleted on some platforms.
+                }
+            }
+        } catch (IOException exception) {
+            throw new AssertionError(exception);
+        }
+    }
+
+    protected TypeDescription.Generic describeType(Field field) {
+        return describe(field.getDeclaringClass()).getDeclaredFields().filter(is(field)).getOnly().getType();
+    }
+
+    protected TypeDescription.Generic describeReturnType(Method method) {
+        return describe(method.getDeclaringClass()).getDeclaredMethods().filter(is(method)).getOnly().getReturnType();
+    }
+
+    protected TypeDescription.Generic describeParameterType(Method method, int index) {
+        return describe(method.getDeclaringClass()).getDeclaredMethods().filter(is(method)).getOnly().getParameters().get(index).getType();
+    }
+
+    protected TypeDescription.Generic describeExceptionType(Method method, int index) {
+        return describe(method.getDeclaringClass()).getDeclaredMethods().filter(is(method)).getOnly().getExceptionTypes().get(index);
+    }
+
+    protected TypeDescription.Generic describeSuperClass(Class<?> type) {
+        return describe(type).getSuperClass();
+    }
+
+    protected TypeDescription.Generic describeInterfaceType(Class<?> type, int index) {
+        return describe(type).getInterfaces().get(index);
+    }
+}
@@ -1,15 +1,34 @@
 package net.bytebuddy.pool;
 
+import net.bytebuddy.description.method.MethodDescription;
 import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.dynamic.ClassFileLocator;
 import org.hamcrest.CoreMatchers;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.Opcodes;
 
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static net.bytebuddy.matcher.ElementMatchers.named;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.*;
@@ -76,6 +95,216 @@ public class TypePoolDefaultTest {
         verifyNoMoreInteractions(classFileLocator);
     }
 
+    @Test
+    public void testLazyReaderModeParsesMembersFromRetainedClassFile() throws Exception {
+        ClassFileLocator classFileLocator = spy(ClassFileLocator.ForClassLoader.ofSystemLoader());
+        TypePool typePool = new TypePool.Default(new TypePool.CacheProvider.Simple(), classFileLocator, TypePool.Default.ReaderMode.LAZY);
+        TypeDescription typeDescription = typePool.describe(Object.class.getName()).resolve();
+        TypeDescription fastTypeDescription = new TypePool.Default(TypePool.CacheProvider.NoOp.INSTANCE,
+                ClassFileLocator.ForClassLoader.ofSystemLoader(),
+                TypePool.Default.ReaderMode.FAST).describe(Object.class.getName()).resolve();
+        assertThat(typeDescription.getDeclaredMethods(), CoreMatchers.is(fastTypeDescription.getDeclaredMethods()));
+        assertThat(typeDescription.getDeclaredFields(), CoreMatchers.is(fastTypeDescription.getDeclaredFields()));
+        assertThat(typePool.describe(DeprecationSample.class.getName()).resolve().getDeclaredFields().filter(named("foo")).getOnly().getModifiers(), is(0));
+        verify(classFileLocator).locate(Object.class.getName());
+        verify(classFileLocator).locate(DeprecationSample.class.getName());
+    }
+
+    @Test
+    public void testDescribeAll() throws Exception {
+        Map<String, TypePool.Resolution> resolutions = ((TypePool.Default) typePool).describeAll(Arrays.asList(String.class.getName(),
+                "foo",
+                String.class.getName()));
+        assertThat(resolutions.size(), is(2));
+        assertThat(resolutions.get(String.class.getName()).resolve(), CoreMatchers.is(TypeDescription.ForLoadedType.of(String.class)));
+        assertThat(resolutions.get("foo").isResolved(), is(false));
+    }
+
+    @Test
+    public void testDescribeAllConcurrently() throws Exception {
+        ClassFileLocator classFileLocator = spy(ClassFileLocator.ForClassLoader.ofSystemLoader());
+        TypePool.Default typePool = (TypePool.Default) TypePool.Default.of(classFileLocator);
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            Map<String, TypePool.Resolution> resolutions = typePool.describeAll(Arrays.asList(String.class.getName(), Integer.class.getName()), executorService);
+            assertThat(resolutions.size(), is(2));
+            assertThat(resolutions.get(String.class.getName()).resolve(), CoreMatchers.is(TypeDescription.ForLoadedType.of(String.class)));
+            assertThat(resolutions.get(Integer.class.getName()).resolve(), CoreMatchers.is(TypeDescription.ForLoadedType.of(Integer.class)));
+        } finally {
+            executorService.shutdown();
+        }
+        verify(classFileLocator).locate(String.class.getName());
+        verify(classFileLocator).locate(Integer.class.getName());
+        verifyNoMoreInteractions(classFileLocator);
+    }
+
+    @Test
+    public void testDescribeAllWithSuperTypes() throws Exception {
+        ClassFileLocator classFileLocator = spy(ClassFileLocator.ForClassLoader.ofSystemLoader());
+        TypePool.Default typePool = (TypePool.Default) TypePool.Default.of(classFileLocator);
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            Map<String, TypePool.Resolution> resolutions = typePool.describeAll(Collections.singleton(HierarchySample.class.getName()), executorService, true);
+            assertThat(resolutions.size(), is(1));
+            assertThat(resolutions.get(HierarchySample.class.getName()).resolve().represents(HierarchySample.class), is(true));
+        } finally {
+            executorService.shutdown();
+        }
+        verify(classFileLocator).locate(HierarchySample.class.getName());
+        verify(classFileLocator).locate(DeprecationSample.class.getName());
+        verify(classFileLocator).locate(Runnable.class.getName());
+        verify(classFileLocator).locate(Object.class.getName());
+        verifyNoMoreInteractions(classFileLocator);
+        assertThat(typePool.describe(HierarchySample.class.getName()).resolve().isAssignableTo(Runnable.class), is(true));
+        verifyNoMoreInteractions(classFileLocator);
+    }
+
+    @Test
+    public void testDescribeAsyncDeduplicatesPendingDescriptions() throws Exception {
+        ClassFileLocator classFileLocator = spy(ClassFileLocator.ForClassLoader.ofSystemLoader());
+        TypePool.Default typePool = (TypePool.Default) TypePool.Default.WithLazyResolution.of(classFileLocator);
+        final List<Runnable> runnables = new ArrayList<Runnable>();
+        Executor executor = new Executor() {
+            public void execute(Runnable runnable) {
+                runnables.add(runnable);
+            }
+        };
+        Future<TypePool.Resolution> future = typePool.describeAsync(String.class.getName(), executor);
+        assertThat(typePool.describeAsync(String.class.getName(), executor), CoreMatchers.is(future));
+        assertThat(future.isDone(), is(false));
+        assertThat(runnables.size(), is(1));
+        verifyNoMoreInteractions(classFileLocator);
+        runnables.get(0).run();
+        assertThat(future.isDone(), is(true));
+        assertThat(future.get().resolve(), CoreMatchers.is(TypeDescription.ForLoadedType.of(String.class)));
+        verify(classFileLocator).locate(String.class.getName());
+        assertThat(typePool.describeAsync(String.class.getName(), executor), not(future));
+        assertThat(runnables.size(), is(2));
+    }
+
+    @Test
+    public void testSymbolTableSharesStrings() throws Exception {
+        TypePool.Default.SymbolTable.Simple symbolTable = new TypePool.Default.SymbolTable.Simple();
+        TypePool typePool = new TypePool.Default(new TypePool.CacheProvider.Simple(),
+                ClassFileLocator.ForClassLoader.ofSystemLoader(),
+                TypePool.Default.ReaderMode.FAST,
+                symbolTable,
+                TypePool.Empty.INSTANCE);
+        MethodDescription first = typePool.describe(HierarchySample.class.getName()).resolve().getDeclaredMethods().filter(named("run")).getOnly();
+        MethodDescription second = typePool.describe(Runnable.class.getName()).resolve().getDeclaredMethods().filter(named("run")).getOnly();
+        assertThat(first.getInternalName(), sameInstance(second.getInternalName()));
+        assertThat(symbolTable.size() > 0, is(true));
+        typePool.clear();
+        assertThat(symbolTable.size(), is(0));
+    }
+
+    @Test
+    public void testAssignabilityWithUnresolvableAncestor() throws Exception {
+        Map<String, byte[]> binaryRepresentations = new HashMap<String, byte[]>();
+        binaryRepresentations.put("foo.Bar", toClassFile("foo/Bar", "foo/Missing"));
+        binaryRepresentations.put("foo.Qux", toClassFile("foo/Qux", "foo/Bar"));
+        TypePool typePool = TypePool.Default.of(new ClassFileLocator.Compound(new ClassFileLocator.Simple(binaryRepresentations),
+                ClassFileLocator.ForClassLoader.ofSystemLoader()));
+        TypeDescription typeDescription = typePool.describe("foo.Qux").resolve();
+        assertThat(((TypePool.Default.LazyTypeDescription) typeDescription).getSuperTypeClosure(), nullValue(Set.class));
+        for (int index = 0; index < 2; index++) {
+            assertThat(typeDescription.isAssignableTo(typePool.describe("foo.Bar").resolve()), is(true));
+            assertThat(typeDescription.isAssignableTo(Object.class), is(true));
+        }
+        try {
+            typeDescription.isAssignableTo(Runnable.class);
+            fail();
+        } catch (TypePool.Resolution.NoSuchTypeException ignored) {
+            /* expected */
+        }
+    }
+
+    @Test
+    public void testSuperTypeClosure() throws Exception {
+        TypePool typePool = TypePool.Default.of(ClassFileLocator.ForClassLoader.ofSystemLoader());
+        TypeDescription typeDescription = typePool.describe(HierarchySample.class.getName()).resolve();
+        assertThat(((TypePool.Default.LazyTypeDescription) typeDescription).getSuperTypeClosure(), is((Set<String>) new HashSet<String>(Arrays.asList(
+                DeprecationSample.class.getName(),
+                Object.class.getName(),
+                Runnable.class.getName()))));
+        assertThat(typeDescription.isAssignableTo(Runnable.class), is(true));
+        assertThat(typeDescription.isAssignableTo(DeprecationSample.class), is(true));
+        assertThat(typeDescription.isAssignableTo(Serializable.class), is(false));
+    }
+
+    private static byte[] toClassFile(String internalName, String superClassInternalName) {
+        ClassWriter classWriter = new ClassWriter(0);
+        classWriter.visit(Opcodes.V1_5, Opcodes.ACC_PUBLIC, internalName, null, superClassInternalName, null);
+        classWriter.visitEnd();
+        return classWriter.toByteArray();
+    }
+
+    @Test
+    public void testNoOpSymbolTable() throws Exception {
+        String value = new String(new char[]{'f', 'o', 'o'});
+        assertThat(TypePool.Default.SymbolTable.NoOp.INSTANCE.intern(value), sameInstance(value));
+    }
+
+    @Test
+    public void testSimpleSymbolTable() throws Exception {
+        TypePool.Default.SymbolTable symbolTable = new TypePool.Default.SymbolTable.Simple();
+        String value = new String(new char[]{'f', 'o', 'o'});
+        assertThat(symbolTable.intern(value), sameInstance(value));
+        assertThat(symbolTable.intern(new String(new char[]{'f', 'o', 'o'})), sameInstance(value));
+    }
+
+    @Test
+    public void testSimpleSymbolTableCollection() throws Exception {
+        TypePool.Default.SymbolTable.Simple symbolTable = new TypePool.Default.SymbolTable.Simple();
+        String value = new String(new char[]{'f', 'o', 'o'});
+        assertThat(symbolTable.intern(value), sameInstance(value));
+        assertThat(symbolTable.size(), is(1));
+        value = null;
+        for (int index = 0; index < 2; index++) {
+            System.gc();
+            Thread.sleep(50L);
+        }
+        symbolTable.expungeStaleEntries();
+        assertThat(symbolTable.size(), is(0));
+    }
+
+    @Test
+    public void testSymbolTableCollectionWithBoundedCache() throws Exception {
+        TypePool.Default.SymbolTable.Simple symbolTable = new TypePool.Default.SymbolTable.Simple();
+        TypePool typePool = new TypePool.Default(new TypePool.CacheProvider.Bounded(1),
+                ClassFileLocator.ForClassLoader.ofSystemLoader(),
+                TypePool.Default.ReaderMode.FAST,
+                symbolTable,
+                TypePool.Empty.INSTANCE);
+        for (Class<?> type : new Class<?>[]{DeprecationSample.class, HierarchySample.class, TypePoolDefaultTest.class, Runnable.class}) {
+            typePool.describe(type.getName()).resolve().getDeclaredMethods().size();
+        }
+        int size = symbolTable.size();
+        for (int index = 0; index < 2; index++) {
+            System.gc();
+            Thread.sleep(50L);
+        }
+        symbolTable.expungeStaleEntries();
+        assertThat(symbolTable.size() < size, is(true));
+    }
+
+    @Test
+    public void testSimpleSymbolTableCompaction() throws Exception {
+        TypePool.Default.SymbolTable symbolTable = new TypePool.Default.SymbolTable.Simple();
+        assertThat(symbolTable.compact(new ArrayList<String>()), sameInstance(Collections.<String>emptyList()));
+        assertThat(symbolTable.compact(new ArrayList<String>(Collections.singletonList("foo"))), is(Collections.singletonList("foo")));
+        assertThat(symbolTable.compact(new HashMap<String, String>()), sameInstance(Collections.<String, String>emptyMap()));
+        assertThat(symbolTable.compact(new HashMap<String, String>(Collections.singletonMap("foo", "foo"))), is(Collections.singletonMap("foo", "foo")));
+    }
+
+    @Test
+    public void testNoOpSymbolTableCompaction() throws Exception {
+        List<String> list = new ArrayList<String>();
+        assertThat(TypePool.Default.SymbolTable.NoOp.INSTANCE.compact(list), sameInstance(list));
+        Map<String, String> map = new HashMap<String, String>();
+        assertThat(TypePool.Default.SymbolTable.NoOp.INSTANCE.compact(map), sameInstance(map));
+    }
+
     @Deprecated
     private static class DeprecationSample {
 
@@ -87,4 +316,11 @@ public class TypePoolDefaultTest {
             /* empty */
         }
     }
+
+    private static class HierarchySample extends DeprecationSample implements Runnable {
+
+        public void run() {
+            /* empty */
+        }
+    }
 }